@@ -0,0 +1,155 @@
+package io.github.bissim.fly.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.bissim.fly.Graph;
+
+/**
+ * {@code AnalysisBenchmark} measures the {@link Graph} methods analysing
+ * the whole graph, i.e. {@code getDiameter}, {@code connectedComponents},
+ * {@code getMST} and clustering coefficients.
+ * <br>
+ * Since graph caches such analyses, graph is modified back and forth
+ * before each invocation, outside of measurement, so that every
+ * invocation computes its analysis from scratch.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalysisBenchmark
+{
+	/**
+	 * The name of analysed graph
+	 * @since 1.2.0
+	 */
+	@Param({
+		"random-1", "random-2", "random-3",
+		"gnm-1000-5000", "gnm-10000-50000"
+	})
+	public String graph;
+	/**
+	 * The storage backend of analysed graph
+	 * @since 1.2.0
+	 */
+	@Param({"JGRAPHT", "CSR"})
+	public Graph.Backend backend;
+
+	/**
+	 * The analysed graph
+	 * @since 1.2.0
+	 */
+	private Graph<String, Object> flyGraph;
+
+	/**
+	 * The {@code setUp()} method loads the graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @throws Exception The graph cannot be loaded
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		this.flyGraph = Graphs.load(this.graph, false, false, this.backend);
+	}
+
+	/**
+	 * The {@code invalidate()} method discards the analyses cached on
+	 * graph by the previous invocation.
+	 *
+	 * @since 1.2.0
+	 */
+	@Setup(Level.Invocation)
+	public void invalidate()
+	{
+		Graphs.invalidate(this.flyGraph);
+	}
+
+	/**
+	 * The {@code getDiameter()} benchmark measures graph diameter.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph diameter
+	 */
+	@Benchmark
+	public double getDiameter()
+	{
+		return this.flyGraph.getDiameter();
+	}
+
+	/**
+	 * The {@code connectedComponents()} benchmark finds the connected
+	 * components of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The connected components
+	 */
+	@Benchmark
+	public Object[] connectedComponents()
+	{
+		return this.flyGraph.connectedComponents();
+	}
+
+	/**
+	 * The {@code getMST()} benchmark finds the minimum spanning tree of
+	 * graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The minimum spanning tree
+	 */
+	@Benchmark
+	public Graph<String, Object> getMST()
+	{
+		return this.flyGraph.getMST();
+	}
+
+	/**
+	 * The {@code getAverageClusteringCoefficient()} benchmark measures the
+	 * average clustering coefficient of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The average clustering coefficient
+	 */
+	@Benchmark
+	public double getAverageClusteringCoefficient()
+	{
+		return this.flyGraph.getAverageClusteringCoefficient();
+	}
+
+	/**
+	 * The {@code getGlobalClusteringCoefficient()} benchmark measures the
+	 * global clustering coefficient of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The global clustering coefficient
+	 */
+	@Benchmark
+	public double getGlobalClusteringCoefficient()
+	{
+		return this.flyGraph.getGlobalClusteringCoefficient();
+	}
+}
@@ -0,0 +1,73 @@
+package io.github.bissim.fly.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@code BenchmarkRunner} runs the benchmarks matching JMH command line
+ * options, all of them by default, along with the GC profiler, so that
+ * the allocation rate of each benchmark is reported next to its
+ * throughput and average time; help and list options are handled as by
+ * the JMH launcher.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public final class BenchmarkRunner
+{
+	/**
+	 * The {@code BenchmarkRunner()} constructor is not meant to be invoked.
+	 *
+	 * @since 1.2.0
+	 */
+	private BenchmarkRunner() {}
+
+	/**
+	 * The {@code main(String[])} method runs benchmarks or, as
+	 * {@code org.openjdk.jmh.Main} does, just prints the help, benchmarks,
+	 * profilers or result formats, if asked to by options.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param args The JMH command line options
+	 * @throws Exception The options are wrong or benchmarks failed
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if (commandLine.shouldHelp())
+		{
+			commandLine.showHelp();
+			return;
+		}
+		if (commandLine.shouldList())
+		{
+			new Runner(commandLine).list();
+			return;
+		}
+		if (commandLine.shouldListWithParams())
+		{
+			new Runner(commandLine).listWithParams(commandLine);
+			return;
+		}
+		if (commandLine.shouldListProfilers())
+		{
+			commandLine.listProfilers();
+			return;
+		}
+		if (commandLine.shouldListResultFormats())
+		{
+			commandLine.listResultFormats();
+			return;
+		}
+
+		Options options = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
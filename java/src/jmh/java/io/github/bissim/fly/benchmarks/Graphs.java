@@ -0,0 +1,210 @@
+package io.github.bissim.fly.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import io.github.bissim.fly.Graph;
+
+/**
+ * {@code Graphs} provides the graphs benchmarks run on, named either after
+ * an edge list of {@code dataset/} directory, e.g. {@code random-1}, or
+ * after the size of a G(n, m) random graph, e.g. {@code gnm-1000-5000}.
+ * <br>
+ * Dataset directory defaults to {@code ../dataset}, i.e. the one of
+ * repository when benchmarks are run from {@code java/} directory, and can
+ * be changed by {@code fly.dataset} system property. Random graphs are
+ * generated with a fixed seed, so that every run measures the same graphs.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+final class Graphs
+{
+	/**
+	 * The prefix of random graph names
+	 * @since 1.2.0
+	 */
+	private static final String GNM_PREFIX = "gnm-";
+	/**
+	 * The separator of edge list files
+	 * @since 1.2.0
+	 */
+	static final String SEPARATOR = " ";
+	/**
+	 * The seed of random graphs
+	 * @since 1.2.0
+	 */
+	private static final long SEED = 42L;
+
+	/**
+	 * The {@code Graphs()} constructor is not meant to be invoked.
+	 *
+	 * @since 1.2.0
+	 */
+	private Graphs() {}
+
+	/**
+	 * The {@code edgeList(String)} method returns the edge list file of
+	 * given graph, writing it into a temporary file for random graphs.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param name The graph name
+	 * @return The edge list file
+	 * @throws Exception The edge list cannot be written
+	 */
+	static Path edgeList(String name) throws Exception
+	{
+		if (!name.startsWith(GNM_PREFIX))
+		{
+			return Paths
+					.get(System.getProperty("fly.dataset", "../dataset"))
+					.resolve(name + ".txt");
+		}
+
+		Path file = Files.createTempFile(name, ".txt");
+		file.toFile().deleteOnExit();
+		Graph.exportGraph(
+				Graphs.load(name, false, false, Graph.Backend.CSR),
+				file.toString(),
+				SEPARATOR
+		);
+
+		return file;
+	}
+
+	/**
+	 * The {@code load(String, boolean, boolean, Graph.Backend)} method
+	 * loads given graph; random DAGs have edges from lower to higher node
+	 * labels.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param name The graph name
+	 * @param isDirected Denotes whether graph is directed
+	 * @param isAcyclic Denotes whether random graph has to be acyclic
+	 * @param backend The storage backend of graph
+	 * @return The loaded graph
+	 * @throws Exception The graph cannot be loaded
+	 */
+	static Graph<String, Object> load(
+			String name,
+			boolean isDirected,
+			boolean isAcyclic,
+			Graph.Backend backend
+	)
+			throws Exception
+	{
+		if (!name.startsWith(GNM_PREFIX))
+		{
+			return Graph.importGraph(
+					Graphs.edgeList(name).toString(),
+					SEPARATOR,
+					String.class,
+					false,
+					isDirected,
+					backend
+			);
+		}
+
+		String[] size = name.substring(GNM_PREFIX.length()).split("-");
+		final int n = Integer.parseInt(size[0]);
+		final int m = Integer.parseInt(size[1]);
+		if (m > (long) n * (n - 1) / 2)
+		{
+			throw new IllegalArgumentException("too many edges: " + name);
+		}
+
+		Random random = new Random(SEED);
+		Set<Long> edges = new HashSet<>();
+		Graph.Builder<String, Object> builder =
+				new Graph.Builder<String, Object>(String.class, isDirected, false)
+				.backend(backend)
+				.expectedNodes(n)
+				.expectedEdges(m);
+		for (int u = 0; u < n; u++)
+		{
+			builder.addNode(String.valueOf(u));
+		}
+		while (edges.size() < m)
+		{
+			int u = random.nextInt(n);
+			int v = random.nextInt(n);
+			if (u == v)
+			{
+				continue;
+			}
+			if ((isAcyclic || !isDirected) && u > v)
+			{
+				int swap = u;
+				u = v;
+				v = swap;
+			}
+			if (edges.add((long) u * n + v))
+			{
+				builder.addEdge(String.valueOf(u), String.valueOf(v));
+			}
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * The {@code sample(String[], int)} method picks given number of nodes
+	 * among given ones, with a fixed seed.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param nodes The nodes to pick from
+	 * @param count The number of nodes to pick
+	 * @return The picked nodes
+	 */
+	static String[] sample(String[] nodes, int count)
+	{
+		Random random = new Random(SEED);
+		String[] sample = new String[count];
+		for (int i = 0; i < count; i++)
+		{
+			sample[i] = nodes[random.nextInt(nodes.length)];
+		}
+
+		return sample;
+	}
+
+	/**
+	 * The {@code invalidate(Graph)} method modifies given graph back and
+	 * forth, so that information cached on it is computed again by the
+	 * next measurement; compact graphs are compacted again.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to invalidate
+	 */
+	static void invalidate(Graph<String, Object> graph)
+	{
+		final String SENTINEL = "sentinel";
+		graph.addNode(SENTINEL).removeNode(SENTINEL).compact();
+	}
+
+	/**
+	 * The {@code delete(Path)} method deletes given temporary file, if it
+	 * is one.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param file The file to delete
+	 * @throws IOException The file cannot be deleted
+	 */
+	static void delete(Path file) throws IOException
+	{
+		if (file.startsWith(Paths.get(System.getProperty("java.io.tmpdir"))))
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+}
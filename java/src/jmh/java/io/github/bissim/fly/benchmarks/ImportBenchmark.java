@@ -0,0 +1,107 @@
+package io.github.bissim.fly.benchmarks;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.bissim.fly.Graph;
+
+/**
+ * {@code ImportBenchmark} measures {@link Graph#importGraph} on edge list
+ * files, for both storage backends.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark
+{
+	/**
+	 * The name of imported graph
+	 * @since 1.2.0
+	 */
+	@Param({
+		"random-1", "random-2", "random-3",
+		"gnm-10000-50000", "gnm-100000-500000"
+	})
+	public String graph;
+	/**
+	 * The storage backend of imported graph
+	 * @since 1.2.0
+	 */
+	@Param({"JGRAPHT", "CSR"})
+	public Graph.Backend backend;
+
+	/**
+	 * The edge list file of graph
+	 * @since 1.2.0
+	 */
+	private Path file;
+
+	/**
+	 * The {@code setUp()} method locates or writes the edge list file.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @throws Exception The edge list cannot be written
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		this.file = Graphs.edgeList(this.graph);
+	}
+
+	/**
+	 * The {@code tearDown()} method deletes the edge list file of random
+	 * graphs.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @throws Exception The edge list cannot be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception
+	{
+		Graphs.delete(this.file);
+	}
+
+	/**
+	 * The {@code importGraph()} benchmark imports an undirected unweighted
+	 * graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The imported graph
+	 * @throws Exception The graph cannot be imported
+	 */
+	@Benchmark
+	public Graph<String, Object> importGraph() throws Exception
+	{
+		return Graph.importGraph(
+				this.file.toString(),
+				Graphs.SEPARATOR,
+				String.class,
+				false,
+				false,
+				this.backend
+		);
+	}
+}
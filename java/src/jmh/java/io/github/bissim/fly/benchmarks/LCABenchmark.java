@@ -0,0 +1,95 @@
+package io.github.bissim.fly.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.bissim.fly.Graph;
+
+/**
+ * {@code LCABenchmark} measures {@link Graph#getLCA} on random DAGs,
+ * cycling through a fixed sample of node pairs.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LCABenchmark
+{
+	/**
+	 * The number of sampled nodes
+	 * @since 1.2.0
+	 */
+	private static final int SAMPLE_SIZE = 64;
+
+	/**
+	 * The name of queried DAG
+	 * @since 1.2.0
+	 */
+	@Param({"gnm-1000-5000", "gnm-10000-50000", "gnm-100000-500000"})
+	public String graph;
+
+	/**
+	 * The queried DAG
+	 * @since 1.2.0
+	 */
+	private Graph<String, Object> dag;
+	/**
+	 * The sample of nodes queries are about
+	 * @since 1.2.0
+	 */
+	private String[] nodes;
+	/**
+	 * The position of next node within sample
+	 * @since 1.2.0
+	 */
+	private int next;
+
+	/**
+	 * The {@code setUp()} method generates the DAG and samples its nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @throws Exception The DAG cannot be generated
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		this.dag = Graphs.load(this.graph, true, true, Graph.Backend.JGRAPHT);
+		this.nodes = Graphs.sample(this.dag.nodeSet(), SAMPLE_SIZE);
+	}
+
+	/**
+	 * The {@code getLCA()} benchmark finds the lowest common ancestor of
+	 * two sampled nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The lowest common ancestor
+	 */
+	@Benchmark
+	public String getLCA()
+	{
+		String first = this.nodes[this.next];
+		String second = this.nodes[(this.next + 1) % this.nodes.length];
+		this.next = (this.next + 2) % this.nodes.length;
+
+		return this.dag.getLCA(first, second);
+	}
+}
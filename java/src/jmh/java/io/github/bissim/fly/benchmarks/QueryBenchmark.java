@@ -0,0 +1,145 @@
+package io.github.bissim.fly.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.bissim.fly.Graph;
+
+/**
+ * {@code QueryBenchmark} measures the {@link Graph} methods answering a
+ * query about one or two nodes, i.e. {@code shortestPath}, {@code bfsNodes}
+ * and {@code dfsEdges}, cycling through a fixed sample of nodes so that no
+ * query is answered from the result of the previous one.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark
+{
+	/**
+	 * The number of sampled nodes
+	 * @since 1.2.0
+	 */
+	private static final int SAMPLE_SIZE = 64;
+
+	/**
+	 * The name of queried graph
+	 * @since 1.2.0
+	 */
+	@Param({
+		"random-1", "random-2", "random-3",
+		"gnm-1000-5000", "gnm-10000-50000", "gnm-100000-500000"
+	})
+	public String graph;
+	/**
+	 * The storage backend of queried graph
+	 * @since 1.2.0
+	 */
+	@Param({"JGRAPHT", "CSR"})
+	public Graph.Backend backend;
+
+	/**
+	 * The queried graph
+	 * @since 1.2.0
+	 */
+	private Graph<String, Object> flyGraph;
+	/**
+	 * The sample of nodes queries are about
+	 * @since 1.2.0
+	 */
+	private String[] nodes;
+	/**
+	 * The position of next node within sample
+	 * @since 1.2.0
+	 */
+	private int next;
+
+	/**
+	 * The {@code setUp()} method loads the graph and samples its nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @throws Exception The graph cannot be loaded
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		this.flyGraph = Graphs.load(this.graph, false, false, this.backend);
+		this.nodes = Graphs.sample(this.flyGraph.nodeSet(), SAMPLE_SIZE);
+	}
+
+	/**
+	 * The {@code shortestPath()} benchmark looks for the shortest path
+	 * between two sampled nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The shortest path
+	 */
+	@Benchmark
+	public Object[] shortestPath()
+	{
+		return this.flyGraph.shortestPath(this.nextNode(), this.nextNode());
+	}
+
+	/**
+	 * The {@code bfsNodes()} benchmark visits graph breadth-first from a
+	 * sampled node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The visited nodes
+	 */
+	@Benchmark
+	public String[] bfsNodes()
+	{
+		return this.flyGraph.bfsNodes(this.nextNode());
+	}
+
+	/**
+	 * The {@code dfsEdges()} benchmark visits graph depth-first from a
+	 * sampled node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The edges of DFS tree
+	 */
+	@Benchmark
+	public Object[] dfsEdges()
+	{
+		return this.flyGraph.dfsEdges(this.nextNode());
+	}
+
+	/**
+	 * The {@code nextNode()} helper method returns the next sampled node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The next sampled node
+	 */
+	private String nextNode()
+	{
+		String node = this.nodes[this.next];
+		this.next = (this.next + 1) % this.nodes.length;
+
+		return node;
+	}
+}
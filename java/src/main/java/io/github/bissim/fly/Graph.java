@@ -2,53 +2,67 @@ package io.github.bissim.fly;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleBiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.StreamSupport;
 
 import org.jgrapht.GraphPath;
-import org.jgrapht.GraphTests;
 import org.jgrapht.Graphs;
-import org.jgrapht.alg.connectivity.ConnectivityInspector;
-import org.jgrapht.alg.connectivity.KosarajuStrongConnectivityInspector;
-import org.jgrapht.alg.cycle.CycleDetector;
 import org.jgrapht.alg.lca.NaiveLCAFinder;
-import org.jgrapht.alg.scoring.ClusteringCoefficient;
-import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
-import org.jgrapht.alg.shortestpath.GraphMeasurer;
-import org.jgrapht.alg.spanning.PrimMinimumSpanningTree;
+import org.jgrapht.alg.shortestpath.BidirectionalDijkstraShortestPath;
 import org.jgrapht.alg.util.NeighborCache;
+import org.jgrapht.graph.AsWeightedGraph;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.DefaultWeightedEdge;
-import org.jgrapht.traverse.BreadthFirstIterator;
-import org.jgrapht.traverse.DepthFirstIterator;
-import org.jgrapht.traverse.TopologicalOrderIterator;
-
-import org.jgrapht.nio.ImportException;
-import org.jgrapht.nio.ExportException;
-import org.jgrapht.nio.GraphExporter;
-import org.jgrapht.nio.csv.CSVImporter;
-import org.jgrapht.nio.csv.CSVExporter;
-import org.jgrapht.nio.csv.CSVFormat;
 
+import io.github.bissim.fly.alg.AllPairsShortestPaths;
+import io.github.bissim.fly.alg.BoundingDiameter;
+import io.github.bissim.fly.alg.BreadthFirstSearch;
+import io.github.bissim.fly.alg.ConnectedComponents;
+import io.github.bissim.fly.alg.ContractionHierarchy;
+import io.github.bissim.fly.alg.DeltaStepping;
+import io.github.bissim.fly.alg.DepthFirstSearch;
+import io.github.bissim.fly.alg.Eccentricities;
+import io.github.bissim.fly.alg.IncrementalClusteringCoefficient;
+import io.github.bissim.fly.alg.LowestCommonAncestors;
+import io.github.bissim.fly.alg.MinimumSpanningForest;
+import io.github.bissim.fly.alg.ReachabilityIndex;
+import io.github.bissim.fly.alg.SearchTree;
+import io.github.bissim.fly.alg.ShortestPathTree;
+import io.github.bissim.fly.alg.ShortestPaths;
+import io.github.bissim.fly.alg.StronglyConnectedComponents;
+import io.github.bissim.fly.alg.TopologicalOrder;
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.CSRSnapshot;
 import io.github.bissim.fly.util.CustomGraphBuilder;
+import io.github.bissim.fly.util.EdgeListExporter;
+import io.github.bissim.fly.util.EdgeListImporter;
+import io.github.bissim.fly.util.ParallelTasks;
 
 /**
  * <code>Graph&lt;V, E&gt;</code> is a class used to represent a graph for
  * use into FLY domain-specific language.
  * 
  * It basically wraps the JGraphT representation of graphs according to FLY
- * API for graphs.
+ * API for graphs; alternatively, a graph can be stored in a compact,
+ * int-indexed representation (see {@link Backend#CSR}).
  * 
- * @version 1.1.2
+ * @version 1.2.0
  * @author Simone Bisogno
  *&lt;<a href="mailto:s.bisogno10@studenti.unisa.it?cc=s.bisogno90@gmail.com&amp;subject=Java%20FLY%20graph%20library&amp;body=Hello,%0D%0A%0D%0Ayour%20message%20here">s.bisogno10@studenti.unisa.it</a>&gt;
  * 
@@ -85,1935 +99,4710 @@ public class Graph<V, E>
 	 */
 	private boolean isDirected;
 	/**
-	 * Stores information about graph measurements
+	 * Stores information about graph clustering
 	 * @since 1.1.0
 	 */
-	private GraphMeasurer<V, E> graphMeasurer;
+	private Versioned<IncrementalClusteringCoefficient<V, E>>
+			clusteringCoefficient;
 	/**
-	 * Stores information about graph clustering
-	 * @since 1.1.0
+	 * The storage backend of graph
+	 * @since 1.2.0
 	 */
-	private ClusteringCoefficient<V, E> clusteringCoefficient;
-
+	private Backend backend;
 	/**
-	 * The <code>Graph(Class&lt;V&gt;, boolean, boolean)</code> constructs a
-	 * graph with node class the same specified as parameter and can be
-	 * directed, weighted or both according to boolean parameters.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param nodeClass The class of the graph nodes
-	 * @param isDirected Denotes whether graph edges will be directed
-	 * @param isWeighted Denotes whether graph edges will be weighted
+	 * The compressed sparse row representation of graph; it is the graph
+	 * storage itself while a {@link Backend#CSR} graph is compact, a cache
+	 * dropped at the first modification otherwise
+	 * @since 1.2.0
 	 */
-	public Graph(
-			Class<V> nodeClass,
-			boolean isDirected,
-			boolean isWeighted
-	)
-	{
-		this.isDirected = isDirected;
-		this.isWeighted = isWeighted;
-		this.nodeClass = nodeClass;
-		this.edgeClass = this.setEdgeClass(isWeighted);
-		this.graph = (new CustomGraphBuilder<V, E>()).build(
-				nodeClass,
-				this.edgeClass,
-				isDirected,
-				isWeighted
-		);
-	}
-
+	private CSRGraph<V> csr;
 	/**
-	 * The <code>Graph(Class&lt;V&gt;, boolean, boolean)</code> constructs a
-	 * graph with node class the same specified as parameter and can be
-	 * directed, weighted or both according to boolean parameters.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param nodes The nodes to add to graph
-	 * @param nodeClass The class of the graph nodes
-	 * @param isDirected Denotes whether graph edges will be directed
-	 * @param isWeighted Denotes whether graph edges will be weighted
+	 * Stores information about graph measurements
+	 * @since 1.2.0
 	 */
-	public Graph(
-			V[] nodes,
-			Class<V> nodeClass,
-			boolean isDirected,
-			boolean isWeighted
-	)
-	{
-		this(nodeClass, isDirected, isWeighted);
-		this.addNodes(nodes);
-	}
-
+	private Versioned<Eccentricities> eccentricities;
 	/**
-	 * The <code>Graph(Class&lt;V&gt;, boolean, boolean)</code> constructs a
-	 * graph with node class the same specified as parameter and can be
-	 * directed, weighted or both according to boolean parameters.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param nodes The nodes to add to graph
-	 * @param edges The edges to add to graph
-	 * @param nodeClass The class of the graph nodes
-	 * @param isDirected Denotes whether graph edges will be directed
-	 * @param isWeighted Denotes whether graph edges will be weighted
+	 * The tree of the last breadth-first visit
+	 * @since 1.2.0
 	 */
-	public Graph(
-			V[] nodes,
-			E[] edges,
-			Class<V> nodeClass,
-			boolean isDirected,
-			boolean isWeighted
-	)
-	{
-		this(nodes, nodeClass, isDirected, isWeighted);
-		this.addEdges(edges);
-	}
-
-	// public methods
-
+	private Versioned<SearchTree> breadthFirstTree;
 	/**
-	 * The <code>clear()</code> method deals with emptying both
-	 * graph node set and edge set.
-	 * <br>
-	 * In version 1.0.0 this method was not daisy-chainable.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @return The graph with emptied node and edge sets
+	 * The tree of the last depth-first visit
+	 * @since 1.2.0
 	 */
-	public Graph<V, E> clear()
-	{
-		Set<V> nodes = this.graph
-				.vertexSet()
-				.stream()
-				.collect(Collectors.toSet());
-		this.graph.removeAllVertices(nodes);
-
-		return this;
-	}
-
-	/*
-	 * node methods
+	private Versioned<SearchTree> depthFirstTree;
+	/**
+	 * The index of lowest common ancestors
+	 * @since 1.2.0
 	 */
-
+	private Versioned<LowestCommonAncestors> lowestCommonAncestors;
 	/**
-	 * The <code>addNode(V)</code> method deals with adding specified node
-	 * to graph node set.
-	 * <br>
-	 * In version 1.0.0 this method was not daisy-chainable.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param node The node to add to graph
-	 * @return The graph with added node
+	 * The labelling of connected components
+	 * @since 1.2.0
 	 */
-	public Graph<V, E> addNode(V node)
-	{
-		this.graph.addVertex(node);
-
-		return this;
-	}
-
+	private Versioned<ConnectedComponents> components;
 	/**
-	 * The <code>addNodes(V[])</code> method deals with adding nodes from
-	 * specified array to graph node set.
-	 * <br>
-	 * In version 1.0.0 this method was not daisy-chainable.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @see #addNode(Object)
-	 * 
-	 * @param nodes The nodes to add to graph
-	 * @return The graph with added nodes
+	 * The labelling of strongly connected components
+	 * @since 1.2.0
 	 */
-	public Graph<V, E> addNodes(V[] nodes)
-	{
-		IntStream
-				.range(0, nodes.length)
-				.forEach(i -> this.addNode(nodes[i]));
-
-		return this;
-	}
-
-//	/**
-//	 * The <code>addNodes(V...)</code> method deals with adding specified nodes
-//	 * to graph node set.
-//	 * <br>
-//	 * In version 1.0.0 this method was not daisy-chainable.
-//	 * 
-//	 * @since 1.1.0
-//	 * 
-//	 * @see #addNode(Object)
-//	 * 
-//	 * @param nodes The nodes to add to graph
-//	 * @return graph with added nodes
-//	 */
-//	public Graph<V, E> addNodes(V... nodes)
-//	{
-//		List<V> nodesList = List.of(nodes); // not in Java 8
-//		nodesList.stream().forEach(n -> this.addNode(n));
-//
-//		return this;
-//	}
-
+	private Versioned<StronglyConnectedComponents> strongComponents;
 	/**
-	 * The <code>nodeDegree(V)</code> method returns the degree of specified
-	 * node, as long as it belongs to the graph.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param node The node of graph which we want to know the degree of
-	 * @return The degree of node
+	 * The reachability index
+	 * @since 1.2.0
 	 */
-	public int nodeDegree(V node)
-	{
-		return this.graph.degreeOf(node);
-	}
-
+	private Versioned<ReachabilityIndex> reachability;
 	/**
-	 * The <code>nodeInDegree(V)</code> method returns the 'in' degree of
-	 * specified node, as long as it belongs to the graph.
-	 * <br>
-	 * By 'in' degree of a node one denotes how many edges have the node
-	 * as their target.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param node The node of graph which we want to know the 'in' degree of
-	 * @return The 'in' degree of node
+	 * The topological order of nodes
+	 * @since 1.2.0
 	 */
-	public int nodeInDegree(V node)
-	{
-		return this.graph.inDegreeOf(node);
-	}
-
+	private Versioned<TopologicalOrder> topologicalOrder;
 	/**
-	 * The <code>nodeOutDegree(V)</code> method returns the 'out' degree of
-	 * specified node, as long as it belongs to the graph.
-	 * <br>
-	 * By 'out' degree of a node one denotes how many edges have the node
-	 * as their source.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param node The node of graph which we want to know the 'out' degree of
-	 * @return The 'out' degree of node
+	 * The minimum spanning forest
+	 * @since 1.2.0
 	 */
-	public int nodeOutDegree(V node)
-	{
-		return this.graph.outDegreeOf(node);
-	}
-
+	private Versioned<MinimumSpanningForest> spanningForest;
 	/**
-	 * The {@code neighbourhood} method ...
-	 * <br>
-	 * In version 1.0.0, it erroneously gave the list of edges the given node
-	 * was head or tail of.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param node The node which we want to know the neighbourhood of
-	 * @return The graph with neighbour nodes and the edges among them
+	 * The index of shortest paths, as long as it has been built
+	 * @since 1.2.0
 	 */
-	public Graph<V, E> neighbourhood(V node)
-	{
-		return new Graph<V, E>(
-					this.nodeClass,
-					this.isDirected,
-					this.isWeighted
-				)
-				.addNode(node)
-				.addNodes(this.neighbourNodes(node))
-				.addEdges(this.neighbourhoodEdges(node));
-	}
+	private Versioned<ContractionHierarchy> shortestPathIndex;
+	/**
+	 * The number of modifications graph has undergone, which cached
+	 * information about graph refers to
+	 * @since 1.2.0
+	 */
+	private long version;
+	/**
+	 * The maximum number of threads used by parallel algorithms
+	 * @since 1.2.0
+	 */
+	private int parallelism;
+	/**
+	 * The algorithm searching shortest paths from a source on weighted
+	 * graphs
+	 * @since 1.2.0
+	 */
+	private ShortestPathAlgorithm shortestPathAlgorithm;
+	/**
+	 * The width of buckets of distances of delta-stepping searches,
+	 * {@code 0} to choose it from graph
+	 * @since 1.2.0
+	 */
+	private double delta;
 
 	/**
-	 * The {@code nodeEdges(V)} method returns the adjacent edges of
-	 * specified node, as long as it belongs to the graph.
-	 * 
-	 * @since 1.1.0
+	 * The {@code Backend} enumeration lists the storage backends a graph
+	 * can be constructed with.
 	 * 
-	 * @param node The node which we want to know the edges of
-	 * @return The array of edges having node as source or target
+	 * @since 1.2.0
 	 */
-	@SuppressWarnings("unchecked")
-	public E[] nodeEdges(V node)
+	public enum Backend
 	{
-		return (E[]) this.setToArray(
-				this.graph.edgesOf(node),
-				this.edgeClass
-		);
+		/**
+		 * The graph is stored into a JGraphT graph, which every method
+		 * works on.
+		 * @since 1.2.0
+		 */
+		JGRAPHT,
+		/**
+		 * The graph is stored in compressed sparse row layout, with int
+		 * node ids and primitive arrays of adjacencies and weights, which
+		 * takes an order of magnitude less memory than JGraphT graphs.
+		 * <br>
+		 * Such a compact graph stays compact as long as it is only read:
+		 * queries on nodes, degrees, edges and their weights, edge sets,
+		 * BFS and DFS trees, shortest paths and eccentricity-based measures
+		 * are answered directly, edge objects being created anew by each
+		 * call; lowest common ancestors, neighbourhoods, clustering
+		 * coefficients, string representation and equality are computed
+		 * on a JGraphT graph restored for the call only. Only the methods
+		 * modifying the graph restore the JGraphT graph and keep it, until
+		 * {@link Graph#compact()} is invoked again.
+		 * @since 1.2.0
+		 */
+		CSR
 	}
 
 	/**
-	 * The <code>nodeInEdges(V)</code> method returns the 'in' edges of
-	 * specified node, as long as it belongs to the graph.
-	 * <br>
-	 * By 'in' edges of a node one denotes the edges having the node as
-	 * their target.
+	 * The {@code ShortestPathAlgorithm} enumeration lists the algorithms
+	 * searching shortest paths from a source on weighted graphs, which
+	 * single-source paths, average path length, distance matrix and
+	 * eccentricity-based measures rely on.
 	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param node The node which we want to know the 'in edges' of
-	 * @return The array of edges having node as target
+	 * @since 1.2.0
 	 */
-	@SuppressWarnings("unchecked")
-	public E[] nodeInEdges(V node)
+	public enum ShortestPathAlgorithm
 	{
-		return (E[]) this.setToArray(
-				this.graph.incomingEdgesOf(node),
-				this.edgeClass
-		);
+		/**
+		 * Paths from a source are searched by Dijkstra's algorithm, on a
+		 * single thread; measures relying on many searches run them from
+		 * many sources at once.
+		 * @since 1.2.0
+		 */
+		DIJKSTRA,
+		/**
+		 * Paths from a source are searched by delta-stepping, which relaxes
+		 * the edges of many nodes at once, so that a single search uses
+		 * every thread; measures relying on many searches run them from
+		 * one source at a time.
+		 * @since 1.2.0
+		 */
+		DELTA_STEPPING
 	}
 
 	/**
-	 * The <code>nodeOutEdges(V)</code> method returns the 'out' edges of
-	 * specified node, as long as it belongs to the graph.
+	 * The {@code Builder} class builds a graph from batches of nodes and
+	 * edges, faster than adding them one by one to a graph.
 	 * <br>
-	 * By 'out' edges of a node one denotes the edges having the node as
+	 * Nodes and edges are collected into arrays sized for the expected
+	 * number of them, then laid out into the compressed sparse row
+	 * representation of graph, which a graph with {@link Backend#JGRAPHT}
+	 * backend is restored from just once. The caller vouches for the
+	 * input: nodes of edges are added to graph if needed, and the only
+	 * edges skipped are loops and edges repeated after their first
+	 * occurrence, which are collected into a report.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param <V> Type for nodes
+	 * @param <E> Type for edges
+	 */
+	public static class Builder<V, E>
+	{
+		/**
+		 * The class used for nodes
+		 * @since 1.2.0
+		 */
+		private final Class<V> nodeClass;
+		/**
+		 * Denotes whether graph is directed
+		 * @since 1.2.0
+		 */
+		private final boolean isDirected;
+		/**
+		 * Denotes whether graph is weighted
+		 * @since 1.2.0
+		 */
+		private final boolean isWeighted;
+		/**
+		 * The storage backend of graph
+		 * @since 1.2.0
+		 */
+		private Backend backend;
+		/**
+		 * The expected number of nodes
+		 * @since 1.2.0
+		 */
+		private int expectedNodes;
+		/**
+		 * The expected number of edges
+		 * @since 1.2.0
+		 */
+		private int expectedEdges;
+		/**
+		 * The builder of compressed sparse row representation, created by
+		 * the first node or edge added
+		 * @since 1.2.0
+		 */
+		private CSRGraph.Builder<V> csrBuilder;
+		/**
+		 * The positions of edges collected so far among the edges added,
+		 * by order of collection
+		 * @since 1.2.0
+		 */
+		private int[] positions;
+		/**
+		 * The number of edges collected so far, i.e. added and not skipped
+		 * @since 1.2.0
+		 */
+		private int numCollected;
+		/**
+		 * The number of edges added so far
+		 * @since 1.2.0
+		 */
+		private int numEdges;
+		/**
+		 * The report of edges added so far
+		 * @since 1.2.0
+		 */
+		private BatchReport report;
+		/**
+		 * The report of edges added to the last graph built
+		 * @since 1.2.0
+		 */
+		private BatchReport lastReport;
+
+		/**
+		 * The {@code Builder(Class<V>, boolean, boolean)} constructor
+		 * creates a builder for a graph with given node class, which can
+		 * be directed, weighted or both, with {@link Backend#JGRAPHT}
+		 * backend.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param nodeClass The class of the graph nodes
+		 * @param isDirected Denotes whether graph edges will be directed
+		 * @param isWeighted Denotes whether graph edges will be weighted
+		 */
+		public Builder(
+				Class<V> nodeClass,
+				boolean isDirected,
+				boolean isWeighted
+		)
+		{
+			this.nodeClass = nodeClass;
+			this.isDirected = isDirected;
+			this.isWeighted = isWeighted;
+			this.backend = Backend.JGRAPHT;
+			this.expectedNodes = 16;
+			this.expectedEdges = 16;
+			this.report = new BatchReport(0);
+		}
+
+		/**
+		 * The {@code backend(Backend)} method sets the storage backend of
+		 * graph.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param backend The storage backend of graph
+		 * @return The builder itself
+		 */
+		public Builder<V, E> backend(Backend backend)
+		{
+			this.backend = backend;
+
+			return this;
+		}
+
+		/**
+		 * The {@code expectedNodes(int)} method sets the expected number of
+		 * nodes, so that no resizing is needed up to such number.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param expectedNodes The expected number of nodes
+		 * @return The builder itself
+		 * @throws IllegalArgumentException The expected number is negative
+		 * @throws IllegalStateException Nodes or edges have already been
+		 * added
+		 */
+		public Builder<V, E> expectedNodes(int expectedNodes)
+		{
+			this.checkSizing(expectedNodes);
+			this.expectedNodes = expectedNodes;
+
+			return this;
+		}
+
+		/**
+		 * The {@code expectedEdges(int)} method sets the expected number of
+		 * edges, so that no resizing is needed up to such number.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param expectedEdges The expected number of edges
+		 * @return The builder itself
+		 * @throws IllegalArgumentException The expected number is negative
+		 * @throws IllegalStateException Nodes or edges have already been
+		 * added
+		 */
+		public Builder<V, E> expectedEdges(int expectedEdges)
+		{
+			this.checkSizing(expectedEdges);
+			this.expectedEdges = expectedEdges;
+
+			return this;
+		}
+
+		/**
+		 * The {@code addNode(V)} method adds given node to graph, unless it
+		 * has already been added.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param node The node to add
+		 * @return The builder itself
+		 */
+		public Builder<V, E> addNode(V node)
+		{
+			this.csrBuilder().addNode(node);
+
+			return this;
+		}
+
+		/**
+		 * The {@code addNodes(V[])} method adds given nodes to graph,
+		 * skipping the ones already added.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param nodes The nodes to add
+		 * @return The builder itself
+		 */
+		public Builder<V, E> addNodes(V[] nodes)
+		{
+			CSRGraph.Builder<V> csrBuilder = this.csrBuilder();
+			for (V node : nodes)
+			{
+				csrBuilder.addNode(node);
+			}
+
+			return this;
+		}
+
+		/**
+		 * The {@code addEdge(V, V)} method adds an edge with default weight
+		 * between given nodes, adding them to graph if needed.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param source The edge source
+		 * @param target The edge target
+		 * @return The builder itself
+		 */
+		public Builder<V, E> addEdge(V source, V target)
+		{
+			return this.addEdge(source, target, CSRGraph.DEFAULT_EDGE_WEIGHT);
+		}
+
+		/**
+		 * The {@code addEdge(V, V, double)} method adds a weighted edge
+		 * between given nodes, adding them to graph if needed; weight is
+		 * ignored if graph is unweighted.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param source The edge source
+		 * @param target The edge target
+		 * @param weight The edge weight
+		 * @return The builder itself
+		 */
+		public Builder<V, E> addEdge(V source, V target, double weight)
+		{
+			CSRGraph.Builder<V> csrBuilder = this.csrBuilder();
+			int position = this.numEdges++;
+			int u = csrBuilder.addNode(source);
+			int v = csrBuilder.addNode(target);
+			if (u == v)
+			{
+				this.report.reject(position, "loops not allowed");
+				return this;
+			}
+
+			if (this.numCollected == this.positions.length)
+			{
+				this.positions = Arrays.copyOf(
+						this.positions,
+						this.positions.length * 2
+				);
+			}
+			this.positions[this.numCollected++] = position;
+			csrBuilder.addEdge(u, v, weight);
+
+			return this;
+		}
+
+		/**
+		 * The {@code addEdges(V[], V[], double[])} method adds the edges
+		 * between nodes at the same position of given arrays, with the
+		 * weights at such position, if any.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param sources The edge sources
+		 * @param targets The edge targets
+		 * @param weights The edge weights, ignored if graph is unweighted;
+		 * {@code null} for default weights
+		 * @return The builder itself
+		 * @throws IllegalArgumentException The arrays have different lengths
+		 */
+		public Builder<V, E> addEdges(
+				V[] sources,
+				V[] targets,
+				double[] weights
+		)
+		{
+			if (
+				sources.length != targets.length ||
+				(weights != null && weights.length != sources.length)
+			)
+			{
+				throw new IllegalArgumentException(
+						"sources, targets and weights must have the same length"
+				);
+			}
+
+			for (int i = 0; i < sources.length; i++)
+			{
+				this.addEdge(
+						sources[i],
+						targets[i],
+						weights == null ?
+							CSRGraph.DEFAULT_EDGE_WEIGHT :
+							weights[i]
+				);
+			}
+
+			return this;
+		}
+
+		/**
+		 * The {@code build()} method builds the graph from nodes and edges
+		 * added so far; the builder is reset afterwards.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @see #report()
+		 * 
+		 * @return The built graph
+		 */
+		public Graph<V, E> build()
+		{
+			CSRGraph.Builder<V> csrBuilder = this.csrBuilder();
+			final int[] positions = this.positions;
+			final BatchReport report = this.report;
+			report.numAttempted = this.numEdges;
+			CSRGraph<V> csr = csrBuilder.build(
+					e -> report.reject(positions[e], "edge already in graph")
+			);
+
+			Graph<V, E> flyGraph = new Graph<>(
+					this.nodeClass,
+					this.isDirected,
+					this.isWeighted,
+					Backend.CSR
+			);
+			flyGraph.csr = csr;
+			flyGraph.backend = this.backend;
+			if (this.backend == Backend.JGRAPHT)
+			{
+				flyGraph.jgraph();
+			}
+
+			this.csrBuilder = null;
+			this.numCollected = 0;
+			this.numEdges = 0;
+			this.report = new BatchReport(0);
+			this.lastReport = report;
+
+			return flyGraph;
+		}
+
+		/**
+		 * The {@code report()} method returns the report of edges added to
+		 * and skipped from the last graph built, identified by the order
+		 * they have been added in.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return The report of last build, {@code null} if no graph has
+		 * been built yet
+		 */
+		public BatchReport report()
+		{
+			return this.lastReport;
+		}
+
+		/**
+		 * The {@code csrBuilder()} helper method returns the builder of
+		 * compressed sparse row representation, creating it sized for the
+		 * expected number of nodes and edges if needed.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return The builder of compressed sparse row representation
+		 */
+		private CSRGraph.Builder<V> csrBuilder()
+		{
+			if (this.csrBuilder == null)
+			{
+				this.csrBuilder = new CSRGraph.Builder<>(
+						this.isDirected,
+						this.isWeighted,
+						this.expectedNodes,
+						this.expectedEdges
+				);
+				this.positions = new int[Math.max(this.expectedEdges, 1)];
+			}
+
+			return this.csrBuilder;
+		}
+
+		/**
+		 * The {@code checkSizing(int)} helper method checks that given
+		 * expected number can still size the builder.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param expected The expected number of nodes or edges
+		 * @throws IllegalArgumentException The expected number is negative
+		 * @throws IllegalStateException Nodes or edges have already been
+		 * added
+		 */
+		private void checkSizing(int expected)
+		{
+			if (expected < 0)
+			{
+				throw new IllegalArgumentException(
+						"expected size must not be negative: " + expected
+				);
+			}
+			if (this.csrBuilder != null)
+			{
+				throw new IllegalStateException(
+						"builder cannot be sized after adding nodes or edges"
+				);
+			}
+		}
+	}
+
+	/**
+	 * The {@code BatchReport} class reports the outcome of adding a batch of
+	 * edges: how many have been added and which ones have been skipped,
+	 * grouped by reason, instead of failing or logging edge by edge.
+	 * 
+	 * @since 1.2.0
+	 */
+	public static final class BatchReport
+	{
+		/**
+		 * The number of edges in batch
+		 * @since 1.2.0
+		 */
+		private int numAttempted;
+		/**
+		 * The number of skipped edges
+		 * @since 1.2.0
+		 */
+		private int numRejected;
+		/**
+		 * The positions of skipped edges, in the order they were skipped
+		 * @since 1.2.0
+		 */
+		private int[] rejected;
+		/**
+		 * The number of skipped edges for each reason
+		 * @since 1.2.0
+		 */
+		private final Map<String, Integer> reasons;
+
+		/**
+		 * The {@code BatchReport(int)} constructor creates the report of a
+		 * batch with given number of edges.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param numAttempted The number of edges in batch
+		 */
+		private BatchReport(int numAttempted)
+		{
+			this.numAttempted = numAttempted;
+			this.rejected = new int[16];
+			this.reasons = new LinkedHashMap<>();
+		}
+
+		/**
+		 * The {@code numAdded()} method returns the number of edges added
+		 * to graph.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return The number of added edges
+		 */
+		public int numAdded()
+		{
+			return this.numAttempted - this.numRejected;
+		}
+
+		/**
+		 * The {@code numRejected()} method returns the number of edges
+		 * skipped.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return The number of skipped edges
+		 */
+		public int numRejected()
+		{
+			return this.numRejected;
+		}
+
+		/**
+		 * The {@code isComplete()} method denotes whether every edge of
+		 * batch has been added.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return {@code true} if no edge has been skipped, {@code false}
+		 * otherwise
+		 */
+		public boolean isComplete()
+		{
+			return this.numRejected == 0;
+		}
+
+		/**
+		 * The {@code rejected()} method returns the positions of skipped
+		 * edges within batch, in ascending order.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return The positions of skipped edges
+		 */
+		public int[] rejected()
+		{
+			int[] rejected = Arrays.copyOf(this.rejected, this.numRejected);
+			Arrays.sort(rejected);
+
+			return rejected;
+		}
+
+		/**
+		 * The {@code reasons()} method returns the number of edges skipped
+		 * for each reason.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return The number of skipped edges by reason
+		 */
+		public Map<String, Integer> reasons()
+		{
+			return Collections.unmodifiableMap(this.reasons);
+		}
+
+		/**
+		 * The {@code reject(int, String)} method records that the edge at
+		 * given position has been skipped for given reason.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param position The position of edge within batch
+		 * @param reason The reason edge has been skipped for
+		 */
+		private void reject(int position, String reason)
+		{
+			if (this.numRejected == this.rejected.length)
+			{
+				this.rejected = Arrays.copyOf(
+						this.rejected,
+						this.rejected.length * 2
+				);
+			}
+			this.rejected[this.numRejected++] = position;
+			this.reasons.merge(reason, 1, Integer::sum);
+		}
+
+		@Override
+		public String toString()
+		{
+			return "added " + this.numAdded() + " of " + this.numAttempted +
+				" edges, skipped " + this.reasons;
+		}
+	}
+
+	/**
+	 * The {@code PathTree} class holds the shortest paths from a source node
+	 * to every node of graph, as it was when they have been found: distances
+	 * are read in constant time, and paths in time linear in their length.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @see Graph#shortestPathsFrom(Object)
+	 * 
+	 * @param <V> Type for nodes
+	 */
+	public static final class PathTree<V>
+	{
+		/**
+		 * The class of nodes
+		 * @since 1.2.0
+		 */
+		private final Class<V> nodeClass;
+		/**
+		 * The graph paths have been found in
+		 * @since 1.2.0
+		 */
+		private final CSRGraph<V> csr;
+		/**
+		 * The paths by node id
+		 * @since 1.2.0
+		 */
+		private final ShortestPathTree tree;
+
+		/**
+		 * The {@code PathTree(Class, CSRGraph, ShortestPathTree)}
+		 * constructor wraps given paths found in given graph.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param nodeClass The class of nodes
+		 * @param csr The graph paths have been found in
+		 * @param tree The paths by node id
+		 */
+		private PathTree(
+				Class<V> nodeClass,
+				CSRGraph<V> csr,
+				ShortestPathTree tree
+		)
+		{
+			this.nodeClass = nodeClass;
+			this.csr = csr;
+			this.tree = tree;
+		}
+
+		/**
+		 * The {@code source()} method returns the node paths start from.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @return The source node
+		 */
+		public V source()
+		{
+			return this.csr.nodeAt(this.tree.source());
+		}
+
+		/**
+		 * The {@code hasPath(V)} method tells whether there's a path to
+		 * given node.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param target The node path ends at
+		 * @return {@code true} if target is reachable, {@code false}
+		 * otherwise
+		 * @throws IllegalArgumentException The node is not in graph
+		 */
+		public boolean hasPath(V target)
+		{
+			return this.tree.hasPath(this.indexOf(target));
+		}
+
+		/**
+		 * The {@code distance(V)} method returns the distance of given node
+		 * from source, i.e. the weight of the path to it, or its number of
+		 * edges for unweighted graphs.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param target The node path ends at
+		 * @return The distance, {@code Double.POSITIVE_INFINITY} if there's
+		 * no path
+		 * @throws IllegalArgumentException The node is not in graph
+		 */
+		public double distance(V target)
+		{
+			return this.tree.distance(this.indexOf(target));
+		}
+
+		/**
+		 * The {@code path(V)} method returns the nodes of the path to given
+		 * node.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param target The node path ends at
+		 * @return The array of path nodes, from source to target
+		 * ({@code null} if there's no path)
+		 * @throws IllegalArgumentException The node is not in graph
+		 */
+		public V[] path(V target)
+		{
+			int[] path = this.tree.path(this.indexOf(target));
+			if (path == null)
+			{
+				return null;
+			}
+
+			@SuppressWarnings("unchecked")
+			V[] nodes = (V[]) Array.newInstance(this.nodeClass, path.length);
+			for (int i = 0; i < path.length; i++)
+			{
+				nodes[i] = this.csr.nodeAt(path[i]);
+			}
+
+			return nodes;
+		}
+
+		/**
+		 * The {@code pathLength(V)} method returns the number of edges of
+		 * the path to given node.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param target The node path ends at
+		 * @return The number of path edges, {@code Integer.MAX_VALUE} if
+		 * there's no path
+		 * @throws IllegalArgumentException The node is not in graph
+		 */
+		public int pathLength(V target)
+		{
+			final int length = this.tree.length(this.indexOf(target));
+
+			return length >= 0 ? length : Integer.MAX_VALUE;
+		}
+
+		/**
+		 * The {@code indexOf(V)} helper method returns the id of given node.
+		 * 
+		 * @since 1.2.0
+		 * 
+		 * @param node The node
+		 * @return The node id
+		 * @throws IllegalArgumentException The node is not in graph
+		 */
+		private int indexOf(V node)
+		{
+			int id = this.csr.indexOf(node);
+			if (id < 0)
+			{
+				throw new IllegalArgumentException(
+						"no such vertex in graph: " + node
+				);
+			}
+
+			return id;
+		}
+	}
+
+	/**
+	 * The <code>Graph(Class&lt;V&gt;, boolean, boolean)</code> constructs a
+	 * graph with node class the same specified as parameter and can be
+	 * directed, weighted or both according to boolean parameters.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param nodeClass The class of the graph nodes
+	 * @param isDirected Denotes whether graph edges will be directed
+	 * @param isWeighted Denotes whether graph edges will be weighted
+	 */
+	public Graph(
+			Class<V> nodeClass,
+			boolean isDirected,
+			boolean isWeighted
+	)
+	{
+		this(nodeClass, isDirected, isWeighted, Backend.JGRAPHT);
+	}
+
+	/**
+	 * The <code>Graph(Class&lt;V&gt;, boolean, boolean, Backend)</code>
+	 * constructs a graph with node class the same specified as parameter,
+	 * which can be directed, weighted or both according to boolean
+	 * parameters and is stored in the specified backend.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param nodeClass The class of the graph nodes
+	 * @param isDirected Denotes whether graph edges will be directed
+	 * @param isWeighted Denotes whether graph edges will be weighted
+	 * @param backend The storage backend of graph
+	 */
+	public Graph(
+			Class<V> nodeClass,
+			boolean isDirected,
+			boolean isWeighted,
+			Backend backend
+	)
+	{
+		this.isDirected = isDirected;
+		this.isWeighted = isWeighted;
+		this.nodeClass = nodeClass;
+		this.edgeClass = this.setEdgeClass(isWeighted);
+		this.backend = backend;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.shortestPathAlgorithm = ShortestPathAlgorithm.DIJKSTRA;
+		this.clusteringCoefficient = new Versioned<>();
+		this.eccentricities = new Versioned<>();
+		this.breadthFirstTree = new Versioned<>();
+		this.depthFirstTree = new Versioned<>();
+		this.lowestCommonAncestors = new Versioned<>();
+		this.components = new Versioned<>();
+		this.strongComponents = new Versioned<>();
+		this.reachability = new Versioned<>();
+		this.topologicalOrder = new Versioned<>();
+		this.spanningForest = new Versioned<>();
+		this.shortestPathIndex = new Versioned<>();
+		if (backend == Backend.CSR)
+		{
+			this.csr = new CSRGraph.Builder<V>(isDirected, isWeighted)
+					.build();
+		}
+		else
+		{
+			this.graph = this.newJgraph();
+		}
+	}
+
+	/**
+	 * The <code>Graph(Class&lt;V&gt;, boolean, boolean)</code> constructs a
+	 * graph with node class the same specified as parameter and can be
+	 * directed, weighted or both according to boolean parameters.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param nodes The nodes to add to graph
+	 * @param nodeClass The class of the graph nodes
+	 * @param isDirected Denotes whether graph edges will be directed
+	 * @param isWeighted Denotes whether graph edges will be weighted
+	 */
+	public Graph(
+			V[] nodes,
+			Class<V> nodeClass,
+			boolean isDirected,
+			boolean isWeighted
+	)
+	{
+		this(nodeClass, isDirected, isWeighted);
+		this.addNodes(nodes);
+	}
+
+	/**
+	 * The <code>Graph(Class&lt;V&gt;, boolean, boolean)</code> constructs a
+	 * graph with node class the same specified as parameter and can be
+	 * directed, weighted or both according to boolean parameters.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param nodes The nodes to add to graph
+	 * @param edges The edges to add to graph
+	 * @param nodeClass The class of the graph nodes
+	 * @param isDirected Denotes whether graph edges will be directed
+	 * @param isWeighted Denotes whether graph edges will be weighted
+	 */
+	public Graph(
+			V[] nodes,
+			E[] edges,
+			Class<V> nodeClass,
+			boolean isDirected,
+			boolean isWeighted
+	)
+	{
+		this(nodes, nodeClass, isDirected, isWeighted);
+		this.addEdges(edges);
+	}
+
+	// public methods
+
+	/**
+	 * The <code>clear()</code> method deals with emptying both
+	 * graph node set and edge set.
+	 * <br>
+	 * In version 1.0.0 this method was not daisy-chainable.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @return The graph with emptied node and edge sets
+	 */
+	public Graph<V, E> clear()
+	{
+		Set<V> nodes = this.jgraph()
+				.vertexSet()
+				.stream()
+				.collect(Collectors.toSet());
+		this.mutableJgraph().removeAllVertices(nodes);
+
+		return this;
+	}
+
+	/**
+	 * The {@code compact()} method turns the graph into its compressed
+	 * sparse row representation and releases the JGraphT graph, as long as
+	 * the graph has been constructed with {@link Backend#CSR} backend; it
+	 * does nothing otherwise.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @see Backend#CSR
+	 *
+	 * @return The compacted graph
+	 */
+	public Graph<V, E> compact()
+	{
+		if (this.backend == Backend.CSR && this.graph != null)
+		{
+			this.csr = this.csr();
+			this.graph = null;
+			// it holds a reference to the released JGraphT graph
+			this.clusteringCoefficient.clear();
+		}
+
+		return this;
+	}
+
+	/**
+	 * The {@code getBackend()} method returns the storage backend the graph
+	 * has been constructed with.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph storage backend
+	 */
+	public Backend getBackend()
+	{
+		return this.backend;
+	}
+
+	/**
+	 * The {@code setParallelism(int)} method sets the maximum number of
+	 * threads used by parallel algorithms, such as the ones measuring
+	 * eccentricities and distances; it defaults to the number of available
+	 * processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parallelism The maximum number of threads
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * The {@code getParallelism()} method returns the maximum number of
+	 * threads used by parallel algorithms.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The maximum number of threads
+	 */
+	public int getParallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * The {@code setShortestPathAlgorithm(ShortestPathAlgorithm)} method
+	 * sets the algorithm searching shortest paths from a source on weighted
+	 * graphs; it defaults to {@link ShortestPathAlgorithm#DIJKSTRA}.
+	 * Unweighted graphs are always searched breadth-first.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param algorithm The shortest path algorithm
+	 */
+	public void setShortestPathAlgorithm(ShortestPathAlgorithm algorithm)
+	{
+		this.shortestPathAlgorithm = algorithm;
+	}
+
+	/**
+	 * The {@code getShortestPathAlgorithm()} method returns the algorithm
+	 * searching shortest paths from a source on weighted graphs.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The shortest path algorithm
+	 */
+	public ShortestPathAlgorithm getShortestPathAlgorithm()
+	{
+		return this.shortestPathAlgorithm;
+	}
+
+	/**
+	 * The {@code setDelta(double)} method sets the width of buckets of
+	 * distances of delta-stepping searches, i.e. the weight of the heaviest
+	 * edge relaxed within a bucket; it defaults to the one chosen by
+	 * {@link DeltaStepping#defaultDelta(CSRGraph)}.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param delta The width of buckets of distances
+	 * @throws IllegalArgumentException The delta is not positive
+	 */
+	public void setDelta(double delta)
+	{
+		if (!(delta > 0.0))
+		{
+			throw new IllegalArgumentException(
+					"delta must be positive: " + delta
+			);
+		}
+		this.delta = delta;
+	}
+
+	/**
+	 * The {@code getDelta()} method returns the width of buckets of
+	 * distances of delta-stepping searches.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The delta, {@code 0} if it is chosen from graph
+	 */
+	public double getDelta()
+	{
+		return this.delta;
+	}
+
+	/*
+	 * node methods
+	 */
+
+	/**
+	 * The <code>addNode(V)</code> method deals with adding specified node
+	 * to graph node set.
+	 * <br>
+	 * In version 1.0.0 this method was not daisy-chainable.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param node The node to add to graph
+	 * @return The graph with added node
+	 */
+	public Graph<V, E> addNode(V node)
+	{
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.maintainedClusteringCoefficient();
+		boolean isAdded = this.mutableJgraph().addVertex(node);
+		if (clustering != null)
+		{
+			if (isAdded)
+			{
+				clustering.nodeAdded(node);
+			}
+			this.clusteringCoefficient.refresh(this.version);
+		}
+
+		return this;
+	}
+
+	/**
+	 * The <code>addNodes(V[])</code> method deals with adding nodes from
+	 * specified array to graph node set.
+	 * <br>
+	 * In version 1.0.0 this method was not daisy-chainable.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @see #addNode(Object)
+	 * 
+	 * @param nodes The nodes to add to graph
+	 * @return The graph with added nodes
+	 */
+	public Graph<V, E> addNodes(V[] nodes)
+	{
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.maintainedClusteringCoefficient();
+		org.jgrapht.Graph<V, E> graph = this.mutableJgraph();
+		for (V node : nodes)
+		{
+			if (graph.addVertex(node) && clustering != null)
+			{
+				clustering.nodeAdded(node);
+			}
+		}
+		if (clustering != null)
+		{
+			this.clusteringCoefficient.refresh(this.version);
+		}
+
+		return this;
+	}
+
+//	/**
+//	 * The <code>addNodes(V...)</code> method deals with adding specified nodes
+//	 * to graph node set.
+//	 * <br>
+//	 * In version 1.0.0 this method was not daisy-chainable.
+//	 * 
+//	 * @since 1.1.0
+//	 * 
+//	 * @see #addNode(Object)
+//	 * 
+//	 * @param nodes The nodes to add to graph
+//	 * @return graph with added nodes
+//	 */
+//	public Graph<V, E> addNodes(V... nodes)
+//	{
+//		List<V> nodesList = List.of(nodes); // not in Java 8
+//		nodesList.stream().forEach(n -> this.addNode(n));
+//
+//		return this;
+//	}
+
+	/**
+	 * The <code>nodeDegree(V)</code> method returns the degree of specified
+	 * node, as long as it belongs to the graph.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param node The node of graph which we want to know the degree of
+	 * @return The degree of node
+	 */
+	public int nodeDegree(V node)
+	{
+		if (this.isCompact())
+		{
+			return this.csr.degree(this.nodeIndex(node));
+		}
+
+		return this.jgraph().degreeOf(node);
+	}
+
+	/**
+	 * The <code>nodeInDegree(V)</code> method returns the 'in' degree of
+	 * specified node, as long as it belongs to the graph.
+	 * <br>
+	 * By 'in' degree of a node one denotes how many edges have the node
+	 * as their target.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param node The node of graph which we want to know the 'in' degree of
+	 * @return The 'in' degree of node
+	 */
+	public int nodeInDegree(V node)
+	{
+		if (this.isCompact())
+		{
+			return this.csr.inDegree(this.nodeIndex(node));
+		}
+
+		return this.jgraph().inDegreeOf(node);
+	}
+
+	/**
+	 * The <code>nodeOutDegree(V)</code> method returns the 'out' degree of
+	 * specified node, as long as it belongs to the graph.
+	 * <br>
+	 * By 'out' degree of a node one denotes how many edges have the node
+	 * as their source.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param node The node of graph which we want to know the 'out' degree of
+	 * @return The 'out' degree of node
+	 */
+	public int nodeOutDegree(V node)
+	{
+		if (this.isCompact())
+		{
+			return this.csr.outDegree(this.nodeIndex(node));
+		}
+
+		return this.jgraph().outDegreeOf(node);
+	}
+
+	/**
+	 * The {@code neighbourhood} method ...
+	 * <br>
+	 * In version 1.0.0, it erroneously gave the list of edges the given node
+	 * was head or tail of.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param node The node which we want to know the neighbourhood of
+	 * @return The graph with neighbour nodes and the edges among them
+	 */
+	public Graph<V, E> neighbourhood(V node)
+	{
+		return new Graph<V, E>(
+					this.nodeClass,
+					this.isDirected,
+					this.isWeighted
+				)
+				.addNode(node)
+				.addNodes(this.neighbourNodes(node))
+				.addEdges(this.neighbourhoodEdges(node));
+	}
+
+	/**
+	 * The {@code nodeEdges(V)} method returns the adjacent edges of
+	 * specified node, as long as it belongs to the graph.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param node The node which we want to know the edges of
+	 * @return The array of edges having node as source or target
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] nodeEdges(V node)
+	{
+		if (this.isCompact())
+		{
+			return this.adjacentEdges(node, true, true);
+		}
+
+		return (E[]) this.setToArray(
+				this.jgraph().edgesOf(node),
+				this.edgeClass
+		);
+	}
+
+	/**
+	 * The <code>nodeInEdges(V)</code> method returns the 'in' edges of
+	 * specified node, as long as it belongs to the graph.
+	 * <br>
+	 * By 'in' edges of a node one denotes the edges having the node as
+	 * their target.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param node The node which we want to know the 'in edges' of
+	 * @return The array of edges having node as target
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] nodeInEdges(V node)
+	{
+		if (this.isCompact())
+		{
+			return this.adjacentEdges(node, true, false);
+		}
+
+		return (E[]) this.setToArray(
+				this.jgraph().incomingEdgesOf(node),
+				this.edgeClass
+		);
+	}
+
+	/**
+	 * The <code>nodeOutEdges(V)</code> method returns the 'out' edges of
+	 * specified node, as long as it belongs to the graph.
+	 * <br>
+	 * By 'out' edges of a node one denotes the edges having the node as
 	 * their source.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param node The node which we want to know the 'out edges' of
-	 * @return The array of edges having node as source
+	 * @param node The node which we want to know the 'out edges' of
+	 * @return The array of edges having node as source
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] nodeOutEdges(V node)
+	{
+		if (this.isCompact())
+		{
+			return this.adjacentEdges(node, false, true);
+		}
+
+		return (E[]) this.setToArray(
+				this.jgraph().outgoingEdgesOf(node),
+				this.edgeClass
+		);
+	}
+
+	/**
+	 * The <code>nodeSet()</code> method returns all nodes of the graph.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @return The array of graph nodes
+	 */
+	@SuppressWarnings("unchecked")
+	public V[] nodeSet()
+	{
+		if (this.isCompact())
+		{
+			V[] nodes = (V[]) Array.newInstance(
+					this.nodeClass,
+					this.csr.numNodes()
+			);
+			IntStream
+					.range(0, nodes.length)
+					.forEach(i -> nodes[i] = this.csr.nodeAt(i));
+
+			return nodes;
+		}
+
+		Set<V> nodeSet = this.jgraph().vertexSet();
+
+		return (V[]) this.setToArray(nodeSet, this.nodeClass);
+	}
+
+	/**
+	 * The <code>numNodes()</code> method returns the number of nodes
+	 * in the graph.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @return The number of graph nodes
+	 */
+	public int numNodes()
+	{
+		if (this.isCompact())
+		{
+			return this.csr.numNodes();
+		}
+
+		return this.jgraph().vertexSet().size();
+	}
+
+	/**
+	 * The <code>removeNode(V)</code> method deals with removing specified
+	 * node from graph, if it belongs to it.
+	 * <br>
+	 * In version 1.1.0 this method was not daisy-chainable.
+	 * 
+	 * @since 1.1.1
+	 * 
+	 * @param node The node to remove
+	 * @return The graph deprived of {@code node} and its incident edges
+	 */
+	public Graph<V, E> removeNode(V node)
+	{
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.maintainedClusteringCoefficient();
+		if (clustering != null && this.jgraph().containsVertex(node))
+		{
+			clustering.nodeRemoving(node);
+		}
+		this.mutableJgraph().removeVertex(node);
+		if (clustering != null)
+		{
+			this.clusteringCoefficient.refresh(this.version);
+		}
+
+		return this;
+	}
+
+	/**
+	 * The <code>hasNode(V)</code> method checks whether specified node
+	 * belongs to graph or not.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param node The node to check for
+	 * @return {@code true} if the node belongs to graph,
+	 * {@code false} otherwise
+	 */
+	public boolean hasNode(V node)
+	{
+		if (this.isCompact())
+		{
+			return this.csr.indexOf(node) >= 0;
+		}
+
+		return this.jgraph().containsVertex(node);
+	}
+
+	/*
+	 * edge methods
+	 */
+
+	/**
+	 * The <code>addEdge(V, V)</code> method adds an edge to graph which
+	 * specified nodes are the source and target of.
+	 * <br>
+	 * In version 1.0.0 this method was not daisy-chainable.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param firstNode One of the edge nodes
+	 * @param secondNode The other edge node
+	 * @return The graph with added edge
+	 */
+	public Graph<V, E> addEdge(V firstNode, V secondNode)
+	{
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.maintainedClusteringCoefficient();
+		E edge = this.mutableJgraph().addEdge(firstNode, secondNode);
+		if (clustering != null)
+		{
+			if (edge != null)
+			{
+				clustering.edgeAdded(firstNode, secondNode);
+			}
+			this.clusteringCoefficient.refresh(this.version);
+		}
+
+		return this;
+	}
+
+	/**
+	 * The {@code addEdges(V[], V[], double[])} method adds to graph the
+	 * edges between nodes at the same position of given arrays, with the
+	 * weights at such position, if any.
+	 * <br>
+	 * Edges are validated one by one, but failures do not stop the batch:
+	 * edges between missing nodes, loops and edges already in graph are
+	 * skipped and collected into the returned report. Loading a large
+	 * graph from scratch is faster by {@link Builder}, which skips most
+	 * validation.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param sources The edge sources
+	 * @param targets The edge targets
+	 * @param weights The edge weights, ignored if graph is unweighted;
+	 * {@code null} for default weights
+	 * @return The report of added and skipped edges, identified by their
+	 * position in arrays
+	 * @throws IllegalArgumentException The arrays have different lengths
+	 */
+	public BatchReport addEdges(V[] sources, V[] targets, double[] weights)
+	{
+		if (
+			sources.length != targets.length ||
+			(weights != null && weights.length != sources.length)
+		)
+		{
+			throw new IllegalArgumentException(
+					"sources, targets and weights must have the same length"
+			);
+		}
+
+		final boolean wasCompact = this.isCompact();
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.maintainedClusteringCoefficient();
+		org.jgrapht.Graph<V, E> graph = this.mutableJgraph();
+		BatchReport report = new BatchReport(sources.length);
+		for (int i = 0; i < sources.length; i++)
+		{
+			if (
+				!graph.containsVertex(sources[i]) ||
+				!graph.containsVertex(targets[i])
+			)
+			{
+				report.reject(i, "no such vertex in graph");
+				continue;
+			}
+			if (sources[i].equals(targets[i]))
+			{
+				report.reject(i, "loops not allowed");
+				continue;
+			}
+			E edge = graph.addEdge(sources[i], targets[i]);
+			if (edge == null)
+			{
+				report.reject(i, "edge already in graph");
+				continue;
+			}
+			if (this.isWeighted && weights != null)
+			{
+				graph.setEdgeWeight(edge, weights[i]);
+			}
+			if (clustering != null)
+			{
+				clustering.edgeAdded(sources[i], targets[i]);
+			}
+		}
+		if (clustering != null)
+		{
+			this.clusteringCoefficient.refresh(this.version);
+		}
+		if (wasCompact)
+		{
+			this.compact();
+		}
+
+		return report;
+	}
+
+	/**
+	 * The <code>getEdge(V, V)</code> method returns the edge which
+	 * specified nodes are the source and target of.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param firstNode One of the edge nodes
+	 * @param secondNode The other edge node
+	 * @return The edge of the graph where <code>firstNode</code> is source
+	 * and <code>secondNode</code> is target
+	 */
+	public E getEdge(V firstNode, V secondNode)
+	{
+		if (this.isCompact())
+		{
+			int source = this.csr.indexOf(firstNode);
+			int target = this.csr.indexOf(secondNode);
+			int index = source < 0 || target < 0?
+				-1:
+				this.csr.edgeIndex(source, target);
+
+			return index < 0 ?
+					null :
+					this.edgesAt(new int[] {source}, new int[] {index})[0];
+		}
+
+		return this.jgraph().getEdge(firstNode, secondNode);
+	}
+
+	/**
+	 * The <code>edgeSet()</code> method returns all edges of the graph.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @return The array of graph edges
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] edgeSet()
+	{
+		if (this.isCompact())
+		{
+			final int n = this.csr.numNodes();
+			final int[] offsets = this.csr.outOffsets();
+			final int[] targets = this.csr.outTargets();
+			int[] sources = new int[this.csr.numEdges()];
+			int[] indices = new int[sources.length];
+			int k = 0;
+			for (int u = 0; u < n; u++)
+			{
+				for (int i = offsets[u]; i < offsets[u + 1]; i++)
+				{
+					// undirected edges are stored for both endpoints
+					if (this.isDirected || u < targets[i])
+					{
+						sources[k] = u;
+						indices[k++] = i;
+					}
+				}
+			}
+
+			return this.edgesAt(sources, indices);
+		}
+
+		Set<E> edgeSet = this.jgraph().edgeSet();
+
+		return (E[]) this.setToArray(edgeSet, this.edgeClass);
+	}
+
+	/**
+	 * The <code>numEdges()</code> method returns the number of edges
+	 * in the graph.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @return The number of graph edges
+	 */
+	public int numEdges()
+	{
+		if (this.isCompact())
+		{
+			return this.csr.numEdges();
+		}
+
+		return this.jgraph().edgeSet().size();
+	}
+
+	/**
+	 * The {@code getEdgeSource(E)} method returns the source of given edge.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param e The edge which source has to be extracted of
+	 * @return The edge source
+	 */
+	public V getEdgeSource(E e)
+	{
+		return this.edgeReader().getEdgeSource(e);
+	}
+
+	/**
+	 * The {@code setEdgeSource(E, V)} method sets the source of given edge.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param e The edge which source has to be set of
+	 * @param s The edge source to set
+	 */
+	public void setEdgeSource(E e, V s)
+	{
+		// edges of compact graphs may not be the restored ones
+		V t = this.getEdgeTarget(e);
+		this.mutableJgraph().removeEdge(this.getEdgeSource(e), t);
+		this.mutableJgraph().addEdge(s, t);
+	}
+
+	/**
+	 * The {@code getEdgeTarget(E)} method returns the target of given edge.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param e The edge which target has to be extracted of
+	 * @return The edge target
+	 */
+	public V getEdgeTarget(E e)
+	{
+		return this.edgeReader().getEdgeTarget(e);
+	}
+
+	/**
+	 * The {@code setEdgeTarget(E, V)} method sets the target of given edge.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param e The edge which target has to be set of
+	 * @param t The edge target to set
+	 */
+	public void setEdgeTarget(E e, V t)
+	{
+		// edges of compact graphs may not be the restored ones
+		V s = this.getEdgeSource(e);
+		this.mutableJgraph().removeEdge(s, this.getEdgeTarget(e));
+		this.mutableJgraph().addEdge(s, t);
+	}
+
+	/**
+	 * The <code>getEdgeWeight(V, V)</code> method returns the weight of
+	 * edge specified by the two given nodes.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param firstNode One of the edge nodes
+	 * @param secondNode The other edge node
+	 * @return The weight of the edge
+	 */
+	public double getEdgeWeight(V firstNode, V secondNode)
+	{
+		if (this.isCompact())
+		{
+			int source = this.csr.indexOf(firstNode);
+			int target = this.csr.indexOf(secondNode);
+			int index = source < 0 || target < 0?
+				-1:
+				this.csr.edgeIndex(source, target);
+			if (index < 0)
+			{
+				// same as JGraphT for a missing edge
+				throw new NullPointerException();
+			}
+
+			return this.csr.weightAt(index);
+		}
+
+		E edge = this.jgraph().getEdge(firstNode, secondNode);
+		return this.jgraph().getEdgeWeight(edge);
+	}
+
+	/**
+	 * The <code>setEdgeWeight(V, V, float)</code> method sets the weight
+	 * of edge specified by the two given nodes.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param firstNode One of the edge nodes
+	 * @param secondNode The other edge node
+	 * @param weight The weight of the edge
+	 */
+	public void setEdgeWeight(V firstNode, V secondNode, double weight)
+	{
+		E edge = this.jgraph().getEdge(firstNode, secondNode);
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.maintainedClusteringCoefficient();
+		this.mutableJgraph().setEdgeWeight(edge, weight);
+		if (clustering != null)
+		{
+			// weights don't affect clustering
+			this.clusteringCoefficient.refresh(this.version);
+		}
+	}
+
+	/**
+	 * The <code>removeEdge(V, V)</code> method removes the edge
+	 * between specified nodes.
+	 * <br>
+	 * In version 1.1.0 this method was not daisy-chainable.
+	 * 
+	 * @since 1.1.1
+	 * 
+	 * @param firstNode One of the edge nodes
+	 * @param secondNode The other edge node
+	 * @return The graph deprived of edge among {@code firstNode}
+	 * and {@code secondNode} 
+	 */
+	public Graph<V, E> removeEdge(V firstNode, V secondNode)
+	{
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.maintainedClusteringCoefficient();
+		E edge = this.mutableJgraph().removeEdge(firstNode, secondNode);
+		if (clustering != null)
+		{
+			if (edge != null)
+			{
+				clustering.edgeRemoved(firstNode, secondNode);
+			}
+			this.clusteringCoefficient.refresh(this.version);
+		}
+
+		return this;
+	}
+
+	/**
+	 * The <code>hasEdge(V, V)</code> method checks whether graph has
+	 * an edge between specified nodes.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param firstNode One of the edge nodes
+	 * @param secondNode The other edge node
+	 * @return <code>true</code> if the edge belongs to graph,
+	 * <code>false</code> otherwise
+	 */
+	public boolean hasEdge(V firstNode, V secondNode)
+	{
+		if (this.isCompact())
+		{
+			int source = this.csr.indexOf(firstNode);
+			int target = this.csr.indexOf(secondNode);
+
+			return source >= 0 && target >= 0 &&
+				this.csr.hasEdge(source, target);
+		}
+
+		return this.jgraph().containsEdge(firstNode, secondNode);
+	}
+
+	/*
+	 * Graph measurement
+	 */
+
+	/**
+	 * The {@code shortestPath(V, V)} method looks for a path that leads from
+	 * given source node to given target node, if there's one.
+	 * <br>
+	 * It uses a bidirectional Dijkstra's shortest path algorithm to find the
+	 * path (a bidirectional BFS, for unweighted graphs), searching from both
+	 * source and target until the searches meet, on workspaces reused by
+	 * every search of the calling thread; the shortest path index is
+	 * searched instead, if it has been built.
+	 * <br>
+	 * A graph modified since its compressed sparse row representation was
+	 * last built is searched by JGraphT bidirectional Dijkstra's algorithm
+	 * instead, so that searches interleaved with modifications do not
+	 * rebuild such representation each time.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @see #buildShortestPathIndex()
+	 * 
+	 * @param source The source of shortest path to find
+	 * @param target The target of shortest path to find
+	 * @return The array of edges composing the shortest path ({@code null}
+	 * if there's no path)
+	 * @throws IllegalArgumentException Any node is not in graph, or any edge
+	 * weight is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public E[] shortestPath(V source, V target)
+	{
+		if (this.csr == null)
+		{
+			GraphPath<V, E> path = this.jgraphtPath(source, target);
+
+			return path != null ?
+					path.getEdgeList().toArray(
+							(E[]) Array.newInstance(this.edgeClass, 0)
+					) :
+					(E[]) null;
+		}
+
+		return this.pathEdges(this.shortestPathIds(source, target));
+	}
+
+	/**
+	 * The {@code shortestPath(V, V, ToDoubleBiFunction)} method looks for a
+	 * path that leads from given source node to given target node, if
+	 * there's one, by an A* search guided by given heuristic.
+	 * <br>
+	 * The heuristic estimates the distance from a node (its first argument)
+	 * to target (its second one), like the straight-line distance between
+	 * their coordinates; it must never exceed the actual distance, nor the
+	 * weight of an edge plus the estimate from its target, otherwise the
+	 * path found may not be the shortest one.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param source The source of shortest path to find
+	 * @param target The target of shortest path to find
+	 * @param heuristic The estimate of distance between two nodes
+	 * @return The array of edges composing the shortest path ({@code null}
+	 * if there's no path)
+	 * @throws IllegalArgumentException Any node is not in graph, or any edge
+	 * weight is negative
+	 */
+	public E[] shortestPath(
+			V source,
+			V target,
+			ToDoubleBiFunction<V, V> heuristic
+	)
+	{
+		CSRGraph<V> csr = this.csr();
+
+		return this.pathEdges(
+				new ShortestPaths(csr).path(
+						this.nodeIndex(source),
+						this.nodeIndex(target),
+						v -> heuristic.applyAsDouble(csr.nodeAt(v), target)
+				)
+		);
+	}
+
+	/**
+	 * The {@code shortestPathLength(V, V)} method calculates the number of hops
+	 * required to go from givn source node to given destination node; if no
+	 * path exists from source to target, {@code Integer.MAX_VALUE} is returned.
+	 * 
+	 * @since 1.1.2
+	 * 
+	 * @param source The source of shortest path length to find
+	 * @param target The target of shortest path length to find
+	 * @return The shortest path length from source to target
+	 */
+	public int shortestPathLength(V source, V target)
+	{
+		if (this.csr == null)
+		{
+			GraphPath<V, E> path = this.jgraphtPath(source, target);
+
+			return path != null?
+				path.getLength():
+				Integer.MAX_VALUE;
+		}
+
+		int[] path = this.shortestPathIds(source, target);
+
+		return path != null?
+			path.length - 1:
+			Integer.MAX_VALUE;
+	}
+
+	/**
+	 * The {@code buildShortestPathIndex()} method builds an index of graph
+	 * answering the shortest path queries between two nodes of
+	 * {@link #shortestPath(Object, Object)} and
+	 * {@link #shortestPathLength(Object, Object)} by searching a tiny part
+	 * of graph, until graph is modified.
+	 * <br>
+	 * The index is a contraction hierarchy, whose nodes are contracted in
+	 * parallel: it takes a while to build, which pays off over many
+	 * queries on the same graph, especially large weighted ones like road
+	 * networks; nodes of graphs with little hierarchy, like random ones,
+	 * are left in an uncontracted core, which queries search as a whole.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @see ContractionHierarchy
+	 * 
+	 * @return The graph itself
+	 * @throws IllegalArgumentException Any edge weight is negative
+	 */
+	public Graph<V, E> buildShortestPathIndex()
+	{
+		this.shortestPathIndex.clear();
+		this.shortestPathIndex.get(
+				this.version,
+				() -> new ContractionHierarchy(this.csr(), this.parallelism)
+		);
+
+		return this;
+	}
+
+	/**
+	 * The {@code hasShortestPathIndex()} method tells whether shortest path
+	 * queries are answered by an index of current graph.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @return {@code true} if the index is built and up to date,
+	 * {@code false} otherwise
+	 */
+	public boolean hasShortestPathIndex()
+	{
+		return this.shortestPathIndex.getIfCurrent(this.version) != null;
+	}
+
+	/**
+	 * The {@code saveShortestPathIndex(Path)} method saves the shortest
+	 * path index into a file, typically along with the binary snapshot of
+	 * graph saved by {@link #saveBinary(Path)}, so that it is not built
+	 * again once graph is loaded.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param path Destination for index file in file system
+	 * @throws IOException Index cannot be saved to file
+	 * @throws IllegalStateException The index is not built, or graph has
+	 * been modified since
+	 */
+	public void saveShortestPathIndex(Path path) throws IOException
+	{
+		ContractionHierarchy index =
+				this.shortestPathIndex.getIfCurrent(this.version);
+		if (index == null)
+		{
+			throw new IllegalStateException("no shortest path index");
+		}
+		index.save(path);
+	}
+
+	/**
+	 * The {@code loadShortestPathIndex(Path)} method loads the shortest
+	 * path index of graph from a file written by
+	 * {@link #saveShortestPathIndex(Path)}.
+	 * <br>
+	 * Index refers to nodes by their position, so it has to be loaded into
+	 * the same graph it has been saved from, e.g. as loaded by
+	 * {@link #loadBinary(Path, Class)}: the order of nodes, by their hash
+	 * codes, and the edges and weights of graph are checked against those
+	 * of indexed graph, by a fingerprint saved along with the index.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param path Index file in file system
+	 * @return The graph itself
+	 * @throws IOException Index cannot be loaded from file, or it doesn't
+	 * match graph
+	 */
+	public Graph<V, E> loadShortestPathIndex(Path path) throws IOException
+	{
+		ContractionHierarchy index = ContractionHierarchy.load(path);
+		CSRGraph<V> csr = this.csr();
+		if (index.numNodes() != csr.numNodes() ||
+				index.numEdges() != csr.numEdges())
+		{
+			throw new IOException(
+					"index of " + index.numNodes() + " nodes and " +
+					index.numEdges() + " edges doesn't match graph"
+			);
+		}
+		if (index.fingerprint() != csr.fingerprint())
+		{
+			throw new IOException(
+					"index has been built for a different graph"
+			);
+		}
+		this.shortestPathIndex.clear();
+		this.shortestPathIndex.get(this.version, () -> index);
+
+		return this;
+	}
+
+	/**
+	 * The {@code shortestPathIds(V, V)} helper method finds a shortest path
+	 * between given nodes, by the shortest path index if it's up to date,
+	 * or by a bidirectional search otherwise.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param source The source of shortest path to find
+	 * @param target The target of shortest path to find
+	 * @return The ids of path nodes ({@code null} if there's no path)
+	 * @throws IllegalArgumentException Any node is not in graph
+	 */
+	private int[] shortestPathIds(V source, V target)
+	{
+		final int sourceId = this.nodeIndex(source);
+		final int targetId = this.nodeIndex(target);
+		ContractionHierarchy index =
+				this.shortestPathIndex.getIfCurrent(this.version);
+
+		return index != null ?
+				index.path(sourceId, targetId) :
+				new ShortestPaths(this.csr()).path(sourceId, targetId);
+	}
+
+	/**
+	 * The {@code jgraphtPath(V, V)} helper method finds a shortest path
+	 * between given nodes of JGraphT graph, by a bidirectional Dijkstra's
+	 * algorithm.
+	 * <br>
+	 * Weights of weighted graphs are read through a view rejecting negative
+	 * ones, since the bidirectional search does not check them, as JGraphT
+	 * Dijkstra's algorithm does.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param source The source of shortest path to find
+	 * @param target The target of shortest path to find
+	 * @return The shortest path ({@code null} if there's no path)
+	 * @throws IllegalArgumentException Any node is not in graph, or a
+	 * negative edge weight is met
+	 */
+	private GraphPath<V, E> jgraphtPath(V source, V target)
+	{
+		this.requireNode(source);
+		this.requireNode(target);
+		org.jgrapht.Graph<V, E> searched = this.graph;
+		if (this.isWeighted)
+		{
+			searched = new AsWeightedGraph<>(
+					this.graph,
+					edge -> {
+						double weight = this.graph.getEdgeWeight(edge);
+						if (weight < 0.0)
+						{
+							throw new IllegalArgumentException(
+									"Negative edge weight not allowed"
+							);
+						}
+
+						return weight;
+					},
+					false,
+					false
+			);
+		}
+
+		return new BidirectionalDijkstraShortestPath<>(searched)
+				.getPath(source, target);
+	}
+
+	/**
+	 * The {@code requireNode(V)} helper method checks that given node
+	 * belongs to JGraphT graph.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param node The node to check for
+	 * @throws IllegalArgumentException The node is not in graph
+	 */
+	private void requireNode(V node)
+	{
+		if (!this.graph.containsVertex(node))
+		{
+			throw new IllegalArgumentException(
+					"no such vertex in graph: " + node
+			);
+		}
+	}
+
+	/**
+	 * The {@code pathEdges(int[])} helper method returns the edges joining
+	 * the nodes of given path.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param path The ids of path nodes
+	 * @return The array of path edges ({@code null} if path is)
+	 */
+	@SuppressWarnings("unchecked")
+	private E[] pathEdges(int[] path)
+	{
+		if (path == null)
+		{
+			return (E[]) null;
+		}
+
+		CSRGraph<V> csr = this.csr();
+		int[] sources = Arrays.copyOf(path, path.length - 1);
+		int[] indices = new int[sources.length];
+		for (int k = 0; k < indices.length; k++)
+		{
+			indices[k] = csr.edgeIndex(path[k], path[k + 1]);
+		}
+
+		return this.edgesAt(sources, indices);
+	}
+
+	/**
+	 * The {@code shortestPathsFrom(V)} method finds the shortest paths from
+	 * given source node to every node of graph, in a single search, so that
+	 * paths to many targets are read from the result instead of being
+	 * searched again. On weighted graphs, the search is run by the
+	 * {@link #setShortestPathAlgorithm(ShortestPathAlgorithm) shortest path
+	 * algorithm}.
+	 * <br>
+	 * A graph modified since its compressed sparse row representation was
+	 * last built has such representation rebuilt first, which takes about
+	 * as long as the search itself, since both span the whole graph.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param source The source of shortest paths to find
+	 * @return The tree of shortest paths from source
+	 * @throws IllegalArgumentException The node is not in graph, or any edge
+	 * weight is negative
+	 */
+	public PathTree<V> shortestPathsFrom(V source)
+	{
+		CSRGraph<V> csr = this.csr();
+		final int sourceId = this.nodeIndex(source);
+		DeltaStepping deltaStepping = this.deltaStepping(csr);
+
+		ShortestPathTree tree;
+		if (!csr.isWeighted())
+		{
+			tree = new BreadthFirstSearch(csr, this.parallelism)
+					.pathTree(sourceId);
+		}
+		else if (deltaStepping != null)
+		{
+			tree = deltaStepping.tree(sourceId);
+		}
+		else
+		{
+			tree = new ShortestPaths(csr).tree(sourceId);
+		}
+
+		return new PathTree<>(this.nodeClass, csr, tree);
+	}
+
+	/**
+	 * The {@code getDiameter()} method returns the diameter of graph.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @return The graph diameter
+	 */
+	public double getDiameter()
+	{
+		return this.eccentricities().diameter();
+	}
+
+	/**
+	 * The {@code getBoundingDiameter()} method computes the diameter of
+	 * graph by bounding node eccentricities, which usually takes just a few
+	 * BFS runs on large sparse undirected graphs instead of one for each
+	 * node, as {@link #getDiameter()} does.
+	 * <br>
+	 * The returned object reports the diameter along with the number of BFS
+	 * runs (Dijkstra's algorithm runs, for weighted graphs) needed to
+	 * certify it; directed graphs, and graphs whose bounds do not converge
+	 * soon enough, are measured exhaustively.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @return The graph diameter finder, with diameter already computed
+	 */
+	public BoundingDiameter getBoundingDiameter()
+	{
+		CSRGraph<V> csr = this.csr();
+		DeltaStepping deltaStepping = this.deltaStepping(csr);
+		BoundingDiameter boundingDiameter = deltaStepping == null ?
+				new BoundingDiameter(csr, this.parallelism) :
+				new BoundingDiameter(csr, deltaStepping);
+		boundingDiameter.diameter();
+
+		return boundingDiameter;
+	}
+
+	/**
+	 * The {@code getRadius()} method returns the tadius of graph.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @return The graph radius
+	 */
+	public double getRadius()
+	{
+		return this.eccentricities().radius();
+	}
+
+	/**
+	 * The {@code getCenter()} method returns the enter of graph.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @return The graph center
+	 */
+	public V[] getCenter()
+	{
+		return this.idsToNodes(this.eccentricities().center());
+	}
+
+	/**
+	 * The {@code getPeriphery()} method returns the periphery of graph.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @return The graph periphery
+	 */
+	public V[] getPeriphery()
+	{
+		return this.idsToNodes(this.eccentricities().periphery());
+	}
+
+	/**
+	 * The {@code getNodeEccentricity(V)} method returns the eccentricity of
+	 * given node.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param node The node whose eccentricity has to be found
+	 * @return The node eccentricity
+	 * @throws IllegalArgumentException The node doesn't belong to graph
+	 */
+	public double getNodeEccentricity(V node)
+	{
+		return this.eccentricities().eccentricities()[this.nodeIndex(node)];
+	}
+
+	/**
+	 * The {@code getAveragePathLength()} method returns the average path
+	 * length of graph, i.e. the average distance between ordered pairs of
+	 * distinct nodes.
+	 * <br>
+	 * Distances are computed with one BFS (Dijkstra's algorithm, for weighted
+	 * graphs) per node, in parallel; for weighted graphs, distances are path
+	 * weights, and they are computed by a parallel delta-stepping search per
+	 * node when it is the {@link #setShortestPathAlgorithm(ShortestPathAlgorithm)
+	 * shortest path algorithm}.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @return The graph average path length, {@code Double.POSITIVE_INFINITY}
+	 * if some node cannot reach some other node
+	 */
+	public double getAveragePathLength()
+	{
+		return this.allPairsShortestPaths().averagePathLength();
+	}
+
+	/**
+	 * The {@code getDistanceMatrix()} method returns the distances between
+	 * every pair of graph nodes; rows and columns of matrix follow the order
+	 * of nodes in {@link #nodeSet()}.
+	 * <br>
+	 * Distances are computed with one BFS (Dijkstra's algorithm, for weighted
+	 * graphs) per node, in parallel; for weighted graphs, distances are path
+	 * weights, and they are computed by a parallel delta-stepping search per
+	 * node when it is the {@link #setShortestPathAlgorithm(ShortestPathAlgorithm)
+	 * shortest path algorithm}.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @return The matrix of distances among nodes, where
+	 * {@code Double.POSITIVE_INFINITY} denotes there's no path
+	 */
+	public double[][] getDistanceMatrix()
+	{
+		return this.allPairsShortestPaths().distanceMatrix();
+	}
+
+	/*
+	 * Graph metrics
+	 */
+
+	// /**
+	//  * The ...
+	//  * 
+	//  * @since 1.1.0
+	//  * 
+	//  * @return The graph total number of triangles
+	//  */
+	// public long getNumberOfTriangles()
+	// {
+	// 	return GraphMetrics.getNumberOfTriangles(this.graph);
+	// }
+
+	// /**
+	//  * An $O(|E|^{3/2})$ algorithm for counting the number of non-trivial triangles in an undirected
+	//  * graph. A non-trivial triangle is formed by three distinct vertices all connected to each
+	//  * other.
+	//  *
+	//  * <p>
+	//  * For more details of this algorithm see Ullman, Jeffrey: "Mining of Massive Datasets",
+	//  * Cambridge University Press, Chapter 10
+	//  *
+	//  * @since 1.1.0
+	//  * @see org.jgrapht.GraphMetrics#getNumberOfTriangles(org.jgrapht.Graph)
+	//  * 
+	//  * @param graph the input graph
+	//  * @param <V> the graph vertex type
+	//  * @param <E> the graph edge type
+	//  * @return The number of triangles in the graph which node is part of
+	//  * @throws NullPointerException if {@code graph} is {@code null}
+	//  * @throws IllegalArgumentException if {@code graph} is not undirected
+	//  */
+	// public long getNumberOfTriangles(V node) // TODO test
+	// {
+	// 	GraphTests.requireUndirected(this.graph);
+
+	// 	final int sqrtV = (int) Math.sqrt(this.graph.vertexSet().size());
+
+	// 	/**
+	// 	 * The set of node neighbour nodes
+	// 	 */
+	// 	Set<V> vertexSet = Graphs.neighborSetOf(this.graph, node);
+	// 	List<V> vertexList = new ArrayList<>(vertexSet); // just consider node neighbourhood
+	// 	Graph<V, E> neighbourhood = this.neighbourhood(node);
+
+	// 	/*
+	// 	 * The book suggest the following comparator: "Compare vertices based on their degree. If
+	// 	 * equal compare them of their actual value, since they are all integers".
+	// 	 */
+
+	// 	// Fix vertex order for unique comparison of vertices
+	// 	Map<V, Integer> vertexOrder =
+	// 		CollectionUtil.newHashMapWithExpectedSize(vertexSet.size()); // neighbourhood
+	// 	int k = 0;
+	// 	for (V v : vertexSet)
+	// 	{
+	// 		vertexOrder.put(v, k++);
+	// 	}
+
+	// 	Comparator<V> comparator = Comparator
+	// 		.comparingInt(neighbourhood::nodeDegree)
+	// 		.thenComparingInt(System::identityHashCode)
+	// 		.thenComparingInt(vertexOrder::get);
+
+	// 	vertexList.sort(comparator);
+
+	// 	// vertex v is a heavy-hitter iff degree(v) >= sqrtV
+	// 	List<V> heavyHitterVertices = vertexList
+	// 		.stream()
+	// 		.filter(x -> neighbourhood.graph.degreeOf(x) >= sqrtV)
+	// 		.collect(Collectors.toCollection(ArrayList::new));
+
+	// 	// count the number of triangles formed from only heavy-hitter vertices
+	// 	long numberTriangles = this.naiveCountTriangles(heavyHitterVertices);
+
+	// 	for (E edge : this.neighbourhoodEdges(node))
+	// 	{
+	// 		V v1 = neighbourhood.getEdgeSource(edge);
+	// 		V v2 = neighbourhood.getEdgeTarget(edge);
+
+	// 		if (v1 == v2)
+	// 		{
+	// 			continue;
+	// 		}
+
+	// 		if (
+	// 			neighbourhood.graph.degreeOf(v1) < sqrtV ||
+	// 			neighbourhood.graph.degreeOf(v2) < sqrtV
+	// 		)
+	// 		{
+	// 			// ensure that v1 <= v2 (swap them otherwise)
+	// 			if (comparator.compare(v1, v2) > 0)
+	// 			{
+	// 				V tmp = v1;
+	// 				v1 = v2;
+	// 				v2 = tmp;
+	// 			}
+
+	// 			for (E e : neighbourhood.graph.edgesOf(v1))
+	// 			{
+	// 				V u = Graphs.getOppositeVertex(neighbourhood.graph, e, v1);
+
+	// 				// check if the triangle is non-trivial: u, v1, v2 are distinct vertices
+	// 				if (u == v1 || u == v2)
+	// 				{
+	// 					continue;
+	// 				}
+
+	// 				/*
+	// 				 * Check if v2 <= u and if (u, v2) is a valid edge. If both of them are true,
+	// 				 * then we have a new triangle (v1, v2, u) and all three vertices in the
+	// 				 * triangle are ordered (v1 <= v2 <= u) so we count it only once.
+	// 				 */
+	// 				if (
+	// 					comparator.compare(v2, u) <= 0 &&
+	// 					neighbourhood.graph.containsEdge(u, v2))
+	// 				{
+	// 					numberTriangles++;
+	// 				}
+	// 			}
+	// 		}
+	// 	}
+
+	// 	return numberTriangles;
+	// }
+
+	// /**
+	//  * The {@code getNumberOfTriplets()} method ...
+	//  * 
+	//  * @since 1.1.0
+	//  * @see org.jgrapht.alg.scoring.ClusteringCoefficient#computeGlobalClusteringCoefficient()
+	//  * 
+	//  * @return The graph number of triplets
+	//  */
+	// public int getNumberOfTriplets()
+	// {
+	// 	return this.triplets(null);
+	// }
+
+	// /**
+	//  * The {@code getNumberOfTriplets(V)} method ...
+	//  * 
+	//  * @since 1.1.0
+	//  * @see org.jgrapht.alg.scoring.ClusteringCoefficient#computeGlobalClusteringCoefficient()
+	//  * 
+	//  * @return The graph number of triplets which node is part of
+	//  */
+	// public int getNumberOfTriplets(V node)
+	// {
+	// 	return this.triplets(node);
+	// }
+
+	/**
+	 * The {@code getAverageClusteringCoefficient()} method returns the average
+	 * clustering coefficient of graph, calculated as the average of clustering
+	 * coefficient of its nodes. 
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @return The graph average clustering coefficient
+	 */
+	public double getAverageClusteringCoefficient()
+	{
+		return this.clusteringCoefficient()
+				.getAverageClusteringCoefficient();
+	}
+
+	/**
+	 * The {@code getGlobalClusteringCoefficient()} method returns the global
+	 * clustering coefficient of graph.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @return The graph global clustering coefficient
+	 */
+	public double getGlobalClusteringCoefficient()
+	{
+		return this.clusteringCoefficient()
+				.getGlobalClusteringCoefficient();
+	}
+
+	/**
+	 * The {@code getNodeClusteringCoefficient(V)} method returns the clustering
+	 * coefficient of given node.
+	 * 
+	 * @since 1.1.0
+	 * 
+	 * @param node The graph node which clustering coefficient has to be found
+	 * @return The graph node clustering coefficient
+	 */
+	public double getNodeClusteringCoefficient(V node)
+	{
+		return this.clusteringCoefficient()
+				.getNodeClusteringCoefficient(node);
+	}
+
+	/*
+	 * I/O related functions
+	 */
+
+	/**
+	 * The <code>importGraph(File, String, Class&lt;V&gt;, boolean,
+	 * boolean)</code> method imports a graph from a specified file;
+	 * class object for nodes has to be specified, along with two boolean
+	 * values denoting whether graph is directed or weighted.
+	 * <br>
+	 * Source file has to be in CSV format: specifically, it has to be an
+	 * <em>edge list</em> file listing the edges of graph (and, optionally,
+	 * their weight) in such a fashion:<br><br>
+	 * <code>a b 2.3</code><br>
+	 * <code>b c 1.8</code><br><br>
+	 * In this example, two weighted edges have been defined, separated by
+	 * space character. Weight has to be specified or not according to
+	 * relative boolean value passed.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param file Edgelist file in file system
+	 * @param separator Separator character for CSV
+	 * @param nodeClass <code>Class&lt;V&gt;</code> object for nodes
+	 * @param isWeighted <code>true</code> if graph is weighted,
+	 * <code>false</code> otherwise
+	 * @param isDirected <code>true</code> if graph is directed,
+	 * <code>false</code> otherwise
+	 * @return the <code>Graph&lt;V, E&gt;</code> object read from
+	 * <code>path</code> file
+	 * @throws FileNotFoundException There is no file at specified path
+	 * @throws Exception Graph cannot be imported from file
+	 */
+	public static <V, E> Graph<V, E> importGraph(
+			File file,
+			String separator,
+			Class<V> nodeClass,
+			boolean isWeighted,
+			boolean isDirected
+	)
+			throws FileNotFoundException, Exception
+	{
+		return Graph.importGraph(
+				file,
+				separator,
+				nodeClass,
+				isWeighted,
+				isDirected,
+				Backend.JGRAPHT
+		);
+	}
+
+	/**
+	 * The <code>importGraph(File, String, Class&lt;V&gt;, boolean,
+	 * boolean, Backend)</code> method imports a graph from a specified file
+	 * into specified storage backend; a {@link Backend#CSR} graph is
+	 * compacted as soon as it has been read.
+	 * <br>
+	 * Since version 1.2.0, file is memory-mapped and scanned in parallel by
+	 * {@link EdgeListImporter} rather than by JGraphT CSV importer, and
+	 * graph is built in bulk; nodes are added in the order they first
+	 * appear in file, as before.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @see #importGraph(File, String, Class, boolean, boolean)
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param file Edgelist file in file system
+	 * @param separator Separator character for CSV
+	 * @param nodeClass <code>Class&lt;V&gt;</code> object for nodes
+	 * @param isWeighted <code>true</code> if graph is weighted,
+	 * <code>false</code> otherwise
+	 * @param isDirected <code>true</code> if graph is directed,
+	 * <code>false</code> otherwise
+	 * @param backend The storage backend of graph
+	 * @return the <code>Graph&lt;V, E&gt;</code> object read from
+	 * <code>path</code> file
+	 * @throws FileNotFoundException There is no file at specified path
+	 * @throws Exception Graph cannot be imported from file
+	 */
+	public static <V, E> Graph<V, E> importGraph(
+			File file,
+			String separator,
+			Class<V> nodeClass,
+			boolean isWeighted,
+			boolean isDirected,
+			Backend backend
+	)
+			throws FileNotFoundException, Exception
+	{
+		Graph<V, E> flyGraph = new Graph<V, E>(
+					nodeClass,
+					isDirected,
+					isWeighted,
+					backend
+			);
+
+		try
+		{
+			EdgeListImporter.EdgeList edgeList =
+					new EdgeListImporter(separator.charAt(0), isWeighted)
+					.read(file.toPath());
+
+			return Graph.fill(flyGraph, edgeList);
+		}
+		catch (NoSuchFileException e)
+		{
+			throw new FileNotFoundException(file.getPath());
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			// we need to hide importer exceptions because
+			// caller mustn't be aware of how the file is read,
+			// that's why we're relaunching them as a messaged
+			// Exception, as we did with JGraphT ImportException;
+			// graph rejecting an edge, like a loop, is one of them
+			throw new Exception(
+					e.getClass().getSimpleName() +
+					": " +
+					e.getLocalizedMessage()
+			);
+		}
+	}
+
+	/**
+	 * The {@code fill(Graph, EdgeListImporter.EdgeList)} helper method adds
+	 * nodes and edges read from an edge list file to given empty graph; a
+	 * {@link Backend#CSR} graph is compacted as soon as it has been filled.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param flyGraph The graph to fill
+	 * @param edgeList The nodes and edges read from file
+	 * @return The filled graph
+	 * @throws IllegalArgumentException Graph doesn't allow an edge, e.g. a
+	 * loop
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V, E> Graph<V, E> fill(
+			Graph<V, E> flyGraph,
+			EdgeListImporter.EdgeList edgeList
+	)
+	{
+		final boolean isDirected = flyGraph.isDirected;
+		final boolean isWeighted = flyGraph.isWeighted;
+
+		// nodes are labelled by strings read from file,
+		// whatever the node class is
+		if (flyGraph.backend == Backend.CSR)
+		{
+			CSRGraph.Builder<V> builder = new CSRGraph.Builder<>(
+					isDirected,
+					isWeighted,
+					edgeList.numNodes(),
+					edgeList.numLines()
+			);
+			for (int u = 0; u < edgeList.numNodes(); u++)
+			{
+				builder.addNode((V) edgeList.node(u));
+			}
+			for (int line = 0; line < edgeList.numLines(); line++)
+			{
+				if (edgeList.target(line) >= 0)
+				{
+					builder.addEdge(
+							edgeList.source(line),
+							edgeList.target(line),
+							edgeList.weight(line)
+					);
+				}
+			}
+			flyGraph.csr = builder.build();
+
+			return flyGraph;
+		}
+
+		org.jgrapht.Graph<V, E> graph = flyGraph.mutableJgraph();
+		for (int u = 0; u < edgeList.numNodes(); u++)
+		{
+			graph.addVertex((V) edgeList.node(u));
+		}
+		for (int line = 0; line < edgeList.numLines(); line++)
+		{
+			if (edgeList.target(line) >= 0)
+			{
+				E e = graph.addEdge(
+						(V) edgeList.node(edgeList.source(line)),
+						(V) edgeList.node(edgeList.target(line))
+				);
+				if (isWeighted && e != null)
+				{
+					graph.setEdgeWeight(e, edgeList.weight(line));
+				}
+			}
+		}
+
+		return flyGraph.compact();
+	}
+
+	/**
+	 * The <code>importGraph(String, String, Class&lt;V&gt;, boolean,
+	 * boolean)</code> method imports a graph from a file at specified path;
+	 * class object for nodes has to be specified, along with two boolean
+	 * values denoting whether graph is directed or weighted.
+	 * <br>
+	 * Source file has to be in CSV format: specifically, it has to be an
+	 * <em>edge list</em> file listing the edges of graph (and, optionally,
+	 * their weight) in such a fashion:<br><br>
+	 * <code>a b 2.3</code><br>
+	 * <code>b c 1.8</code><br><br>
+	 * In this example, two weighted edges have been defined, separated by
+	 * space character. Weight has to be specified or not according to
+	 * relative boolean value passed.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param path Position of edgelist file in file system
+	 * @param separator Separator character for CSV
+	 * @param nodeClass <code>Class&lt;V&gt;</code> object for nodes
+	 * @param isWeighted <code>true</code> if graph is weighted,
+	 * <code>false</code> otherwise
+	 * @param isDirected <code>true</code> if graph is directed,
+	 * <code>false</code> otherwise
+	 * @return the <code>Graph&lt;V, E&gt;</code> object read from
+	 * <code>path</code> file
+	 * @throws FileNotFoundException There is no file at specified path
+	 * @throws Exception Graph cannot be imported from file
+	 */
+	public static <V, E> Graph<V, E> importGraph(
+			String path,
+			String separator,
+			Class<V> nodeClass,
+			boolean isWeighted,
+			boolean isDirected
+	)
+			throws FileNotFoundException, Exception
+	{
+		File file = new File(path);
+		return Graph.importGraph(
+				file,
+				separator,
+				nodeClass,
+				isWeighted,
+				isDirected
+		);
+	}
+
+	/**
+	 * The <code>importGraph(String, String, Class&lt;V&gt;, boolean,
+	 * boolean, Backend)</code> method imports a graph from a file at
+	 * specified path into specified storage backend.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @see #importGraph(File, String, Class, boolean, boolean, Backend)
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param path Position of edgelist file in file system
+	 * @param separator Separator character for CSV
+	 * @param nodeClass <code>Class&lt;V&gt;</code> object for nodes
+	 * @param isWeighted <code>true</code> if graph is weighted,
+	 * <code>false</code> otherwise
+	 * @param isDirected <code>true</code> if graph is directed,
+	 * <code>false</code> otherwise
+	 * @param backend The storage backend of graph
+	 * @return the <code>Graph&lt;V, E&gt;</code> object read from
+	 * <code>path</code> file
+	 * @throws FileNotFoundException There is no file at specified path
+	 * @throws Exception Graph cannot be imported from file
+	 */
+	public static <V, E> Graph<V, E> importGraph(
+			String path,
+			String separator,
+			Class<V> nodeClass,
+			boolean isWeighted,
+			boolean isDirected,
+			Backend backend
+	)
+			throws FileNotFoundException, Exception
+	{
+		return Graph.importGraph(
+				new File(path),
+				separator,
+				nodeClass,
+				isWeighted,
+				isDirected,
+				backend
+		);
+	}
+
+	/**
+	 * The {@code saveBinary(Path)} method saves the graph into a binary
+	 * snapshot file, which {@link #loadBinary(Path, Class)} loads far
+	 * faster than an edge list can be imported.
+	 * <br>
+	 * The snapshot stores the compressed sparse row representation of
+	 * graph, little-endian, along with the node labels; nodes have to be
+	 * strings, integers or longs.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @see CSRSnapshot
+	 * 
+	 * @param path Destination for snapshot file in file system
+	 * @throws IOException Graph cannot be saved to file
+	 * @throws IllegalArgumentException The nodes are neither strings, nor
+	 * integers nor longs
+	 */
+	public void saveBinary(Path path) throws IOException
+	{
+		CSRSnapshot.save(this.csr(), path);
+	}
+
+	/**
+	 * The {@code loadBinary(Path, Class<V>)} method loads a graph from a
+	 * binary snapshot file written by {@link #saveBinary(Path)}.
+	 * <br>
+	 * Snapshot sections are memory-mapped and copied in bulk, so that
+	 * processes loading the same snapshot share its page cache; the
+	 * loaded graph has {@link Backend#CSR} backend and is compact.
+	 * 
+	 * @since 1.2.0
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param path Snapshot file in file system
+	 * @param nodeClass <code>Class&lt;V&gt;</code> object for nodes
+	 * @return the <code>Graph&lt;V, E&gt;</code> object read from
+	 * <code>path</code> file
+	 * @throws IOException Graph cannot be loaded from file
+	 * @throws IllegalArgumentException Snapshot nodes are not of given class
+	 */
+	public static <V, E> Graph<V, E> loadBinary(Path path, Class<V> nodeClass)
+			throws IOException
+	{
+		CSRGraph<V> csr = CSRSnapshot.load(path, nodeClass);
+		Graph<V, E> flyGraph = new Graph<>(
+				nodeClass,
+				csr.isDirected(),
+				csr.isWeighted(),
+				Backend.CSR
+		);
+		flyGraph.csr = csr;
+
+		return flyGraph;
+	}
+
+	/**
+	 * The <code>exportGraph(Graph&lt;V, E&gt;, String, String)</code> method
+	 * exports the graph to a file at a specified path.
+	 * Destination file will be in CSV format: specifically, it will be an
+	 * <em>edge list</em> file listing the edges of graph (and, optionally,
+	 * their weight) in such a fashion:<br><br>
+	 * <code>a b 2.3</code><br>
+	 * <code>b c 1.8</code><br><br>
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param flyGraph <code>Graph&gt;V, E&lt;</code> object to write into file
+	 * @param path Destination for edgelist file in file system
+	 * @param separator Separator character for CSV
+	 * @throws Exception Graph cannot be exported to file
 	 */
-	@SuppressWarnings("unchecked")
-	public E[] nodeOutEdges(V node)
+	public static <V, E> void exportGraph(
+			Graph<V, E> flyGraph,
+			String path,
+			String separator
+	)
+			throws Exception
 	{
-		return (E[]) this.setToArray(
-				this.graph.outgoingEdgesOf(node),
-				this.edgeClass
-		);
+		Graph.exportGraph(flyGraph, path, separator, false);
 	}
 
 	/**
-	 * The <code>nodeSet()</code> method returns all nodes of the graph.
+	 * The <code>exportGraph(Graph&lt;V, E&gt;, String, String,
+	 * boolean)</code> method exports the graph to a file at a specified path,
+	 * in the same edge list format of
+	 * {@link #exportGraph(Graph, String, String)}, optionally
+	 * gzip-compressed.
+	 * <br>
+	 * Edges are formatted in parallel, with graph parallelism, and listed
+	 * by source node.
 	 * 
-	 * @since 1.0.0
+	 * @since 1.2.0
 	 * 
-	 * @return The array of graph nodes
+	 * @see EdgeListExporter
+	 * 
+	 * @param <V> The class for nodes.
+	 * @param <E> The class for edges.
+	 * @param flyGraph <code>Graph&gt;V, E&lt;</code> object to write into file
+	 * @param path Destination for edgelist file in file system
+	 * @param separator Separator character for CSV
+	 * @param isCompressed <code>true</code> if file has to be
+	 * gzip-compressed, <code>false</code> otherwise
+	 * @throws Exception Graph cannot be exported to file
 	 */
-	@SuppressWarnings("unchecked")
-	public V[] nodeSet()
+	public static <V, E> void exportGraph(
+			Graph<V, E> flyGraph,
+			String path,
+			String separator,
+			boolean isCompressed
+	)
+			throws Exception
 	{
-		Set<V> nodeSet = this.graph.vertexSet();
-
-		return (V[]) this.setToArray(nodeSet, this.nodeClass);
+		try
+		{
+			new EdgeListExporter(separator.charAt(0), flyGraph.isWeighted)
+					.setParallelism(flyGraph.parallelism)
+					.setCompressed(isCompressed)
+					.write(flyGraph.csr(), Paths.get(path));
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			// like in importGraph method, we hide
+			// the exception classes of underlying I/O
+			throw new Exception(
+					e.getClass().getSimpleName() +
+					": " +
+					e.getLocalizedMessage()
+			);
+		}
 	}
 
+	/*
+	 * Graph traversal
+	 */
+
 	/**
-	 * The <code>numNodes()</code> method returns the number of nodes
-	 * in the graph.
+	 * The <code>bfsEdges(V)</code> method returns edges of the BFS tree
+	 * rooted in specified node.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @return The number of graph nodes
+	 * @param rootNode Desired root node of BFS tree
+	 * @return Array of edges of BFS tree
 	 */
-	public int numNodes()
+	public E[] bfsEdges(V rootNode)
 	{
-		return this.graph.vertexSet().size();
+		return this.treeEdges(this.breadthFirstTree(rootNode));
 	}
 
 	/**
-	 * The <code>removeNode(V)</code> method deals with removing specified
-	 * node from graph, if it belongs to it.
-	 * <br>
-	 * In version 1.1.0 this method was not daisy-chainable.
+	 * The <code>bfsNodes(V)</code> method returns nodes of the BFS tree
+	 * rooted in specified node.
 	 * 
-	 * @since 1.1.1
+	 * @since 1.0.0
 	 * 
-	 * @param node The node to remove
-	 * @return The graph deprived of {@code node} and its incident edges
+	 * @param rootNode Desired root node of BFS tree
+	 * @return Array of nodes of BFS tree
 	 */
-	public Graph<V, E> removeNode(V node)
+	public V[] bfsNodes(V rootNode)
 	{
-		this.graph.removeVertex(node);
-
-		return this;
+		return this.idsToNodes(this.breadthFirstTree(rootNode).order());
 	}
 
 	/**
-	 * The <code>hasNode(V)</code> method checks whether specified node
-	 * belongs to graph or not.
+	 * The <code>bfsTree(V)</code> method returns the BFS tree
+	 * rooted in specified node.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param node The node to check for
-	 * @return {@code true} if the node belongs to graph,
-	 * {@code false} otherwise
+	 * @param rootNode Desired root node of BFS tree
+	 * @return BFS tree
 	 */
-	public boolean hasNode(V node)
+	public Graph<V, E> bfsTree(V rootNode)
 	{
-		return this.graph.containsVertex(node);
+		return this.treeGraph(this.breadthFirstTree(rootNode));
 	}
 
-	/*
-	 * edge methods
+	/**
+	 * The <code>dfsEdges(V)</code> method returns edges of the DFS tree
+	 * rooted in specified node.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param rootNode Desired root node of DFS tree
+	 * @return Set of edges of DFS tree
 	 */
+	public E[] dfsEdges(V rootNode)
+	{
+		return this.treeEdges(this.depthFirstTree(rootNode));
+	}
 
 	/**
-	 * The <code>addEdge(V, V)</code> method adds an edge to graph which
-	 * specified nodes are the source and target of.
-	 * <br>
-	 * In version 1.0.0 this method was not daisy-chainable.
+	 * The <code>dfsNodes(V)</code> method returns nodes of the DFS tree
+	 * rooted in specified node.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.0.0
 	 * 
-	 * @param firstNode One of the edge nodes
-	 * @param secondNode The other edge node
-	 * @return The graph with added edge
+	 * @param rootNode Desired root node of DFS tree
+	 * @return Set of nodes of DFS tree
 	 */
-	public Graph<V, E> addEdge(V firstNode, V secondNode)
+	public V[] dfsNodes(V rootNode)
 	{
-		this.graph.addEdge(firstNode, secondNode);
-
-		return this;
+		return this.idsToNodes(this.depthFirstTree(rootNode).order());
 	}
 
 	/**
-	 * The <code>getEdge(V, V)</code> method returns the edge which
-	 * specified nodes are the source and target of.
+	 * The <code>dfsTree(V)</code> method returns the DFS tree
+	 * rooted in specified node.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param firstNode One of the edge nodes
-	 * @param secondNode The other edge node
-	 * @return The edge of the graph where <code>firstNode</code> is source
-	 * and <code>secondNode</code> is target
+	 * @param rootNode Desired root node of DFS tree
+	 * @return DFS tree
 	 */
-	public E getEdge(V firstNode, V secondNode)
+	public Graph<V, E> dfsTree(V rootNode)
 	{
-		return this.graph.getEdge(firstNode, secondNode);
+		return this.treeGraph(this.depthFirstTree(rootNode));
 	}
 
+	/*
+	 * Connectivity
+	 */
+
 	/**
-	 * The <code>edgeSet()</code> method returns all edges of the graph.
+	 * The <code>isConnected()</code> method indicates whether graph is
+	 * connected.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @return The array of graph edges
+	 * @return <code>true</code> if the graph is connected,
+	 * <code>false</code> otherwise
 	 */
-	@SuppressWarnings("unchecked")
-	public E[] edgeSet()
+	public boolean isConnected()
 	{
-		Set<E> edgeSet = this.graph.edgeSet();
-
-		return (E[]) this.setToArray(edgeSet, this.edgeClass);
+		// JGraphT deems the empty graph not connected
+		return this.numNodes() > 0 && this.components().count() == 1;
 	}
 
 	/**
-	 * The <code>numEdges()</code> method returns the number of edges
-	 * in the graph.
+	 * The <code>isStronglyConnected()</code> method indicates whether graph
+	 * is strongly connected.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @return The number of graph edges
+	 * @return <code>true</code> if the graph is strongly connected,
+	 * <code>false</code> otherwise
 	 */
-	public int numEdges()
+	public boolean isStronglyConnected()
 	{
-		return this.graph.edgeSet().size();
+		if (!this.isDirected)
+		{
+			return this.isConnected();
+		}
+
+		// JGraphT deems the empty graph not strongly connected
+		return this.numNodes() > 0 && this.strongComponents().count() == 1;
 	}
 
 	/**
-	 * The {@code getEdgeSource(E)} method returns the source of given edge.
+	 * The <code>connectedComponents()</code> method returns connected
+	 * components of graph as groups of nodes.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param e The edge which source has to be extracted of
-	 * @return The edge source
+	 * @return array of arrays of connected nodes
 	 */
-	public V getEdgeSource(E e)
+	public Object[] connectedComponents()
 	{
-		return this.graph.getEdgeSource(e);
+		ConnectedComponents labelling = this.components();
+		Object[] components = (Object[]) Array.newInstance(
+				Object.class,
+				labelling.count()
+		);
+
+		IntStream
+				.range(0, components.length) // iterate over connected components
+				.forEach(i -> components[i] = this.idsToNodes(labelling.nodes(i)));
+
+		return components;
 	}
 
 	/**
-	 * The {@code setEdgeSource(E, V)} method sets the source of given edge.
+	 * The <code>connectedSubgraphs()</code> method returns connected
+	 * subgraphs of graph.
+	 * <br>
+	 * Edges are bucketed by the component of their source in a single pass,
+	 * then each subgraph is built from its own bucket, in parallel, so that
+	 * it takes linear time overall; subgraphs keep edge weights and the
+	 * storage backend of graph.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param e The edge which source has to be set of
-	 * @param s The edge source to set
+	 * @return array of connected subgraphs
 	 */
-	public void setEdgeSource(E e, V s)
+	public Graph<V, E>[] connectedSubgraphs()
 	{
-		V t = this.graph.getEdgeTarget(e);
-		this.graph.removeEdge(e);
-		this.graph.addEdge(s, t);
+		ConnectedComponents labelling = this.components();
+
+		return this.componentSubgraphs(
+				labelling.count(),
+				labelling.components(),
+				labelling::nodes
+		);
 	}
 
 	/**
-	 * The {@code getEdgeTarget(E)} method returns the target of given edge.
+	 * The <code>numberConnectedComponents()</code> method returns number of
+	 * connected components of graph.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param e The edge which target has to be extracted of
-	 * @return The edge target
+	 * @return number of connected components of the graph
 	 */
-	public V getEdgeTarget(E e)
+	public int numberConnectedComponents()
 	{
-		return this.graph.getEdgeTarget(e);
+		return this.components().count();
 	}
 
 	/**
-	 * The {@code setEdgeTarget(E, V)} method sets the target of given edge.
+	 * The <code>nodeConnectedComponent(V)</code> method returns connected
+	 * component of graph for given node.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param e The edge which target has to be set of
-	 * @param t The edge target to set
+	 * @param node The node which we want to know the connected component of
+	 * @return the connected component given node belongs to
 	 */
-	public void setEdgeTarget(E e, V t)
+	public V[] nodeConnectedComponent(V node)
 	{
-		V s = this.graph.getEdgeSource(e);
-		this.graph.removeEdge(e);
-		this.graph.addEdge(s, t);
+		ConnectedComponents labelling = this.components();
+
+		return this.idsToNodes(
+				labelling.nodes(labelling.componentOf(this.nodeIndex(node)))
+		);
 	}
 
 	/**
-	 * The <code>getEdgeWeight(V, V)</code> method returns the weight of
-	 * edge specified by the two given nodes.
+	 * The <code>stronglyConnectedComponents()</code> method returns strongly
+	 * connected components of graph as group of nodes.
+	 * <br>
+	 * Components are labelled once per version of graph, and listed in
+	 * topological order of the condensation of graph.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param firstNode One of the edge nodes
-	 * @param secondNode The other edge node
-	 * @return The weight of the edge
+	 * @return array of arrays of strongly connected components
 	 */
-	public double getEdgeWeight(V firstNode, V secondNode)
+	public Object[] stronglyConnectedComponents()
 	{
-		E edge = this.graph.getEdge(firstNode, secondNode);
-		return this.graph.getEdgeWeight(edge);
+		if (!this.isDirected)
+		{
+			return this.connectedComponents();
+		}
+
+		StronglyConnectedComponents labelling = this.strongComponents();
+		Object[] strongComponents = (Object[]) Array.newInstance(
+				Object.class,
+				labelling.count()
+		);
+
+		IntStream
+				.range(0, strongComponents.length) // iterate over components
+				.forEach(i -> strongComponents[i] = this.idsToNodes(labelling.nodes(i)));
+
+		return strongComponents;
 	}
 
 	/**
-	 * The <code>setEdgeWeight(V, V, float)</code> method sets the weight
-	 * of edge specified by the two given nodes.
+	 * The <code>stronglyConnectedSubgraphs()</code> method returns strongly
+	 * connected subgraphs of graph, in the same order as
+	 * {@link #stronglyConnectedComponents()}; subgraphs keep edge weights
+	 * and the storage backend of graph.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param firstNode One of the edge nodes
-	 * @param secondNode The other edge node
-	 * @param weight The weight of the edge
+	 * @return array of strongly connected subgraphs
 	 */
-	public void setEdgeWeight(V firstNode, V secondNode, double weight)
+	public Graph<V, E>[] stronglyConnectedSubgraphs()
 	{
-		E edge = this.graph.getEdge(firstNode, secondNode);
-		this.graph.setEdgeWeight(edge, weight);
+		if (!this.isDirected)
+		{
+			return this.connectedSubgraphs();
+		}
+
+		StronglyConnectedComponents labelling = this.strongComponents();
+
+		return this.componentSubgraphs(
+				labelling.count(),
+				labelling.components(),
+				labelling::nodes
+		);
 	}
 
 	/**
-	 * The <code>removeEdge(V, V)</code> method removes the edge
-	 * between specified nodes.
-	 * <br>
-	 * In version 1.1.0 this method was not daisy-chainable.
+	 * The {@code strongComponentOf(V)} method returns the index of the
+	 * strongly connected component given node belongs to, i.e. its position
+	 * within {@link #stronglyConnectedComponents()} and the node standing
+	 * for it in {@link #condensation()}.
 	 * 
-	 * @since 1.1.1
+	 * @since 1.2.0
 	 * 
-	 * @param firstNode One of the edge nodes
-	 * @param secondNode The other edge node
-	 * @return The graph deprived of edge among {@code firstNode}
-	 * and {@code secondNode} 
+	 * @param node The node which we want to know the component of
+	 * @return The index of component
+	 * @throws IllegalArgumentException The node is not in graph
 	 */
-	public Graph<V, E> removeEdge(V firstNode, V secondNode)
+	public int strongComponentOf(V node)
 	{
-		this.graph.removeEdge(firstNode, secondNode);
+		final int u = this.nodeIndex(node);
 
-		return this;
+		return this.isDirected ?
+				this.strongComponents().componentOf(u) :
+				this.components().componentOf(u);
 	}
 
 	/**
-	 * The <code>hasEdge(V, V)</code> method checks whether graph has
-	 * an edge between specified nodes.
+	 * The {@code strongComponentIndexes()} method returns the index of the
+	 * strongly connected component of every node, in the same order as
+	 * {@link #nodeSet()}.
 	 * 
-	 * @since 1.0.0
+	 * @since 1.2.0
 	 * 
-	 * @param firstNode One of the edge nodes
-	 * @param secondNode The other edge node
-	 * @return <code>true</code> if the edge belongs to graph,
-	 * <code>false</code> otherwise
+	 * @return The component indexes of nodes
 	 */
-	public boolean hasEdge(V firstNode, V secondNode)
+	public int[] strongComponentIndexes()
 	{
-		return this.graph.containsEdge(firstNode, secondNode);
+		return (this.isDirected ?
+				this.strongComponents().components() :
+				this.components().components()).clone();
 	}
 
-	/*
-	 * Graph measurement
-	 */
-
 	/**
-	 * The {@code shortestPath(V, V)} method looks for a path that leads from
-	 * given source node to given target node, if there's one.
+	 * The {@code condensation()} method returns the condensation of
+	 * directed graph, i.e. the DAG having a node per strongly connected
+	 * component and an edge between two components whenever an edge joins
+	 * their nodes; nodes are the component indexes, which are in
+	 * topological order.
 	 * <br>
-	 * It uses Dijkstra's shortest path algorithm to find the path.
+	 * The condensation is a byproduct of labelling components, so it is
+	 * built once per version of graph and takes no further visit; it has
+	 * the same storage backend as graph.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.2.0
 	 * 
-	 * @param source The source of shortest path to find
-	 * @param target The target of shortest path to find
-	 * @return The array of nodes composing the shortest path ({@code null} if
-	 * there's no path)
+	 * @see #strongComponentOf(Object)
+	 * 
+	 * @return The condensation DAG
+	 * @throws IllegalArgumentException The graph is undirected
 	 */
-	@SuppressWarnings("unchecked")
-	public E[] shortestPath(V source, V target)
+	public Graph<Integer, Object> condensation()
 	{
-		GraphPath<V, E> shortestPath =
-				new DijkstraShortestPath<>(this.graph)
-				.getPath(source, target);
-		if (shortestPath == null)
+		if (!this.isDirected)
 		{
-			return (E[]) null;
+			throw new IllegalArgumentException("Graph must be directed");
 		}
-		else {
-			return (E[]) shortestPath
-				.getEdgeList()
-				.toArray();
+
+		Graph<Integer, Object> condensation =
+				new Graph<>(Integer.class, true, false, Backend.CSR);
+		// the compact representation is immutable, hence it can be shared
+		condensation.csr = this.strongComponents().condensation();
+		condensation.backend = this.backend;
+		if (this.backend == Backend.JGRAPHT)
+		{
+			condensation.jgraph();
 		}
+
+		return condensation;
 	}
 
 	/**
-	 * The {@code shortestPathLength(V, V)} method calculates the number of hops
-	 * required to go from givn source node to given destination node; if no
-	 * path exists from source to target, {@code Integer.MAX_VALUE} is returned.
+	 * The {@code reachabilityIndex()} method builds the index answering
+	 * {@link #canReach(Object, Object)}, unless it is up to date with graph;
+	 * the index is built anyway by the first query after graph is modified.
+	 * <br>
+	 * Directed graphs are indexed by GRAIL interval labels of their
+	 * condensation, taking a few ints per strongly connected component, so
+	 * that most queries take constant time and the other ones search only
+	 * components which may reach the target; undirected graphs are
+	 * indexed by their connected components.
 	 * 
-	 * @since 1.1.2
+	 * @since 1.2.0
 	 * 
-	 * @param source The source of shortest path length to find
-	 * @param target The target of shortest path length to find
-	 * @return The shortest path length from source to target
+	 * @see ReachabilityIndex
+	 * 
+	 * @return The graph itself
 	 */
-	public int shortestPathLength(V source, V target)
+	public Graph<V, E> reachabilityIndex()
 	{
-		E[] path = this.shortestPath(source, target);
-		return path != null?
-			path.length:
-			Integer.MAX_VALUE;
+		if (this.isDirected)
+		{
+			this.reachability();
+		}
+		else
+		{
+			this.components();
+		}
+
+		return this;
 	}
 
 	/**
-	 * The {@code getDiameter()} method returns the diameter of graph.
+	 * The {@code canReach(V, V)} method tells whether there is a path from
+	 * a node to another one, by the index of {@link #reachabilityIndex()};
+	 * every node reaches itself.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.2.0
 	 * 
-	 * @return The graph diameter
+	 * @param source The node path starts from
+	 * @param target The node path ends at
+	 * @return {@code true} if source reaches target, {@code false}
+	 * otherwise
+	 * @throws IllegalArgumentException Any node is not in graph
 	 */
-	public double getDiameter()
+	public boolean canReach(V source, V target)
 	{
-		return this.graphMeasurer().getDiameter();
+		final int u = this.nodeIndex(source);
+		final int v = this.nodeIndex(target);
+		if (!this.isDirected)
+		{
+			ConnectedComponents labelling = this.components();
+
+			return labelling.componentOf(u) == labelling.componentOf(v);
+		}
+
+		return this.reachability().canReach(u, v);
 	}
 
+	/*
+	 * DAG and topological sorting
+	 */
+
 	/**
-	 * The {@code getRadius()} method returns the tadius of graph.
+	 * The <code>isDAG()</code> method checks whether graph is a directed
+	 * acyclic graph (DAG).
+	 * <br>
+	 * Graph is sorted topologically once per version, so that this method
+	 * and the ones sorting nodes share a single visit.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.0.0
 	 * 
-	 * @return The graph radius
+	 * @return <code>true</code> if graph is DAG,
+	 * <code>false</code> otherwise
+	 * @throws IllegalArgumentException The graph is undirected
 	 */
-	public double getRadius()
+	public boolean isDAG()
 	{
-		return this.graphMeasurer().getRadius();
+		return this.topologicalOrder().isAcyclic();
 	}
 
 	/**
-	 * The {@code getCenter()} method returns the enter of graph.
+	 * The {@code findCycle()} method returns the nodes of a cycle of graph,
+	 * which witnesses that graph is not a DAG: each node has an edge to the
+	 * next one, and the last node has an edge to the first one.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.2.0
 	 * 
-	 * @return The graph center
+	 * @return The array of cycle nodes, {@code null} if graph is a DAG
+	 * @throws IllegalArgumentException The graph is undirected
 	 */
-	@SuppressWarnings("unchecked")
-	public V[] getCenter()
+	public V[] findCycle()
 	{
-		Set<V> center = this.graphMeasurer().getGraphCenter();
+		int[] cycle = this.topologicalOrder().cycle();
 
-		return (V[]) this.setToArray(center, this.nodeClass);
+		return cycle == null ? null : this.idsToNodes(cycle);
 	}
 
 	/**
-	 * The {@code getPeriphery()} method returns the periphery of graph.
+	 * The <code>topologicalSort()</code> method returns the list of nodes
+	 * ordered according to topological sort.
+	 * <br>
+	 * Nodes are sorted by {@link #topologicalLevels()}, and by insertion
+	 * order within each level.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.0.0
 	 * 
-	 * @return The graph periphery
+	 * @return The array of topological sorted nodes
+	 * @throws IllegalArgumentException The graph is undirected or it is not
+	 * a DAG
 	 */
-	@SuppressWarnings("unchecked")
-	public V[] getPeriphery()
+	public V[] topologicalSort()
 	{
-		Set<V> periphery = this.graphMeasurer().getGraphPeriphery();
-
-		return (V[]) this.setToArray(periphery, this.nodeClass);
+		return this.idsToNodes(this.acyclicOrder().order());
 	}
 
 	/**
-	 * The {@code getNodeEccentricity(V)} method returns the eccentricity of
-	 * given node.
+	 * The {@code topologicalLevels()} method returns the nodes of DAG
+	 * grouped by topological level: sources make up level {@code 0}, and
+	 * every other node is in the level following the highest one of its
+	 * predecessors, i.e. its level is the length of the longest path
+	 * ending at it, so that the nodes of a level only depend on the nodes
+	 * of lower levels.
+	 * <br>
+	 * Large levels are expanded in parallel, up to
+	 * {@link #getParallelism()} threads.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.2.0
 	 * 
-	 * @param node The node whose eccentricity has to be found
-	 * @return The node eccentricity
+	 * @return The array of arrays of nodes of each level, in insertion
+	 * order
+	 * @throws IllegalArgumentException The graph is undirected or it is not
+	 * a DAG
 	 */
-	public double getNodeEccentricity(V node)
+	public Object[] topologicalLevels()
 	{
-		return this.graphMeasurer().getVertexEccentricityMap().get(node);
+		TopologicalOrder order = this.acyclicOrder();
+		Object[] levels = (Object[]) Array.newInstance(
+				Object.class,
+				order.numLevels()
+		);
+
+		IntStream
+				.range(0, levels.length) // iterate over levels
+				.forEach(l -> levels[l] = this.idsToNodes(order.level(l)));
+
+		return levels;
 	}
 
 	/*
-	 * Graph metrics
+	 * Minimum spanning tree
 	 */
 
-	// /**
-	//  * The ...
-	//  * 
-	//  * @since 1.1.0
-	//  * 
-	//  * @return The graph total number of triangles
-	//  */
-	// public long getNumberOfTriangles()
-	// {
-	// 	return GraphMetrics.getNumberOfTriangles(this.graph);
-	// }
-
-	// /**
-	//  * An $O(|E|^{3/2})$ algorithm for counting the number of non-trivial triangles in an undirected
-	//  * graph. A non-trivial triangle is formed by three distinct vertices all connected to each
-	//  * other.
-	//  *
-	//  * <p>
-	//  * For more details of this algorithm see Ullman, Jeffrey: "Mining of Massive Datasets",
-	//  * Cambridge University Press, Chapter 10
-	//  *
-	//  * @since 1.1.0
-	//  * @see org.jgrapht.GraphMetrics#getNumberOfTriangles(org.jgrapht.Graph)
-	//  * 
-	//  * @param graph the input graph
-	//  * @param <V> the graph vertex type
-	//  * @param <E> the graph edge type
-	//  * @return The number of triangles in the graph which node is part of
-	//  * @throws NullPointerException if {@code graph} is {@code null}
-	//  * @throws IllegalArgumentException if {@code graph} is not undirected
-	//  */
-	// public long getNumberOfTriangles(V node) // TODO test
-	// {
-	// 	GraphTests.requireUndirected(this.graph);
-
-	// 	final int sqrtV = (int) Math.sqrt(this.graph.vertexSet().size());
-
-	// 	/**
-	// 	 * The set of node neighbour nodes
-	// 	 */
-	// 	Set<V> vertexSet = Graphs.neighborSetOf(this.graph, node);
-	// 	List<V> vertexList = new ArrayList<>(vertexSet); // just consider node neighbourhood
-	// 	Graph<V, E> neighbourhood = this.neighbourhood(node);
-
-	// 	/*
-	// 	 * The book suggest the following comparator: "Compare vertices based on their degree. If
-	// 	 * equal compare them of their actual value, since they are all integers".
-	// 	 */
-
-	// 	// Fix vertex order for unique comparison of vertices
-	// 	Map<V, Integer> vertexOrder =
-	// 		CollectionUtil.newHashMapWithExpectedSize(vertexSet.size()); // neighbourhood
-	// 	int k = 0;
-	// 	for (V v : vertexSet)
-	// 	{
-	// 		vertexOrder.put(v, k++);
-	// 	}
-
-	// 	Comparator<V> comparator = Comparator
-	// 		.comparingInt(neighbourhood::nodeDegree)
-	// 		.thenComparingInt(System::identityHashCode)
-	// 		.thenComparingInt(vertexOrder::get);
-
-	// 	vertexList.sort(comparator);
-
-	// 	// vertex v is a heavy-hitter iff degree(v) >= sqrtV
-	// 	List<V> heavyHitterVertices = vertexList
-	// 		.stream()
-	// 		.filter(x -> neighbourhood.graph.degreeOf(x) >= sqrtV)
-	// 		.collect(Collectors.toCollection(ArrayList::new));
-
-	// 	// count the number of triangles formed from only heavy-hitter vertices
-	// 	long numberTriangles = this.naiveCountTriangles(heavyHitterVertices);
-
-	// 	for (E edge : this.neighbourhoodEdges(node))
-	// 	{
-	// 		V v1 = neighbourhood.getEdgeSource(edge);
-	// 		V v2 = neighbourhood.getEdgeTarget(edge);
-
-	// 		if (v1 == v2)
-	// 		{
-	// 			continue;
-	// 		}
-
-	// 		if (
-	// 			neighbourhood.graph.degreeOf(v1) < sqrtV ||
-	// 			neighbourhood.graph.degreeOf(v2) < sqrtV
-	// 		)
-	// 		{
-	// 			// ensure that v1 <= v2 (swap them otherwise)
-	// 			if (comparator.compare(v1, v2) > 0)
-	// 			{
-	// 				V tmp = v1;
-	// 				v1 = v2;
-	// 				v2 = tmp;
-	// 			}
-
-	// 			for (E e : neighbourhood.graph.edgesOf(v1))
-	// 			{
-	// 				V u = Graphs.getOppositeVertex(neighbourhood.graph, e, v1);
-
-	// 				// check if the triangle is non-trivial: u, v1, v2 are distinct vertices
-	// 				if (u == v1 || u == v2)
-	// 				{
-	// 					continue;
-	// 				}
-
-	// 				/*
-	// 				 * Check if v2 <= u and if (u, v2) is a valid edge. If both of them are true,
-	// 				 * then we have a new triangle (v1, v2, u) and all three vertices in the
-	// 				 * triangle are ordered (v1 <= v2 <= u) so we count it only once.
-	// 				 */
-	// 				if (
-	// 					comparator.compare(v2, u) <= 0 &&
-	// 					neighbourhood.graph.containsEdge(u, v2))
-	// 				{
-	// 					numberTriangles++;
-	// 				}
-	// 			}
-	// 		}
-	// 	}
-
-	// 	return numberTriangles;
-	// }
-
-	// /**
-	//  * The {@code getNumberOfTriplets()} method ...
-	//  * 
-	//  * @since 1.1.0
-	//  * @see org.jgrapht.alg.scoring.ClusteringCoefficient#computeGlobalClusteringCoefficient()
-	//  * 
-	//  * @return The graph number of triplets
-	//  */
-	// public int getNumberOfTriplets()
-	// {
-	// 	return this.triplets(null);
-	// }
-
-	// /**
-	//  * The {@code getNumberOfTriplets(V)} method ...
-	//  * 
-	//  * @since 1.1.0
-	//  * @see org.jgrapht.alg.scoring.ClusteringCoefficient#computeGlobalClusteringCoefficient()
-	//  * 
-	//  * @return The graph number of triplets which node is part of
-	//  */
-	// public int getNumberOfTriplets(V node)
-	// {
-	// 	return this.triplets(node);
-	// }
-
 	/**
-	 * The {@code getAverageClusteringCoefficient()} method returns the average
-	 * clustering coefficient of graph, calculated as the average of clustering
-	 * coefficient of its nodes. 
+	 * The <code>getMST()</code> method returns the minimum spanning tree
+	 * of graph.
+	 * <br>
+	 * Disconnected graphs are spanned by a forest, and edges of directed
+	 * graphs are taken as undirected ones; the tree keeps every node, the
+	 * weights of its edges and the storage backend of graph. The tree is
+	 * found by a parallel Borůvka's algorithm, once per version of graph.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.0.0
 	 * 
-	 * @return The graph average clustering coefficient
+	 * @see #getMSTWeight()
+	 * 
+	 * @return The graph minimum spanning tree
 	 */
-	public double getAverageClusteringCoefficient()
+	public Graph<V, E> getMST()
 	{
-		return this.clusteringCoefficient()
-				.getAverageClusteringCoefficient();
+		MinimumSpanningForest forest = this.spanningForest();
+		CSRGraph<V> csr = this.csr();
+		Builder<V, E> builder = new Builder<V, E>(
+					this.nodeClass,
+					this.isDirected,
+					this.isWeighted
+				)
+				.backend(this.backend)
+				.expectedNodes(csr.numNodes())
+				.expectedEdges(forest.size());
+
+		for (int u = 0; u < csr.numNodes(); u++)
+		{
+			builder.addNode(csr.nodeAt(u));
+		}
+		for (int k = 0; k < forest.size(); k++)
+		{
+			builder.addEdge(
+					csr.nodeAt(forest.sourceAt(k)),
+					csr.nodeAt(forest.targetAt(k)),
+					forest.weightAt(k)
+			);
+		}
+
+		return builder.build();
 	}
 
 	/**
-	 * The {@code getGlobalClusteringCoefficient()} method returns the global
-	 * clustering coefficient of graph.
+	 * The {@code getMSTWeight()} method returns the total weight of the
+	 * edges of {@link #getMST()}, without building the tree.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.2.0
 	 * 
-	 * @return The graph global clustering coefficient
+	 * @return The weight of minimum spanning tree
 	 */
-	public double getGlobalClusteringCoefficient()
+	public double getMSTWeight()
 	{
-		return this.clusteringCoefficient()
-				.getGlobalClusteringCoefficient();
+		return this.spanningForest().weight();
 	}
 
+	/*
+	 * Lowest common ancestor
+	 */
+
 	/**
-	 * The {@code getNodeClusteringCoefficient(V)} method returns the clustering
-	 * coefficient of given node.
+	 * The {@code getLCA(V, V)} method finds the lowest common ancestor node of
+	 * given pair of nodes.
+	 * <br>
+	 * Acyclic graphs are indexed by the first query after they have been
+	 * modified, so that further queries take constant time on forests and
+	 * at most linear time on DAGs; when nodes have more than one LCA, the
+	 * one ranking last in topological order is returned.
 	 * 
 	 * @since 1.1.0
 	 * 
-	 * @param node The graph node which clustering coefficient has to be found
-	 * @return The graph node clustering coefficient
+	 * @param node1 The graph first node which LCA has to be found of
+	 * @param node2 The graph second node which LCA has to be found of
+	 * @return The LCA of nodes, {@code null} if they have no common ancestor
+	 * @throws IllegalArgumentException The graph is undirected or a node
+	 * doesn't belong to graph
 	 */
-	public double getNodeClusteringCoefficient(V node)
+	public V getLCA(V node1, V node2)
 	{
-		return this.clusteringCoefficient()
-				.getVertexScore(node);
-	}
+		LowestCommonAncestors index = this.lowestCommonAncestors();
+		if (!index.isAcyclic())
+		{
+			return new NaiveLCAFinder<V, E>(this.readableJgraph()).getLCA(node1, node2);
+		}
+		int lca = index.lca(this.nodeIndex(node1), this.nodeIndex(node2));
 
-	/*
-	 * I/O related functions
-	 */
+		return lca < 0 ? null : this.csr().nodeAt(lca);
+	}
 
 	/**
-	 * The <code>importGraph(File, String, Class&lt;V&gt;, boolean,
-	 * boolean)</code> method imports a graph from a specified file;
-	 * class object for nodes has to be specified, along with two boolean
-	 * values denoting whether graph is directed or weighted.
-	 * <br>
-	 * Source file has to be in CSV format: specifically, it has to be an
-	 * <em>edge list</em> file listing the edges of graph (and, optionally,
-	 * their weight) in such a fashion:<br><br>
-	 * <code>a b 2.3</code><br>
-	 * <code>b c 1.8</code><br><br>
-	 * In this example, two weighted edges have been defined, separated by
-	 * space character. Weight has to be specified or not according to
-	 * relative boolean value passed.
+	 * The {@code getLCAs(V[], V[])} method finds the lowest common ancestor
+	 * node of each pair of nodes at the same position of given arrays,
+	 * answering queries in parallel on acyclic graphs.
 	 * 
-	 * @since 1.0.0
+	 * @since 1.2.0
 	 * 
-	 * @param <V> The class for nodes.
-	 * @param <E> The class for edges.
-	 * @param file Edgelist file in file system
-	 * @param separator Separator character for CSV
-	 * @param nodeClass <code>Class&lt;V&gt;</code> object for nodes
-	 * @param isWeighted <code>true</code> if graph is weighted,
-	 * <code>false</code> otherwise
-	 * @param isDirected <code>true</code> if graph is directed,
-	 * <code>false</code> otherwise
-	 * @return the <code>Graph&lt;V, E&gt;</code> object read from
-	 * <code>path</code> file
-	 * @throws FileNotFoundException There is no file at specified path
-	 * @throws Exception Graph cannot be imported from file
+	 * @see #getLCA(Object, Object)
+	 * 
+	 * @param nodes1 The graph first nodes which LCAs have to be found of
+	 * @param nodes2 The graph second nodes which LCAs have to be found of
+	 * @return The LCAs of nodes, {@code null} for nodes which have no common
+	 * ancestor
+	 * @throws IllegalArgumentException The graph is undirected, the arrays
+	 * have different length or a node doesn't belong to graph
 	 */
-	@SuppressWarnings("unchecked")
-	public static <V, E> Graph<V, E> importGraph(
-			File file,
-			String separator,
-			Class<V> nodeClass,
-			boolean isWeighted,
-			boolean isDirected
-	)
-			throws FileNotFoundException, Exception
+	public V[] getLCAs(V[] nodes1, V[] nodes2)
 	{
-		Graph<V, E> flyGraph = new Graph<V, E>(
-					nodeClass,
-					isDirected,
-					isWeighted
-			);
-
-		CSVImporter<V, E> importer = new CSVImporter<>(
-					CSVFormat.EDGE_LIST,
-					separator.charAt(0)
+		if (nodes1.length != nodes2.length)
+		{
+			throw new IllegalArgumentException(
+					"nodes1 and nodes2 must have the same length"
 			);
-		// easy fix for real graph import
-		// as per https://stackoverflow.com/questions/61089620/
-		// effective since JGraphT 1.4.1
-		importer.setVertexFactory(id -> (V) id);
-
-		// tell importer that graph to import is weighted
-		if (isWeighted)
+		}
+		LowestCommonAncestors index = this.lowestCommonAncestors();
+		@SuppressWarnings("unchecked")
+		V[] lcas = (V[]) Array.newInstance(this.nodeClass, nodes1.length);
+		if (!index.isAcyclic())
 		{
-			importer.setParameter(CSVFormat.Parameter.EDGE_WEIGHTS, true);
+			NaiveLCAFinder<V, E> finder = new NaiveLCAFinder<>(this.readableJgraph());
+			for (int k = 0; k < lcas.length; k++)
+			{
+				lcas[k] = finder.getLCA(nodes1[k], nodes2[k]);
+			}
+			return lcas;
 		}
 
-		try
+		int[] ids1 = new int[nodes1.length];
+		int[] ids2 = new int[nodes2.length];
+		for (int k = 0; k < lcas.length; k++)
 		{
-			importer.importGraph(
-					flyGraph.graph,
-					new FileReader(file)
-			);
+			ids1[k] = this.nodeIndex(nodes1[k]);
+			ids2[k] = this.nodeIndex(nodes2[k]);
 		}
-		catch (ImportException e)
+		int[] ids = index.lcas(ids1, ids2);
+		for (int k = 0; k < lcas.length; k++)
 		{
-			// we need to hide ImportException because
-			// caller mustn't be aware of the use of
-			// JGraphT library, that's why we're relaunching
-			// it as a messaged RuntimeException
-			throw new Exception(
-					e.getClass().getSimpleName() +
-					": " +
-					e.getLocalizedMessage()
-			);
+			lcas[k] = ids[k] < 0 ? null : this.csr().nodeAt(ids[k]);
 		}
 
-		return flyGraph;
+		return lcas;
 	}
 
 	/**
-	 * The <code>importGraph(String, String, Class&lt;V&gt;, boolean,
-	 * boolean)</code> method imports a graph from a file at specified path;
-	 * class object for nodes has to be specified, along with two boolean
-	 * values denoting whether graph is directed or weighted.
+	 * The {@code getAllLCAs()} method finds the lowest common ancestor node
+	 * of every pair of nodes, i.e. the LCA of the {@code i}-th and the
+	 * {@code j}-th node of {@link #nodeSet()} is at row {@code i} and
+	 * column {@code j}.
 	 * <br>
-	 * Source file has to be in CSV format: specifically, it has to be an
-	 * <em>edge list</em> file listing the edges of graph (and, optionally,
-	 * their weight) in such a fashion:<br><br>
-	 * <code>a b 2.3</code><br>
-	 * <code>b c 1.8</code><br><br>
-	 * In this example, two weighted edges have been defined, separated by
-	 * space character. Weight has to be specified or not according to
-	 * relative boolean value passed.
+	 * Forests are visited once per thread by Tarjan's offline algorithm,
+	 * while LCAs of DAG nodes are found one row at a time, in parallel;
+	 * the same LCAs as {@link #getLCA(Object, Object)} are returned.
 	 * 
-	 * @since 1.0.0
+	 * @since 1.2.0
 	 * 
-	 * @param <V> The class for nodes.
-	 * @param <E> The class for edges.
-	 * @param path Position of edgelist file in file system
-	 * @param separator Separator character for CSV
-	 * @param nodeClass <code>Class&lt;V&gt;</code> object for nodes
-	 * @param isWeighted <code>true</code> if graph is weighted,
-	 * <code>false</code> otherwise
-	 * @param isDirected <code>true</code> if graph is directed,
-	 * <code>false</code> otherwise
-	 * @return the <code>Graph&lt;V, E&gt;</code> object read from
-	 * <code>path</code> file
-	 * @throws FileNotFoundException There is no file at specified path
-	 * @throws Exception Graph cannot be imported from file
+	 * @return The matrix of LCAs, holding {@code null} for nodes which have
+	 * no common ancestor
+	 * @throws IllegalArgumentException The graph is undirected
 	 */
-	public static <V, E> Graph<V, E> importGraph(
-			String path,
-			String separator,
-			Class<V> nodeClass,
-			boolean isWeighted,
-			boolean isDirected
-	)
-			throws FileNotFoundException, Exception
+	public V[][] getAllLCAs()
 	{
-		File file = new File(path);
-		return Graph.importGraph(
-				file,
-				separator,
-				nodeClass,
-				isWeighted,
-				isDirected
+		LowestCommonAncestors index = this.lowestCommonAncestors();
+		final V[] nodes = this.nodeSet();
+		@SuppressWarnings("unchecked")
+		V[][] lcas = (V[][]) Array.newInstance(
+				this.nodeClass,
+				nodes.length,
+				nodes.length
 		);
+		if (!index.isAcyclic())
+		{
+			NaiveLCAFinder<V, E> finder = new NaiveLCAFinder<>(this.readableJgraph());
+			for (int i = 0; i < nodes.length; i++)
+			{
+				for (int j = 0; j < nodes.length; j++)
+				{
+					lcas[i][j] = finder.getLCA(nodes[i], nodes[j]);
+				}
+			}
+			return lcas;
+		}
+
+		int[][] ids = index.allPairs();
+		for (int i = 0; i < nodes.length; i++)
+		{
+			for (int j = 0; j < nodes.length; j++)
+			{
+				lcas[i][j] = ids[i][j] < 0 ? null : nodes[ids[i][j]];
+			}
+		}
+
+		return lcas;
 	}
 
+	/*
+	 * Object methods
+	 */
+
 	/**
-	 * The <code>exportGraph(Graph&lt;V, E&gt;, String, String, boolean,
-	 * boolean)</code> method exports the graph to a file at a specified path.
-	 * Destination file will be in CSV format: specifically, it will be an
-	 * <em>edge list</em> file listing the edges of graph (and, optionally,
-	 * their weight) in such a fashion:<br><br>
-	 * <code>a b 2.3</code><br>
-	 * <code>b c 1.8</code><br><br>
+	 * The <code>toString()</code> method returns a string
+	 * representation of <code>Graph&lt;V, E&gt;</code> object.
 	 * 
 	 * @since 1.0.0
 	 * 
-	 * @param <V> The class for nodes.
-	 * @param <E> The class for edges.
-	 * @param flyGraph <code>Graph&gt;V, E&lt;</code> object to write into file
-	 * @param path Destination for edgelist file in file system
-	 * @param separator Separator character for CSV
-	 * @throws Exception Graph cannot be exported to file
+	 * @return Representation of <code>Graph&lt;V, E&gt;</code> object
 	 */
-	public static <V, E> void exportGraph(
-			Graph<V, E> flyGraph,
-			String path,
-			String separator
-	)
-			throws Exception
+	@Override
+	public String toString()
 	{
-//		ComponentNameProvider<V> vertexIdProvider =
-//				new ComponentNameProvider<V>()
-//				{
-//					public String getName(V id)
-//					{
-//						return id.toString();
-//					}
-//				};
-
-		GraphExporter<V, E> exporter =
-				new CSVExporter<>(
-						(V v) -> v.toString(),
-						CSVFormat.EDGE_LIST,
-						separator.charAt(0)
-				);
+		String stringGraph = this.readableJgraph().toString();
 
-		if (flyGraph.isWeighted)
+		if (this.isDirected)
 		{
-			((CSVExporter<V, E>) exporter)
-					.setParameter(CSVFormat.Parameter.EDGE_WEIGHTS, true);
+			stringGraph += ", directed";
 		}
 
-		try
-		{
-			exporter.exportGraph(
-					flyGraph.graph,
-					new File(path)
-			);
-		}
-		catch (ExportException e)
+		if (this.isWeighted)
 		{
-			// like in importGraph method, we have to
-			// hide usage of JGraphT exception classes
-			throw new Exception(
-					e.getClass().getSimpleName() +
-					": " +
-					e.getLocalizedMessage()
-			);
+			stringGraph += ", weighted";
 		}
+
+		return stringGraph;
+	}
+
+	/**
+	 * The <code>equals(Object)</code> method indicates whether some other
+	 * 'object' is equal to this graph.
+	 * 
+	 * @since 1.0.0
+	 * 
+	 * @param obj Another <code>Graph&lt;V, E&gt;</code> object
+	 * @return <code>true</code> if <code>obj</code> is equal to graph,
+	 * <code>false</code> otherwise
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		@SuppressWarnings("unchecked")
+		Graph<V, E> other = (Graph<V, E>) obj;
+		if (edgeClass == null) {
+			if (other.edgeClass != null)
+				return false;
+		} else if (!edgeClass.equals(other.edgeClass))
+			return false;
+		if (!this.readableJgraph().equals(other.readableJgraph()))
+			return false;
+		if (isDirected != other.isDirected)
+			return false;
+		if (isWeighted != other.isWeighted)
+			return false;
+		if (nodeClass == null) {
+			if (other.nodeClass != null)
+				return false;
+		} else if (!nodeClass.equals(other.nodeClass))
+			return false;
+		return true;
+	}
+
+	/**
+	 * The <code>hashCode()</code> method  calculates the
+	 * hash code for a <code>Graph&lt;V, E&gt;</code> object.
+	 * 
+	 * @since 1.0.0
+	 */
+	@Override
+	public int hashCode()
+	{
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + (
+			(edgeClass == null) ? 0 : edgeClass.hashCode()
+		);
+		result = prime * result + this.readableJgraph().hashCode();
+		result = prime * result + (isDirected ? 1231 : 1237);
+		result = prime * result + (isWeighted ? 1231 : 1237);
+		result = prime * result + (
+			(nodeClass == null) ? 0 : nodeClass.hashCode()
+		);
+		return result;
 	}
 
 	/*
-	 * Graph traversal
+	 * helper methods
 	 */
 
-	/**
-	 * The <code>bfsEdges(V)</code> method returns edges of the BFS tree
-	 * rooted in specified node.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param rootNode Desired root node of BFS tree
-	 * @return Array of edges of BFS tree
-	 */
-	public E[] bfsEdges(V rootNode)
+	@SuppressWarnings("unchecked")
+	private E[] neighbourhoodEdges(V node)
 	{
-		Pair[] nodePairs = this.extractBfsEdges(rootNode);
+		Set<E> neighbourhoodEdgesSet = new HashSet<>();
+		org.jgrapht.Graph<V, E> graph = this.readableJgraph();
 
-		@SuppressWarnings("unchecked")
-		E[] bfsEdges = (E[]) Array.newInstance(
-				this.edgeClass,
-				nodePairs.length
-		);
+		// let's start by adding edges incidents to given node
+		neighbourhoodEdgesSet.addAll(graph.edgesOf(node));
 
-		IntStream
-				.range(0, nodePairs.length)
-				.forEach(i -> {
-					bfsEdges[i] = this.getEdge(
-							nodePairs[i].getFirst(),
-							nodePairs[i].getSecond()
-					);
-				});
+		// then retrieve neighbour nodes and pick
+		// the edges between them and given node
+		// and among them
+		Set<V> neighbourNodesSet = Graphs.neighborSetOf(graph, node);
+		graph.edgeSet().forEach(e -> {
+			V source = this.getEdgeSource(e);
+			V target = this.getEdgeTarget(e);
+			if (
+				neighbourNodesSet.contains(source) &&
+				neighbourNodesSet.contains(target)
+			)
+			{
+				neighbourhoodEdgesSet.add(e);
+			}
+		});
 
-		return bfsEdges;
+		// now turn the set into array and return it
+		return (E[]) this.setToArray(neighbourhoodEdgesSet, this.edgeClass);
 	}
 
 	/**
-	 * The <code>bfsNodes(V)</code> method returns nodes of the BFS tree
-	 * rooted in specified node.
+	 * The <code>neighbourNodes(V)</code> method returns the list of nodes
+	 * which are adjacent to given node.
 	 * 
-	 * @since 1.0.0
+	 * @since 1.1.0
 	 * 
-	 * @param rootNode Desired root node of BFS tree
-	 * @return Array of nodes of BFS tree
+	 * @param node The node which we want to know the neighbourhood of
+	 * @return The array of edges having node as source or target
 	 */
-	public V[] bfsNodes(V rootNode)
+	@SuppressWarnings("unchecked")
+	private V[] neighbourNodes(V node)
 	{
-		BreadthFirstIterator<V, E> iterator = new BreadthFirstIterator<>(
-						this.graph,
-						rootNode
-				);
-
-		// count iterator elements
-		int numNodes = 0;
-		while (iterator.hasNext())
-		{
-			iterator.next(); // drop nodes
-			numNodes++;
-		}
-
-		// create array of V elements to return
-		// these elements are BFSed ones
-		@SuppressWarnings("unchecked")
-		V[] bfsNodes = (V[]) Array.newInstance(
-				this.nodeClass,
-				numNodes // number of elements of the iterator
-		);
-		BreadthFirstIterator<V, E> iterator2 = new BreadthFirstIterator<>(
-						this.graph,
-						rootNode
-				);
-
-		IntStream
-				.range(0, numNodes)
-				.forEach(i -> {
-					bfsNodes[i] = iterator2.next();
-				});
+		Set<V> nodesSet = Graphs.neighborSetOf(this.readableJgraph(), node);
 
-		return bfsNodes;
+		// convert set of nodes into array of nodes
+		return (V[]) this.setToArray(nodesSet, this.nodeClass);
 	}
 
 	/**
-	 * The <code>bfsTree(V)</code> method returns the BFS tree
-	 * rooted in specified node.
+	 * The {@code naiveCountTriangles(List<V>)} method ...
 	 * 
-	 * @since 1.0.0
+	 * @since 1.1.0
 	 * 
-	 * @param rootNode Desired root node of BFS tree
-	 * @return BFS tree
+	 * @param vertexSubset The node set which number of triangles has
+	 * to be found of
+	 * @return The number of triangles for graph nodes subset
 	 */
-	public Graph<V, E> bfsTree(V rootNode)
+	@SuppressWarnings("unused")
+	private long naiveCountTriangles(List<V> vertexSubset)
 	{
-		Graph<V, E> bfsTree = new Graph<>(
-				this.nodeClass,
-				this.isDirected,
-				this.isWeighted
-		);
+		long total = 0;
 
-		// add BFS nodes to graph
-		bfsTree.addNodes(this.bfsNodes(rootNode));
+		for (int i = 0; i < vertexSubset.size(); i++)
+		{
+			for (int j = i + 1; j < vertexSubset.size(); j++)
+			{
+				for (int k = j + 1; k < vertexSubset.size(); k++)
+				{
+					V u = vertexSubset.get(i);
+					V v = vertexSubset.get(j);
+					V w = vertexSubset.get(k);
 
-		// add BFS edges to graph
-		Pair[] nodePairs = this.extractBfsEdges(rootNode);
-		IntStream
-				.range(0, nodePairs.length)
-				.forEach(i -> {
-					bfsTree.addEdge(
-							nodePairs[i].getFirst(),
-							nodePairs[i].getSecond()
-					);
-				});
+					if (
+						this.hasEdge(u, v) &&
+						this.hasEdge(v, w) &&
+						this.hasEdge(w, u)
+					)
+					{
+						total++;
+					}
+				}
+			}
+		}
 
-		return bfsTree;
+		return total;
 	}
 
 	/**
-	 * The <code>dfsEdges(V)</code> method returns edges of the DFS tree
-	 * rooted in specified node.
+	 * The {@code triplets(V)} method ...
 	 * 
-	 * @since 1.0.0
+	 * @since 1.1.0
 	 * 
-	 * @param rootNode Desired root node of DFS tree
-	 * @return Set of edges of DFS tree
+	 * @param node The graph node which triplets number has to be found of
+	 * @return The graph node number of triplets
 	 */
-	public E[] dfsEdges(V rootNode)
+	@SuppressWarnings("unused")
+	private int triplets(V node)
 	{
-		Pair[] nodePairs = this.extractDfsEdges(rootNode);
-
-		@SuppressWarnings("unchecked")
-		E[] dfsEdges = (E[]) Array.newInstance(
-				this.edgeClass,
-				nodePairs.length
-		);
+		org.jgrapht.Graph<V, E> graph;
+		if (node == null)
+		{
+			graph = this.readableJgraph();
+		}
+		else
+		{
+			graph = this.neighbourhood(node).jgraph();
+		}
+		NeighborCache<V, E> neighborCache = new NeighborCache<>(graph);
+		// array needed to overcome final variable issue
+		// in 'forEach'
+		int[] numberTriplets = {0};
 
-		IntStream
-				.range(0, nodePairs.length)
-				.forEach(i -> {
-					dfsEdges[i] = this.getEdge(
-							nodePairs[i].getFirst(),
-							nodePairs[i].getSecond()
-					);
-				});
+		graph.vertexSet().forEach(v -> {
+			if (graph.getType().isUndirected()) {
+				int nodeDegree = graph.degreeOf(v);
+				numberTriplets[0] += 1.0 * nodeDegree * (nodeDegree - 1) / 2;
+			} else {
+				numberTriplets[0] += 1.0 * neighborCache.predecessorsOf(v).size()
+					* neighborCache.successorsOf(v).size();
+			}
+		});
 
-		return dfsEdges;
+		return numberTriplets[0];
 	}
 
 	/**
-	 * The <code>dfsNodes(V)</code> method returns nodes of the DFS tree
-	 * rooted in specified node.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param rootNode Desired root node of DFS tree
-	 * @return Set of nodes of DFS tree
+	 * The {@code isCompact()} method indicates whether graph is currently
+	 * stored in its compressed sparse row representation only.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if there is no JGraphT graph,
+	 * {@code false} otherwise
 	 */
-	public V[] dfsNodes(V rootNode)
+	private boolean isCompact()
 	{
-		DepthFirstIterator<V, E> iterator = new DepthFirstIterator<>(
-				this.graph,
-				rootNode
-		);
-
-		// count iterator elements
-		int numNodes = (int) StreamSupport
-				.stream(
-						Spliterators.spliteratorUnknownSize(
-								iterator,
-								Spliterator.ORDERED
-						),
-						false
-				)
-				.count();
-
-		// create array of V elements to return
-		// these elements are DFSed ones
-		@SuppressWarnings("unchecked")
-		V[] dfsNodes = (V[]) Array.newInstance(
-				this.nodeClass,
-				numNodes // number of elements of the iterator
-		);
-		DepthFirstIterator<V, E> iterator2 = new DepthFirstIterator<>(
-						this.graph,
-						rootNode
-				);
-
-		IntStream
-				.range(0, numNodes)
-				.forEach(i -> {
-					dfsNodes[i] = iterator2.next();
-				});
-
-		return dfsNodes;
+		return this.graph == null;
 	}
 
 	/**
-	 * The <code>dfsTree(V)</code> method returns the DFS tree
-	 * rooted in specified node.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param rootNode Desired root node of DFS tree
-	 * @return DFS tree
+	 * The {@code jgraph()} method returns the JGraphT graph wrapped by this
+	 * class, restoring it from compressed sparse row representation if
+	 * graph is compact; as the restored graph is kept, graph is no longer
+	 * compact, thus it is meant for the methods modifying graph, through
+	 * {@link #mutableJgraph()}, and for reading graphs already known not to
+	 * be compact only. Methods reading compact graphs use the compressed
+	 * sparse row representation or {@link #readableJgraph()} instead.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @see #readableJgraph()
+	 *
+	 * @return The JGraphT graph
 	 */
-	public Graph<V, E> dfsTree(V rootNode)
+	private org.jgrapht.Graph<V, E> jgraph()
 	{
-		Graph<V, E> dfsTree = new Graph<V, E>(
-				this.nodeClass,
-				this.isDirected,
-				this.isWeighted
-		);
-
-		// add DFS nodes to graph
-		dfsTree.addNodes(this.dfsNodes(rootNode));
-
-		// add DFS edges to graph
-		Pair[] nodePairs = this.extractDfsEdges(rootNode);
-		IntStream
-				.range(0, nodePairs.length)
-				.forEach(i -> {
-					dfsTree.addEdge(
-							nodePairs[i].getFirst(),
-							nodePairs[i].getSecond()
-					);
-				});
+		if (this.graph == null)
+		{
+			this.graph = this.restoreJgraph();
+		}
 
-		return dfsTree;
+		return this.graph;
 	}
 
-	/*
-	 * Connectivity
-	 */
-
 	/**
-	 * The <code>isConnected()</code> method indicates whether graph is
-	 * connected.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return <code>true</code> if the graph is connected,
-	 * <code>false</code> otherwise
+	 * The {@code readableJgraph()} method returns the JGraphT graph to read
+	 * graph from, i.e. the wrapped one or, if graph is compact, one restored
+	 * from compressed sparse row representation which is not kept, so that
+	 * graph stays compact.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The JGraphT graph, not to be modified
 	 */
-	public boolean isConnected()
+	private org.jgrapht.Graph<V, E> readableJgraph()
 	{
-		ConnectivityInspector<V, E> inspector =
-				new ConnectivityInspector<>(this.graph);
-
-		return inspector.isConnected();
+		return this.graph != null ? this.graph : this.restoreJgraph();
 	}
 
 	/**
-	 * The <code>isStronglyConnected()</code> method indicates whether graph
-	 * is strongly connected.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return <code>true</code> if the graph is strongly connected,
-	 * <code>false</code> otherwise
+	 * The {@code edgeReader()} method returns a JGraphT graph telling the
+	 * nodes and weight of graph edges: the wrapped one or, if graph is
+	 * compact, an empty one, since JGraphT default edges hold their nodes
+	 * and weight themselves.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The JGraphT graph, not to be modified
 	 */
-	public boolean isStronglyConnected()
+	private org.jgrapht.Graph<V, E> edgeReader()
 	{
-		KosarajuStrongConnectivityInspector<V, E> inspector =
-				new KosarajuStrongConnectivityInspector<>(this.graph);
-
-		return inspector.isStronglyConnected();
+		return this.graph != null ? this.graph : this.newJgraph();
 	}
 
 	/**
-	 * The <code>connectedComponents()</code> method returns connected
-	 * components of graph as groups of nodes.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return array of arrays of connected nodes
+	 * The {@code restoreJgraph()} method builds the JGraphT graph holding
+	 * the nodes and edges of compressed sparse row representation.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The restored JGraphT graph
 	 */
-	public Object[] connectedComponents()
+	private org.jgrapht.Graph<V, E> restoreJgraph()
 	{
-		ConnectivityInspector<V, E> inspector =
-				new ConnectivityInspector<>(this.graph);
-		List<Set<V>> connectedSets = inspector.connectedSets();
-		int nComps = connectedSets.size();
-
-		Object[] components = (Object[]) Array.newInstance(
-				Object.class,
-				nComps
-		);
+		org.jgrapht.Graph<V, E> graph = this.newJgraph();
+		int n = this.csr.numNodes();
+		int[] offsets = this.csr.outOffsets();
+		int[] targets = this.csr.outTargets();
 
 		IntStream
-				.range(0, nComps) // iterate over connected components
-				.forEach(i -> {
-					Set<V> component = connectedSets.get(i);
-					@SuppressWarnings("unchecked")
-					V[] nodes = (V[]) Array.newInstance(
-							this.nodeClass,
-							component.size()
-					);
-					Iterator<V> componentIterator = component.iterator();
-					IntStream
-							// iterate over component nodes
-							.range(0, component.size())
-							.forEach(j -> {
-								nodes[j] = componentIterator.next();
-							});
-					components[i] = nodes;
-				});
+				.range(0, n)
+				.forEach(u -> graph.addVertex(this.csr.nodeAt(u)));
+		for (int u = 0; u < n; u++)
+		{
+			V source = this.csr.nodeAt(u);
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				// undirected edges are stored for both endpoints
+				if (this.isDirected || u < targets[i])
+				{
+					E e = graph.addEdge(source, this.csr.nodeAt(targets[i]));
+					if (this.isWeighted)
+					{
+						graph.setEdgeWeight(e, this.csr.weightAt(i));
+					}
+				}
+			}
+		}
 
-		return components;
+		return graph;
 	}
 
 	/**
-	 * The <code>connectedSubgraphs()</code> method returns connected
-	 * subgraphs of graph.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return array of connected subgraphs
+	 * The {@code edgesAt(int[], int[])} method returns the edges at given
+	 * positions within outgoing adjacencies arrays: the edges of JGraphT
+	 * graph or, if graph is compact, new edges telling their nodes and
+	 * weight, so that graph stays compact.
+	 * <br>
+	 * Edges of compact graphs are created on each request, thus the same
+	 * edge may be returned as different objects; undirected ones have the
+	 * node with lower id as source, as edges of restored JGraphT graph do.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param sources The id of the source of each edge
+	 * @param indices The position of each edge
+	 * @return The array of edges
 	 */
 	@SuppressWarnings("unchecked")
-	public Graph<V, E>[] connectedSubgraphs()
+	private E[] edgesAt(int[] sources, int[] indices)
 	{
-		int numConnComps = this.numberConnectedComponents();
-		Graph<V, E>[] subgraphs = new Graph[numConnComps];
-		Object[] components = this.connectedComponents();
+		CSRGraph<V> csr = this.csr();
+		final int[] targets = csr.outTargets();
+		E[] edges = (E[]) Array.newInstance(this.edgeClass, indices.length);
+		org.jgrapht.Graph<V, E> graph =
+				this.graph != null ? this.graph : this.newJgraph();
+		for (int k = 0; k < edges.length; k++)
+		{
+			int source = sources[k];
+			int target = targets[indices[k]];
+			if (!this.isDirected && source > target)
+			{
+				source = target;
+				target = sources[k];
+			}
+			V s = csr.nodeAt(source);
+			V t = csr.nodeAt(target);
+			if (this.graph != null)
+			{
+				edges[k] = graph.getEdge(s, t);
+				continue;
+			}
 
-		// add subgraph nodes and edges
-		IntStream
-				.range(0, numConnComps)
-				.forEach(i -> {
-					subgraphs[i] = new Graph<>(
-							this.nodeClass,
-							this.isDirected,
-							this.isWeighted
-					);
-					subgraphs[i].addNodes((V[]) components[i]);
-					subgraphs[i].addEdges(this.edgeSet());
-				});
+			graph.addVertex(s);
+			graph.addVertex(t);
+			E edge = graph.addEdge(s, t);
+			if (edge == null)
+			{
+				// edge requested twice
+				edge = graph.getEdge(s, t);
+			}
+			else if (this.isWeighted)
+			{
+				graph.setEdgeWeight(edge, csr.weightAt(indices[k]));
+			}
+			edges[k] = edge;
+		}
 
-		return subgraphs;
+		return edges;
 	}
 
 	/**
-	 * The <code>numberConnectedComponents()</code> method returns number of
-	 * connected components of graph.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return number of connected components of the graph
+	 * The {@code adjacentEdges(V, boolean, boolean)} method returns the
+	 * edges of given node, read from compressed sparse row representation.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param node The node which edges have to be found of
+	 * @param incoming Denotes whether edges having node as target are
+	 * returned
+	 * @param outgoing Denotes whether edges having node as source are
+	 * returned
+	 * @return The array of edges
+	 * @throws IllegalArgumentException The node doesn't belong to graph
 	 */
-	public int numberConnectedComponents()
+	private E[] adjacentEdges(V node, boolean incoming, boolean outgoing)
 	{
-		ConnectivityInspector<V, E> inspector =
-				new ConnectivityInspector<>(this.graph);
+		CSRGraph<V> csr = this.csr();
+		final int v = this.nodeIndex(node);
+		if (!this.isDirected)
+		{
+			// undirected edges are both incoming and outgoing
+			incoming = false;
+			outgoing = true;
+		}
+		final int[] inOffsets = csr.inOffsets();
+		final int[] inSources = csr.inSources();
+		final int[] outOffsets = csr.outOffsets();
+		final int inDegree = incoming ? inOffsets[v + 1] - inOffsets[v] : 0;
+		final int outDegree = outgoing ? outOffsets[v + 1] - outOffsets[v] : 0;
+		int[] sources = new int[inDegree + outDegree];
+		int[] indices = new int[inDegree + outDegree];
+		for (int k = 0; k < inDegree; k++)
+		{
+			sources[k] = inSources[inOffsets[v] + k];
+			indices[k] = csr.edgeIndex(sources[k], v);
+		}
+		for (int k = 0; k < outDegree; k++)
+		{
+			sources[inDegree + k] = v;
+			indices[inDegree + k] = outOffsets[v] + k;
+		}
 
-		return inspector.connectedSets().size();
+		return this.edgesAt(sources, indices);
 	}
 
 	/**
-	 * The <code>nodeConnectedComponent(V)</code> method returns connected
-	 * component of graph for given node.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param node The node which we want to know the connected component of
-	 * @return the connected component given node belongs to
+	 * The {@code mutableJgraph()} method returns the JGraphT graph wrapped
+	 * by this class in order to modify it, thus increasing graph version and
+	 * discarding any information computed on graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @see #jgraph()
+	 *
+	 * @return The JGraphT graph
 	 */
-	@SuppressWarnings("unchecked")
-	public V[] nodeConnectedComponent(V node)
+	private org.jgrapht.Graph<V, E> mutableJgraph()
 	{
-		ConnectivityInspector<V, E> inspector =
-				new ConnectivityInspector<>(this.graph);
+		org.jgrapht.Graph<V, E> graph = this.jgraph();
+		this.csr = null;
+		this.version++;
 
-		Set<V> nodeConnectedSet = inspector.connectedSetOf(node);
-		return (V[]) this.setToArray(nodeConnectedSet, this.nodeClass);
+		return graph;
 	}
 
 	/**
-	 * The <code>stronglyConnectedComponents()</code> method returns strongly
-	 * connected components of graph as group of nodes.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return array of arrays of strongly connected components
+	 * The {@code newJgraph()} method creates an empty JGraphT graph with the
+	 * same node class, edge class and type of this graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return An empty JGraphT graph
 	 */
-	public Object[] stronglyConnectedComponents()
+	private org.jgrapht.Graph<V, E> newJgraph()
 	{
-		KosarajuStrongConnectivityInspector<V, E> inspector =
-				new KosarajuStrongConnectivityInspector<>(this.graph);
-		List<Set<V>> strConnSets = inspector.stronglyConnectedSets();
-		int nComps = strConnSets.size();
-
-		Object[] strongComponents = (Object[]) Array.newInstance(
-				Object.class,
-				nComps
+		return (new CustomGraphBuilder<V, E>()).build(
+				this.nodeClass,
+				this.edgeClass,
+				this.isDirected,
+				this.isWeighted
 		);
-
-
-		IntStream
-			.range(0, nComps) // iterate over connected components
-			.forEach(i -> {
-				Set<V> strongComponent = strConnSets.get(i);
-				@SuppressWarnings("unchecked")
-				V[] nodes = (V[]) Array.newInstance(
-						this.nodeClass,
-						strongComponent.size()
-				);
-				Iterator<V> componentIterator = strongComponent.iterator();
-				IntStream // iterate over component nodes
-						.range(0, strongComponent.size())
-						.forEach(j -> nodes[j] = componentIterator.next());
-				strongComponents[i] = nodes;
-			});
-
-		return strongComponents;
 	}
 
 	/**
-	 * The <code>stronglyConnectedSubgraphs()</code> method returns strongly
-	 * connected subgraphs of graph.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return array of strongly connected subgraphs
+	 * The {@code csr()} method returns the compressed sparse row
+	 * representation of graph, building it if needed.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph in CSR layout
 	 */
-	public Graph<V, E>[] stronglyConnectedSubgraphs()
+	private CSRGraph<V> csr()
 	{
-		KosarajuStrongConnectivityInspector<V, E> inspector =
-				new KosarajuStrongConnectivityInspector<>(this.graph);
-		List<org.jgrapht.Graph<V, E>> strongGraphs =
-				inspector.getStronglyConnectedComponents();
-		int nComps = strongGraphs.size();
-		@SuppressWarnings("unchecked")
-		Graph<V, E>[] subgraphs = new Graph[nComps];
-
-		// add subgraph nodes and edges
-		IntStream
-				.range(0, nComps)
-				.forEach(i -> {
-					subgraphs[i] = new Graph<>(
-							this.nodeClass,
-							this.isDirected,
-							this.isWeighted
-					);
-					subgraphs[i].graph = strongGraphs.get(i);
-				});
+		if (this.csr == null)
+		{
+			this.csr = CSRGraph.of(this.graph);
+		}
 
-		return subgraphs;
+		return this.csr;
 	}
 
-	/*
-	 * DAG and topological sorting
+	/**
+	 * The {@code eccentricities()} method creates the class responsible for
+	 * graph measurement.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph measurer
 	 */
+	private Eccentricities eccentricities()
+	{
+		return this.eccentricities.get(
+				this.version,
+				() -> {
+					CSRGraph<V> csr = this.csr();
+					DeltaStepping deltaStepping = this.deltaStepping(csr);
+
+					return deltaStepping == null ?
+							new Eccentricities(csr, this.parallelism) :
+							new Eccentricities(csr, deltaStepping);
+				}
+		);
+	}
 
 	/**
-	 * The <code>isDAG()</code> method checks whether graph is a directed
-	 * acyclic graph (DAG).
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return <code>true</code> if graph is DAG,
-	 * <code>false</code> otherwise
+	 * The {@code allPairsShortestPaths()} method creates the class
+	 * responsible for distances among every pair of nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The all-pairs shortest path finder
 	 */
-	public boolean isDAG()
+	private AllPairsShortestPaths allPairsShortestPaths()
 	{
-		CycleDetector<V, E> cycleDetector = new CycleDetector<>(this.graph);
+		CSRGraph<V> csr = this.csr();
+		DeltaStepping deltaStepping = this.deltaStepping(csr);
 
-		return !cycleDetector.detectCycles();
+		return deltaStepping == null ?
+				new AllPairsShortestPaths(csr, this.parallelism) :
+				new AllPairsShortestPaths(csr, deltaStepping);
 	}
 
 	/**
-	 * The <code>topologicalSort()</code> method returns the list of nodes
-	 * ordered according to topological sort.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return The array of topological sorted nodes
+	 * The {@code deltaStepping(CSRGraph)} method creates the delta-stepping
+	 * search on given compact graph, as long as it is weighted and
+	 * delta-stepping is the shortest path algorithm.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param csr The compact graph
+	 * @return The delta-stepping search, {@code null} if paths are searched
+	 * by Dijkstra's algorithm or breadth-first
 	 */
-	public V[] topologicalSort()
+	private DeltaStepping deltaStepping(CSRGraph<V> csr)
 	{
-		TopologicalOrderIterator<V, E> iterator =
-				new TopologicalOrderIterator<>(this.graph);
-
-		@SuppressWarnings("unchecked")
-		V[] nodes = (V[]) Array.newInstance(
-				this.nodeClass,
-				this.numNodes() // topological order includes all graph ndes
-		);
-
-		for (int i = 0; iterator.hasNext(); i++)
+		if (this.shortestPathAlgorithm != ShortestPathAlgorithm.DELTA_STEPPING ||
+				!csr.isWeighted())
 		{
-			nodes[i] = iterator.next();
+			return null;
 		}
 
-		return nodes;
+		return new DeltaStepping(
+				csr,
+				this.delta > 0.0 ? this.delta : DeltaStepping.defaultDelta(csr),
+				this.parallelism
+		);
 	}
 
-	/*
-	 * Minimum spanning tree
-	 */
-
 	/**
-	 * The <code>getMST()</code> method returns the minimum spanning tree
-	 * of graph.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return The graph minimum spanning tree
+	 * The {@code components()} method returns the labelling of connected
+	 * components, computing it once per version of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The labelling of connected components
 	 */
-	public Graph<V, E> getMST()
+	private ConnectedComponents components()
 	{
-		PrimMinimumSpanningTree<V, E> spanningTreeAlgorithm =
-				new PrimMinimumSpanningTree<>(this.graph);
-
-		Iterator<E> edgesIterator = spanningTreeAlgorithm
-				.getSpanningTree()
-				.iterator();
-
-		Graph<V, E> mst = new Graph<>(
-				this.nodeClass,
-				this.isDirected,
-				this.isWeighted
+		return this.components.get(
+				this.version,
+				() -> new ConnectedComponents(this.csr(), this.parallelism)
 		);
-
-		mst.addNodes(this.nodeSet());
-		edgesIterator.forEachRemaining(e -> {
-			mst.addEdge(
-					this.graph.getEdgeSource(e),
-					this.graph.getEdgeTarget(e)
-			);
-		});
-
-		return mst;
 	}
 
-	/*
-	 * Lowest common ancestor
-	 */
-
 	/**
-	 * The {@code getLCA(V, V)} method finds the lowest common ancestor node of
-	 * given pair of nodes.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param node1 The graph first node which LCA has to be found of
-	 * @param node2 The graph second node which LCA has to be found of
-	 * @return The LCA of nodes
+	 * The {@code strongComponents()} method returns the labelling of
+	 * strongly connected components of directed graph, computing it once
+	 * per version of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The labelling of strongly connected components
 	 */
-	public V getLCA(V node1, V node2)
+	private StronglyConnectedComponents strongComponents()
 	{
-		GraphTests.requireDirected(this.graph);
-		return new NaiveLCAFinder<V, E>(this.graph).getLCA(node1, node2);
+		return this.strongComponents.get(
+				this.version,
+				() -> new StronglyConnectedComponents(this.csr(), this.parallelism)
+		);
 	}
 
-	/*
-	 * Object methods
+	/**
+	 * The {@code reachability()} method returns the reachability index of
+	 * directed graph, building it once per version of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The reachability index
 	 */
+	private ReachabilityIndex reachability()
+	{
+		return this.reachability.get(
+				this.version,
+				() -> new ReachabilityIndex(
+						this.strongComponents(),
+						ReachabilityIndex.DEFAULT_DIMENSIONS,
+						this.parallelism
+				)
+		);
+	}
 
 	/**
-	 * The <code>toString()</code> method returns a string
-	 * representation of <code>Graph&lt;V, E&gt;</code> object.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @return Representation of <code>Graph&lt;V, E&gt;</code> object
+	 * The {@code topologicalOrder()} method returns the topological order
+	 * of directed graph, sorting it once per version of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The topological order, possibly of a cyclic graph
+	 * @throws IllegalArgumentException The graph is undirected
 	 */
-	@Override
-	public String toString()
+	private TopologicalOrder topologicalOrder()
 	{
-		String stringGraph = this.graph.toString();
-
-		if (this.isDirected)
+		if (!this.isDirected)
 		{
-			stringGraph += ", directed";
+			throw new IllegalArgumentException("Graph must be directed");
 		}
 
-		if (this.isWeighted)
+		return this.topologicalOrder.get(
+				this.version,
+				() -> new TopologicalOrder(this.csr(), this.parallelism)
+		);
+	}
+
+	/**
+	 * The {@code acyclicOrder()} method returns the topological order of
+	 * DAG.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The topological order
+	 * @throws IllegalArgumentException The graph is undirected or it is not
+	 * a DAG
+	 */
+	private TopologicalOrder acyclicOrder()
+	{
+		TopologicalOrder order = this.topologicalOrder();
+		if (!order.isAcyclic())
 		{
-			stringGraph += ", weighted";
+			throw new IllegalArgumentException("Graph is not a DAG");
 		}
 
-		return stringGraph;
+		return order;
 	}
 
 	/**
-	 * The <code>equals(Object)</code> method indicates whether some other
-	 * 'object' is equal to this graph.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @param obj Another <code>Graph&lt;V, E&gt;</code> object
-	 * @return <code>true</code> if <code>obj</code> is equal to graph,
-	 * <code>false</code> otherwise
+	 * The {@code spanningForest()} method returns the minimum spanning
+	 * forest of graph, finding it once per version of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The minimum spanning forest
 	 */
-	@Override
-	public boolean equals(Object obj)
+	private MinimumSpanningForest spanningForest()
 	{
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		@SuppressWarnings("unchecked")
-		Graph<V, E> other = (Graph<V, E>) obj;
-		if (edgeClass == null) {
-			if (other.edgeClass != null)
-				return false;
-		} else if (!edgeClass.equals(other.edgeClass))
-			return false;
-		if (graph == null) {
-			if (other.graph != null)
-				return false;
-		} else if (!graph.equals(other.graph))
-			return false;
-		if (isDirected != other.isDirected)
-			return false;
-		if (isWeighted != other.isWeighted)
-			return false;
-		if (nodeClass == null) {
-			if (other.nodeClass != null)
-				return false;
-		} else if (!nodeClass.equals(other.nodeClass))
-			return false;
-		return true;
+		return this.spanningForest.get(
+				this.version,
+				() -> new MinimumSpanningForest(this.csr(), this.parallelism)
+		);
 	}
 
 	/**
-	 * The <code>hashCode()</code> method  calculates the
-	 * hash code for a <code>Graph&lt;V, E&gt;</code> object.
-	 * 
-	 * @since 1.0.0
+	 * The {@code componentSubgraphs(int, int[], IntFunction)} helper method
+	 * builds the subgraph of each component of given labelling: edges
+	 * within components are bucketed by the component of their source in a
+	 * single pass, then each subgraph is built from its own bucket, in
+	 * parallel, keeping edge weights and the storage backend of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param count The number of components
+	 * @param components The component of each node id
+	 * @param nodes The node ids of each component, in ascending order
+	 * @return The array of component subgraphs
+	 */
+	private Graph<V, E>[] componentSubgraphs(
+			final int count,
+			final int[] components,
+			IntFunction<int[]> nodes
+	)
+	{
+		CSRGraph<V> csr = this.csr();
+		final int[] offsets = csr.outOffsets();
+		final int[] targets = csr.outTargets();
+
+		// bucket adjacency positions by component, in one pass
+		int[] bucketOffsets = new int[count + 1];
+		for (int u = 0; u < csr.numNodes(); u++)
+		{
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				// edges between components are left out, and undirected
+				// ones are stored from both endpoints
+				if (components[targets[i]] == components[u] &&
+						(this.isDirected || targets[i] > u))
+				{
+					bucketOffsets[components[u] + 1]++;
+				}
+			}
+		}
+		for (int c = 0; c < count; c++)
+		{
+			bucketOffsets[c + 1] += bucketOffsets[c];
+		}
+		int[] sources = new int[bucketOffsets[count]];
+		int[] positions = new int[bucketOffsets[count]];
+		int[] next = Arrays.copyOf(bucketOffsets, count);
+		for (int u = 0; u < csr.numNodes(); u++)
+		{
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				if (components[targets[i]] == components[u] &&
+						(this.isDirected || targets[i] > u))
+				{
+					int k = next[components[u]]++;
+					sources[k] = u;
+					positions[k] = i;
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		Graph<V, E>[] subgraphs = (Graph<V, E>[]) new Graph<?, ?>[count];
+		ParallelTasks.forEach(this.parallelism, count, c -> {
+			int[] members = nodes.apply(c);
+			Builder<V, E> builder = new Builder<V, E>(
+						this.nodeClass,
+						this.isDirected,
+						this.isWeighted
+					)
+					.backend(this.backend)
+					.expectedNodes(members.length)
+					.expectedEdges(bucketOffsets[c + 1] - bucketOffsets[c]);
+			for (int u : members)
+			{
+				builder.addNode(csr.nodeAt(u));
+			}
+			for (int k = bucketOffsets[c]; k < bucketOffsets[c + 1]; k++)
+			{
+				builder.addEdge(
+						csr.nodeAt(sources[k]),
+						csr.nodeAt(targets[positions[k]]),
+						csr.weightAt(positions[k])
+				);
+			}
+			subgraphs[c] = builder.build();
+		});
+
+		return subgraphs;
+	}
+
+	/**
+	 * The {@code lowestCommonAncestors()} method returns the index of
+	 * lowest common ancestors, building it once per version of graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The LCA index
+	 * @throws IllegalArgumentException The graph is undirected
 	 */
-	@Override
-	public int hashCode()
+	private LowestCommonAncestors lowestCommonAncestors()
 	{
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + (
-			(edgeClass == null) ? 0 : edgeClass.hashCode()
-		);
-		result = prime * result + ((graph == null) ? 0 : graph.hashCode());
-		result = prime * result + (isDirected ? 1231 : 1237);
-		result = prime * result + (isWeighted ? 1231 : 1237);
-		result = prime * result + (
-			(nodeClass == null) ? 0 : nodeClass.hashCode()
+		if (!this.isDirected)
+		{
+			throw new IllegalArgumentException("Graph must be directed");
+		}
+
+		return this.lowestCommonAncestors.get(
+				this.version,
+				() -> new LowestCommonAncestors(this.csr(), this.parallelism)
 		);
-		return result;
 	}
 
-	/*
-	 * helper methods
+	/**
+	 * The {@code nodeIndex(V)} method returns the id of given node within
+	 * compressed sparse row representation.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param node The node which id has to be found of
+	 * @return The node id
+	 * @throws IllegalArgumentException The node doesn't belong to graph
 	 */
-
-	@SuppressWarnings("unchecked")
-	private E[] neighbourhoodEdges(V node)
+	private int nodeIndex(V node)
 	{
-		Set<E> neighbourhoodEdgesSet = new HashSet<>();
+		int id = this.csr().indexOf(node);
+		if (id < 0)
+		{
+			throw new IllegalArgumentException(
+					"no such vertex in graph: " + node
+			);
+		}
 
-		// let's start by adding edges incidents to given node
-		neighbourhoodEdgesSet.addAll(this.graph.edgesOf(node));
+		return id;
+	}
 
-		// then retrieve neighbour nodes and pick
-		// the edges between them and given node
-		// and among them
-		Set<V> neighbourNodesSet = Graphs.neighborSetOf(this.graph, node);
-		this.graph.edgeSet().forEach(e -> {
-			V source = this.getEdgeSource(e);
-			V target = this.getEdgeTarget(e);
-			if (
-				neighbourNodesSet.contains(source) &&
-				neighbourNodesSet.contains(target)
-			)
-			{
-				neighbourhoodEdgesSet.add(e);
-			}
-		});
+	/**
+	 * The {@code idsToNodes(int[])} method converts given node ids of
+	 * compressed sparse row representation into the array of such nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param ids The node ids to convert
+	 * @return The array of nodes
+	 */
+	private V[] idsToNodes(int[] ids)
+	{
+		@SuppressWarnings("unchecked")
+		V[] nodes = (V[]) Array.newInstance(this.nodeClass, ids.length);
+		IntStream
+				.range(0, ids.length)
+				.forEach(i -> nodes[i] = this.csr().nodeAt(ids[i]));
 
-		// now turn the set into array and return it
-		return (E[]) this.setToArray(neighbourhoodEdgesSet, this.edgeClass);
+		return nodes;
 	}
 
 	/**
-	 * The <code>neighbourNodes(V)</code> method returns the list of nodes
-	 * which are adjacent to given node.
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param node The node which we want to know the neighbourhood of
-	 * @return The array of edges having node as source or target
+	 * The {@code breadthFirstTree(V)} method returns the tree of the
+	 * breadth-first visit from given node, visiting graph unless it is the
+	 * root of the last visit; large graphs are visited by the parallel
+	 * direction-optimizing search, in the same order.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param rootNode The root node of visit
+	 * @return The tree of visit
+	 * @throws IllegalArgumentException The node doesn't belong to graph
 	 */
-	@SuppressWarnings("unchecked")
-	private V[] neighbourNodes(V node)
+	private SearchTree breadthFirstTree(V rootNode)
 	{
-		Set<V> nodesSet = Graphs.neighborSetOf(this.graph, node);
-
-		// convert set of nodes into array of nodes
-		return (V[]) this.setToArray(nodesSet, this.nodeClass);
+		return this.searchTree(
+				this.breadthFirstTree,
+				rootNode,
+				root -> new BreadthFirstSearch(this.csr(), this.parallelism)
+						.tree(root)
+		);
 	}
 
 	/**
-	 * The {@code naiveCountTriangles(List<V>)} method ...
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param vertexSubset The node set which number of triangles has
-	 * to be found of
-	 * @return The number of triangles for graph nodes subset
+	 * The {@code depthFirstTree(V)} method returns the tree of the
+	 * depth-first visit from given node, visiting graph unless it is the
+	 * root of the last visit.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param rootNode The root node of visit
+	 * @return The tree of visit
+	 * @throws IllegalArgumentException The node doesn't belong to graph
 	 */
-	@SuppressWarnings("unused")
-	private long naiveCountTriangles(List<V> vertexSubset)
+	private SearchTree depthFirstTree(V rootNode)
 	{
-		long total = 0;
+		return this.searchTree(
+				this.depthFirstTree,
+				rootNode,
+				root -> new DepthFirstSearch(this.csr()).tree(root)
+		);
+	}
 
-		for (int i = 0; i < vertexSubset.size(); i++)
+	/**
+	 * The {@code searchTree(Versioned, V, IntFunction)} method returns the
+	 * tree of a visit from given node, from given cache if it is current
+	 * and has the same root, by given search otherwise.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param cache The cache of last visit
+	 * @param rootNode The root node of visit
+	 * @param search The search visiting graph from a node id
+	 * @return The tree of visit
+	 * @throws IllegalArgumentException The node doesn't belong to graph
+	 */
+	private SearchTree searchTree(
+			Versioned<SearchTree> cache,
+			V rootNode,
+			IntFunction<SearchTree> search
+	)
+	{
+		final int root = this.nodeIndex(rootNode);
+		SearchTree tree = cache.getIfCurrent(this.version);
+		if (tree == null || tree.root() != root)
 		{
-			for (int j = i + 1; j < vertexSubset.size(); j++)
-			{
-				for (int k = j + 1; k < vertexSubset.size(); k++)
-				{
-					V u = vertexSubset.get(i);
-					V v = vertexSubset.get(j);
-					V w = vertexSubset.get(k);
-
-					if (
-						this.graph.containsEdge(u, v) &&
-						this.graph.containsEdge(v, w) &&
-						this.graph.containsEdge(w, u)
-					)
-					{
-						total++;
-					}
-				}
-			}
+			cache.clear();
+			tree = cache.get(this.version, () -> search.apply(root));
 		}
 
-		return total;
+		return tree;
 	}
 
 	/**
-	 * The {@code triplets(V)} method ...
-	 * 
-	 * @since 1.1.0
-	 * 
-	 * @param node The graph node which triplets number has to be found of
-	 * @return The graph node number of triplets
+	 * The {@code treeEdges(SearchTree)} method returns the edges of given
+	 * visit tree, in the order their targets have been visited.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param tree The tree of visit
+	 * @return The array of tree edges
 	 */
-	@SuppressWarnings("unused")
-	private int triplets(V node)
+	private E[] treeEdges(SearchTree tree)
 	{
-		org.jgrapht.Graph<V, E> graph;
-		if (node == null)
+		return this.edgesAt(
+				Arrays.copyOfRange(tree.parents(), 1, tree.size()),
+				Arrays.copyOfRange(tree.edges(), 1, tree.size())
+		);
+	}
+
+	/**
+	 * The {@code treeGraph(SearchTree)} method builds the graph made of the
+	 * nodes and edges of given visit tree, along with edge weights.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param tree The tree of visit
+	 * @return The visit tree as a graph
+	 */
+	private Graph<V, E> treeGraph(SearchTree tree)
+	{
+		Builder<V, E> builder = new Builder<V, E>(
+					this.nodeClass,
+					this.isDirected,
+					this.isWeighted
+				)
+				.expectedNodes(tree.size())
+				.expectedEdges(tree.size() - 1);
+		int[] order = tree.order();
+		int[] parents = tree.parents();
+		int[] edges = tree.edges();
+		for (int k = 0; k < order.length; k++)
 		{
-			graph = this.graph;
+			builder.addNode(this.csr.nodeAt(order[k]));
 		}
-		else
+		for (int k = 1; k < order.length; k++)
 		{
-			graph = this.neighbourhood(node).graph;
+			builder.addEdge(
+					this.csr.nodeAt(parents[k]),
+					this.csr.nodeAt(order[k]),
+					this.csr.weightAt(edges[k])
+			);
 		}
-		NeighborCache<V, E> neighborCache = new NeighborCache<>(graph);
-		// array needed to overcome final variable issue
-		// in 'forEach'
-		int[] numberTriplets = {0};
-
-		graph.vertexSet().forEach(v -> {
-			if (graph.getType().isUndirected()) {
-				int nodeDegree = graph.degreeOf(v);
-				numberTriplets[0] += 1.0 * nodeDegree * (nodeDegree - 1) / 2;
-			} else {
-				numberTriplets[0] += 1.0 * neighborCache.predecessorsOf(v).size()
-					* neighborCache.successorsOf(v).size();
-			}
-		});
 
-		return numberTriplets[0];
+		return builder.build();
 	}
 
 	/**
-	 * The {@code graphMeasurer()} method creates the graph measurer class
-	 * responsible for graph measurement.
+	 * The {@code clusteringCoefficient()} method creates the clustering
+	 * coefficient calculating class for graph.
 	 * 
 	 * @since 1.1.0
 	 * 
-	 * @return The graph measurer
+	 * @return The graph clustering coefficient object
 	 */
-	private GraphMeasurer<V, E> graphMeasurer()
+	private IncrementalClusteringCoefficient<V, E> clusteringCoefficient()
 	{
-		if (this.graphMeasurer == null)
+		if (this.isCompact())
 		{
-			this.graphMeasurer = new GraphMeasurer<>(this.graph);
+			// not kept, as it holds the restored JGraphT graph
+			return new IncrementalClusteringCoefficient<>(this.readableJgraph());
 		}
 
-		return this.graphMeasurer;
+		return this.clusteringCoefficient.get(
+				this.version,
+				() -> new IncrementalClusteringCoefficient<>(this.jgraph())
+		);
 	}
 
 	/**
-	 * The {@code clusteringCoefficient()} method creates the clustering
-	 * coefficient calculating class for graph.
+	 * The {@code maintainedClusteringCoefficient()} method returns the
+	 * clustering coefficient calculating class for graph if it is up to date
+	 * and can be kept so while graph is modified, in order not to compute
+	 * clustering again after modification.
 	 * 
-	 * @since 1.1.0
+	 * @since 1.2.0
 	 * 
-	 * @return The graph clustering coefficient object
+	 * @return The graph clustering coefficient object, {@code null} if it
+	 * has to be computed again after modification
 	 */
-	private ClusteringCoefficient<V, E> clusteringCoefficient()
+	private IncrementalClusteringCoefficient<V, E>
+			maintainedClusteringCoefficient()
 	{
-		if (this.clusteringCoefficient == null)
-		{
-			this.clusteringCoefficient =
-					new ClusteringCoefficient<>(this.graph);
-		}
+		IncrementalClusteringCoefficient<V, E> clustering =
+				this.clusteringCoefficient.getIfCurrent(this.version);
 
-		return this.clusteringCoefficient;
+		return clustering != null && clustering.isIncremental() ?
+			clustering :
+			null;
 	}
 
 	/**
 	 * The <code>addEdges()</code> helper method adds edges objects to graph;
 	 * it first convert every edge into its couple of nodes and then invokes
-	 * the {@link #addEdge(Object, Object)} method for every couple of nodes.
+	 * the {@link #addEdges(Object[], Object[], double[])} method for such
+	 * couples of nodes, skipping the edges which cannot be added.
 	 * <b>
 	 * In version 1.0.0 this method was not daisy-chainable.
 	 * 
 	 * @since 1.1.0
 	 * 
-	 * @see #addEdge(Object, Object)
+	 * @see #addEdges(Object[], Object[], double[])
 	 * 
 	 * @param edges Array of edges to add to graph
 	 * @return graph with added edges
 	 */
 	private Graph<V, E> addEdges(E[] edges)
 	{
-		IntStream
-				.range(0, edges.length)
-				.forEach(i -> {
-					try {
-						this.addEdge(
-							this.graph.getEdgeSource(edges[i]),
-							this.graph.getEdgeTarget(edges[i])
-						);
-					}
-					catch (IllegalArgumentException iae)
-					{
-						System.err.print(
-								iae.getClass().getSimpleName() +
-								": " +
-								iae.getLocalizedMessage() +
-								".\n"
-						);
-					}
-				});
+		@SuppressWarnings("unchecked")
+		V[] sources = (V[]) Array.newInstance(this.nodeClass, edges.length);
+		@SuppressWarnings("unchecked")
+		V[] targets = (V[]) Array.newInstance(this.nodeClass, edges.length);
+		org.jgrapht.Graph<V, E> graph = this.edgeReader();
+		for (int i = 0; i < edges.length; i++)
+		{
+			sources[i] = graph.getEdgeSource(edges[i]);
+			targets[i] = graph.getEdgeTarget(edges[i]);
+		}
+		this.addEdges(sources, targets, null);
 
 		return this;
 	}
@@ -2081,157 +4870,6 @@ public class Graph<V, E>
 		return edgeArray;
 	}
 
-	/**
-	 * The <code>extractBfsEdges(V)</code> helper method deals with converting
-	 * the sequence of nodes from BFS visit into pairs of nodes; such a
-	 * sequence will be converted in a proper sequence of edges by
-	 * <code>{@link #bfsEdges(Object)}</code> public method.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @see #bfsEdges(Object)
-	 * 
-	 * @param rootNode Root node of BFS tree
-	 * @return the array of <code>Pair</code> of nodes representing edges
-	 */
-	private Pair[] extractBfsEdges(V rootNode)
-	{
-		V[] bfsNodes = this.bfsNodes(rootNode);
-
-		BreadthFirstIterator<V, E> iterator = new BreadthFirstIterator<>(
-						this.graph,
-						rootNode
-				);
-
-		// visit graph
-		while (iterator.hasNext()) iterator.next();
-
-		@SuppressWarnings("unchecked")
-		Pair[] bfsEdges = (Pair[]) Array.newInstance(
-				Pair.class,
-				bfsNodes.length - 1 // # of tree edges
-		);
-
-		int[] nodeLevels = new int[bfsNodes.length];
-		IntStream
-				.range(0, bfsNodes.length)
-				.forEach(i -> {
-					nodeLevels[i] = iterator.getDepth(bfsNodes[i]);
-				});
-
-		// poor unfortunate naïve algorithm
-		// to find edges within adjacency matrix
-		int edgeCounter = 0;
-		int jStartPoint = 0;
-		for (int i = 0; i < nodeLevels.length - 1; i++)
-		{
-			if (edgeCounter == bfsEdges.length) break;
-
-			// we only visit upper triangle of adjacency
-			// matrix if graph is undirected because of
-			// diagonal simmetry
-			if (!this.isDirected) jStartPoint = i + 1;
-
-			// populate edge set with edges from level i to i+1
-			for (int j = jStartPoint; j < nodeLevels.length; j++)
-			{
-				if (edgeCounter == bfsEdges.length) break;
-
-				if (
-						nodeLevels[j] - nodeLevels[i] == 1 &&
-						this.hasEdge(bfsNodes[i], bfsNodes[j])
-				)
-				{
-					bfsEdges[edgeCounter++] = new Pair(
-							bfsNodes[i],
-							bfsNodes[j]
-					);
-				}
-			}
-		}
-
-		return bfsEdges;
-	}
-
-	/**
-	 * The <code>extractDfsEdges(V)</code> helper method deals with converting
-	 * the sequence of nodes from DFS visit into pairs of nodes; such a
-	 * sequence will be converted in a proper sequence of edges by
-	 * <code>{@link #dfsEdges(Object)}</code> public method.
-	 * 
-	 * @since 1.0.0
-	 * 
-	 * @see #dfsEdges(Object)
-	 * 
-	 * @param rootNode Root node of DFS tree
-	 * @return the array of <code>Pair</code> of nodes representing edges
-	 */
-	private Pair[] extractDfsEdges(V rootNode)
-	{
-		V[] dfsNodes = this.dfsNodes(rootNode);
-
-		DepthFirstIterator<V, E> iterator = new DepthFirstIterator<>(
-						this.graph,
-						rootNode
-				);
-
-		@SuppressWarnings("unchecked")
-		Pair[] dfsEdges = (Pair[]) Array.newInstance(
-				Pair.class,
-				dfsNodes.length - 1 // # of tree edges
-		);
-
-		// try to extract edges from iterator
-		V firstNode = null, secondNode = null;
-		int edgesCounter = 0;
-		int backwardIndex = 0;
-		while (
-				iterator.hasNext() &&
-				edgesCounter < dfsEdges.length
-		)
-		{
-			// nodes have to be picked in couples
-			// where the first element is the second
-			// one from previous couple
-			// if this is the first iteration, extract
-			// first element from iterator
-			firstNode = firstNode == null?
-					iterator.next():
-					secondNode;
-			secondNode = iterator.next();
-
-			if (this.hasEdge(firstNode, secondNode))
-			{
-				dfsEdges[edgesCounter++] = new Pair(firstNode, secondNode);
-			}
-			else
-			{
-				// the node in firstNode list that is
-				// parent of secondNode has to be found
-				backwardIndex = edgesCounter - 1;
-				while (backwardIndex >= 0)
-				{
-					if (
-							this.hasEdge(
-									dfsEdges[backwardIndex].getFirst(),
-									secondNode
-							)
-					)
-					{
-						dfsEdges[edgesCounter++] = new Pair(
-								dfsEdges[backwardIndex].getFirst(),
-								secondNode
-						);
-						break;
-					}
-					backwardIndex--;
-				}
-			}
-		}
-
-		return dfsEdges;
-	}
-
 	/**
 	 * The {@code setToArray(Set)} method transforms given set of elements
 	 * into an array of such elements.
@@ -2257,129 +4895,84 @@ public class Graph<V, E>
 	}
 
 	/**
-	 * This class models a pair of generic objects.
-	 * <br>
-	 * For purposes within <code>{@link Graph}</code> class,
-	 * instances of <code>Pair</code> will be immutable; in
-	 * particular, class itself will be immutable.
+	 * This class models information computed on graph, which is valid as
+	 * long as graph is not modified, i.e. for a single version of graph.
 	 * 
-	 * @since 1.0.0
+	 * @since 1.2.0
 	 * 
-	 * @author Simone Bisogno &lt;s.bisogno10@studenti.unisa.it&gt;
-	 *
+	 * @param <T> Type for information
 	 */
-	private final class Pair
+	private static final class Versioned<T>
 	{
-		/*
-		 *  instance variables
-		 */
-
 		/**
-		 * @since 1.0.0
-		 * First element of the pair.
+		 * The information computed on graph
+		 * @since 1.2.0
 		 */
-		private V first;
+		private T value;
 		/**
-		 * @since 1.0.0
-		 * Second element of the pair.
-		 */
-		private V second;
-
-		/*
-		 * constructor
+		 * The version of graph information refers to
+		 * @since 1.2.0
 		 */
+		private long version;
 
 		/**
-		 * Build a pair of <code>V</code> objects.
+		 * The {@code get(long, Supplier)} method returns information for
+		 * given version of graph, computing it again if outdated.
 		 * 
-		 * @since 1.0.0
+		 * @since 1.2.0
 		 * 
-		 * @param first pair first element
-		 * @param second pair second element
+		 * @param version The current version of graph
+		 * @param supplier The supplier computing information
+		 * @return The information about given version of graph
 		 */
-		public Pair(V first, V second)
+		private T get(long version, Supplier<T> supplier)
 		{
-			this.first = first;
-			this.second = second;
+			if (this.value == null || this.version != version)
+			{
+				this.value = supplier.get();
+				this.version = version;
+			}
+
+			return this.value;
 		}
 
 		/**
-		 * Return fist element of pair.
+		 * The {@code getIfCurrent(long)} method returns information for
+		 * given version of graph, as long as it has already been computed.
 		 * 
-		 * @since 1.0.0
+		 * @since 1.2.0
 		 * 
-		 * @return pair first element
+		 * @param version The current version of graph
+		 * @return The information about given version of graph,
+		 * {@code null} if outdated or not computed
 		 */
-		public V getFirst()
+		private T getIfCurrent(long version)
 		{
-			return this.first;
+			return this.version == version ? this.value : null;
 		}
 
 		/**
-		 * Return second element of pair.
+		 * The {@code refresh(long)} method marks information as referring
+		 * to given version of graph, once it has been updated.
 		 * 
-		 * @since 1.0.0
+		 * @since 1.2.0
 		 * 
-		 * @return pair second element
+		 * @param version The current version of graph
 		 */
-		public V getSecond()
+		private void refresh(long version)
 		{
-			return this.second;
+			this.version = version;
 		}
 
-		/*
-		 * Object methods
+		/**
+		 * The {@code clear()} method discards information.
+		 * 
+		 * @since 1.2.0
 		 */
-
-		@Override
-		public String toString()
-		{
-			return "(" + this.first + ", " + this.second + ")";
-		}
-
-		@Override
-		public boolean equals(Object obj)
-		{
-			if (this == obj)
-				return true;
-			if (obj == null)
-				return false;
-			if (getClass() != obj.getClass())
-				return false;
-			@SuppressWarnings("unchecked")
-			Pair other = (Pair) obj;
-			if (!getEnclosingInstance().equals(other.getEnclosingInstance()))
-				return false;
-			if (first == null) {
-				if (other.first != null)
-					return false;
-			} else if (!first.equals(other.first))
-				return false;
-			if (second == null) {
-				if (other.second != null)
-					return false;
-			} else if (!second.equals(other.second))
-				return false;
-			return true;
-		}
-
-		@Override
-		public int hashCode()
-		{
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + getEnclosingInstance().hashCode();
-			result = prime * result + ((first == null) ? 0 : first.hashCode());
-			result = prime * result + (
-				(second == null) ? 0 : second.hashCode()
-			);
-			return result;
-		}
-
-		private Graph<V, E> getEnclosingInstance()
+		private void clear()
 		{
-			return Graph.this;
+			this.value = null;
 		}
-	} // end of Pair class
+	}
 
 }
@@ -0,0 +1,187 @@
+package io.github.bissim.fly.alg;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code AllPairsShortestPaths} computes the distances among every pair of
+ * nodes of a {@link CSRGraph} by running one single-source search per node
+ * (breadth-first for unweighted graphs, Dijkstra for weighted ones), with
+ * sources processed in parallel on a {@code ForkJoinPool}; on weighted
+ * graphs, a {@link DeltaStepping} search can be run from one source at a
+ * time instead, each search relaxing edges in parallel.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class AllPairsShortestPaths
+{
+	/**
+	 * The graph to search paths in
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The maximum number of threads searching paths
+	 * @since 1.2.0
+	 */
+	private final int parallelism;
+	/**
+	 * The delta-stepping search run from each source of weighted graphs,
+	 * {@code null} to run Dijkstra's algorithm from many sources at once
+	 * @since 1.2.0
+	 */
+	private final DeltaStepping deltaStepping;
+
+	/**
+	 * The {@code AllPairsShortestPaths(CSRGraph)} constructor creates an
+	 * all-pairs shortest path finder for given graph, using as many threads
+	 * as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to search paths in
+	 */
+	public AllPairsShortestPaths(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code AllPairsShortestPaths(CSRGraph, int)} constructor creates
+	 * an all-pairs shortest path finder for given graph, using up to given
+	 * number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to search paths in
+	 * @param parallelism The maximum number of threads searching paths
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public AllPairsShortestPaths(CSRGraph<?> graph, int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.graph = graph;
+		this.parallelism = parallelism;
+		this.deltaStepping = null;
+	}
+
+	/**
+	 * The {@code AllPairsShortestPaths(CSRGraph, DeltaStepping)}
+	 * constructor creates an all-pairs shortest path finder for given graph,
+	 * running given delta-stepping search from one source at a time if graph
+	 * is weighted, each search using all of its threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to search paths in
+	 * @param deltaStepping The delta-stepping search on graph
+	 */
+	public AllPairsShortestPaths(CSRGraph<?> graph, DeltaStepping deltaStepping)
+	{
+		this.graph = graph;
+		this.parallelism = deltaStepping.parallelism();
+		this.deltaStepping = deltaStepping;
+	}
+
+	/**
+	 * The {@code distanceMatrix()} method computes the distance between
+	 * every pair of nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The matrix of distances, indexed by source and target node
+	 * ids; {@code Double.POSITIVE_INFINITY} denotes there's no path
+	 */
+	public double[][] distanceMatrix()
+	{
+		double[][] distances = new double[this.graph.numNodes()][];
+		if (this.isDeltaStepping())
+		{
+			for (int u = 0; u < distances.length; u++)
+			{
+				distances[u] = this.deltaStepping.distances(u);
+			}
+
+			return distances;
+		}
+
+		ShortestPaths shortestPaths = new ShortestPaths(this.graph);
+		ParallelTasks.forEach(
+				this.parallelism,
+				distances.length,
+				u -> distances[u] = shortestPaths.distances(u)
+		);
+
+		return distances;
+	}
+
+	/**
+	 * The {@code averagePathLength()} method computes the average distance
+	 * between ordered pairs of distinct nodes, without storing the matrix of
+	 * distances.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The average path length, {@code Double.POSITIVE_INFINITY} if
+	 * some node cannot reach some other node, {@code 0} if graph has less
+	 * than two nodes
+	 */
+	public double averagePathLength()
+	{
+		final int n = this.graph.numNodes();
+		if (n < 2)
+		{
+			return 0.0;
+		}
+
+		if (this.isDeltaStepping())
+		{
+			double lengthsSum = 0.0;
+			double[] row = new double[n];
+			for (int u = 0; u < n; u++)
+			{
+				for (double distance : this.deltaStepping.distances(u, row))
+				{
+					lengthsSum += distance;
+				}
+			}
+
+			return lengthsSum / ((1.0 * n) * (1.0 * n - 1.0));
+		}
+
+		ShortestPaths shortestPaths = new ShortestPaths(this.graph);
+		ThreadLocal<double[]> rows =
+				ThreadLocal.withInitial(() -> new double[n]);
+		double lengthsSum = ParallelTasks.sum(this.parallelism, n, u -> {
+			double rowSum = 0.0;
+			for (double distance : shortestPaths.distances(u, rows.get()))
+			{
+				rowSum += distance;
+			}
+			return rowSum;
+		});
+
+		return lengthsSum / ((1.0 * n) * (1.0 * n - 1.0));
+	}
+
+	/**
+	 * The {@code isDeltaStepping()} helper method tells whether paths are
+	 * searched by delta-stepping, i.e. whether graph is weighted and a
+	 * delta-stepping search has been given.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if paths are searched by delta-stepping,
+	 * {@code false} otherwise
+	 */
+	private boolean isDeltaStepping()
+	{
+		return this.deltaStepping != null && this.graph.isWeighted();
+	}
+}
@@ -0,0 +1,349 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code BoundingDiameter} computes the exact diameter of a {@link CSRGraph}
+ * by the bounding technique of Takes and Kosters (the same iFUB relies on):
+ * each single-source search from a node {@code v} bounds the eccentricity of
+ * every other node {@code w} by
+ * {@code max(d(v, w), ecc(v) - d(v, w)) <= ecc(w) <= ecc(v) + d(v, w)}, and
+ * searches go on from promising nodes until lower and upper bounds on
+ * diameter meet.
+ * <br>
+ * On large sparse graphs, such as social networks, a handful of searches
+ * usually certifies the diameter. Bounds only hold for undirected graphs,
+ * thus directed graphs are measured exhaustively by {@link Eccentricities};
+ * the same happens when bounding takes more searches than an exhaustive
+ * parallel measurement would.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class BoundingDiameter
+{
+	/**
+	 * The tolerance used to compare bounds
+	 * @since 1.2.0
+	 */
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * The graph to measure
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The maximum number of threads used by exhaustive measurement
+	 * @since 1.2.0
+	 */
+	private final int parallelism;
+	/**
+	 * The delta-stepping search run from each source of weighted graphs,
+	 * {@code null} to run Dijkstra's algorithm from many sources at once
+	 * @since 1.2.0
+	 */
+	private final DeltaStepping deltaStepping;
+	/**
+	 * The graph diameter, once computed
+	 * @since 1.2.0
+	 */
+	private double diameter;
+	/**
+	 * The number of single-source searches run to compute diameter
+	 * @since 1.2.0
+	 */
+	private int searches;
+	/**
+	 * Denotes whether diameter has been computed exhaustively
+	 * @since 1.2.0
+	 */
+	private boolean isExhaustive;
+	/**
+	 * Denotes whether diameter has been computed
+	 * @since 1.2.0
+	 */
+	private boolean isComputed;
+
+	/**
+	 * The {@code BoundingDiameter(CSRGraph)} constructor creates the
+	 * diameter finder for given graph, falling back to exhaustive
+	 * measurement with as many threads as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to measure
+	 */
+	public BoundingDiameter(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code BoundingDiameter(CSRGraph, int)} constructor creates the
+	 * diameter finder for given graph, falling back to exhaustive
+	 * measurement with up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to measure
+	 * @param parallelism The maximum number of threads used by exhaustive
+	 * measurement
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public BoundingDiameter(CSRGraph<?> graph, int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.graph = graph;
+		this.parallelism = parallelism;
+		this.deltaStepping = null;
+	}
+
+	/**
+	 * The {@code BoundingDiameter(CSRGraph, DeltaStepping)} constructor creates
+	 * the diameter finder for given graph, running given delta-stepping search from
+	 * one source at a time if graph is weighted, each search using all of
+	 * its threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to measure
+	 * @param deltaStepping The delta-stepping search on graph
+	 */
+	public BoundingDiameter(CSRGraph<?> graph, DeltaStepping deltaStepping)
+	{
+		this.graph = graph;
+		this.parallelism = deltaStepping.parallelism();
+		this.deltaStepping = deltaStepping;
+	}
+
+	/**
+	 * The {@code diameter()} method returns the graph diameter, with the
+	 * same conventions of {@link Eccentricities#diameter()}.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph diameter
+	 */
+	public double diameter()
+	{
+		this.compute();
+
+		return this.diameter;
+	}
+
+	/**
+	 * The {@code searches()} method returns how many single-source searches
+	 * (BFS, or Dijkstra's algorithm for weighted graphs) have been run to
+	 * compute diameter, including the ones of exhaustive measurement.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of searches
+	 */
+	public int searches()
+	{
+		this.compute();
+
+		return this.searches;
+	}
+
+	/**
+	 * The {@code isExhaustive()} method denotes whether diameter has been
+	 * computed by measuring the eccentricity of every node, since bounds
+	 * did not apply or did not converge soon enough.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if diameter has been computed exhaustively,
+	 * {@code false} otherwise
+	 */
+	public boolean isExhaustive()
+	{
+		this.compute();
+
+		return this.isExhaustive;
+	}
+
+	/**
+	 * The {@code compute()} helper method computes diameter, unless already
+	 * done.
+	 *
+	 * @since 1.2.0
+	 */
+	private void compute()
+	{
+		if (this.isComputed)
+		{
+			return;
+		}
+		this.isComputed = true;
+
+		final int n = this.graph.numNodes();
+		if (n == 0)
+		{
+			this.diameter = 0.0;
+			return;
+		}
+		if (this.graph.isDirected())
+		{
+			this.computeExhaustively();
+			return;
+		}
+
+		// bounding searches cost as much as exhaustive measurement when
+		// they are as many as the searches each thread would run, or as
+		// all of them when each search runs on every thread
+		final int maxSearches = this.graph.isWeighted() &&
+				this.deltaStepping != null ?
+						n :
+						Math.max(1, n / this.parallelism);
+		ShortestPaths shortestPaths = new ShortestPaths(this.graph);
+		double[] distances = new double[n];
+		double[] lower = new double[n];
+		double[] upper = new double[n];
+		boolean[] isCandidate = new boolean[n];
+		Arrays.fill(upper, Double.POSITIVE_INFINITY);
+		Arrays.fill(isCandidate, true);
+		int candidates = n;
+		double lowerDiameter = 0.0;
+		double upperDiameter = Double.POSITIVE_INFINITY;
+		boolean fromUpper = true;
+
+		while (candidates > 0 && upperDiameter - lowerDiameter > TOLERANCE)
+		{
+			if (this.searches == maxSearches)
+			{
+				this.computeExhaustively();
+				return;
+			}
+
+			int v = this.selectCandidate(isCandidate, lower, upper, fromUpper);
+			fromUpper = !fromUpper;
+			if (this.graph.isWeighted() && this.deltaStepping != null)
+			{
+				this.deltaStepping.distances(v, distances);
+			}
+			else
+			{
+				shortestPaths.distances(v, distances);
+			}
+			this.searches++;
+
+			double eccentricity = 0.0;
+			for (double distance : distances)
+			{
+				eccentricity = Math.max(eccentricity, distance);
+			}
+			if (eccentricity == Double.POSITIVE_INFINITY)
+			{
+				// graph is not connected
+				this.diameter = Double.POSITIVE_INFINITY;
+				return;
+			}
+
+			lowerDiameter = Math.max(lowerDiameter, eccentricity);
+			upperDiameter = Math.min(upperDiameter, 2.0 * eccentricity);
+			double maxUpper = 0.0;
+			for (int w = 0; w < n; w++)
+			{
+				lower[w] = Math.max(
+						lower[w],
+						Math.max(distances[w], eccentricity - distances[w])
+				);
+				upper[w] = Math.min(upper[w], eccentricity + distances[w]);
+				lowerDiameter = Math.max(lowerDiameter, lower[w]);
+				maxUpper = Math.max(maxUpper, upper[w]);
+			}
+			upperDiameter = Math.min(upperDiameter, maxUpper);
+
+			// nodes which cannot raise lower bound are no longer candidates
+			isCandidate[v] = false;
+			candidates = 0;
+			for (int w = 0; w < n; w++)
+			{
+				if (isCandidate[w] && upper[w] <= lowerDiameter + TOLERANCE)
+				{
+					isCandidate[w] = false;
+				}
+				if (isCandidate[w])
+				{
+					candidates++;
+				}
+			}
+		}
+
+		this.diameter = lowerDiameter;
+	}
+
+	/**
+	 * The {@code computeExhaustively()} helper method computes diameter by
+	 * measuring the eccentricity of every node.
+	 *
+	 * @since 1.2.0
+	 */
+	private void computeExhaustively()
+	{
+		Eccentricities eccentricities = this.deltaStepping == null ?
+				new Eccentricities(this.graph, this.parallelism) :
+				new Eccentricities(this.graph, this.deltaStepping);
+		this.diameter = eccentricities.diameter();
+		this.searches += this.graph.numNodes();
+		this.isExhaustive = true;
+	}
+
+	/**
+	 * The {@code selectCandidate(boolean[], double[], double[], boolean)}
+	 * helper method selects the next node to search from among candidates,
+	 * i.e. the one with the largest upper bound or the one with the smallest
+	 * lower bound, breaking ties by largest degree.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param isCandidate Denotes which nodes are candidates
+	 * @param lower The lower bounds of eccentricities
+	 * @param upper The upper bounds of eccentricities
+	 * @param fromUpper Denotes whether to select by upper bound
+	 * @return The id of selected node
+	 */
+	private int selectCandidate(
+			boolean[] isCandidate,
+			double[] lower,
+			double[] upper,
+			boolean fromUpper
+	)
+	{
+		int selected = -1;
+		for (int w = 0; w < isCandidate.length; w++)
+		{
+			if (!isCandidate[w])
+			{
+				continue;
+			}
+			if (selected < 0)
+			{
+				selected = w;
+				continue;
+			}
+
+			int comparison = fromUpper ?
+				Double.compare(upper[w], upper[selected]) :
+				Double.compare(lower[selected], lower[w]);
+			if (comparison > 0 || (comparison == 0 &&
+					this.graph.degree(w) > this.graph.degree(selected)))
+			{
+				selected = w;
+			}
+		}
+
+		return selected;
+	}
+}
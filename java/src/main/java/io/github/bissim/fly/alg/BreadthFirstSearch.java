@@ -0,0 +1,520 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code BreadthFirstSearch} visits a {@link CSRGraph} breadth-first,
+ * following outgoing adjacencies in the order they are stored, i.e. the
+ * same order JGraphT {@code BreadthFirstIterator} visits nodes in.
+ * <br>
+ * Graphs with at least {@link #PARALLEL_THRESHOLD} nodes are visited by the
+ * direction-optimizing search of Beamer et al., one level at a time: small
+ * frontiers expand top-down, following the adjacencies of their nodes,
+ * whereas large ones, which make up most of low-diameter graphs such as
+ * social networks, expand bottom-up, each unvisited node looking among its
+ * incoming adjacencies for a frontier node and stopping at the first one.
+ * Bottom-up steps run in parallel over slices of the bitmap of visited
+ * nodes, testing adjacencies against the bitmap of frontier nodes; the
+ * nodes found are then sorted by their first frontier parent and by the
+ * position of their edge among its adjacencies, so that levels are visited
+ * in the same order as top-down.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class BreadthFirstSearch
+{
+	/**
+	 * The minimum number of nodes of graphs visited by direction-optimizing
+	 * search
+	 * @since 1.2.0
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 14;
+	/**
+	 * The ratio of unexplored edges to frontier edges below which frontier
+	 * expands bottom-up
+	 * @since 1.2.0
+	 */
+	private static final int ALPHA = 14;
+	/**
+	 * The ratio of graph nodes to frontier nodes above which frontier
+	 * expands top-down again
+	 * @since 1.2.0
+	 */
+	private static final int BETA = 24;
+	/**
+	 * The number of slices of visited nodes bitmap each thread expands
+	 * bottom-up, so that threads balance their work
+	 * @since 1.2.0
+	 */
+	private static final int SLICES_PER_THREAD = 4;
+
+	/**
+	 * The graph to visit
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The maximum number of threads expanding frontiers bottom-up
+	 * @since 1.2.0
+	 */
+	private final int parallelism;
+
+	/**
+	 * The {@code BreadthFirstSearch(CSRGraph)} constructor creates a
+	 * breadth-first visitor for given graph, using as many threads as
+	 * available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to visit
+	 */
+	public BreadthFirstSearch(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code BreadthFirstSearch(CSRGraph, int)} constructor creates a
+	 * breadth-first visitor for given graph, using up to given number of
+	 * threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to visit
+	 * @param parallelism The maximum number of threads expanding frontiers
+	 * bottom-up
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public BreadthFirstSearch(CSRGraph<?> graph, int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.graph = graph;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * The {@code order(int)} method returns the nodes reachable from given
+	 * root, in the order they are visited.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param root The id of root node
+	 * @return The ids of visited nodes, root first
+	 */
+	public int[] order(int root)
+	{
+		return this.graph.numNodes() < PARALLEL_THRESHOLD ?
+				this.visit(root, false) :
+				this.directionOptimizingTree(root).order();
+	}
+
+	/**
+	 * The {@code tree(int)} method visits graph breadth-first from given
+	 * root, recording the parent each node has been reached from, i.e. the
+	 * first visited node it is adjacent to.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param root The id of root node
+	 * @return The tree of visit
+	 */
+	public SearchTree tree(int root)
+	{
+		final int n = this.graph.numNodes();
+		if (n >= PARALLEL_THRESHOLD)
+		{
+			return this.directionOptimizingTree(root);
+		}
+
+		final int[] offsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		// parents and edges are indexed by node id while visiting
+		int[] parentOf = new int[n];
+		int[] edgeOf = new int[n];
+		boolean[] visited = new boolean[n];
+		int[] queue = new int[n];
+		int head = 0, tail = 0;
+
+		queue[tail++] = root;
+		visited[root] = true;
+		parentOf[root] = -1;
+		edgeOf[root] = -1;
+		while (head < tail)
+		{
+			int u = queue[head++];
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				int v = targets[i];
+				if (!visited[v])
+				{
+					visited[v] = true;
+					parentOf[v] = u;
+					edgeOf[v] = i;
+					queue[tail++] = v;
+				}
+			}
+		}
+
+		int[] parents = new int[tail];
+		int[] edges = new int[tail];
+		for (int k = 0; k < tail; k++)
+		{
+			parents[k] = parentOf[queue[k]];
+			edges[k] = edgeOf[queue[k]];
+		}
+
+		return new SearchTree(Arrays.copyOf(queue, tail), parents, edges);
+	}
+
+	/**
+	 * The {@code pathTree(int)} method visits graph breadth-first from given
+	 * root, returning the shortest paths it has found from root to every
+	 * node, i.e. the paths along the tree of visit; the distance of a node
+	 * is its number of edges from root.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param root The id of root node
+	 * @return The tree of shortest paths from root
+	 */
+	public ShortestPathTree pathTree(int root)
+	{
+		final int n = this.graph.numNodes();
+		SearchTree tree = this.tree(root);
+		final int[] order = tree.order();
+		final int[] parents = tree.parents();
+		double[] distances = new double[n];
+		int[] predecessors = new int[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		Arrays.fill(predecessors, -1);
+		distances[root] = 0.0;
+		// parents are visited before their children
+		for (int k = 1; k < order.length; k++)
+		{
+			distances[order[k]] = distances[parents[k]] + 1.0;
+			predecessors[order[k]] = parents[k];
+		}
+
+		return new ShortestPathTree(root, distances, predecessors);
+	}
+
+	/**
+	 * The {@code undirectedOrder(int)} method returns the nodes reachable
+	 * from given root when edge direction is ignored, in the order they are
+	 * visited; for undirected graphs, it is the same as {@link #order(int)}.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param root The id of root node
+	 * @return The ids of visited nodes, root first
+	 */
+	public int[] undirectedOrder(int root)
+	{
+		return this.visit(root, this.graph.isDirected());
+	}
+
+	/**
+	 * The {@code directionOptimizingTree(int)} helper method visits graph
+	 * breadth-first from given root, expanding each level either top-down
+	 * or bottom-up.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param root The id of root node
+	 * @return The tree of visit
+	 */
+	private SearchTree directionOptimizingTree(int root)
+	{
+		final int n = this.graph.numNodes();
+		final int[] offsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		final int words = (n + Long.SIZE - 1) / Long.SIZE;
+		// positions, parents and edges are indexed by node id while visiting
+		final int[] positions = new int[n];
+		final int[] parentOf = new int[n];
+		final int[] edgeOf = new int[n];
+		final long[] visited = new long[words];
+		final long[] frontier = new long[words];
+		final long[] next = new long[words];
+		final int[] queue = new int[n];
+		int levelStart = 0, tail = 0;
+
+		queue[tail++] = root;
+		positions[root] = 0;
+		parentOf[root] = -1;
+		edgeOf[root] = -1;
+		visited[root >>> 6] |= 1L << root;
+		long unexploredEdges = offsets[n] - this.graph.outDegree(root);
+		long frontierEdges = this.graph.outDegree(root);
+		boolean isBottomUp = false;
+		while (levelStart < tail)
+		{
+			final int levelEnd = tail;
+			isBottomUp = isBottomUp ?
+					levelEnd - levelStart >= n / BETA :
+					frontierEdges > unexploredEdges / ALPHA;
+			if (isBottomUp)
+			{
+				tail = this.expandBottomUp(
+						queue,
+						levelStart,
+						levelEnd,
+						positions,
+						parentOf,
+						edgeOf,
+						visited,
+						frontier,
+						next
+				);
+			}
+			else
+			{
+				for (int k = levelStart; k < levelEnd; k++)
+				{
+					final int u = queue[k];
+					for (int i = offsets[u]; i < offsets[u + 1]; i++)
+					{
+						final int v = targets[i];
+						if ((visited[v >>> 6] & 1L << v) == 0L)
+						{
+							visited[v >>> 6] |= 1L << v;
+							positions[v] = tail;
+							parentOf[v] = u;
+							edgeOf[v] = i;
+							queue[tail++] = v;
+						}
+					}
+				}
+			}
+
+			frontierEdges = 0L;
+			for (int k = levelEnd; k < tail; k++)
+			{
+				frontierEdges += this.graph.outDegree(queue[k]);
+			}
+			unexploredEdges -= frontierEdges;
+			levelStart = levelEnd;
+		}
+
+		int[] parents = new int[tail];
+		int[] edges = new int[tail];
+		for (int k = 0; k < tail; k++)
+		{
+			parents[k] = parentOf[queue[k]];
+			edges[k] = edgeOf[queue[k]];
+		}
+
+		return new SearchTree(Arrays.copyOf(queue, tail), parents, edges);
+	}
+
+	/**
+	 * The {@code expandBottomUp(int[], int, int, int[], int[], int[],
+	 * long[], long[], long[])} helper method expands given level of visit
+	 * bottom-up, appending the next level to queue in top-down order.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param queue The ids of visited nodes, in visit order
+	 * @param levelStart The position of first node of level in queue
+	 * @param levelEnd The position next to last node of level in queue
+	 * @param positions The position of each visited node in queue
+	 * @param parentOf The parent of each visited node
+	 * @param edgeOf The position of the edge each visited node has been
+	 * reached by
+	 * @param visited The bitmap of visited nodes
+	 * @param frontier The bitmap of frontier nodes, to overwrite
+	 * @param next The bitmap of next level nodes, to overwrite
+	 * @return The position next to last node of next level in queue
+	 */
+	private int expandBottomUp(
+			int[] queue,
+			int levelStart,
+			int levelEnd,
+			int[] positions,
+			int[] parentOf,
+			int[] edgeOf,
+			long[] visited,
+			long[] frontier,
+			long[] next
+	)
+	{
+		final int n = this.graph.numNodes();
+		final int[] inOffsets = this.graph.inOffsets();
+		final int[] inSources = this.graph.inSources();
+		final int words = visited.length;
+		final int slices = Math.min(words, this.parallelism * SLICES_PER_THREAD);
+		Arrays.fill(frontier, 0L);
+		for (int k = levelStart; k < levelEnd; k++)
+		{
+			frontier[queue[k] >>> 6] |= 1L << queue[k];
+		}
+
+		// each slice writes its own words of next level bitmap
+		ParallelTasks.forEach(this.parallelism, slices, s -> {
+			final int end = (int) ((long) words * (s + 1) / slices);
+			for (int w = (int) ((long) words * s / slices); w < end; w++)
+			{
+				long found = 0L;
+				long unvisited = ~visited[w];
+				while (unvisited != 0L)
+				{
+					final long bit = Long.lowestOneBit(unvisited);
+					unvisited ^= bit;
+					final int v = w * Long.SIZE + Long.numberOfTrailingZeros(bit);
+					if (v >= n)
+					{
+						break;
+					}
+					for (int j = inOffsets[v]; j < inOffsets[v + 1]; j++)
+					{
+						final int u = inSources[j];
+						if ((frontier[u >>> 6] & 1L << u) != 0L)
+						{
+							found |= bit;
+							break;
+						}
+					}
+				}
+				next[w] = found;
+			}
+		});
+
+		int count = 0;
+		for (int w = 0; w < words; w++)
+		{
+			count += Long.bitCount(next[w]);
+		}
+		final int[] found = new int[count];
+		count = 0;
+		for (int w = 0; w < words; w++)
+		{
+			visited[w] |= next[w];
+			for (long bits = next[w]; bits != 0L; bits &= bits - 1L)
+			{
+				found[count++] = w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+			}
+		}
+
+		// top-down order: by position of first frontier parent, then by
+		// position of edge among parent adjacencies
+		final int threads = count < PARALLEL_THRESHOLD ? 1 : this.parallelism;
+		final long[] keys = new long[count];
+		ParallelTasks.forEach(threads, count, k -> {
+			final int v = found[k];
+			int parent = -1;
+			for (int j = inOffsets[v]; j < inOffsets[v + 1]; j++)
+			{
+				final int u = inSources[j];
+				if ((frontier[u >>> 6] & 1L << u) != 0L &&
+						(parent < 0 || positions[u] < positions[parent]))
+				{
+					parent = u;
+				}
+			}
+			parentOf[v] = parent;
+			keys[k] = (long) positions[parent] << Integer.SIZE | v;
+		});
+		Arrays.sort(keys);
+
+		int groups = 0;
+		final int[] groupStarts = new int[count + 1];
+		for (int k = 0; k < count; k++)
+		{
+			if (k == 0 || keys[k] >>> Integer.SIZE != keys[k - 1] >>> Integer.SIZE)
+			{
+				groupStarts[groups++] = k;
+			}
+		}
+		groupStarts[groups] = count;
+
+		// each parent finds its children among its adjacencies, in order
+		final int[] offsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		final int[] edges = new int[count];
+		ParallelTasks.forEach(threads, groups, g -> {
+			final int u = queue[(int) (keys[groupStarts[g]] >>> Integer.SIZE)];
+			final int groupEnd = groupStarts[g + 1];
+			int k = groupStarts[g];
+			for (int i = offsets[u]; k < groupEnd && i < offsets[u + 1]; i++)
+			{
+				final int v = targets[i];
+				if ((next[v >>> 6] & 1L << v) != 0L && parentOf[v] == u)
+				{
+					edges[k++] = i;
+				}
+			}
+		});
+
+		int tail = levelEnd;
+		for (int edge : edges)
+		{
+			final int v = targets[edge];
+			positions[v] = tail;
+			edgeOf[v] = edge;
+			queue[tail++] = v;
+		}
+
+		return tail;
+	}
+
+	/**
+	 * The {@code visit(int, boolean)} helper method visits graph
+	 * breadth-first from given root.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param root The id of root node
+	 * @param followIncoming Denotes whether incoming adjacencies have to be
+	 * followed too
+	 * @return The ids of visited nodes, root first
+	 */
+	private int[] visit(int root, boolean followIncoming)
+	{
+		int[] offsets = this.graph.outOffsets();
+		int[] targets = this.graph.outTargets();
+		int[] inOffsets = this.graph.inOffsets();
+		int[] inSources = this.graph.inSources();
+		boolean[] visited = new boolean[this.graph.numNodes()];
+		int[] queue = new int[this.graph.numNodes()];
+		int head = 0, tail = 0;
+
+		queue[tail++] = root;
+		visited[root] = true;
+		while (head < tail)
+		{
+			int u = queue[head++];
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				int v = targets[i];
+				if (!visited[v])
+				{
+					visited[v] = true;
+					queue[tail++] = v;
+				}
+			}
+			if (followIncoming)
+			{
+				for (int i = inOffsets[u]; i < inOffsets[u + 1]; i++)
+				{
+					int v = inSources[i];
+					if (!visited[v])
+					{
+						visited[v] = true;
+						queue[tail++] = v;
+					}
+				}
+			}
+		}
+
+		return Arrays.copyOf(queue, tail);
+	}
+}
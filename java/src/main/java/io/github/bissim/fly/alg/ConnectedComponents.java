@@ -0,0 +1,251 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code ConnectedComponents} labels the connected components of a
+ * {@link CSRGraph}, weakly connected ones for directed graphs.
+ * <br>
+ * Edges are merged in parallel into a lock-free union-find, which links
+ * roots by compare-and-set, always below the lowest one: once every edge
+ * has been merged, the root of each component is its lowest node id.
+ * Components are then numbered in the order of their lowest node, i.e. the
+ * same order JGraphT {@code ConnectivityInspector} finds them in, and
+ * their nodes are listed in ascending id order.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class ConnectedComponents
+{
+	/**
+	 * The component of each node
+	 * @since 1.2.0
+	 */
+	private final int[] components;
+	/**
+	 * The position of the first node of each component within nodes,
+	 * followed by the number of nodes
+	 * @since 1.2.0
+	 */
+	private final int[] offsets;
+	/**
+	 * The nodes grouped by component
+	 * @since 1.2.0
+	 */
+	private final int[] nodes;
+
+	/**
+	 * The {@code ConnectedComponents(CSRGraph)} constructor labels the
+	 * components of given graph, using as many threads as available
+	 * processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to label
+	 */
+	public ConnectedComponents(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code ConnectedComponents(CSRGraph, int)} constructor labels the
+	 * components of given graph, using up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to label
+	 * @param parallelism The maximum number of threads merging edges
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public ConnectedComponents(CSRGraph<?> graph, int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		final int n = graph.numNodes();
+		final int[] outOffsets = graph.outOffsets();
+		final int[] targets = graph.outTargets();
+		final boolean isDirected = graph.isDirected();
+		AtomicIntegerArray parents = new AtomicIntegerArray(n);
+		for (int u = 0; u < n; u++)
+		{
+			parents.set(u, u);
+		}
+		ParallelTasks.forEach(parallelism, n, u -> {
+			for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++)
+			{
+				// undirected edges are stored from both endpoints
+				if (isDirected || targets[i] > u)
+				{
+					union(parents, u, targets[i]);
+				}
+			}
+		});
+
+		int[] roots = new int[n];
+		ParallelTasks.forEach(parallelism, n, u -> roots[u] = find(parents, u));
+		this.components = new int[n];
+		int count = 0;
+		for (int u = 0; u < n; u++)
+		{
+			// roots are the lowest node of their component
+			this.components[u] = roots[u] == u ?
+					count++ :
+					this.components[roots[u]];
+		}
+
+		this.offsets = new int[count + 1];
+		for (int u = 0; u < n; u++)
+		{
+			this.offsets[this.components[u] + 1]++;
+		}
+		for (int c = 0; c < count; c++)
+		{
+			this.offsets[c + 1] += this.offsets[c];
+		}
+		this.nodes = new int[n];
+		int[] next = Arrays.copyOf(this.offsets, count);
+		for (int u = 0; u < n; u++)
+		{
+			this.nodes[next[this.components[u]]++] = u;
+		}
+	}
+
+	/**
+	 * The {@code count()} method returns the number of components.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of components
+	 */
+	public int count()
+	{
+		return this.offsets.length - 1;
+	}
+
+	/**
+	 * The {@code componentOf(int)} method returns the component given node
+	 * belongs to.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The node id
+	 * @return The component index
+	 */
+	public int componentOf(int u)
+	{
+		return this.components[u];
+	}
+
+	/**
+	 * The {@code components()} method returns the component of every node;
+	 * the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The component indexes by node id
+	 */
+	public int[] components()
+	{
+		return this.components;
+	}
+
+	/**
+	 * The {@code size(int)} method returns the number of nodes of given
+	 * component.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param c The component index
+	 * @return The number of component nodes
+	 */
+	public int size(int c)
+	{
+		return this.offsets[c + 1] - this.offsets[c];
+	}
+
+	/**
+	 * The {@code nodes(int)} method returns the nodes of given component.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param c The component index
+	 * @return The ids of component nodes, in ascending order
+	 */
+	public int[] nodes(int c)
+	{
+		return Arrays.copyOfRange(this.nodes, this.offsets[c], this.offsets[c + 1]);
+	}
+
+	/**
+	 * The {@code union(AtomicIntegerArray, int, int)} helper method merges
+	 * the sets holding given nodes, linking the higher root below the lower
+	 * one.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parents The union-find parent of each node
+	 * @param u The first node id
+	 * @param v The second node id
+	 */
+	private static void union(AtomicIntegerArray parents, int u, int v)
+	{
+		while (true)
+		{
+			u = find(parents, u);
+			v = find(parents, v);
+			if (u == v)
+			{
+				return;
+			}
+			if (u < v)
+			{
+				int swap = u;
+				u = v;
+				v = swap;
+			}
+			// the link fails if another thread has linked u meanwhile
+			if (parents.compareAndSet(u, u, v))
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * The {@code find(AtomicIntegerArray, int)} helper method returns the
+	 * root of the set holding given node, halving the path to it.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parents The union-find parent of each node
+	 * @param u The node id
+	 * @return The root id
+	 */
+	private static int find(AtomicIntegerArray parents, int u)
+	{
+		while (true)
+		{
+			int parent = parents.get(u);
+			if (parent == u)
+			{
+				return u;
+			}
+			int grandparent = parents.get(parent);
+			if (grandparent != parent)
+			{
+				parents.compareAndSet(u, parent, grandparent);
+			}
+			u = grandparent;
+		}
+	}
+}
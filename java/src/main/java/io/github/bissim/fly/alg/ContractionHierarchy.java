@@ -0,0 +1,1615 @@
+package io.github.bissim.fly.alg;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code ContractionHierarchy} is an index of a {@link CSRGraph} answering
+ * shortest path queries between two nodes by searching a tiny part of it.
+ * <br>
+ * Nodes are contracted one after another, i.e. removed from graph adding a
+ * shortcut between each pair of their neighbours whose shortest path ran
+ * through them, unless a witness path no longer than that is found by a
+ * search bounded in size and hops around them; nodes are ranked by the
+ * order they have been contracted in, the cheapest ones first. Each round,
+ * nodes cheaper than all of their neighbours are contracted in parallel, as
+ * their shortcuts are independent; the cost of their neighbours is marked
+ * as stale, and updated only once they are about to be contracted.
+ * <br>
+ * Nodes with more than {@link #CORE_DEGREE} edges are not contracted, as
+ * their contraction would take long and add many shortcuts, until
+ * contractions lower their degree: graphs lacking a hierarchy, unlike road
+ * networks, are left with a core of such nodes, which is ranked above all
+ * contracted ones and keeps its edges in both directions.
+ * <br>
+ * A query runs a bidirectional Dijkstra's search along edges and shortcuts
+ * towards higher ranked nodes only, and along any edge within the core,
+ * which meet at the highest ranked node of a shortest path, or at one of
+ * its core nodes; shortcuts of path are then unpacked into the edges they
+ * stand for. Edge weights must not be negative.
+ * <br>
+ * The index refers to node ids of graph it has been built for, and can be
+ * saved to a file and loaded back for the same graph, which is recognized
+ * by its {@link CSRGraph#fingerprint() fingerprint}.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class ContractionHierarchy
+{
+	/**
+	 * The minimum number of nodes a round is contracted in parallel from
+	 * @since 1.2.0
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 10;
+	/**
+	 * The maximum number of edges, both incoming and outgoing, of a node to
+	 * contract; nodes with more edges are left in core
+	 * @since 1.2.0
+	 */
+	public static final int CORE_DEGREE = 24;
+	/**
+	 * The maximum number of nodes settled by a witness search
+	 * @since 1.2.0
+	 */
+	private static final int WITNESS_LIMIT = 500;
+	/**
+	 * The maximum number of edges of a witness path
+	 * @since 1.2.0
+	 */
+	private static final int WITNESS_HOPS = 5;
+	/**
+	 * The maximum number of nodes settled by a witness search estimating
+	 * the cost of a contraction
+	 * @since 1.2.0
+	 */
+	private static final int ESTIMATE_LIMIT = 50;
+	/**
+	 * The maximum number of edges of a witness path estimating the cost of
+	 * a contraction
+	 * @since 1.2.0
+	 */
+	private static final int ESTIMATE_HOPS = 2;
+	/**
+	 * The priority of nodes left in core
+	 * @since 1.2.0
+	 */
+	private static final int CORE = Integer.MAX_VALUE;
+	/**
+	 * The magic number index files start with, i.e. {@code FLYH} in ASCII
+	 * @since 1.2.0
+	 */
+	private static final int MAGIC = 0x48594C46;
+	/**
+	 * The version of index file format
+	 * @since 1.2.0
+	 */
+	private static final int FORMAT_VERSION = 1;
+	/**
+	 * The workspace of forward searches of each thread
+	 * @since 1.2.0
+	 */
+	private static final ThreadLocal<SearchWorkspace> WORKSPACES =
+			new ThreadLocal<>();
+	/**
+	 * The workspace of backward searches of each thread
+	 * @since 1.2.0
+	 */
+	private static final ThreadLocal<SearchWorkspace> BACKWARD_WORKSPACES =
+			new ThreadLocal<>();
+
+	/**
+	 * The number of edges of indexed graph
+	 * @since 1.2.0
+	 */
+	private final int numEdges;
+	/**
+	 * The fingerprint of indexed graph
+	 * @since 1.2.0
+	 */
+	private final long fingerprint;
+	/**
+	 * The rank of each node, i.e. the order it has been contracted in
+	 * @since 1.2.0
+	 */
+	private final int[] ranks;
+	/**
+	 * The rank of the lowest ranked core node, i.e. the number of
+	 * contracted nodes
+	 * @since 1.2.0
+	 */
+	private final int coreRank;
+	/**
+	 * The offsets of upward edges of each node
+	 * @since 1.2.0
+	 */
+	private final int[] upOffsets;
+	/**
+	 * The targets of upward edges, ranked higher than their sources
+	 * @since 1.2.0
+	 */
+	private final int[] upTargets;
+	/**
+	 * The weights of upward edges
+	 * @since 1.2.0
+	 */
+	private final double[] upWeights;
+	/**
+	 * The node each upward shortcut bypasses, {@code -1} for edges
+	 * @since 1.2.0
+	 */
+	private final int[] upMiddles;
+	/**
+	 * The offsets of downward edges entering each node
+	 * @since 1.2.0
+	 */
+	private final int[] downOffsets;
+	/**
+	 * The sources of downward edges, ranked higher than their targets
+	 * @since 1.2.0
+	 */
+	private final int[] downSources;
+	/**
+	 * The weights of downward edges
+	 * @since 1.2.0
+	 */
+	private final double[] downWeights;
+	/**
+	 * The node each downward shortcut bypasses, {@code -1} for edges
+	 * @since 1.2.0
+	 */
+	private final int[] downMiddles;
+
+	/**
+	 * The {@code ContractionHierarchy(CSRGraph)} constructor builds the
+	 * index of given graph, using as many threads as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to index
+	 * @throws IllegalArgumentException Any edge weight is negative
+	 */
+	public ContractionHierarchy(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code ContractionHierarchy(CSRGraph, int)} constructor builds the
+	 * index of given graph, using up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to index
+	 * @param parallelism The maximum number of threads contracting nodes
+	 * @throws IllegalArgumentException The parallelism is not positive, or
+	 * any edge weight is negative
+	 */
+	public ContractionHierarchy(CSRGraph<?> graph, int parallelism)
+	{
+		if (graph.hasNegativeWeights())
+		{
+			throw new IllegalArgumentException(
+					"Negative edge weight not allowed"
+			);
+		}
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		final int n = graph.numNodes();
+		final int[] offsets = graph.outOffsets();
+		final int[] targets = graph.outTargets();
+		final Adjacency[] outs = new Adjacency[n];
+		final Adjacency[] ins = new Adjacency[n];
+		for (int u = 0; u < n; u++)
+		{
+			outs[u] = new Adjacency();
+			ins[u] = new Adjacency();
+		}
+		for (int u = 0; u < n; u++)
+		{
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				// self-loops never lie along a shortest path
+				if (targets[i] != u)
+				{
+					outs[u].put(targets[i], graph.weightAt(i), -1);
+					ins[targets[i]].put(u, graph.weightAt(i), -1);
+				}
+			}
+		}
+
+		// a witness search needs a workspace as large as graph, so each
+		// thread borrows one of these rather than allocating its own
+		final Queue<SearchWorkspace> workspaces =
+				new ConcurrentLinkedQueue<>();
+		final int[] priorities = new int[n];
+		final int[] contractedNeighbours = new int[n];
+		ParallelTasks.forEach(
+				n < PARALLEL_THRESHOLD ? 1 : parallelism,
+				n,
+				v -> priorities[v] =
+						priority(outs, ins, v, contractedNeighbours, workspaces)
+		);
+
+		final int[] ranks = new int[n];
+		Arrays.fill(ranks, -1);
+		final boolean[] inRound = new boolean[n];
+		final boolean[] isStale = new boolean[n];
+		int[] remaining = new int[n];
+		for (int v = 0; v < n; v++)
+		{
+			remaining[v] = v;
+		}
+		int numRemaining = n;
+		int rank = 0;
+		while (numRemaining > 0)
+		{
+			final int[] nodes = remaining;
+			final int count = numRemaining;
+			final int threads = count < PARALLEL_THRESHOLD ? 1 : parallelism;
+
+			// core nodes are updated at once, as it takes no witness search
+			// unless their degree has dropped
+			ParallelTasks.forEach(threads, count, k -> {
+				final int v = nodes[k];
+				if (isStale[v] && priorities[v] == CORE)
+				{
+					isStale[v] = false;
+					priorities[v] = priority(
+							outs,
+							ins,
+							v,
+							contractedNeighbours,
+							workspaces
+					);
+				}
+			});
+
+			// nodes cheaper than all of their neighbours are independent,
+			// and the cheapest node is always among them
+			ParallelTasks.forEach(threads, count, k -> {
+				final int v = nodes[k];
+				inRound[v] = priorities[v] != CORE &&
+						isLocalMinimum(outs[v], v, priorities) &&
+						isLocalMinimum(ins[v], v, priorities);
+			});
+			int numCandidates = 0;
+			final int[] candidates = new int[count];
+			for (int k = 0; k < count; k++)
+			{
+				if (inRound[nodes[k]])
+				{
+					candidates[numCandidates++] = nodes[k];
+				}
+			}
+			if (numCandidates == 0)
+			{
+				// every node left is in core
+				break;
+			}
+
+			// stale candidates are updated, and contracted only if they
+			// still are cheaper than their neighbours
+			final int candidateThreads =
+					numCandidates < PARALLEL_THRESHOLD ? 1 : parallelism;
+			ParallelTasks.forEach(candidateThreads, numCandidates, k -> {
+				final int v = candidates[k];
+				if (isStale[v])
+				{
+					isStale[v] = false;
+					priorities[v] = priority(
+							outs,
+							ins,
+							v,
+							contractedNeighbours,
+							workspaces
+					);
+				}
+			});
+			ParallelTasks.forEach(candidateThreads, numCandidates, k -> {
+				final int v = candidates[k];
+				inRound[v] = priorities[v] != CORE &&
+						isLocalMinimum(outs[v], v, priorities) &&
+						isLocalMinimum(ins[v], v, priorities);
+			});
+			int roundSize = 0;
+			int kept = 0;
+			int[] round = new int[numCandidates];
+			for (int k = 0; k < count; k++)
+			{
+				if (inRound[nodes[k]])
+				{
+					round[roundSize++] = nodes[k];
+				}
+				else
+				{
+					nodes[kept++] = nodes[k];
+				}
+			}
+			numRemaining = kept;
+
+			// witnesses avoid every node of round, so that shortcuts of
+			// a node never rely on paths through another one
+			final int[] contracted = round;
+			final Shortcuts[] shortcuts = new Shortcuts[roundSize];
+			ParallelTasks.forEach(
+					roundSize < PARALLEL_THRESHOLD ? 1 : parallelism,
+					roundSize,
+					k -> {
+						shortcuts[k] = new Shortcuts();
+						shortcuts(
+								outs,
+								ins,
+								contracted[k],
+								inRound,
+								shortcuts[k],
+								workspaces
+						);
+					}
+			);
+
+			for (int k = 0; k < roundSize; k++)
+			{
+				final int v = round[k];
+				ranks[v] = rank++;
+				Shortcuts added = shortcuts[k];
+				for (int s = 0; s < added.size; s++)
+				{
+					final int u = added.sources[s];
+					final int w = added.targets[s];
+					outs[u].put(w, added.weights[s], v);
+					ins[w].put(u, added.weights[s], v);
+				}
+				// lists of contracted nodes are left as they are, as they
+				// become its upward and downward edges
+				for (int a = 0; a < outs[v].size; a++)
+				{
+					final int w = outs[v].nodes[a];
+					ins[w].remove(v);
+					contractedNeighbours[w]++;
+					isStale[w] = true;
+				}
+				for (int a = 0; a < ins[v].size; a++)
+				{
+					final int u = ins[v].nodes[a];
+					outs[u].remove(v);
+					contractedNeighbours[u]++;
+					isStale[u] = true;
+				}
+			}
+			for (int k = 0; k < roundSize; k++)
+			{
+				inRound[round[k]] = false;
+			}
+		}
+		// core nodes are ranked above contracted ones, in any order, and
+		// their edges within core are both upward and downward
+		this.coreRank = rank;
+		for (int k = 0; k < numRemaining; k++)
+		{
+			ranks[remaining[k]] = rank++;
+		}
+
+		this.numEdges = graph.numEdges();
+		this.fingerprint = graph.fingerprint();
+		this.ranks = ranks;
+		this.upOffsets = new int[n + 1];
+		this.downOffsets = new int[n + 1];
+		for (int v = 0; v < n; v++)
+		{
+			this.upOffsets[v + 1] = this.upOffsets[v] + outs[v].size;
+			this.downOffsets[v + 1] = this.downOffsets[v] + ins[v].size;
+		}
+		this.upTargets = new int[this.upOffsets[n]];
+		this.upWeights = new double[this.upOffsets[n]];
+		this.upMiddles = new int[this.upOffsets[n]];
+		this.downSources = new int[this.downOffsets[n]];
+		this.downWeights = new double[this.downOffsets[n]];
+		this.downMiddles = new int[this.downOffsets[n]];
+		for (int v = 0; v < n; v++)
+		{
+			outs[v].copyTo(
+					this.upTargets,
+					this.upWeights,
+					this.upMiddles,
+					this.upOffsets[v]
+			);
+			ins[v].copyTo(
+					this.downSources,
+					this.downWeights,
+					this.downMiddles,
+					this.downOffsets[v]
+			);
+		}
+	}
+
+	/**
+	 * The {@code ContractionHierarchy(int, long, int[], int, int[], int[],
+	 * double[], int[], int[], int[], double[], int[])} constructor wraps
+	 * the arrays of an index loaded from file.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param numEdges The number of edges of indexed graph
+	 * @param fingerprint The fingerprint of indexed graph
+	 * @param ranks The rank of each node
+	 * @param coreRank The rank of the lowest ranked core node
+	 * @param upOffsets The offsets of upward edges
+	 * @param upTargets The targets of upward edges
+	 * @param upWeights The weights of upward edges
+	 * @param upMiddles The nodes upward shortcuts bypass
+	 * @param downOffsets The offsets of downward edges
+	 * @param downSources The sources of downward edges
+	 * @param downWeights The weights of downward edges
+	 * @param downMiddles The nodes downward shortcuts bypass
+	 */
+	private ContractionHierarchy(
+			int numEdges,
+			long fingerprint,
+			int[] ranks,
+			int coreRank,
+			int[] upOffsets,
+			int[] upTargets,
+			double[] upWeights,
+			int[] upMiddles,
+			int[] downOffsets,
+			int[] downSources,
+			double[] downWeights,
+			int[] downMiddles
+	)
+	{
+		this.numEdges = numEdges;
+		this.fingerprint = fingerprint;
+		this.ranks = ranks;
+		this.coreRank = coreRank;
+		this.upOffsets = upOffsets;
+		this.upTargets = upTargets;
+		this.upWeights = upWeights;
+		this.upMiddles = upMiddles;
+		this.downOffsets = downOffsets;
+		this.downSources = downSources;
+		this.downWeights = downWeights;
+		this.downMiddles = downMiddles;
+	}
+
+	/**
+	 * The {@code numNodes()} method returns the number of nodes of indexed
+	 * graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of nodes
+	 */
+	public int numNodes()
+	{
+		return this.ranks.length;
+	}
+
+	/**
+	 * The {@code numEdges()} method returns the number of edges of indexed
+	 * graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of edges
+	 */
+	public int numEdges()
+	{
+		return this.numEdges;
+	}
+
+	/**
+	 * The {@code fingerprint()} method returns the fingerprint of indexed
+	 * graph, as computed by {@link CSRGraph#fingerprint()}.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The fingerprint of indexed graph
+	 */
+	public long fingerprint()
+	{
+		return this.fingerprint;
+	}
+
+	/**
+	 * The {@code numShortcuts()} method returns the number of shortcuts
+	 * added to graph, i.e. the size of index beyond graph one.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of shortcuts
+	 */
+	public int numShortcuts()
+	{
+		int shortcuts = 0;
+		for (int middle : this.upMiddles)
+		{
+			shortcuts += middle >= 0 ? 1 : 0;
+		}
+		for (int middle : this.downMiddles)
+		{
+			shortcuts += middle >= 0 ? 1 : 0;
+		}
+
+		return shortcuts;
+	}
+
+	/**
+	 * The {@code coreSize()} method returns the number of nodes left in
+	 * core, i.e. not contracted.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of core nodes
+	 */
+	public int coreSize()
+	{
+		return this.ranks.length - this.coreRank;
+	}
+
+	/**
+	 * The {@code rankOf(int)} method returns the rank of given node, i.e.
+	 * the order it has been contracted in.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 * @return The node rank
+	 */
+	public int rankOf(int v)
+	{
+		return this.ranks[v];
+	}
+
+	/**
+	 * The {@code distance(int, int)} method returns the distance between
+	 * given nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param target The id of target node
+	 * @return The distance, {@code Double.POSITIVE_INFINITY} if there's no
+	 * path
+	 */
+	public double distance(int source, int target)
+	{
+		final int meeting = this.meet(source, target);
+
+		return meeting < 0 ?
+				Double.POSITIVE_INFINITY :
+				WORKSPACES.get().distances[meeting] +
+				BACKWARD_WORKSPACES.get().distances[meeting];
+	}
+
+	/**
+	 * The {@code path(int, int)} method finds a shortest path from given
+	 * source to given target.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param target The id of target node
+	 * @return The ids of path nodes, from source to target ({@code null} if
+	 * there's no path)
+	 */
+	public int[] path(int source, int target)
+	{
+		final int meeting = this.meet(source, target);
+		if (meeting < 0)
+		{
+			return null;
+		}
+
+		SearchWorkspace forward = WORKSPACES.get();
+		SearchWorkspace backward = BACKWARD_WORKSPACES.get();
+		int hops = 0;
+		for (int v = meeting; v != source; v = forward.predecessors[v])
+		{
+			hops++;
+		}
+		int[] climb = new int[hops + 1];
+		for (int v = meeting, i = hops; i >= 0; v = forward.predecessors[v], i--)
+		{
+			climb[i] = v;
+		}
+
+		NodeList path = new NodeList(2 * climb.length);
+		path.add(source);
+		for (int i = 1; i < climb.length; i++)
+		{
+			this.unpack(climb[i - 1], climb[i], path);
+		}
+		for (int v = meeting; v != target; v = backward.predecessors[v])
+		{
+			this.unpack(v, backward.predecessors[v], path);
+		}
+
+		return path.toArray();
+	}
+
+	/**
+	 * The {@code save(Path)} method saves the index into given file,
+	 * replacing it if it exists.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param file The index file
+	 * @throws IOException The file cannot be written
+	 */
+	public void save(Path file) throws IOException
+	{
+		try (
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(file))
+			)
+		)
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(this.ranks.length);
+			out.writeInt(this.numEdges);
+			out.writeLong(this.fingerprint);
+			out.writeInt(this.coreRank);
+			out.writeInt(this.upTargets.length);
+			out.writeInt(this.downSources.length);
+			writeInts(out, this.ranks);
+			writeInts(out, this.upOffsets);
+			writeInts(out, this.upTargets);
+			writeDoubles(out, this.upWeights);
+			writeInts(out, this.upMiddles);
+			writeInts(out, this.downOffsets);
+			writeInts(out, this.downSources);
+			writeDoubles(out, this.downWeights);
+			writeInts(out, this.downMiddles);
+		}
+	}
+
+	/**
+	 * The {@code load(Path)} method loads the index saved into given file.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param file The index file
+	 * @return The loaded index
+	 * @throws IOException The file cannot be read, or it is not an index
+	 */
+	public static ContractionHierarchy load(Path file) throws IOException
+	{
+		try (
+			DataInputStream in = new DataInputStream(
+					new BufferedInputStream(Files.newInputStream(file))
+			)
+		)
+		{
+			if (in.readInt() != MAGIC)
+			{
+				throw new IOException("not a shortest path index: " + file);
+			}
+			int version = in.readInt();
+			if (version != FORMAT_VERSION)
+			{
+				throw new IOException("unsupported index version: " + version);
+			}
+			final int n = in.readInt();
+			final int numEdges = in.readInt();
+			final long fingerprint = in.readLong();
+			final int coreRank = in.readInt();
+			final int upLength = in.readInt();
+			final int downLength = in.readInt();
+
+			return new ContractionHierarchy(
+					numEdges,
+					fingerprint,
+					readInts(in, n),
+					coreRank,
+					readInts(in, n + 1),
+					readInts(in, upLength),
+					readDoubles(in, upLength),
+					readInts(in, upLength),
+					readInts(in, n + 1),
+					readInts(in, downLength),
+					readDoubles(in, downLength),
+					readInts(in, downLength)
+			);
+		}
+	}
+
+	/**
+	 * The {@code meet(int, int)} helper method runs Dijkstra's searches
+	 * upwards from given source and backwards from given target, on the
+	 * workspaces of current thread, until no node still to settle is
+	 * closer than the shortest path found; core nodes they reach are then
+	 * searched by a bidirectional Dijkstra's search within core.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param target The id of target node
+	 * @return The id of the highest ranked node of a shortest path, or of
+	 * one of its core nodes, {@code -1} if there's no path
+	 */
+	private int meet(int source, int target)
+	{
+		final int n = this.ranks.length;
+		SearchWorkspace forward = SearchWorkspace.of(WORKSPACES, n);
+		SearchWorkspace backward = SearchWorkspace.of(BACKWARD_WORKSPACES, n);
+		forward.reset();
+		backward.reset();
+		forward.reach(source, 0.0, -1);
+		backward.reach(target, 0.0, -1);
+		forward.heap.insertOrDecrease(source, 0.0);
+		backward.heap.insertOrDecrease(target, 0.0);
+
+		// core nodes are left to core search, not settled yet, as paths
+		// within core may still shorten their distance
+		NodeList forwardCore = new NodeList(16);
+		NodeList backwardCore = new NodeList(16);
+		int meeting = -1;
+		double best = Double.POSITIVE_INFINITY;
+		while (true)
+		{
+			final double forwardKey = forward.heap.isEmpty() ?
+					Double.POSITIVE_INFINITY :
+					forward.heap.minKey();
+			final double backwardKey = backward.heap.isEmpty() ?
+					Double.POSITIVE_INFINITY :
+					backward.heap.minKey();
+			if (Math.min(forwardKey, backwardKey) >= best)
+			{
+				break;
+			}
+
+			final boolean isForward = forwardKey <= backwardKey;
+			final SearchWorkspace side = isForward ? forward : backward;
+			final SearchWorkspace other = isForward ? backward : forward;
+			final int u = side.heap.poll();
+			if (this.ranks[u] >= this.coreRank)
+			{
+				(isForward ? forwardCore : backwardCore).add(u);
+				continue;
+			}
+			side.settle(u);
+			if (other.isReached(u) &&
+					side.distances[u] + other.distances[u] < best)
+			{
+				best = side.distances[u] + other.distances[u];
+				meeting = u;
+			}
+			this.relax(side, isForward, u);
+		}
+		if (forwardCore.size == 0 || backwardCore.size == 0)
+		{
+			return meeting;
+		}
+
+		// a plain bidirectional search, as core edges go both ways: it
+		// stops once no path joining the two searches can be shorter
+		forward.heap.clear();
+		backward.heap.clear();
+		for (int k = 0; k < forwardCore.size; k++)
+		{
+			final int c = forwardCore.nodes[k];
+			forward.heap.insertOrDecrease(c, forward.distances[c]);
+		}
+		for (int k = 0; k < backwardCore.size; k++)
+		{
+			final int c = backwardCore.nodes[k];
+			backward.heap.insertOrDecrease(c, backward.distances[c]);
+		}
+		while (!forward.heap.isEmpty() && !backward.heap.isEmpty() &&
+				forward.heap.minKey() + backward.heap.minKey() < best)
+		{
+			final boolean isForward =
+					forward.heap.minKey() <= backward.heap.minKey();
+			final SearchWorkspace side = isForward ? forward : backward;
+			final SearchWorkspace other = isForward ? backward : forward;
+			final int u = side.heap.poll();
+			side.settle(u);
+			if (other.isReached(u) &&
+					side.distances[u] + other.distances[u] < best)
+			{
+				best = side.distances[u] + other.distances[u];
+				meeting = u;
+			}
+			final int[] offsets = isForward ? this.upOffsets : this.downOffsets;
+			final int[] adjacencies =
+					isForward ? this.upTargets : this.downSources;
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				final int v = adjacencies[i];
+				if (this.relax(side, isForward, u, i) &&
+						other.isReached(v) &&
+						side.distances[v] + other.distances[v] < best)
+				{
+					best = side.distances[v] + other.distances[v];
+					meeting = v;
+				}
+			}
+		}
+
+		return meeting;
+	}
+
+	/**
+	 * The {@code relax(SearchWorkspace, boolean, int)} helper method
+	 * relaxes the index edges of given node, upward ones for forward
+	 * searches and downward ones for backward searches.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param side The workspace of search
+	 * @param isForward Denotes whether search is a forward one
+	 * @param u The id of settled node
+	 */
+	private void relax(SearchWorkspace side, boolean isForward, int u)
+	{
+		final int[] offsets = isForward ? this.upOffsets : this.downOffsets;
+		for (int i = offsets[u]; i < offsets[u + 1]; i++)
+		{
+			this.relax(side, isForward, u, i);
+		}
+	}
+
+	/**
+	 * The {@code relax(SearchWorkspace, boolean, int, int)} helper method
+	 * relaxes given index edge of given node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param side The workspace of search
+	 * @param isForward Denotes whether search is a forward one
+	 * @param u The id of settled node
+	 * @param i The position of edge, among upward edges for forward
+	 * searches and among downward ones for backward searches
+	 * @return {@code true} if the other node of edge has been reached,
+	 * {@code false} if it was settled already
+	 */
+	private boolean relax(SearchWorkspace side, boolean isForward, int u, int i)
+	{
+		final int v = isForward ? this.upTargets[i] : this.downSources[i];
+		if (side.isSettled(v))
+		{
+			return false;
+		}
+		final double candidate = side.distances[u] +
+				(isForward ? this.upWeights[i] : this.downWeights[i]);
+		if (!side.isReached(v) || candidate < side.distances[v])
+		{
+			side.reach(v, candidate, u);
+			side.heap.insertOrDecrease(v, candidate);
+		}
+
+		return true;
+	}
+
+	/**
+	 * The {@code unpack(int, int, NodeList)} helper method appends the
+	 * nodes of the index edge from given source to given target to given
+	 * path, unpacking shortcuts into the edges they stand for.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of edge source, already in path
+	 * @param target The id of edge target
+	 * @param path The path nodes
+	 */
+	private void unpack(int source, int target, NodeList path)
+	{
+		// edges are unpacked depth-first, first halves on top of stack
+		NodeList stack = new NodeList(16);
+		stack.add(source);
+		stack.add(target);
+		while (stack.size > 0)
+		{
+			final int v = stack.nodes[--stack.size];
+			final int u = stack.nodes[--stack.size];
+			final int middle = this.middle(u, v);
+			if (middle < 0)
+			{
+				path.add(v);
+			}
+			else
+			{
+				stack.add(middle);
+				stack.add(v);
+				stack.add(u);
+				stack.add(middle);
+			}
+		}
+	}
+
+	/**
+	 * The {@code middle(int, int)} helper method returns the node the
+	 * lightest index edge between given nodes bypasses.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The id of edge source
+	 * @param v The id of edge target
+	 * @return The id of bypassed node, {@code -1} if edge is a graph one
+	 */
+	private int middle(int u, int v)
+	{
+		if (this.ranks[u] < this.ranks[v])
+		{
+			for (int i = this.upOffsets[u]; i < this.upOffsets[u + 1]; i++)
+			{
+				if (this.upTargets[i] == v)
+				{
+					return this.upMiddles[i];
+				}
+			}
+		}
+		else
+		{
+			for (int i = this.downOffsets[v]; i < this.downOffsets[v + 1]; i++)
+			{
+				if (this.downSources[i] == u)
+				{
+					return this.downMiddles[i];
+				}
+			}
+		}
+
+		throw new IllegalStateException("no index edge " + u + " -> " + v);
+	}
+
+	/**
+	 * The {@code priority(Adjacency[], Adjacency[], int, int[], Queue)}
+	 * helper method returns the cost of contracting given node, i.e. the
+	 * number of shortcuts it needs less its number of edges, plus its
+	 * number of contracted neighbours, so that contractions spread evenly;
+	 * nodes with too many edges are left in core.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param outs The outgoing edges of each node
+	 * @param ins The incoming edges of each node
+	 * @param v The node id
+	 * @param contractedNeighbours The contracted neighbours of each node
+	 * @param workspaces The workspaces of witness searches
+	 * @return The priority of node, lower first, {@link #CORE} for nodes
+	 * not to contract
+	 */
+	private static int priority(
+			Adjacency[] outs,
+			Adjacency[] ins,
+			int v,
+			int[] contractedNeighbours,
+			Queue<SearchWorkspace> workspaces
+	)
+	{
+		if (outs[v].size + ins[v].size > CORE_DEGREE)
+		{
+			return CORE;
+		}
+		Shortcuts shortcuts = new Shortcuts();
+		shortcuts(outs, ins, v, null, shortcuts, workspaces);
+
+		return shortcuts.size - outs[v].size - ins[v].size +
+				contractedNeighbours[v];
+	}
+
+	/**
+	 * The {@code shortcuts(Adjacency[], Adjacency[], int, boolean[],
+	 * Shortcuts, Queue)} helper method finds the shortcuts contracting
+	 * given node needs: a shortcut joins each pair of its neighbours with no
+	 * witness path avoiding it, and the nodes to avoid, no longer than the
+	 * path through it.
+	 * <br>
+	 * Witness searches are bounded in the number of settled nodes and of
+	 * path edges, and do not leave nodes with more than
+	 * {@link #CORE_DEGREE} edges: a witness they miss costs just a shortcut
+	 * too many.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param outs The outgoing edges of each node
+	 * @param ins The incoming edges of each node
+	 * @param v The id of node to contract
+	 * @param avoided The nodes witnesses avoid, {@code null} for the node
+	 * to contract only, estimating the cost of its contraction by shorter
+	 * searches
+	 * @param shortcuts The shortcuts to fill
+	 * @param workspaces The workspaces of witness searches
+	 */
+	private static void shortcuts(
+			Adjacency[] outs,
+			Adjacency[] ins,
+			int v,
+			boolean[] avoided,
+			Shortcuts shortcuts,
+			Queue<SearchWorkspace> workspaces
+	)
+	{
+		final Adjacency out = outs[v];
+		final Adjacency in = ins[v];
+		final int settleLimit = avoided == null ? ESTIMATE_LIMIT : WITNESS_LIMIT;
+		final int hopLimit = avoided == null ? ESTIMATE_HOPS : WITNESS_HOPS;
+		if (out.size == 0 || in.size == 0)
+		{
+			return;
+		}
+		SearchWorkspace workspace = workspaces.poll();
+		if (workspace == null)
+		{
+			workspace = new SearchWorkspace(outs.length);
+		}
+
+		for (int a = 0; a < in.size; a++)
+		{
+			final int u = in.nodes[a];
+			final double toMiddle = in.weights[a];
+			workspace.reset();
+			double limit = Double.NEGATIVE_INFINITY;
+			int numTargets = 0;
+			for (int b = 0; b < out.size; b++)
+			{
+				if (out.nodes[b] != u)
+				{
+					limit = Math.max(limit, toMiddle + out.weights[b]);
+					workspace.target(out.nodes[b]);
+					numTargets++;
+				}
+			}
+			if (numTargets == 0)
+			{
+				continue;
+			}
+
+			// bounded Dijkstra's search from u, until every target is
+			// settled: a node not settled may still be reached by a
+			// witness, at worst a shortcut too many; as paths are not
+			// needed, predecessors hold the number of path edges instead
+			workspace.reach(u, 0.0, 0);
+			workspace.heap.insertOrDecrease(u, 0.0);
+			int settled = 0;
+			while (numTargets > 0 &&
+					!workspace.heap.isEmpty() &&
+					workspace.heap.minKey() <= limit &&
+					settled++ < settleLimit)
+			{
+				final int x = workspace.heap.poll();
+				workspace.settle(x);
+				if (workspace.isTarget(x))
+				{
+					numTargets--;
+				}
+				final Adjacency next = outs[x];
+				final int hops = workspace.predecessors[x] + 1;
+				if (hops > hopLimit ||
+						next.size + ins[x].size > CORE_DEGREE && x != u)
+				{
+					continue;
+				}
+				for (int c = 0; c < next.size; c++)
+				{
+					final int y = next.nodes[c];
+					if (y == v || avoided != null && avoided[y])
+					{
+						continue;
+					}
+					final double candidate =
+							workspace.distances[x] + next.weights[c];
+					if (!workspace.isReached(y) ||
+							!workspace.isSettled(y) &&
+							candidate < workspace.distances[y])
+					{
+						workspace.reach(y, candidate, hops);
+						workspace.heap.insertOrDecrease(y, candidate);
+					}
+				}
+			}
+
+			for (int b = 0; b < out.size; b++)
+			{
+				final int w = out.nodes[b];
+				final double through = toMiddle + out.weights[b];
+				if (w != u && workspace.distance(w) > through)
+				{
+					shortcuts.add(u, w, through);
+				}
+			}
+		}
+		workspaces.offer(workspace);
+	}
+
+	/**
+	 * The {@code isLocalMinimum(Adjacency, int, int[])} helper method tells
+	 * whether given node is cheaper than given neighbours, ties being
+	 * broken by node id.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param neighbours The neighbours of node
+	 * @param v The node id
+	 * @param priorities The priority of each node
+	 * @return {@code true} if node is cheaper than every neighbour,
+	 * {@code false} otherwise
+	 */
+	private static boolean isLocalMinimum(
+			Adjacency neighbours,
+			int v,
+			int[] priorities
+	)
+	{
+		for (int a = 0; a < neighbours.size; a++)
+		{
+			final int u = neighbours.nodes[a];
+			if (priorities[u] < priorities[v] ||
+					priorities[u] == priorities[v] && u < v)
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * The {@code writeInts(DataOutputStream, int[])} helper method writes
+	 * given ints.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param out The stream of index file
+	 * @param values The ints to write
+	 * @throws IOException The file cannot be written
+	 */
+	private static void writeInts(DataOutputStream out, int[] values)
+			throws IOException
+	{
+		for (int value : values)
+		{
+			out.writeInt(value);
+		}
+	}
+
+	/**
+	 * The {@code writeDoubles(DataOutputStream, double[])} helper method
+	 * writes given doubles.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param out The stream of index file
+	 * @param values The doubles to write
+	 * @throws IOException The file cannot be written
+	 */
+	private static void writeDoubles(DataOutputStream out, double[] values)
+			throws IOException
+	{
+		for (double value : values)
+		{
+			out.writeDouble(value);
+		}
+	}
+
+	/**
+	 * The {@code readInts(DataInputStream, int)} helper method reads given
+	 * number of ints.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param in The stream of index file
+	 * @param count The number of ints
+	 * @return The ints read
+	 * @throws IOException The file cannot be read, or it is truncated
+	 */
+	private static int[] readInts(DataInputStream in, int count)
+			throws IOException
+	{
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			values[i] = in.readInt();
+		}
+
+		return values;
+	}
+
+	/**
+	 * The {@code readDoubles(DataInputStream, int)} helper method reads
+	 * given number of doubles.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param in The stream of index file
+	 * @param count The number of doubles
+	 * @return The doubles read
+	 * @throws IOException The file cannot be read, or it is truncated
+	 */
+	private static double[] readDoubles(DataInputStream in, int count)
+			throws IOException
+	{
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++)
+		{
+			values[i] = in.readDouble();
+		}
+
+		return values;
+	}
+
+	/**
+	 * {@code Adjacency} holds the edges of a node, towards or from the
+	 * nodes still to contract, keeping the lightest one for each neighbour;
+	 * edges are found by scanning them, or by an open addressing table of
+	 * their positions once they are too many.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private static final class Adjacency
+	{
+		/**
+		 * The maximum number of edges found by scanning them
+		 * @since 1.2.0
+		 */
+		private static final int SCAN_LIMIT = 16;
+
+		/**
+		 * The neighbour of each edge
+		 * @since 1.2.0
+		 */
+		private int[] nodes = new int[4];
+		/**
+		 * The weight of each edge
+		 * @since 1.2.0
+		 */
+		private double[] weights = new double[4];
+		/**
+		 * The node each shortcut bypasses, {@code -1} for edges
+		 * @since 1.2.0
+		 */
+		private int[] middles = new int[4];
+		/**
+		 * The number of edges
+		 * @since 1.2.0
+		 */
+		private int size;
+		/**
+		 * The table of edge positions by neighbour, at most half full;
+		 * {@code 0} denotes an empty slot, positions are stored increased by
+		 * one, and it is {@code null} while edges are found by scanning
+		 * @since 1.2.0
+		 */
+		private int[] slots;
+
+		/**
+		 * The {@code put(int, double, int)} method adds an edge with given
+		 * neighbour, unless there's a lighter one already.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The neighbour id
+		 * @param weight The edge weight
+		 * @param middle The node edge bypasses, {@code -1} for edges
+		 */
+		private void put(int node, double weight, int middle)
+		{
+			final int a = this.indexOf(node);
+			if (a >= 0)
+			{
+				if (weight < this.weights[a])
+				{
+					this.weights[a] = weight;
+					this.middles[a] = middle;
+				}
+				return;
+			}
+			if (this.size == this.nodes.length)
+			{
+				this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+				this.weights = Arrays.copyOf(this.weights, 2 * this.size);
+				this.middles = Arrays.copyOf(this.middles, 2 * this.size);
+			}
+			this.nodes[this.size] = node;
+			this.weights[this.size] = weight;
+			this.middles[this.size++] = middle;
+
+			if (this.slots != null && 2 * this.size <= this.slots.length)
+			{
+				this.slots[this.slotOf(node)] = this.size;
+			}
+			else if (this.size > SCAN_LIMIT)
+			{
+				this.rehash();
+			}
+		}
+
+		/**
+		 * The {@code remove(int)} method removes the edge with given
+		 * neighbour, if any.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The neighbour id
+		 */
+		private void remove(int node)
+		{
+			final int a = this.indexOf(node);
+			if (a < 0)
+			{
+				return;
+			}
+			if (this.slots != null)
+			{
+				this.clearSlot(this.slotOf(node));
+			}
+
+			// last edge takes the place of removed one
+			final int last = --this.size;
+			if (a < last)
+			{
+				this.nodes[a] = this.nodes[last];
+				this.weights[a] = this.weights[last];
+				this.middles[a] = this.middles[last];
+				if (this.slots != null)
+				{
+					this.slots[this.slotOf(this.nodes[a])] = a + 1;
+				}
+			}
+		}
+
+		/**
+		 * The {@code indexOf(int)} helper method returns the position of
+		 * the edge with given neighbour.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The neighbour id
+		 * @return The edge position, {@code -1} if there's no such edge
+		 */
+		private int indexOf(int node)
+		{
+			if (this.slots == null)
+			{
+				for (int a = 0; a < this.size; a++)
+				{
+					if (this.nodes[a] == node)
+					{
+						return a;
+					}
+				}
+
+				return -1;
+			}
+
+			return this.slots[this.slotOf(node)] - 1;
+		}
+
+		/**
+		 * The {@code slotOf(int)} helper method returns the slot of given
+		 * neighbour, or the empty slot it would take.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The neighbour id
+		 * @return The slot of neighbour
+		 */
+		private int slotOf(int node)
+		{
+			final int mask = this.slots.length - 1;
+			int slot = hash(node) & mask;
+			while (this.slots[slot] != 0 &&
+					this.nodes[this.slots[slot] - 1] != node)
+			{
+				slot = (slot + 1) & mask;
+			}
+
+			return slot;
+		}
+
+		/**
+		 * The {@code clearSlot(int)} helper method empties given slot,
+		 * moving back the following slots of its cluster which could not
+		 * take their place otherwise.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param slot The slot to empty
+		 */
+		private void clearSlot(int slot)
+		{
+			final int mask = this.slots.length - 1;
+			int empty = slot;
+			for (int next = (slot + 1) & mask;
+					this.slots[next] != 0;
+					next = (next + 1) & mask)
+			{
+				final int home = hash(this.nodes[this.slots[next] - 1]) & mask;
+				// the slot can move back unless its home lies cyclically
+				// between the empty slot (excluded) and itself
+				if (((next - home) & mask) >= ((next - empty) & mask))
+				{
+					this.slots[empty] = this.slots[next];
+					empty = next;
+				}
+			}
+			this.slots[empty] = 0;
+		}
+
+		/**
+		 * The {@code rehash()} helper method builds the table of edge
+		 * positions, large enough to be at most a quarter full.
+		 *
+		 * @since 1.2.0
+		 */
+		private void rehash()
+		{
+			this.slots = new int[Integer.highestOneBit(4 * this.size - 1) << 1];
+			for (int a = 0; a < this.size; a++)
+			{
+				this.slots[this.slotOf(this.nodes[a])] = a + 1;
+			}
+		}
+
+		/**
+		 * The {@code hash(int)} helper method spreads the bits of given
+		 * neighbour id.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The neighbour id
+		 * @return The hash of neighbour
+		 */
+		private static int hash(int node)
+		{
+			final int hash = node * 0x9E3779B9;
+
+			return hash ^ (hash >>> 16);
+		}
+
+		/**
+		 * The {@code copyTo(int[], double[], int[], int)} method copies the
+		 * edges into given arrays, from given position.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param nodes The neighbours to fill
+		 * @param weights The weights to fill
+		 * @param middles The bypassed nodes to fill
+		 * @param position The position of first edge
+		 */
+		private void copyTo(
+				int[] nodes,
+				double[] weights,
+				int[] middles,
+				int position
+		)
+		{
+			System.arraycopy(this.nodes, 0, nodes, position, this.size);
+			System.arraycopy(this.weights, 0, weights, position, this.size);
+			System.arraycopy(this.middles, 0, middles, position, this.size);
+		}
+	}
+
+	/**
+	 * {@code NodeList} is a growable list of node ids.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private static final class NodeList
+	{
+		/**
+		 * The node ids
+		 * @since 1.2.0
+		 */
+		private int[] nodes;
+		/**
+		 * The number of node ids
+		 * @since 1.2.0
+		 */
+		private int size;
+
+		/**
+		 * The {@code NodeList(int)} constructor creates an empty list with
+		 * room for given number of node ids.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param capacity The initial capacity
+		 */
+		private NodeList(int capacity)
+		{
+			this.nodes = new int[Math.max(capacity, 4)];
+		}
+
+		/**
+		 * The {@code add(int)} method appends given node id.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The node id
+		 */
+		private void add(int node)
+		{
+			if (this.size == this.nodes.length)
+			{
+				this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+			}
+			this.nodes[this.size++] = node;
+		}
+
+		/**
+		 * The {@code toArray()} method returns the node ids in list.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @return The array of node ids
+		 */
+		private int[] toArray()
+		{
+			return Arrays.copyOf(this.nodes, this.size);
+		}
+	}
+
+	/**
+	 * {@code Shortcuts} collects the shortcuts contracting a node needs.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private static final class Shortcuts
+	{
+		/**
+		 * The source of each shortcut
+		 * @since 1.2.0
+		 */
+		private int[] sources = new int[4];
+		/**
+		 * The target of each shortcut
+		 * @since 1.2.0
+		 */
+		private int[] targets = new int[4];
+		/**
+		 * The weight of each shortcut
+		 * @since 1.2.0
+		 */
+		private double[] weights = new double[4];
+		/**
+		 * The number of shortcuts
+		 * @since 1.2.0
+		 */
+		private int size;
+
+		/**
+		 * The {@code add(int, int, double)} method adds a shortcut.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param source The source id
+		 * @param target The target id
+		 * @param weight The shortcut weight
+		 */
+		private void add(int source, int target, double weight)
+		{
+			if (this.size == this.sources.length)
+			{
+				this.sources = Arrays.copyOf(this.sources, 2 * this.size);
+				this.targets = Arrays.copyOf(this.targets, 2 * this.size);
+				this.weights = Arrays.copyOf(this.weights, 2 * this.size);
+			}
+			this.sources[this.size] = source;
+			this.targets[this.size] = target;
+			this.weights[this.size++] = weight;
+		}
+	}
+}
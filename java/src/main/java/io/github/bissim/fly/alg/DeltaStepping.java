@@ -0,0 +1,724 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code DeltaStepping} computes single-source shortest paths over a
+ * weighted {@link CSRGraph} by the delta-stepping algorithm of Meyer and
+ * Sanders, which relaxes the edges of many nodes at once on a
+ * {@code ForkJoinPool}, so that a single search uses every thread.
+ * <br>
+ * Nodes are kept into buckets of distances as wide as a given delta, and
+ * buckets are emptied in increasing order: edges no heavier than delta,
+ * i.e. light edges, are relaxed from every node of current bucket, which
+ * may put nodes into it again, until it stays empty; only then are the
+ * heavy edges of its nodes relaxed, once for each node. Edges of each node
+ * are split into light and heavy ones as the search is created, and
+ * distances are updated by compare-and-set, so that threads relax edges
+ * without locking.
+ * <br>
+ * A small delta settles nodes nearly in Dijkstra's order, with little
+ * parallelism; a large one relaxes edges with much parallelism but many
+ * times over, as the Bellman-Ford algorithm does. Buckets with few nodes
+ * are emptied by a single thread. Edge weights must not be negative.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class DeltaStepping
+{
+	/**
+	 * The minimum number of nodes a bucket phase relaxes edges of in
+	 * parallel
+	 * @since 1.2.0
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 10;
+	/**
+	 * The number of slices of nodes each thread relaxes edges of, so that
+	 * threads balance their work
+	 * @since 1.2.0
+	 */
+	private static final int SLICES_PER_THREAD = 4;
+	/**
+	 * The bits of an infinite distance
+	 * @since 1.2.0
+	 */
+	private static final long INFINITY =
+			Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+
+	/**
+	 * The graph to search paths in
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The width of buckets of distances
+	 * @since 1.2.0
+	 */
+	private final double delta;
+	/**
+	 * The maximum number of threads relaxing edges
+	 * @since 1.2.0
+	 */
+	private final int parallelism;
+	/**
+	 * The end of light edges of each node, among its edges
+	 * @since 1.2.0
+	 */
+	private final int[] lightEnds;
+	/**
+	 * The targets of edges, light ones first for each node
+	 * @since 1.2.0
+	 */
+	private final int[] targets;
+	/**
+	 * The weights of edges, light ones first for each node
+	 * @since 1.2.0
+	 */
+	private final double[] weights;
+
+	/**
+	 * The {@code DeltaStepping(CSRGraph)} constructor creates a shortest
+	 * path finder for given graph, with the delta chosen by
+	 * {@link #defaultDelta(CSRGraph)} and as many threads as available
+	 * processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to search paths in
+	 * @throws IllegalArgumentException Any edge weight is negative
+	 */
+	public DeltaStepping(CSRGraph<?> graph)
+	{
+		this(graph, defaultDelta(graph), ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code DeltaStepping(CSRGraph, double, int)} constructor creates a
+	 * shortest path finder for given graph, with given delta and up to given
+	 * number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to search paths in
+	 * @param delta The width of buckets of distances, i.e. the weight of the
+	 * heaviest light edge
+	 * @param parallelism The maximum number of threads relaxing edges
+	 * @throws IllegalArgumentException Any edge weight is negative, or the
+	 * delta or the parallelism is not positive
+	 */
+	public DeltaStepping(CSRGraph<?> graph, double delta, int parallelism)
+	{
+		if (graph.hasNegativeWeights())
+		{
+			throw new IllegalArgumentException(
+					"Negative edge weight not allowed"
+			);
+		}
+		if (!(delta > 0.0))
+		{
+			throw new IllegalArgumentException(
+					"delta must be positive: " + delta
+			);
+		}
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.graph = graph;
+		this.delta = delta;
+		this.parallelism = parallelism;
+
+		final int n = graph.numNodes();
+		final int[] offsets = graph.outOffsets();
+		final int[] outTargets = graph.outTargets();
+		final double[] outWeights = graph.outWeights();
+		this.lightEnds = new int[n];
+		this.targets = new int[offsets[n]];
+		this.weights = new double[offsets[n]];
+		ParallelTasks.forEach(
+				n < PARALLEL_THRESHOLD ? 1 : parallelism,
+				n,
+				u -> {
+					int light = offsets[u];
+					int heavy = offsets[u + 1];
+					for (int i = offsets[u]; i < offsets[u + 1]; i++)
+					{
+						final double weight =
+								outWeights == null ? 1.0 : outWeights[i];
+						final int k = weight <= delta ? light++ : --heavy;
+						this.targets[k] = outTargets[i];
+						this.weights[k] = weight;
+					}
+					this.lightEnds[u] = light;
+				}
+		);
+	}
+
+	/**
+	 * The {@code defaultDelta(CSRGraph)} method returns the delta a search
+	 * on given graph is created with when none is specified, i.e. its
+	 * heaviest edge weight divided by its average out-degree: a node has
+	 * then about one light edge, so that few edges are relaxed more than
+	 * once, as for random edge weights.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to search paths in
+	 * @return The default delta, {@code 1} for unweighted graphs and graphs
+	 * without positive edge weights
+	 */
+	public static double defaultDelta(CSRGraph<?> graph)
+	{
+		final double[] weights = graph.outWeights();
+		final int m = graph.outOffsets()[graph.numNodes()];
+		if (weights == null || m == 0)
+		{
+			return 1.0;
+		}
+
+		double maxWeight = 0.0;
+		for (int i = 0; i < m; i++)
+		{
+			maxWeight = Math.max(maxWeight, weights[i]);
+		}
+
+		return maxWeight > 0.0 && maxWeight < Double.POSITIVE_INFINITY ?
+				maxWeight * graph.numNodes() / m :
+				1.0;
+	}
+
+	/**
+	 * The {@code delta()} method returns the width of buckets of distances.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The delta
+	 */
+	public double delta()
+	{
+		return this.delta;
+	}
+
+	/**
+	 * The {@code parallelism()} method returns the maximum number of threads
+	 * relaxing edges.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The maximum number of threads
+	 */
+	public int parallelism()
+	{
+		return this.parallelism;
+	}
+
+	/**
+	 * The {@code distances(int)} method computes the distance of every node
+	 * from given source.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @return The distances indexed by node id,
+	 * {@code Double.POSITIVE_INFINITY} for unreachable nodes
+	 */
+	public double[] distances(int source)
+	{
+		return this.distances(source, new double[this.graph.numNodes()]);
+	}
+
+	/**
+	 * The {@code distances(int, double[])} method computes the distance of
+	 * every node from given source into given array.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param distances The array to fill, as long as graph number of nodes
+	 * @return The distances indexed by node id,
+	 * {@code Double.POSITIVE_INFINITY} for unreachable nodes
+	 */
+	public double[] distances(int source, double[] distances)
+	{
+		AtomicLongArray bits = this.search(source);
+		for (int v = 0; v < distances.length; v++)
+		{
+			distances[v] = Double.longBitsToDouble(bits.get(v));
+		}
+
+		return distances;
+	}
+
+	/**
+	 * The {@code tree(int)} method computes the shortest paths from given
+	 * source to every node.
+	 * <br>
+	 * As threads race to update distances, predecessors are found once the
+	 * search ends, as the nodes along whose edges distances are tight;
+	 * nodes reached through zero weight edges alone are then visited from
+	 * the ones already in tree, so that paths never loop.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @return The tree of shortest paths from source
+	 */
+	public ShortestPathTree tree(int source)
+	{
+		final int n = this.graph.numNodes();
+		final double[] distances = this.distances(source);
+		final int[] predecessors = new int[n];
+		final int[] offsets = this.graph.inOffsets();
+		final int[] sources = this.graph.inSources();
+		final double[] weights = this.graph.inWeights();
+		ParallelTasks.forEach(
+				n < PARALLEL_THRESHOLD ? 1 : this.parallelism,
+				n,
+				v -> {
+					predecessors[v] = -1;
+					if (v == source ||
+							distances[v] == Double.POSITIVE_INFINITY)
+					{
+						return;
+					}
+					for (int i = offsets[v]; i < offsets[v + 1]; i++)
+					{
+						final double weight =
+								weights == null ? 1.0 : weights[i];
+						if (weight > 0.0 &&
+								distances[sources[i]] + weight == distances[v])
+						{
+							predecessors[v] = sources[i];
+							return;
+						}
+					}
+				}
+		);
+
+		// nodes whose tight edges all weigh zero follow their predecessors
+		final int[] outOffsets = this.graph.outOffsets();
+		final int[] outTargets = this.graph.outTargets();
+		final double[] outWeights = this.graph.outWeights();
+		final int[] queue = new int[n];
+		int head = 0, tail = 0;
+		for (int v = 0; v < n; v++)
+		{
+			if (v == source || predecessors[v] >= 0)
+			{
+				queue[tail++] = v;
+			}
+		}
+		while (head < tail && outWeights != null)
+		{
+			final int u = queue[head++];
+			for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++)
+			{
+				final int v = outTargets[i];
+				if (outWeights[i] == 0.0 &&
+						v != source &&
+						predecessors[v] < 0 &&
+						distances[v] == distances[u])
+				{
+					predecessors[v] = u;
+					queue[tail++] = v;
+				}
+			}
+		}
+
+		return new ShortestPathTree(source, distances, predecessors);
+	}
+
+	/**
+	 * The {@code search(int)} helper method runs the search from given
+	 * source, one bucket of distances at a time.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @return The bits of the distance of each node
+	 */
+	private AtomicLongArray search(int source)
+	{
+		final int n = this.graph.numNodes();
+		final int[] offsets = this.graph.outOffsets();
+		final int slices = this.parallelism == 1 ?
+				1 :
+				this.parallelism * SLICES_PER_THREAD;
+		final AtomicLongArray distances = new AtomicLongArray(n);
+		// the distance each node has last relaxed its light edges from
+		final AtomicLongArray relaxed = new AtomicLongArray(n);
+		// the bucket each node has last been collected into settled nodes by
+		final AtomicLongArray collected = new AtomicLongArray(n);
+		for (int v = 0; v < n; v++)
+		{
+			distances.lazySet(v, INFINITY);
+			relaxed.lazySet(v, INFINITY);
+			collected.lazySet(v, -1L);
+		}
+		distances.set(source, Double.doubleToLongBits(0.0));
+
+		final Buckets[] buckets = new Buckets[slices];
+		final NodeList[] settled = new NodeList[slices];
+		for (int s = 0; s < slices; s++)
+		{
+			buckets[s] = new Buckets();
+			settled[s] = new NodeList();
+		}
+		NodeList frontier = new NodeList();
+		frontier.add(source);
+		long bucket = 0L;
+
+		while (bucket >= 0L)
+		{
+			final long current = bucket;
+			while (frontier.size > 0)
+			{
+				final NodeList nodes = frontier;
+				this.forEachSlice(nodes, slices, (s, k) -> {
+					final int u = nodes.nodes[k];
+					final long bits = distances.get(u);
+					final double distance = Double.longBitsToDouble(bits);
+					if (this.bucketOf(distance) != current ||
+							relaxed.getAndSet(u, bits) == bits)
+					{
+						// stale entry, or light edges already relaxed
+						return;
+					}
+					if (collected.getAndSet(u, current) != current)
+					{
+						settled[s].add(u);
+					}
+					for (int i = offsets[u]; i < this.lightEnds[u]; i++)
+					{
+						this.relax(
+								distances,
+								buckets[s],
+								this.targets[i],
+								distance + this.weights[i]
+						);
+					}
+				});
+				frontier = collect(buckets, current);
+			}
+
+			final NodeList nodes = merge(settled);
+			this.forEachSlice(nodes, slices, (s, k) -> {
+				final int u = nodes.nodes[k];
+				// node is collected again if its distance is ever lowered
+				collected.set(u, -1L);
+				final double distance =
+						Double.longBitsToDouble(distances.get(u));
+				for (int i = this.lightEnds[u]; i < offsets[u + 1]; i++)
+				{
+					this.relax(
+							distances,
+							buckets[s],
+							this.targets[i],
+							distance + this.weights[i]
+					);
+				}
+			});
+
+			bucket = -1L;
+			for (Buckets slice : buckets)
+			{
+				final long first = slice.first();
+				if (first >= 0L && (bucket < 0L || first < bucket))
+				{
+					bucket = first;
+				}
+			}
+			if (bucket >= 0L)
+			{
+				frontier = collect(buckets, bucket);
+			}
+		}
+
+		return distances;
+	}
+
+	/**
+	 * The {@code relax(AtomicLongArray, Buckets, int, double)} helper method
+	 * lowers the distance of given node to given candidate, if shorter,
+	 * putting the node into the bucket of its new distance.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param distances The bits of the distance of each node
+	 * @param buckets The buckets of current slice
+	 * @param v The node id
+	 * @param candidate The candidate distance
+	 */
+	private void relax(
+			AtomicLongArray distances,
+			Buckets buckets,
+			int v,
+			double candidate
+	)
+	{
+		// bits of non-negative doubles are ordered as the doubles are
+		final long bits = Double.doubleToLongBits(candidate);
+		long current;
+		while (bits < (current = distances.get(v)))
+		{
+			if (distances.compareAndSet(v, current, bits))
+			{
+				buckets.add(this.bucketOf(candidate), v);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * The {@code bucketOf(double)} helper method returns the bucket of given
+	 * distance.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param distance The distance
+	 * @return The bucket index
+	 */
+	private long bucketOf(double distance)
+	{
+		return (long) (distance / this.delta);
+	}
+
+	/**
+	 * The {@code forEachSlice(NodeList, int, SliceAction)} helper method
+	 * runs given action for every node of given list, which is split into
+	 * given number of slices; slices are run in parallel if list is long
+	 * enough.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param nodes The nodes to run action for
+	 * @param slices The number of slices
+	 * @param action The action to run for every node
+	 */
+	private void forEachSlice(NodeList nodes, int slices, SliceAction action)
+	{
+		final int size = nodes.size;
+		ParallelTasks.forEach(
+				size < PARALLEL_THRESHOLD ? 1 : this.parallelism,
+				slices,
+				s -> {
+					final int end = (int) ((long) size * (s + 1) / slices);
+					for (int k = (int) ((long) size * s / slices); k < end; k++)
+					{
+						action.accept(s, k);
+					}
+				}
+		);
+	}
+
+	/**
+	 * The {@code collect(Buckets[], long)} helper method removes given
+	 * bucket from the buckets of every slice, merging their nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param buckets The buckets of each slice
+	 * @param bucket The bucket index
+	 * @return The nodes in bucket
+	 */
+	private static NodeList collect(Buckets[] buckets, long bucket)
+	{
+		NodeList[] lists = new NodeList[buckets.length];
+		for (int s = 0; s < buckets.length; s++)
+		{
+			lists[s] = buckets[s].remove(bucket);
+		}
+
+		return merge(lists);
+	}
+
+	/**
+	 * The {@code merge(NodeList[])} helper method moves the nodes of given
+	 * lists into a single one, leaving them empty.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param lists The lists to merge, {@code null} ones being skipped
+	 * @return The merged list
+	 */
+	private static NodeList merge(NodeList[] lists)
+	{
+		NodeList merged = new NodeList();
+		for (NodeList list : lists)
+		{
+			if (list != null)
+			{
+				merged.addAll(list);
+				list.size = 0;
+			}
+		}
+
+		return merged;
+	}
+
+	/**
+	 * {@code SliceAction} is run for a node of a slice.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	@FunctionalInterface
+	private interface SliceAction
+	{
+		/**
+		 * The {@code accept(int, int)} method runs the action.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param slice The slice index
+		 * @param k The index of node in list
+		 */
+		void accept(int slice, int k);
+	}
+
+	/**
+	 * {@code Buckets} holds the nodes a slice has put into each bucket of
+	 * distances; a node is put into a bucket once per lowering of its
+	 * distance, stale entries being skipped as buckets are emptied.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private static final class Buckets
+	{
+		/**
+		 * The nodes of each non-empty bucket, by bucket index
+		 * @since 1.2.0
+		 */
+		private final TreeMap<Long, NodeList> buckets = new TreeMap<>();
+		/**
+		 * The index of last bucket a node has been put into
+		 * @since 1.2.0
+		 */
+		private long lastBucket = -1L;
+		/**
+		 * The nodes of last bucket a node has been put into
+		 * @since 1.2.0
+		 */
+		private NodeList lastNodes;
+
+		/**
+		 * The {@code add(long, int)} method puts given node into given
+		 * bucket.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param bucket The bucket index
+		 * @param v The node id
+		 */
+		private void add(long bucket, int v)
+		{
+			if (bucket != this.lastBucket)
+			{
+				this.lastBucket = bucket;
+				this.lastNodes = this.buckets
+						.computeIfAbsent(bucket, b -> new NodeList());
+			}
+			this.lastNodes.add(v);
+		}
+
+		/**
+		 * The {@code first()} method returns the first non-empty bucket.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @return The bucket index, {@code -1} if every bucket is empty
+		 */
+		private long first()
+		{
+			Map.Entry<Long, NodeList> first = this.buckets.firstEntry();
+
+			return first == null ? -1L : first.getKey();
+		}
+
+		/**
+		 * The {@code remove(long)} method empties given bucket.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param bucket The bucket index
+		 * @return The nodes in bucket, {@code null} if it is empty
+		 */
+		private NodeList remove(long bucket)
+		{
+			if (bucket == this.lastBucket)
+			{
+				this.lastBucket = -1L;
+				this.lastNodes = null;
+			}
+
+			return this.buckets.remove(bucket);
+		}
+	}
+
+	/**
+	 * {@code NodeList} is a growable list of node ids.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private static final class NodeList
+	{
+		/**
+		 * The node ids
+		 * @since 1.2.0
+		 */
+		private int[] nodes = new int[4];
+		/**
+		 * The number of node ids
+		 * @since 1.2.0
+		 */
+		private int size;
+
+		/**
+		 * The {@code add(int)} method appends given node id.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The node id
+		 */
+		private void add(int node)
+		{
+			if (this.size == this.nodes.length)
+			{
+				this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+			}
+			this.nodes[this.size++] = node;
+		}
+
+		/**
+		 * The {@code addAll(NodeList)} method appends the node ids of given
+		 * list.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param list The list to append
+		 */
+		private void addAll(NodeList list)
+		{
+			if (this.size + list.size > this.nodes.length)
+			{
+				this.nodes = Arrays.copyOf(
+						this.nodes,
+						Math.max(2 * this.nodes.length, this.size + list.size)
+				);
+			}
+			System.arraycopy(list.nodes, 0, this.nodes, this.size, list.size);
+			this.size += list.size;
+		}
+	}
+}
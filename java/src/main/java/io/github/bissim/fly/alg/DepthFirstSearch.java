@@ -0,0 +1,97 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+
+import io.github.bissim.fly.util.CSRGraph;
+
+/**
+ * {@code DepthFirstSearch} visits a {@link CSRGraph} depth-first, in the
+ * same order JGraphT {@code DepthFirstIterator} visits nodes in: when a
+ * node is visited, its unvisited neighbours are pushed onto a stack in
+ * adjacency order, moving to top the ones already pushed, and the next
+ * node to visit is popped from top.
+ * <br>
+ * Moving to top is achieved by pushing a node again and skipping the
+ * stale entries once popped, thus the stack holds at most one entry per
+ * adjacency.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class DepthFirstSearch
+{
+	/**
+	 * The graph to visit
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+
+	/**
+	 * The {@code DepthFirstSearch(CSRGraph)} constructor creates a
+	 * depth-first visitor for given graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to visit
+	 */
+	public DepthFirstSearch(CSRGraph<?> graph)
+	{
+		this.graph = graph;
+	}
+
+	/**
+	 * The {@code tree(int)} method visits graph depth-first from given
+	 * root, recording the parent each node has been reached from.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param root The id of root node
+	 * @return The tree of visit
+	 */
+	public SearchTree tree(int root)
+	{
+		final int n = this.graph.numNodes();
+		final int[] offsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		boolean[] visited = new boolean[n];
+		int[] order = new int[n];
+		int[] parents = new int[n];
+		int[] edges = new int[n];
+		// stack entries are adjacency positions, -1 standing for root
+		int[] stack = new int[targets.length + 1];
+		int[] stackParents = new int[stack.length];
+		int top = 0, count = 0;
+
+		stack[top] = -1;
+		stackParents[top++] = -1;
+		while (top > 0)
+		{
+			int i = stack[--top];
+			int u = i < 0 ? root : targets[i];
+			if (visited[u])
+			{
+				// stale entry of a node moved to top
+				continue;
+			}
+			visited[u] = true;
+			order[count] = u;
+			parents[count] = stackParents[top];
+			edges[count++] = i;
+
+			for (int j = offsets[u]; j < offsets[u + 1]; j++)
+			{
+				if (!visited[targets[j]])
+				{
+					stack[top] = j;
+					stackParents[top++] = u;
+				}
+			}
+		}
+
+		return new SearchTree(
+				Arrays.copyOf(order, count),
+				Arrays.copyOf(parents, count),
+				Arrays.copyOf(edges, count)
+		);
+	}
+}
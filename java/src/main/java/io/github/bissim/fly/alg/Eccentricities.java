@@ -0,0 +1,400 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code Eccentricities} computes node eccentricities of a {@link CSRGraph}
+ * and the measures derived from them (diameter, radius, center and
+ * periphery), with the same conventions of JGraphT {@code GraphMeasurer}:
+ * the eccentricity of a node which cannot reach every other node is
+ * {@code Double.POSITIVE_INFINITY}, and both diameter and radius of the
+ * empty graph are {@code 0}.
+ * <br>
+ * Eccentricities are computed on a {@code ForkJoinPool}: unweighted graphs
+ * are visited by bit-parallel multi-source BFS, i.e. one BFS visits graph
+ * for a batch of up to 64 sources at once, keeping a bit per source for
+ * each node; weighted graphs are visited by Dijkstra's algorithm from each
+ * source or, if a {@link DeltaStepping} search is given, by delta-stepping
+ * from one source at a time, each search relaxing edges in parallel.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class Eccentricities
+{
+	/**
+	 * The tolerance used to compare eccentricities
+	 * @since 1.2.0
+	 */
+	private static final double TOLERANCE = 1e-9;
+	/**
+	 * The number of sources visited at once by multi-source BFS
+	 * @since 1.2.0
+	 */
+	private static final int BATCH_SIZE = Long.SIZE;
+
+	/**
+	 * The graph to measure
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The maximum number of threads computing eccentricities
+	 * @since 1.2.0
+	 */
+	private final int parallelism;
+	/**
+	 * The delta-stepping search run from each source of weighted graphs,
+	 * {@code null} to run Dijkstra's algorithm from many sources at once
+	 * @since 1.2.0
+	 */
+	private final DeltaStepping deltaStepping;
+	/**
+	 * The eccentricity of each node, lazily computed
+	 * @since 1.2.0
+	 */
+	private double[] eccentricities;
+
+	/**
+	 * The {@code Eccentricities(CSRGraph)} constructor creates the measurer
+	 * for given graph, using as many threads as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to measure
+	 */
+	public Eccentricities(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code Eccentricities(CSRGraph, int)} constructor creates the
+	 * measurer for given graph, using up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to measure
+	 * @param parallelism The maximum number of threads computing
+	 * eccentricities
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public Eccentricities(CSRGraph<?> graph, int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.graph = graph;
+		this.parallelism = parallelism;
+		this.deltaStepping = null;
+	}
+
+	/**
+	 * The {@code Eccentricities(CSRGraph, DeltaStepping)} constructor creates
+	 * the measurer for given graph, running given delta-stepping search from
+	 * one source at a time if graph is weighted, each search using all of
+	 * its threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to measure
+	 * @param deltaStepping The delta-stepping search on graph
+	 */
+	public Eccentricities(CSRGraph<?> graph, DeltaStepping deltaStepping)
+	{
+		this.graph = graph;
+		this.parallelism = deltaStepping.parallelism();
+		this.deltaStepping = deltaStepping;
+	}
+
+	/**
+	 * The {@code eccentricities()} method returns the eccentricity of every
+	 * node; the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The eccentricities indexed by node id
+	 */
+	public double[] eccentricities()
+	{
+		if (this.eccentricities == null)
+		{
+			final int n = this.graph.numNodes();
+			double[] eccentricities = new double[n];
+			if (this.graph.isWeighted() && this.deltaStepping != null)
+			{
+				double[] row = new double[n];
+				for (int u = 0; u < n; u++)
+				{
+					double eccentricity = 0.0;
+					for (double distance : this.deltaStepping.distances(u, row))
+					{
+						eccentricity = Math.max(eccentricity, distance);
+					}
+					eccentricities[u] = eccentricity;
+				}
+			}
+			else if (this.graph.isWeighted())
+			{
+				ShortestPaths shortestPaths = new ShortestPaths(this.graph);
+				ThreadLocal<double[]> rows =
+						ThreadLocal.withInitial(() -> new double[n]);
+				ParallelTasks.forEach(this.parallelism, n, u -> {
+					double eccentricity = 0.0;
+					for (double distance : shortestPaths.distances(u, rows.get()))
+					{
+						eccentricity = Math.max(eccentricity, distance);
+					}
+					eccentricities[u] = eccentricity;
+				});
+			}
+			else
+			{
+				ThreadLocal<BatchVisit> visits =
+						ThreadLocal.withInitial(() -> new BatchVisit(n));
+				ParallelTasks.forEach(
+						this.parallelism,
+						(n + BATCH_SIZE - 1) / BATCH_SIZE,
+						batch -> visits
+								.get()
+								.visit(batch * BATCH_SIZE, eccentricities)
+				);
+			}
+			this.eccentricities = eccentricities;
+		}
+
+		return this.eccentricities;
+	}
+
+	/**
+	 * The {@code diameter()} method returns the graph diameter, i.e. its
+	 * maximum node eccentricity.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph diameter
+	 */
+	public double diameter()
+	{
+		double diameter = 0.0;
+		for (double eccentricity : this.eccentricities())
+		{
+			diameter = Math.max(diameter, eccentricity);
+		}
+
+		return diameter;
+	}
+
+	/**
+	 * The {@code radius()} method returns the graph radius, i.e. its
+	 * minimum node eccentricity.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph radius
+	 */
+	public double radius()
+	{
+		double[] eccentricities = this.eccentricities();
+		if (eccentricities.length == 0)
+		{
+			return 0.0;
+		}
+
+		double radius = Double.POSITIVE_INFINITY;
+		for (double eccentricity : eccentricities)
+		{
+			radius = Math.min(radius, eccentricity);
+		}
+
+		return radius;
+	}
+
+	/**
+	 * The {@code center()} method returns the nodes whose eccentricity
+	 * equals graph radius.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of center nodes
+	 */
+	public int[] center()
+	{
+		return this.nodesWithEccentricity(this.radius());
+	}
+
+	/**
+	 * The {@code periphery()} method returns the nodes whose eccentricity
+	 * equals graph diameter.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of periphery nodes
+	 */
+	public int[] periphery()
+	{
+		return this.nodesWithEccentricity(this.diameter());
+	}
+
+	/**
+	 * The {@code nodesWithEccentricity(double)} helper method returns the
+	 * nodes with given eccentricity, up to comparison tolerance.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param value The eccentricity to look for
+	 * @return The ids of nodes with given eccentricity
+	 */
+	private int[] nodesWithEccentricity(double value)
+	{
+		double[] eccentricities = this.eccentricities();
+
+		return IntStream
+				.range(0, eccentricities.length)
+				.filter(u ->
+					eccentricities[u] == value ||
+					Math.abs(eccentricities[u] - value) < TOLERANCE
+				)
+				.toArray();
+	}
+
+	/**
+	 * {@code BatchVisit} is the workspace of a bit-parallel multi-source
+	 * BFS, reused by a thread across batches of sources.
+	 *
+	 * @since 1.2.0
+	 */
+	private class BatchVisit
+	{
+		/**
+		 * The sources which have reached each node so far, one bit per
+		 * source
+		 * @since 1.2.0
+		 */
+		private final long[] seen;
+		/**
+		 * The sources which have reached each node at current level
+		 * @since 1.2.0
+		 */
+		private long[] visit;
+		/**
+		 * The sources which reach each node at next level
+		 * @since 1.2.0
+		 */
+		private long[] next;
+		/**
+		 * The nodes reached at current level
+		 * @since 1.2.0
+		 */
+		private int[] frontier;
+		/**
+		 * The nodes reached at next level
+		 * @since 1.2.0
+		 */
+		private int[] nextFrontier;
+
+		/**
+		 * The {@code BatchVisit(int)} constructor allocates the workspace
+		 * for a graph with given number of nodes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param n The number of graph nodes
+		 */
+		private BatchVisit(int n)
+		{
+			this.seen = new long[n];
+			this.visit = new long[n];
+			this.next = new long[n];
+			this.frontier = new int[n];
+			this.nextFrontier = new int[n];
+		}
+
+		/**
+		 * The {@code visit(int, double[])} method visits graph from the
+		 * batch of sources starting at given node id and stores their
+		 * eccentricities.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param first The id of first source of batch
+		 * @param eccentricities The eccentricities to fill, indexed by node
+		 * id
+		 */
+		private void visit(int first, double[] eccentricities)
+		{
+			final int n = this.seen.length;
+			final int sources = Math.min(BATCH_SIZE, n - first);
+			int[] offsets = Eccentricities.this.graph.outOffsets();
+			int[] targets = Eccentricities.this.graph.outTargets();
+			int[] reached = new int[sources];
+			int[] levels = new int[sources];
+
+			Arrays.fill(this.seen, 0L);
+			int frontierSize = 0;
+			for (int b = 0; b < sources; b++)
+			{
+				this.seen[first + b] = this.visit[first + b] = 1L << b;
+				this.frontier[frontierSize++] = first + b;
+			}
+
+			for (int level = 1; frontierSize > 0; level++)
+			{
+				int nextSize = 0;
+				for (int i = 0; i < frontierSize; i++)
+				{
+					int u = this.frontier[i];
+					long bits = this.visit[u];
+					this.visit[u] = 0L;
+					for (int j = offsets[u]; j < offsets[u + 1]; j++)
+					{
+						int v = targets[j];
+						long newBits = bits & ~this.seen[v];
+						if (newBits != 0L)
+						{
+							if (this.next[v] == 0L)
+							{
+								this.nextFrontier[nextSize++] = v;
+							}
+							this.next[v] |= newBits;
+							this.seen[v] |= newBits;
+						}
+					}
+				}
+				for (int i = 0; i < nextSize; i++)
+				{
+					for (long bits = this.next[this.nextFrontier[i]];
+							bits != 0L;
+							bits &= bits - 1)
+					{
+						int b = Long.numberOfTrailingZeros(bits);
+						reached[b]++;
+						levels[b] = level;
+					}
+				}
+
+				long[] levelBits = this.visit;
+				this.visit = this.next;
+				this.next = levelBits;
+				int[] levelNodes = this.frontier;
+				this.frontier = this.nextFrontier;
+				this.nextFrontier = levelNodes;
+				frontierSize = nextSize;
+			}
+
+			for (int b = 0; b < sources; b++)
+			{
+				eccentricities[first + b] = reached[b] == n - 1 ?
+					levels[b] :
+					Double.POSITIVE_INFINITY;
+			}
+		}
+	}
+}
@@ -0,0 +1,336 @@
+package io.github.bissim.fly.alg;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.alg.scoring.ClusteringCoefficient;
+
+/**
+ * {@code IncrementalClusteringCoefficient} computes the same clustering
+ * coefficients of JGraphT {@link ClusteringCoefficient} on a JGraphT graph
+ * and keeps them up to date while the graph is modified.
+ * <br>
+ * For undirected graphs, the number of triangles each node belongs to is
+ * stored, thus the modification of an edge only updates its endpoints and
+ * their common neighbours, provided that the matching {@code edgeAdded},
+ * {@code edgeRemoved}, {@code nodeAdded} or {@code nodeRemoving} method is
+ * invoked; directed graphs are delegated to JGraphT, and a new instance is
+ * needed after each modification.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ *
+ * @param <V> Type for nodes
+ * @param <E> Type for edges
+ */
+public class IncrementalClusteringCoefficient<V, E>
+{
+	/**
+	 * The graph to measure
+	 * @since 1.2.0
+	 */
+	private final Graph<V, E> graph;
+	/**
+	 * The number of triangles each node belongs to, for undirected graphs
+	 * @since 1.2.0
+	 */
+	private final Map<V, Long> triangles;
+	/**
+	 * The JGraphT clustering coefficient, for directed graphs
+	 * @since 1.2.0
+	 */
+	private final ClusteringCoefficient<V, E> directedCoefficient;
+	/**
+	 * The number of graph triangles
+	 * @since 1.2.0
+	 */
+	private long numTriangles;
+	/**
+	 * The number of graph connected triplets, i.e. paths of two edges
+	 * @since 1.2.0
+	 */
+	private long numTriplets;
+
+	/**
+	 * The {@code IncrementalClusteringCoefficient(Graph)} constructor
+	 * creates the clustering coefficient calculator for given graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to measure
+	 */
+	public IncrementalClusteringCoefficient(Graph<V, E> graph)
+	{
+		this.graph = graph;
+		if (graph.getType().isDirected())
+		{
+			this.triangles = null;
+			this.directedCoefficient = new ClusteringCoefficient<>(graph);
+			return;
+		}
+
+		this.triangles = new HashMap<>();
+		this.directedCoefficient = null;
+		for (V node : graph.vertexSet())
+		{
+			this.triangles.put(node, 0L);
+			this.numTriplets += this.triplets(graph.degreeOf(node));
+		}
+		// every triangle is found once from each of its edges
+		for (E e : graph.edgeSet())
+		{
+			V source = graph.getEdgeSource(e);
+			V target = graph.getEdgeTarget(e);
+			for (V node : this.commonNeighbours(source, target))
+			{
+				this.triangles.merge(node, 1L, Long::sum);
+				this.numTriangles++;
+			}
+		}
+		this.numTriangles /= 3;
+	}
+
+	/**
+	 * The {@code isIncremental()} method denotes whether coefficients are
+	 * kept up to date by modification methods, i.e. whether graph is
+	 * undirected.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if coefficients can be updated, {@code false}
+	 * otherwise
+	 */
+	public boolean isIncremental()
+	{
+		return this.triangles != null;
+	}
+
+	/**
+	 * The {@code getNodeClusteringCoefficient(V)} method returns the local
+	 * clustering coefficient of given node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param node The node whose clustering coefficient has to be found
+	 * @return The node clustering coefficient
+	 * @throws IllegalArgumentException The node doesn't belong to graph
+	 */
+	public double getNodeClusteringCoefficient(V node)
+	{
+		if (!this.isIncremental())
+		{
+			return this.directedCoefficient.getVertexScore(node);
+		}
+		if (!this.graph.containsVertex(node))
+		{
+			throw new IllegalArgumentException(
+					"Cannot return score of unknown vertex"
+			);
+		}
+
+		return this.localCoefficient(node);
+	}
+
+	/**
+	 * The {@code getAverageClusteringCoefficient()} method returns the
+	 * average of local clustering coefficients of graph nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph average clustering coefficient
+	 */
+	public double getAverageClusteringCoefficient()
+	{
+		if (!this.isIncremental())
+		{
+			return this.directedCoefficient.getAverageClusteringCoefficient();
+		}
+		if (this.triangles.isEmpty())
+		{
+			return 0.0;
+		}
+
+		double sum = 0.0;
+		for (V node : this.triangles.keySet())
+		{
+			sum += this.localCoefficient(node);
+		}
+
+		return sum / this.triangles.size();
+	}
+
+	/**
+	 * The {@code getGlobalClusteringCoefficient()} method returns the global
+	 * clustering coefficient of graph, i.e. three times the number of
+	 * triangles over the number of connected triplets.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The graph global clustering coefficient
+	 */
+	public double getGlobalClusteringCoefficient()
+	{
+		if (!this.isIncremental())
+		{
+			return this.directedCoefficient.getGlobalClusteringCoefficient();
+		}
+
+		return 3.0 * this.numTriangles / (double) this.numTriplets;
+	}
+
+	/**
+	 * The {@code nodeAdded(V)} method updates coefficients after given
+	 * node has been added to graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param node The added node
+	 */
+	public void nodeAdded(V node)
+	{
+		this.triangles.put(node, 0L);
+	}
+
+	/**
+	 * The {@code nodeRemoving(V)} method updates coefficients before given
+	 * node, along with its edges, is removed from graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param node The node about to be removed
+	 */
+	public void nodeRemoving(V node)
+	{
+		for (V neighbour : Graphs.neighborListOf(this.graph, node))
+		{
+			int shared = this.commonNeighbours(node, neighbour).size();
+			this.triangles.merge(neighbour, (long) -shared, Long::sum);
+			this.numTriplets -= this.graph.degreeOf(neighbour) - 1;
+		}
+		this.numTriangles -= this.triangles.remove(node);
+		this.numTriplets -= this.triplets(this.graph.degreeOf(node));
+	}
+
+	/**
+	 * The {@code edgeAdded(V, V)} method updates coefficients after the edge
+	 * between given nodes has been added to graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param firstNode The first endpoint of added edge
+	 * @param secondNode The second endpoint of added edge
+	 */
+	public void edgeAdded(V firstNode, V secondNode)
+	{
+		this.updateEdge(firstNode, secondNode, 1L);
+		// each endpoint makes a new triplet with any other neighbour
+		this.numTriplets += this.graph.degreeOf(firstNode) - 1;
+		this.numTriplets += this.graph.degreeOf(secondNode) - 1;
+	}
+
+	/**
+	 * The {@code edgeRemoved(V, V)} method updates coefficients after the
+	 * edge between given nodes has been removed from graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param firstNode The first endpoint of removed edge
+	 * @param secondNode The second endpoint of removed edge
+	 */
+	public void edgeRemoved(V firstNode, V secondNode)
+	{
+		this.updateEdge(firstNode, secondNode, -1L);
+		this.numTriplets -= this.graph.degreeOf(firstNode);
+		this.numTriplets -= this.graph.degreeOf(secondNode);
+	}
+
+	/**
+	 * The {@code updateEdge(V, V, long)} helper method updates the number
+	 * of triangles closed by the edge between given nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param firstNode The first endpoint of edge
+	 * @param secondNode The second endpoint of edge
+	 * @param delta {@code 1} if edge has been added, {@code -1} if removed
+	 */
+	private void updateEdge(V firstNode, V secondNode, long delta)
+	{
+		List<V> shared = this.commonNeighbours(firstNode, secondNode);
+		for (V node : shared)
+		{
+			this.triangles.merge(node, delta, Long::sum);
+		}
+		this.triangles.merge(firstNode, delta * shared.size(), Long::sum);
+		this.triangles.merge(secondNode, delta * shared.size(), Long::sum);
+		this.numTriangles += delta * shared.size();
+	}
+
+	/**
+	 * The {@code commonNeighbours(V, V)} helper method returns the nodes
+	 * adjacent to both given nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param firstNode The first node
+	 * @param secondNode The second node
+	 * @return The common neighbours of given nodes
+	 */
+	private List<V> commonNeighbours(V firstNode, V secondNode)
+	{
+		V smaller = firstNode, larger = secondNode;
+		if (this.graph.degreeOf(firstNode) > this.graph.degreeOf(secondNode))
+		{
+			smaller = secondNode;
+			larger = firstNode;
+		}
+
+		final V other = larger;
+		return Graphs
+				.neighborListOf(this.graph, smaller)
+				.stream()
+				.filter(node ->
+					!node.equals(other) &&
+					this.graph.containsEdge(node, other)
+				)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * The {@code localCoefficient(V)} helper method computes the local
+	 * clustering coefficient of given node from its triangles.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param node The node whose clustering coefficient has to be found
+	 * @return The node clustering coefficient
+	 */
+	private double localCoefficient(V node)
+	{
+		int degree = this.graph.degreeOf(node);
+		if (degree < 2)
+		{
+			return 0.0;
+		}
+
+		return this.triangles.get(node) / (double) this.triplets(degree);
+	}
+
+	/**
+	 * The {@code triplets(int)} helper method returns the number of
+	 * connected triplets centred in a node with given degree.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param degree The node degree
+	 * @return The number of connected triplets
+	 */
+	private long triplets(int degree)
+	{
+		return degree * (degree - 1L) / 2L;
+	}
+}
@@ -0,0 +1,204 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+
+/**
+ * {@code IndexedDoubleHeap} is a binary min-heap of node ids keyed by
+ * {@code double} priorities, supporting decrease-key in logarithmic time;
+ * it backs the Dijkstra-like algorithms of this package.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+final class IndexedDoubleHeap
+{
+	/**
+	 * The heap of node ids
+	 * @since 1.2.0
+	 */
+	private final int[] heap;
+	/**
+	 * The position of each node id within heap, {@code -1} if absent
+	 * @since 1.2.0
+	 */
+	private final int[] positions;
+	/**
+	 * The priority of each node id
+	 * @since 1.2.0
+	 */
+	private final double[] keys;
+	/**
+	 * The number of node ids in heap
+	 * @since 1.2.0
+	 */
+	private int size;
+
+	/**
+	 * The {@code IndexedDoubleHeap(int)} constructor creates an empty heap
+	 * for node ids in {@code [0, capacity)}.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param capacity The number of node ids
+	 */
+	IndexedDoubleHeap(int capacity)
+	{
+		this.heap = new int[capacity];
+		this.positions = new int[capacity];
+		this.keys = new double[capacity];
+		Arrays.fill(this.positions, -1);
+	}
+
+	/**
+	 * The {@code isEmpty()} method checks whether heap is empty.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if heap is empty, {@code false} otherwise
+	 */
+	boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * The {@code clear()} method empties heap.
+	 *
+	 * @since 1.2.0
+	 */
+	void clear()
+	{
+		for (int i = 0; i < this.size; i++)
+		{
+			this.positions[this.heap[i]] = -1;
+		}
+		this.size = 0;
+	}
+
+	/**
+	 * The {@code minKey()} method returns the lowest priority in heap.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The lowest priority
+	 */
+	double minKey()
+	{
+		return this.keys[this.heap[0]];
+	}
+
+	/**
+	 * The {@code insertOrDecrease(int, double)} method inserts given node id
+	 * with given priority, or lowers its priority if it's already in heap
+	 * with a higher one.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param id The node id
+	 * @param key The priority of node id
+	 */
+	void insertOrDecrease(int id, double key)
+	{
+		int position = this.positions[id];
+		if (position < 0)
+		{
+			position = this.size++;
+			this.heap[position] = id;
+			this.positions[id] = position;
+		}
+		else if (key >= this.keys[id])
+		{
+			return;
+		}
+		this.keys[id] = key;
+		this.siftUp(position);
+	}
+
+	/**
+	 * The {@code poll()} method removes the node id with lowest priority.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The node id with lowest priority
+	 */
+	int poll()
+	{
+		int min = this.heap[0];
+		this.positions[min] = -1;
+		this.size--;
+		if (this.size > 0)
+		{
+			int last = this.heap[this.size];
+			this.heap[0] = last;
+			this.positions[last] = 0;
+			this.siftDown(0);
+		}
+
+		return min;
+	}
+
+	/**
+	 * The {@code siftUp(int)} helper method moves the node id at given
+	 * position towards heap root until heap order is restored.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param position The position of node id
+	 */
+	private void siftUp(int position)
+	{
+		int id = this.heap[position];
+		double key = this.keys[id];
+		while (position > 0)
+		{
+			int parent = (position - 1) >>> 1;
+			int parentId = this.heap[parent];
+			if (this.keys[parentId] <= key)
+			{
+				break;
+			}
+			this.heap[position] = parentId;
+			this.positions[parentId] = position;
+			position = parent;
+		}
+		this.heap[position] = id;
+		this.positions[id] = position;
+	}
+
+	/**
+	 * The {@code siftDown(int)} helper method moves the node id at given
+	 * position towards heap leaves until heap order is restored.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param position The position of node id
+	 */
+	private void siftDown(int position)
+	{
+		int id = this.heap[position];
+		double key = this.keys[id];
+		int half = this.size >>> 1;
+		while (position < half)
+		{
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (
+				right < this.size &&
+				this.keys[this.heap[right]] < this.keys[this.heap[child]]
+			)
+			{
+				child = right;
+			}
+			int childId = this.heap[child];
+			if (key <= this.keys[childId])
+			{
+				break;
+			}
+			this.heap[position] = childId;
+			this.positions[childId] = position;
+			position = child;
+		}
+		this.heap[position] = id;
+		this.positions[id] = position;
+	}
+}
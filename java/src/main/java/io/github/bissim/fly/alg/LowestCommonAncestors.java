@@ -0,0 +1,720 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code LowestCommonAncestors} indexes an acyclic directed
+ * {@link CSRGraph} to answer lowest common ancestor queries, where every
+ * node is an ancestor of itself.
+ * <br>
+ * Nodes are ranked in topological order, so that ancestors of a node rank
+ * below it, and the LCA of two nodes is their common ancestor of highest
+ * rank, which none of their other common ancestors descends from:
+ * <ul>
+ * <li>forests are ranked in preorder, so that the LCA of two nodes is the
+ * lowest ranked parent among nodes ranked between them, which a sparse
+ * table finds in constant time, while batches of queries are answered
+ * offline by Tarjan's algorithm;</li>
+ * <li>DAGs hold the bitset of ranks of their ancestors for each node, as
+ * long as bitsets fit {@value #MAX_ANCESTOR_WORDS} words, so that the LCA
+ * is the highest bit both bitsets hold;</li>
+ * <li>larger DAGs are searched upwards from both nodes at once, following
+ * nodes in decreasing rank, until a node is reached from both.</li>
+ * </ul>
+ * The LCAs of all pairs of nodes of a DAG are found one column at a time,
+ * sweeping nodes in topological order, in {@code O(n (n + m))} time.
+ * Graphs holding cycles are not indexed.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class LowestCommonAncestors
+{
+	/**
+	 * The maximum number of words ancestor bitsets can take
+	 * @since 1.2.0
+	 */
+	private static final long MAX_ANCESTOR_WORDS = 1L << 23;
+	/**
+	 * The number of words of ancestor bitsets computed by each task
+	 * @since 1.2.0
+	 */
+	private static final int WORDS_PER_TASK = 16;
+
+	/**
+	 * The indexed graph
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The maximum number of threads indexing graph and answering batches
+	 * @since 1.2.0
+	 */
+	private final int parallelism;
+	/**
+	 * The rank of each node, {@code null} if graph holds cycles
+	 * @since 1.2.0
+	 */
+	private int[] ranks;
+	/**
+	 * The node of each rank
+	 * @since 1.2.0
+	 */
+	private int[] nodes;
+	/**
+	 * Denotes whether graph is a forest
+	 * @since 1.2.0
+	 */
+	private boolean isForest;
+	/**
+	 * The sparse table of parent ranks of a forest, lazily built
+	 * @since 1.2.0
+	 */
+	private int[][] parentRanks;
+	/**
+	 * The rank of the tree root of each node of a forest
+	 * @since 1.2.0
+	 */
+	private int[] rootRanks;
+	/**
+	 * The ancestor bitsets of a DAG, node by node, {@code null} for
+	 * forests and large DAGs
+	 * @since 1.2.0
+	 */
+	private long[] ancestors;
+	/**
+	 * The number of words of each ancestor bitset
+	 * @since 1.2.0
+	 */
+	private int words;
+	/**
+	 * The workspace of searches on large DAGs
+	 * @since 1.2.0
+	 */
+	private ThreadLocal<Search> searches;
+
+	/**
+	 * The {@code LowestCommonAncestors(CSRGraph)} constructor indexes given
+	 * graph, using as many threads as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to index
+	 * @throws IllegalArgumentException The graph is undirected
+	 */
+	public LowestCommonAncestors(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code LowestCommonAncestors(CSRGraph, int)} constructor indexes
+	 * given graph, using up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to index
+	 * @param parallelism The maximum number of threads indexing graph and
+	 * answering batches
+	 * @throws IllegalArgumentException The graph is undirected or the
+	 * parallelism is not positive
+	 */
+	public LowestCommonAncestors(CSRGraph<?> graph, int parallelism)
+	{
+		if (!graph.isDirected())
+		{
+			throw new IllegalArgumentException("graph must be directed");
+		}
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.graph = graph;
+		this.parallelism = parallelism;
+
+		int[] order = this.topologicalOrder();
+		if (order == null)
+		{
+			return;
+		}
+		final int n = graph.numNodes();
+		boolean isForest = true;
+		for (int u = 0; u < n && isForest; u++)
+		{
+			isForest = graph.inDegree(u) <= 1;
+		}
+		if (isForest)
+		{
+			this.indexForest();
+			return;
+		}
+
+		this.nodes = order;
+		this.ranks = new int[n];
+		for (int rank = 0; rank < n; rank++)
+		{
+			this.ranks[order[rank]] = rank;
+		}
+		this.words = (n + Long.SIZE - 1) / Long.SIZE;
+		if ((long) this.words * n <= MAX_ANCESTOR_WORDS)
+		{
+			this.indexAncestors();
+		}
+		else
+		{
+			this.searches = ThreadLocal.withInitial(() -> new Search(n));
+		}
+	}
+
+	/**
+	 * The {@code isAcyclic()} method tells whether graph is acyclic, i.e.
+	 * whether it has been indexed.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if graph is acyclic, {@code false} otherwise
+	 */
+	public boolean isAcyclic()
+	{
+		return this.ranks != null;
+	}
+
+	/**
+	 * The {@code lca(int, int)} method finds the lowest common ancestor of
+	 * given nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The id of first node
+	 * @param v The id of second node
+	 * @return The id of LCA, {@code -1} if nodes have no common ancestor
+	 * @throws IllegalStateException The graph holds cycles
+	 */
+	public int lca(int u, int v)
+	{
+		if (!this.isAcyclic())
+		{
+			throw new IllegalStateException("graph is not acyclic");
+		}
+		if (u == v)
+		{
+			return u;
+		}
+		if (this.isForest)
+		{
+			return this.forestLca(u, v);
+		}
+		if (this.ancestors != null)
+		{
+			return this.bitsetLca(u, v);
+		}
+
+		return this.searches.get().lca(u, v);
+	}
+
+	/**
+	 * The {@code lcas(int[], int[])} method finds the lowest common
+	 * ancestor of each pair of nodes at the same position of given arrays,
+	 * answering queries in parallel; forests are visited once by Tarjan's
+	 * offline algorithm, or once per thread for large batches.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param us The ids of first nodes
+	 * @param vs The ids of second nodes
+	 * @return The ids of LCAs, {@code -1} for nodes with no common ancestor
+	 * @throws IllegalArgumentException The arrays have different length
+	 * @throws IllegalStateException The graph holds cycles
+	 */
+	public int[] lcas(int[] us, int[] vs)
+	{
+		if (us.length != vs.length)
+		{
+			throw new IllegalArgumentException(
+					"node arrays must have the same length"
+			);
+		}
+		if (!this.isAcyclic())
+		{
+			throw new IllegalStateException("graph is not acyclic");
+		}
+		if (this.isForest)
+		{
+			return new OfflineLowestCommonAncestors(this.graph, this.parallelism)
+					.lcas(us, vs);
+		}
+		int[] lcas = new int[us.length];
+		ParallelTasks.forEach(
+				this.parallelism,
+				us.length,
+				k -> lcas[k] = this.lca(us[k], vs[k])
+		);
+
+		return lcas;
+	}
+
+	/**
+	 * The {@code allPairs()} method finds the lowest common ancestor of
+	 * every pair of nodes, in parallel.
+	 * <br>
+	 * Forests are visited by Tarjan's offline algorithm; for each node of a
+	 * DAG, the LCAs it has with other nodes are found sweeping them in
+	 * topological order: the LCA with an ancestor is the ancestor itself,
+	 * and the LCA with any other node is the highest ranked LCA its parents
+	 * have.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of LCAs indexed by node ids, {@code -1} for nodes with
+	 * no common ancestor
+	 * @throws IllegalStateException The graph holds cycles
+	 */
+	public int[][] allPairs()
+	{
+		if (!this.isAcyclic())
+		{
+			throw new IllegalStateException("graph is not acyclic");
+		}
+		if (this.isForest)
+		{
+			return new OfflineLowestCommonAncestors(this.graph, this.parallelism)
+					.allPairs();
+		}
+
+		final int n = this.graph.numNodes();
+		final int[] inOffsets = this.graph.inOffsets();
+		final int[] inSources = this.graph.inSources();
+		int[][] lcas = new int[n][];
+		ThreadLocal<int[]> queues = ThreadLocal.withInitial(() -> new int[n]);
+		ParallelTasks.forEach(this.parallelism, n, u -> {
+			// ancestors of u are their own LCA with it
+			int[] row = new int[n];
+			Arrays.fill(row, -1);
+			int[] queue = queues.get();
+			int head = 0, tail = 0;
+			queue[tail++] = u;
+			row[u] = u;
+			while (head < tail)
+			{
+				int w = queue[head++];
+				for (int i = inOffsets[w]; i < inOffsets[w + 1]; i++)
+				{
+					if (row[inSources[i]] < 0)
+					{
+						row[inSources[i]] = inSources[i];
+						queue[tail++] = inSources[i];
+					}
+				}
+			}
+
+			for (int rank = 0; rank < n; rank++)
+			{
+				final int v = this.nodes[rank];
+				if (row[v] == v)
+				{
+					continue;
+				}
+				int best = -1;
+				for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++)
+				{
+					final int lca = row[inSources[i]];
+					if (lca >= 0 && (best < 0 || this.ranks[lca] > this.ranks[best]))
+					{
+						best = lca;
+					}
+				}
+				row[v] = best;
+			}
+			lcas[u] = row;
+		});
+
+		return lcas;
+	}
+
+	/**
+	 * The {@code topologicalOrder()} helper method sorts nodes by Kahn's
+	 * algorithm.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of nodes in topological order, {@code null} if graph
+	 * holds cycles
+	 */
+	private int[] topologicalOrder()
+	{
+		final int n = this.graph.numNodes();
+		final int[] offsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		int[] inDegrees = new int[n];
+		int[] order = new int[n];
+		int head = 0, tail = 0;
+		for (int u = 0; u < n; u++)
+		{
+			inDegrees[u] = this.graph.inDegree(u);
+			if (inDegrees[u] == 0)
+			{
+				order[tail++] = u;
+			}
+		}
+		while (head < tail)
+		{
+			int u = order[head++];
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				if (--inDegrees[targets[i]] == 0)
+				{
+					order[tail++] = targets[i];
+				}
+			}
+		}
+
+		return tail == n ? order : null;
+	}
+
+	/**
+	 * The {@code indexForest()} helper method ranks the nodes of a forest
+	 * in preorder.
+	 *
+	 * @since 1.2.0
+	 */
+	private void indexForest()
+	{
+		final int n = this.graph.numNodes();
+		final int[] offsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		this.ranks = new int[n];
+		this.nodes = new int[n];
+		this.rootRanks = new int[n];
+		this.isForest = true;
+		int[] stack = new int[n];
+		int rank = 0;
+		for (int root = 0; root < n; root++)
+		{
+			if (this.graph.inDegree(root) > 0)
+			{
+				continue;
+			}
+			final int rootRank = rank;
+			int top = 0;
+			stack[top++] = root;
+			while (top > 0)
+			{
+				int u = stack[--top];
+				this.ranks[u] = rank;
+				this.nodes[rank] = u;
+				this.rootRanks[u] = rootRank;
+				rank++;
+				// children are pushed backwards to be ranked in stored order
+				for (int i = offsets[u + 1] - 1; i >= offsets[u]; i--)
+				{
+					stack[top++] = targets[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@code sparseTable()} helper method returns the sparse table of
+	 * parent ranks of a forest, building it the first time: the entry of
+	 * each level holds the lowest parent rank among twice as many nodes as
+	 * the previous level.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The parent ranks of nodes, level by level
+	 */
+	private int[][] sparseTable()
+	{
+		if (this.parentRanks != null)
+		{
+			return this.parentRanks;
+		}
+		final int n = this.graph.numNodes();
+		final int[] inOffsets = this.graph.inOffsets();
+		final int[] inSources = this.graph.inSources();
+		int[] parents = new int[n];
+		for (int r = 0; r < n; r++)
+		{
+			int u = this.nodes[r];
+			parents[r] = inOffsets[u] == inOffsets[u + 1] ?
+					-1 :
+					this.ranks[inSources[inOffsets[u]]];
+		}
+
+		final int levels = n < 2 ? 1 : 32 - Integer.numberOfLeadingZeros(n - 1);
+		int[][] parentRanks = new int[levels][];
+		parentRanks[0] = parents;
+		for (int level = 1; level < levels; level++)
+		{
+			final int[] previous = parentRanks[level - 1];
+			final int half = 1 << (level - 1);
+			int[] current = new int[n - (1 << level) + 1];
+			for (int r = 0; r < current.length; r++)
+			{
+				current[r] = Math.min(previous[r], previous[r + half]);
+			}
+			parentRanks[level] = current;
+		}
+		this.parentRanks = parentRanks;
+
+		return parentRanks;
+	}
+
+	/**
+	 * The {@code indexAncestors()} helper method computes the ancestor
+	 * bitset of each node, in topological order, splitting bitsets into
+	 * ranges of words computed in parallel.
+	 *
+	 * @since 1.2.0
+	 */
+	private void indexAncestors()
+	{
+		final int n = this.graph.numNodes();
+		final int[] inOffsets = this.graph.inOffsets();
+		final int[] inSources = this.graph.inSources();
+		final int words = this.words;
+		final long[] ancestors = new long[words * n];
+		ParallelTasks.forEach(
+				this.parallelism,
+				(words + WORDS_PER_TASK - 1) / WORDS_PER_TASK,
+				task -> {
+					final int from = task * WORDS_PER_TASK;
+					final int to = Math.min(words, from + WORDS_PER_TASK);
+					for (int rank = 0; rank < n; rank++)
+					{
+						final int u = this.nodes[rank];
+						final int base = u * words;
+						for (int i = inOffsets[u]; i < inOffsets[u + 1]; i++)
+						{
+							final int parent = inSources[i] * words;
+							for (int w = from; w < to; w++)
+							{
+								ancestors[base + w] |= ancestors[parent + w];
+							}
+						}
+						if (rank / Long.SIZE >= from && rank / Long.SIZE < to)
+						{
+							ancestors[base + rank / Long.SIZE] |= 1L << rank;
+						}
+					}
+				}
+		);
+		this.ancestors = ancestors;
+	}
+
+	/**
+	 * The {@code forestLca(int, int)} helper method finds the LCA of two
+	 * distinct nodes of a forest as the lowest parent rank among nodes
+	 * ranked after the first and up to the second.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The id of first node
+	 * @param v The id of second node
+	 * @return The id of LCA, {@code -1} if nodes belong to different trees
+	 */
+	private int forestLca(int u, int v)
+	{
+		if (this.rootRanks[u] != this.rootRanks[v])
+		{
+			return -1;
+		}
+		final int from = Math.min(this.ranks[u], this.ranks[v]) + 1;
+		final int to = Math.max(this.ranks[u], this.ranks[v]);
+		final int level = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+		final int[] table = this.sparseTable()[level];
+
+		return this.nodes[
+			Math.min(table[from], table[to - (1 << level) + 1])
+		];
+	}
+
+	/**
+	 * The {@code bitsetLca(int, int)} helper method finds the LCA of two
+	 * distinct nodes of a DAG as the highest rank both ancestor bitsets
+	 * hold.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The id of first node
+	 * @param v The id of second node
+	 * @return The id of LCA, {@code -1} if nodes have no common ancestor
+	 */
+	private int bitsetLca(int u, int v)
+	{
+		final int first = u * this.words;
+		final int second = v * this.words;
+		// common ancestors rank below both nodes
+		for (int w = Math.min(this.ranks[u], this.ranks[v]) / Long.SIZE;
+				w >= 0;
+				w--)
+		{
+			long common = this.ancestors[first + w] & this.ancestors[second + w];
+			if (common != 0)
+			{
+				return this.nodes[
+					w * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(common)
+				];
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * {@code Search} is the workspace of the upward search from two nodes
+	 * of a DAG, following reached nodes in decreasing rank by a max-heap.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private final class Search
+	{
+		/**
+		 * The heap of ranks of reached nodes
+		 * @since 1.2.0
+		 */
+		private final int[] heap;
+		/**
+		 * The query each node has last been reached by
+		 * @since 1.2.0
+		 */
+		private final int[] stamps;
+		/**
+		 * The nodes each node has been reached from, as bits
+		 * @since 1.2.0
+		 */
+		private final byte[] sides;
+		/**
+		 * The current query
+		 * @since 1.2.0
+		 */
+		private int stamp;
+		/**
+		 * The number of ranks in heap
+		 * @since 1.2.0
+		 */
+		private int size;
+
+		/**
+		 * The {@code Search(int)} constructor allocates the workspace for
+		 * given number of nodes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param n The number of nodes
+		 */
+		private Search(int n)
+		{
+			this.heap = new int[n];
+			this.stamps = new int[n];
+			this.sides = new byte[n];
+		}
+
+		/**
+		 * The {@code lca(int, int)} method searches for the first node
+		 * reached from both given distinct nodes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param u The id of first node
+		 * @param v The id of second node
+		 * @return The id of LCA, {@code -1} if nodes have no common ancestor
+		 */
+		private int lca(int u, int v)
+		{
+			final int[] inOffsets = LowestCommonAncestors.this.graph.inOffsets();
+			final int[] inSources = LowestCommonAncestors.this.graph.inSources();
+			final int[] ranks = LowestCommonAncestors.this.ranks;
+			if (++this.stamp == 0)
+			{
+				Arrays.fill(this.stamps, 0);
+				this.stamp = 1;
+			}
+			this.size = 0;
+			this.reach(u, (byte) 1, ranks);
+			this.reach(v, (byte) 2, ranks);
+			while (this.size > 0)
+			{
+				int w = LowestCommonAncestors.this.nodes[this.pop()];
+				if (this.sides[w] == 3)
+				{
+					return w;
+				}
+				for (int i = inOffsets[w]; i < inOffsets[w + 1]; i++)
+				{
+					this.reach(inSources[i], this.sides[w], ranks);
+				}
+			}
+
+			return -1;
+		}
+
+		/**
+		 * The {@code reach(int, byte, int[])} helper method marks given node
+		 * as reached from given nodes, pushing it the first time.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param u The id of reached node
+		 * @param side The nodes it has been reached from, as bits
+		 * @param ranks The rank of each node
+		 */
+		private void reach(int u, byte side, int[] ranks)
+		{
+			if (this.stamps[u] == this.stamp)
+			{
+				this.sides[u] |= side;
+				return;
+			}
+			this.stamps[u] = this.stamp;
+			this.sides[u] = side;
+			int k = this.size++;
+			// sift up
+			while (k > 0 && this.heap[(k - 1) / 2] < ranks[u])
+			{
+				this.heap[k] = this.heap[(k - 1) / 2];
+				k = (k - 1) / 2;
+			}
+			this.heap[k] = ranks[u];
+		}
+
+		/**
+		 * The {@code pop()} helper method removes the highest rank from
+		 * heap.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @return The highest rank
+		 */
+		private int pop()
+		{
+			final int top = this.heap[0];
+			final int last = this.heap[--this.size];
+			int k = 0;
+			// sift down
+			while (2 * k + 1 < this.size)
+			{
+				int child = 2 * k + 1;
+				if (child + 1 < this.size && this.heap[child + 1] > this.heap[child])
+				{
+					child++;
+				}
+				if (this.heap[child] <= last)
+				{
+					break;
+				}
+				this.heap[k] = this.heap[child];
+				k = child;
+			}
+			this.heap[k] = last;
+
+			return top;
+		}
+	}
+}
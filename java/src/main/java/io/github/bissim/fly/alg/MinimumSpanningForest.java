@@ -0,0 +1,353 @@
+package io.github.bissim.fly.alg;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code MinimumSpanningForest} finds a minimum spanning forest of a
+ * {@link CSRGraph} by Borůvka's algorithm, edges of directed graphs being
+ * taken as undirected ones, like JGraphT {@code PrimMinimumSpanningTree}
+ * does.
+ * <br>
+ * Edges are laid out into primitive arrays, then each round every edge
+ * offers itself, in parallel, as the lightest edge leaving the components
+ * of its endpoints by compare-and-set; the lightest edge of each component
+ * is added to forest, merging components into a lock-free union-find, and
+ * edges within components are filtered out before the next round. Ties
+ * are broken by edge order, so that edges added in a round never close a
+ * cycle, and rounds end once no edge leaves any component: at most
+ * {@code log2(n)} of them are needed, as each one at least halves the
+ * number of components.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class MinimumSpanningForest
+{
+	/**
+	 * The minimum number of edges rounds are run in parallel from
+	 * @since 1.2.0
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	/**
+	 * The source of each forest edge
+	 * @since 1.2.0
+	 */
+	private final int[] sources;
+	/**
+	 * The target of each forest edge
+	 * @since 1.2.0
+	 */
+	private final int[] targets;
+	/**
+	 * The weight of each forest edge
+	 * @since 1.2.0
+	 */
+	private final double[] weights;
+	/**
+	 * The total weight of forest
+	 * @since 1.2.0
+	 */
+	private final double weight;
+
+	/**
+	 * The {@code MinimumSpanningForest(CSRGraph)} constructor finds the
+	 * forest of given graph, using as many threads as available
+	 * processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to span
+	 */
+	public MinimumSpanningForest(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code MinimumSpanningForest(CSRGraph, int)} constructor finds
+	 * the forest of given graph, using up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to span
+	 * @param parallelism The maximum number of threads scanning edges
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public MinimumSpanningForest(CSRGraph<?> graph, int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		final int n = graph.numNodes();
+		final int[] offsets = graph.outOffsets();
+		final int[] adjacencies = graph.outTargets();
+		final boolean isDirected = graph.isDirected();
+
+		// edges in adjacency order, undirected ones just once
+		int m = 0;
+		for (int u = 0; u < n; u++)
+		{
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				m += isDirected || adjacencies[i] > u ? 1 : 0;
+			}
+		}
+		final int[] edgeSources = new int[m];
+		final int[] edgeTargets = new int[m];
+		final double[] edgeWeights = new double[m];
+		for (int u = 0, e = 0; u < n; u++)
+		{
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				if (isDirected || adjacencies[i] > u)
+				{
+					edgeSources[e] = u;
+					edgeTargets[e] = adjacencies[i];
+					edgeWeights[e++] = graph.weightAt(i);
+				}
+			}
+		}
+
+		final int threads = m < PARALLEL_THRESHOLD ? 1 : parallelism;
+		AtomicIntegerArray parents = new AtomicIntegerArray(n);
+		AtomicIntegerArray lightest = new AtomicIntegerArray(n);
+		for (int u = 0; u < n; u++)
+		{
+			parents.set(u, u);
+			lightest.set(u, -1);
+		}
+		boolean[] inForest = new boolean[m];
+		int[] edges = new int[m];
+		for (int e = 0; e < m; e++)
+		{
+			edges[e] = e;
+		}
+		int numEdges = m;
+		int size = 0;
+		while (numEdges > 0)
+		{
+			final int[] alive = edges;
+			ParallelTasks.forEach(threads, numEdges, k -> {
+				final int e = alive[k];
+				offer(lightest, find(parents, edgeSources[e]), e, edgeWeights);
+				offer(lightest, find(parents, edgeTargets[e]), e, edgeWeights);
+			});
+			// roots are the same as the ones edges have been offered to
+			ParallelTasks.forEach(threads, n, u -> {
+				final int e = lightest.get(u);
+				if (e >= 0)
+				{
+					lightest.set(u, -1);
+					if (union(parents, edgeSources[e], edgeTargets[e]))
+					{
+						inForest[e] = true;
+					}
+				}
+			});
+
+			int kept = 0;
+			for (int k = 0; k < numEdges; k++)
+			{
+				final int e = alive[k];
+				if (inForest[e])
+				{
+					size++;
+				}
+				else if (find(parents, edgeSources[e]) != find(parents, edgeTargets[e]))
+				{
+					edges[kept++] = e;
+				}
+			}
+			numEdges = kept;
+		}
+
+		this.sources = new int[size];
+		this.targets = new int[size];
+		this.weights = new double[size];
+		double weight = 0.0;
+		for (int e = 0, k = 0; e < m; e++)
+		{
+			if (inForest[e])
+			{
+				this.sources[k] = edgeSources[e];
+				this.targets[k] = edgeTargets[e];
+				this.weights[k++] = edgeWeights[e];
+				weight += edgeWeights[e];
+			}
+		}
+		this.weight = weight;
+	}
+
+	/**
+	 * The {@code size()} method returns the number of forest edges.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of edges
+	 */
+	public int size()
+	{
+		return this.sources.length;
+	}
+
+	/**
+	 * The {@code sourceAt(int)} method returns the source of given forest
+	 * edge; edges are in the order of graph adjacencies.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param k The index of forest edge
+	 * @return The id of source node
+	 */
+	public int sourceAt(int k)
+	{
+		return this.sources[k];
+	}
+
+	/**
+	 * The {@code targetAt(int)} method returns the target of given forest
+	 * edge.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param k The index of forest edge
+	 * @return The id of target node
+	 */
+	public int targetAt(int k)
+	{
+		return this.targets[k];
+	}
+
+	/**
+	 * The {@code weightAt(int)} method returns the weight of given forest
+	 * edge.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param k The index of forest edge
+	 * @return The edge weight
+	 */
+	public double weightAt(int k)
+	{
+		return this.weights[k];
+	}
+
+	/**
+	 * The {@code weight()} method returns the total weight of forest edges.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The total weight
+	 */
+	public double weight()
+	{
+		return this.weight;
+	}
+
+	/**
+	 * The {@code offer(AtomicIntegerArray, int, int, double[])} helper
+	 * method makes given edge the lightest one of given component, unless a
+	 * lighter one has been offered.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param lightest The lightest edge of each component root
+	 * @param root The root of component
+	 * @param e The edge offered
+	 * @param weights The weight of each edge
+	 */
+	private static void offer(
+			AtomicIntegerArray lightest,
+			int root,
+			int e,
+			double[] weights
+	)
+	{
+		while (true)
+		{
+			final int current = lightest.get(root);
+			// ties are broken by edge order, so that edges are totally ordered
+			if (current >= 0 && (weights[current] < weights[e] ||
+					weights[current] == weights[e] && current < e))
+			{
+				return;
+			}
+			if (lightest.compareAndSet(root, current, e))
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * The {@code union(AtomicIntegerArray, int, int)} helper method merges
+	 * the sets holding given nodes, linking the higher root below the lower
+	 * one.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parents The union-find parent of each node
+	 * @param u The first node id
+	 * @param v The second node id
+	 * @return {@code true} if sets have been merged, {@code false} if nodes
+	 * were in the same set already
+	 */
+	private static boolean union(AtomicIntegerArray parents, int u, int v)
+	{
+		while (true)
+		{
+			u = find(parents, u);
+			v = find(parents, v);
+			if (u == v)
+			{
+				return false;
+			}
+			if (u < v)
+			{
+				int swap = u;
+				u = v;
+				v = swap;
+			}
+			// the link fails if another thread has linked u meanwhile
+			if (parents.compareAndSet(u, u, v))
+			{
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * The {@code find(AtomicIntegerArray, int)} helper method returns the
+	 * root of the set holding given node, halving the path to it.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parents The union-find parent of each node
+	 * @param u The node id
+	 * @return The root id
+	 */
+	private static int find(AtomicIntegerArray parents, int u)
+	{
+		while (true)
+		{
+			int parent = parents.get(u);
+			if (parent == u)
+			{
+				return u;
+			}
+			int grandparent = parents.get(parent);
+			if (grandparent != parent)
+			{
+				parents.compareAndSet(u, parent, grandparent);
+			}
+			u = grandparent;
+		}
+	}
+}
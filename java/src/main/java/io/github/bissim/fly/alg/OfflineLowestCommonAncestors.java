@@ -0,0 +1,344 @@
+package io.github.bissim.fly.alg;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code OfflineLowestCommonAncestors} answers batches of lowest common
+ * ancestor queries on a forest by Tarjan's offline algorithm: a single
+ * depth-first visit merges each visited subtree into the set of its
+ * parent by union-find, so that once a node has been visited, the LCA of
+ * it and any node visited before is the ancestor representing the set of
+ * the latter.
+ * <br>
+ * Large batches are split into slices answered by visits running in
+ * parallel, each one with its own union-find.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+final class OfflineLowestCommonAncestors
+{
+	/**
+	 * The forest to visit, which every node has at most a parent of
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The maximum number of visits running in parallel
+	 * @since 1.2.0
+	 */
+	private final int parallelism;
+
+	/**
+	 * The {@code OfflineLowestCommonAncestors(CSRGraph, int)} constructor
+	 * creates the solver for given forest, running up to given number of
+	 * visits in parallel.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The forest to visit
+	 * @param parallelism The maximum number of visits running in parallel
+	 */
+	OfflineLowestCommonAncestors(CSRGraph<?> graph, int parallelism)
+	{
+		this.graph = graph;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * The {@code lcas(int[], int[])} method finds the lowest common
+	 * ancestor of each pair of nodes at the same position of given arrays;
+	 * batches larger than forest are split into as many slices as threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param us The ids of first nodes
+	 * @param vs The ids of second nodes
+	 * @return The ids of LCAs, {@code -1} for nodes of different trees
+	 */
+	int[] lcas(int[] us, int[] vs)
+	{
+		final int n = this.graph.numNodes();
+		final int slices = Math.max(
+				1,
+				Math.min(this.parallelism, us.length / Math.max(n, 1))
+		);
+		int[] lcas = new int[us.length];
+		ParallelTasks.forEach(this.parallelism, slices, slice -> {
+			// queries of slice, grouped by both their nodes
+			int[] offsets = new int[n + 1];
+			for (int k = slice; k < us.length; k += slices)
+			{
+				offsets[us[k] + 1]++;
+				offsets[vs[k] + 1]++;
+			}
+			for (int u = 0; u < n; u++)
+			{
+				offsets[u + 1] += offsets[u];
+			}
+			int[] queries = new int[offsets[n]];
+			int[] next = new int[n];
+			System.arraycopy(offsets, 0, next, 0, n);
+			for (int k = slice; k < us.length; k += slices)
+			{
+				queries[next[us[k]]++] = k;
+				queries[next[vs[k]]++] = k;
+			}
+
+			new Visit(n).run((visit, x) -> {
+				for (int i = offsets[x]; i < offsets[x + 1]; i++)
+				{
+					final int k = queries[i];
+					final int other = us[k] == x ? vs[k] : us[k];
+					if (visit.isFinished(other))
+					{
+						lcas[k] = visit.ancestorOf(other);
+					}
+				}
+			});
+		});
+
+		return lcas;
+	}
+
+	/**
+	 * The {@code allPairs()} method finds the lowest common ancestor of
+	 * every pair of nodes; each thread visits the whole forest, answering
+	 * pairs which the last finished node of belongs to its share of nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of LCAs indexed by node ids, {@code -1} for nodes of
+	 * different trees
+	 */
+	int[][] allPairs()
+	{
+		final int n = this.graph.numNodes();
+		final int slices = Math.max(1, Math.min(this.parallelism, n));
+		int[][] lcas = new int[n][n];
+		ParallelTasks.forEach(this.parallelism, slices, slice ->
+			new Visit(n).run((visit, x) -> {
+				final int finished = visit.numFinished();
+				if ((finished - 1) % slices != slice)
+				{
+					return;
+				}
+				for (int j = 0; j < finished; j++)
+				{
+					final int y = visit.finishedAt(j);
+					final int lca = visit.ancestorOf(y);
+					lcas[x][y] = lca;
+					lcas[y][x] = lca;
+				}
+			})
+		);
+
+		return lcas;
+	}
+
+	/**
+	 * {@code FinishAction} is the action run as soon as the visit of a
+	 * node is finished.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	@FunctionalInterface
+	private interface FinishAction
+	{
+		/**
+		 * The {@code finished(Visit, int)} method runs the action for the
+		 * node which visit has just finished.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param visit The ongoing visit
+		 * @param x The id of finished node
+		 */
+		void finished(Visit visit, int x);
+	}
+
+	/**
+	 * {@code Visit} is the state of a depth-first visit of the forest,
+	 * holding the union-find of visited subtrees.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private final class Visit
+	{
+		/**
+		 * The union-find parent of each node
+		 * @since 1.2.0
+		 */
+		private final int[] sets;
+		/**
+		 * The ancestor of each set, by its representative node
+		 * @since 1.2.0
+		 */
+		private final int[] ancestors;
+		/**
+		 * The finished nodes, in finishing order
+		 * @since 1.2.0
+		 */
+		private final int[] finished;
+		/**
+		 * The finishing position of each node, {@code -1} if unfinished
+		 * @since 1.2.0
+		 */
+		private final int[] positions;
+		/**
+		 * The number of finished nodes
+		 * @since 1.2.0
+		 */
+		private int numFinished;
+
+		/**
+		 * The {@code Visit(int)} constructor allocates the state for given
+		 * number of nodes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param n The number of nodes
+		 */
+		private Visit(int n)
+		{
+			this.sets = new int[n];
+			this.ancestors = new int[n];
+			this.finished = new int[n];
+			this.positions = new int[n];
+		}
+
+		/**
+		 * The {@code run(FinishAction)} method visits the forest, tree by
+		 * tree, running given action whenever a node is finished.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param action The action run for finished nodes
+		 */
+		private void run(FinishAction action)
+		{
+			final int n = this.sets.length;
+			final int[] offsets = OfflineLowestCommonAncestors.this.graph.outOffsets();
+			final int[] targets = OfflineLowestCommonAncestors.this.graph.outTargets();
+			int[] stack = new int[n];
+			int[] cursors = new int[n];
+			for (int u = 0; u < n; u++)
+			{
+				this.sets[u] = u;
+				this.ancestors[u] = u;
+				this.positions[u] = -1;
+				cursors[u] = offsets[u];
+			}
+
+			for (int root = 0; root < n; root++)
+			{
+				if (OfflineLowestCommonAncestors.this.graph.inDegree(root) > 0)
+				{
+					continue;
+				}
+				int top = 0;
+				stack[top++] = root;
+				while (top > 0)
+				{
+					final int u = stack[top - 1];
+					if (cursors[u] < offsets[u + 1])
+					{
+						stack[top++] = targets[cursors[u]++];
+						continue;
+					}
+
+					top--;
+					this.positions[u] = this.numFinished;
+					this.finished[this.numFinished++] = u;
+					action.finished(this, u);
+					if (top > 0)
+					{
+						final int parent = stack[top - 1];
+						this.sets[this.find(u)] = this.find(parent);
+						this.ancestors[this.find(parent)] = parent;
+					}
+				}
+				// nodes of finished trees have no ancestor in common with others
+				this.ancestors[this.find(root)] = -1;
+			}
+		}
+
+		/**
+		 * The {@code isFinished(int)} method tells whether the visit of
+		 * given node is finished.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param u The id of node
+		 * @return {@code true} if node is finished, {@code false} otherwise
+		 */
+		private boolean isFinished(int u)
+		{
+			return this.positions[u] >= 0;
+		}
+
+		/**
+		 * The {@code ancestorOf(int)} method returns the LCA of given
+		 * finished node and the last finished one.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param u The id of finished node
+		 * @return The id of LCA, {@code -1} for nodes of different trees
+		 */
+		private int ancestorOf(int u)
+		{
+			return this.ancestors[this.find(u)];
+		}
+
+		/**
+		 * The {@code numFinished()} method returns the number of finished
+		 * nodes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @return The number of finished nodes
+		 */
+		private int numFinished()
+		{
+			return this.numFinished;
+		}
+
+		/**
+		 * The {@code finishedAt(int)} method returns the node finished at
+		 * given position.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param position The finishing position
+		 * @return The id of finished node
+		 */
+		private int finishedAt(int position)
+		{
+			return this.finished[position];
+		}
+
+		/**
+		 * The {@code find(int)} helper method returns the representative of
+		 * the set holding given node, halving the path to it.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param u The id of node
+		 * @return The id of set representative
+		 */
+		private int find(int u)
+		{
+			while (this.sets[u] != u)
+			{
+				this.sets[u] = this.sets[this.sets[u]];
+				u = this.sets[u];
+			}
+
+			return u;
+		}
+	}
+}
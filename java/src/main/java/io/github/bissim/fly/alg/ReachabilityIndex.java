@@ -0,0 +1,367 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code ReachabilityIndex} answers whether a node of a directed graph can
+ * reach another one, by GRAIL interval labels of its condensation.
+ * <br>
+ * Nodes of the same strongly connected component reach each other, while
+ * a component reaches only components following it in topological order;
+ * each component is further labelled by as many intervals as dimensions,
+ * one per depth-first visit of condensation in a random order: a component
+ * is labelled by the lowest post-order rank of its descendants and by its
+ * own rank, so that a component can't reach any other one which interval
+ * is not within its own.
+ * <br>
+ * Most queries on unreachable components are answered by labels alone;
+ * the other ones are answered by a depth-first search which skips
+ * components labels tell unable to reach the target. The index takes
+ * {@code 2 * dimensions} ints per component besides the condensation.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class ReachabilityIndex
+{
+	/**
+	 * The number of interval labels of each component, by default
+	 * @since 1.2.0
+	 */
+	public static final int DEFAULT_DIMENSIONS = 3;
+
+	/**
+	 * The component of each node
+	 * @since 1.2.0
+	 */
+	private final int[] components;
+	/**
+	 * The condensation DAG, which ids are in topological order
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<Integer> condensation;
+	/**
+	 * The number of interval labels of each component
+	 * @since 1.2.0
+	 */
+	private final int dimensions;
+	/**
+	 * The lowest post-order rank of descendants of each component,
+	 * dimension by dimension
+	 * @since 1.2.0
+	 */
+	private final int[] lows;
+	/**
+	 * The post-order rank of each component, dimension by dimension
+	 * @since 1.2.0
+	 */
+	private final int[] posts;
+	/**
+	 * The workspace of searches
+	 * @since 1.2.0
+	 */
+	private final ThreadLocal<Search> searches;
+
+	/**
+	 * The {@code ReachabilityIndex(StronglyConnectedComponents)}
+	 * constructor indexes the graph given components have been labelled
+	 * for, using as many threads as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param components The strongly connected components of graph
+	 */
+	public ReachabilityIndex(StronglyConnectedComponents components)
+	{
+		this(components, DEFAULT_DIMENSIONS, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code ReachabilityIndex(StronglyConnectedComponents, int, int)}
+	 * constructor indexes the graph given components have been labelled
+	 * for, by given number of interval labels per component, visiting
+	 * condensation once per dimension using up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param components The strongly connected components of graph
+	 * @param dimensions The number of interval labels per component
+	 * @param parallelism The maximum number of threads labelling components
+	 * @throws IllegalArgumentException The number of dimensions or the
+	 * parallelism is not positive
+	 */
+	public ReachabilityIndex(
+			StronglyConnectedComponents components,
+			int dimensions,
+			int parallelism
+	)
+	{
+		if (dimensions < 1)
+		{
+			throw new IllegalArgumentException(
+					"dimensions must be positive: " + dimensions
+			);
+		}
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.components = components.components();
+		this.condensation = components.condensation();
+		this.dimensions = dimensions;
+		final int k = this.condensation.numNodes();
+		this.lows = new int[dimensions * k];
+		this.posts = new int[dimensions * k];
+		ParallelTasks.forEach(
+				parallelism,
+				dimensions,
+				d -> this.label(d, new Random(d))
+		);
+		this.searches = ThreadLocal.withInitial(() -> new Search(k));
+	}
+
+	/**
+	 * The {@code canReach(int, int)} method tells whether there is a path
+	 * from a node to another one; every node reaches itself.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The id of source node
+	 * @param v The id of target node
+	 * @return {@code true} if source reaches target, {@code false}
+	 * otherwise
+	 */
+	public boolean canReach(int u, int v)
+	{
+		final int cu = this.components[u];
+		final int cv = this.components[v];
+		if (cu == cv)
+		{
+			return true;
+		}
+		if (!this.mayReach(cu, cv))
+		{
+			return false;
+		}
+
+		return this.searches.get().reaches(cu, cv);
+	}
+
+	/**
+	 * The {@code mayReach(int, int)} helper method tells whether a component
+	 * may reach another one, according to their topological order and
+	 * labels; if not, it surely doesn't.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param c The source component
+	 * @param target The target component
+	 * @return {@code false} if source doesn't reach target, {@code true} if
+	 * it may
+	 */
+	private boolean mayReach(int c, int target)
+	{
+		if (c > target)
+		{
+			return false;
+		}
+		final int k = this.condensation.numNodes();
+		for (int d = 0, offset = 0; d < this.dimensions; d++, offset += k)
+		{
+			if (this.lows[offset + target] < this.lows[offset + c] ||
+					this.posts[offset + target] > this.posts[offset + c])
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * The {@code label(int, Random)} helper method labels components for
+	 * given dimension, by a depth-first visit from sources and children in
+	 * random order.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param d The dimension
+	 * @param random The source of visit order
+	 */
+	private void label(int d, Random random)
+	{
+		final int k = this.condensation.numNodes();
+		final int offset = d * k;
+		final int[] offsets = this.condensation.outOffsets();
+		final int[] targets = this.condensation.outTargets();
+		int[] roots = new int[k];
+		int numRoots = 0;
+		for (int c = 0; c < k; c++)
+		{
+			if (this.condensation.inDegree(c) == 0)
+			{
+				roots[numRoots++] = c;
+			}
+		}
+		for (int r = numRoots - 1; r > 0; r--)
+		{
+			final int s = random.nextInt(r + 1);
+			final int swap = roots[r];
+			roots[r] = roots[s];
+			roots[s] = swap;
+		}
+
+		// each visit starts from a random child, then goes round
+		boolean[] visited = new boolean[k];
+		int[] stack = new int[k];
+		int[] starts = new int[k];
+		int[] steps = new int[k];
+		int rank = 0;
+		for (int r = 0; r < numRoots; r++)
+		{
+			int top = 0;
+			stack[top++] = roots[r];
+			visited[roots[r]] = true;
+			starts[roots[r]] = this.start(roots[r], random);
+			while (top > 0)
+			{
+				final int c = stack[top - 1];
+				final int degree = offsets[c + 1] - offsets[c];
+				if (steps[c] < degree)
+				{
+					final int child = targets[
+						offsets[c] + (starts[c] + steps[c]++) % degree
+					];
+					if (!visited[child])
+					{
+						visited[child] = true;
+						starts[child] = this.start(child, random);
+						stack[top++] = child;
+					}
+					continue;
+				}
+				top--;
+				this.posts[offset + c] = rank++;
+			}
+		}
+
+		// children follow their parents in topological order
+		for (int c = k - 1; c >= 0; c--)
+		{
+			int low = this.posts[offset + c];
+			for (int i = offsets[c]; i < offsets[c + 1]; i++)
+			{
+				low = Math.min(low, this.lows[offset + targets[i]]);
+			}
+			this.lows[offset + c] = low;
+		}
+	}
+
+	/**
+	 * The {@code start(int, Random)} helper method picks the child given
+	 * component visit starts from.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param c The component
+	 * @param random The source of visit order
+	 * @return The position of first child among children
+	 */
+	private int start(int c, Random random)
+	{
+		final int degree = this.condensation.outDegree(c);
+
+		return degree > 1 ? random.nextInt(degree) : 0;
+	}
+
+	/**
+	 * {@code Search} is the workspace of the depth-first search of a
+	 * component from another one.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private final class Search
+	{
+		/**
+		 * The stack of components to visit
+		 * @since 1.2.0
+		 */
+		private final int[] stack;
+		/**
+		 * The query each component has last been reached by
+		 * @since 1.2.0
+		 */
+		private final int[] stamps;
+		/**
+		 * The current query
+		 * @since 1.2.0
+		 */
+		private int stamp;
+
+		/**
+		 * The {@code Search(int)} constructor allocates the workspace for
+		 * given number of components.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param k The number of components
+		 */
+		private Search(int k)
+		{
+			this.stack = new int[k];
+			this.stamps = new int[k];
+		}
+
+		/**
+		 * The {@code reaches(int, int)} method searches for target component
+		 * from source one, skipping components which can't reach it.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param source The source component
+		 * @param target The target component
+		 * @return {@code true} if source reaches target, {@code false}
+		 * otherwise
+		 */
+		private boolean reaches(int source, int target)
+		{
+			final int[] offsets = ReachabilityIndex.this.condensation.outOffsets();
+			final int[] targets = ReachabilityIndex.this.condensation.outTargets();
+			if (++this.stamp == 0)
+			{
+				Arrays.fill(this.stamps, 0);
+				this.stamp = 1;
+			}
+			int top = 0;
+			this.stack[top++] = source;
+			this.stamps[source] = this.stamp;
+			while (top > 0)
+			{
+				final int c = this.stack[--top];
+				for (int i = offsets[c]; i < offsets[c + 1]; i++)
+				{
+					final int child = targets[i];
+					if (child == target)
+					{
+						return true;
+					}
+					if (this.stamps[child] != this.stamp &&
+							ReachabilityIndex.this.mayReach(child, target))
+					{
+						this.stamps[child] = this.stamp;
+						this.stack[top++] = child;
+					}
+				}
+			}
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package io.github.bissim.fly.alg;
+
+/**
+ * {@code SearchTree} is the outcome of a graph visit from a root node: the
+ * visited nodes, in the order they have been visited, along with the parent
+ * each of them has been reached from and the position of such tree edge
+ * within outgoing adjacencies arrays, so that nodes, edges and tree of the
+ * visit are available after a single pass.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ *
+ * @see BreadthFirstSearch#tree(int)
+ * @see DepthFirstSearch#tree(int)
+ */
+public final class SearchTree
+{
+	/**
+	 * The ids of visited nodes, root first
+	 * @since 1.2.0
+	 */
+	private final int[] order;
+	/**
+	 * The id of the parent of each visited node, {@code -1} for root
+	 * @since 1.2.0
+	 */
+	private final int[] parents;
+	/**
+	 * The position of the edge each visited node has been reached by,
+	 * {@code -1} for root
+	 * @since 1.2.0
+	 */
+	private final int[] edges;
+
+	/**
+	 * The {@code SearchTree(int[], int[], int[])} constructor creates the
+	 * tree of a visit from given arrays, indexed by visit order.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param order The ids of visited nodes, root first
+	 * @param parents The id of the parent of each visited node
+	 * @param edges The position of the edge each visited node has been
+	 * reached by
+	 */
+	SearchTree(int[] order, int[] parents, int[] edges)
+	{
+		this.order = order;
+		this.parents = parents;
+		this.edges = edges;
+	}
+
+	/**
+	 * The {@code root()} method returns the root of visit.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The id of root node
+	 */
+	public int root()
+	{
+		return this.order[0];
+	}
+
+	/**
+	 * The {@code size()} method returns the number of visited nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of visited nodes
+	 */
+	public int size()
+	{
+		return this.order.length;
+	}
+
+	/*
+	 * raw arrays, indexed by visit order: they must not be modified
+	 */
+
+	/**
+	 * The {@code order()} method returns the visited nodes, in the order
+	 * they have been visited.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of visited nodes, root first
+	 */
+	public int[] order()
+	{
+		return this.order;
+	}
+
+	/**
+	 * The {@code parents()} method returns the parent of each visited node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The id of the parent of each visited node, {@code -1} for
+	 * root
+	 */
+	public int[] parents()
+	{
+		return this.parents;
+	}
+
+	/**
+	 * The {@code edges()} method returns the edge each visited node has
+	 * been reached by, from its parent.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The position of each tree edge within outgoing adjacencies
+	 * arrays, {@code -1} for root
+	 */
+	public int[] edges()
+	{
+		return this.edges;
+	}
+}
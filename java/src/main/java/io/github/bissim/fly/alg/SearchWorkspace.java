@@ -0,0 +1,232 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+
+/**
+ * {@code SearchWorkspace} holds the state of a Dijkstra-like search, i.e.
+ * its heap, its queue and the distances and predecessors of nodes; it is
+ * reused by the searches of a thread on graphs up to its size, nodes being
+ * marked as reached by the search stamp, so that no array is cleared
+ * between searches.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+final class SearchWorkspace
+{
+	/**
+	 * The heap of nodes to settle
+	 * @since 1.2.0
+	 */
+	final IndexedDoubleHeap heap;
+	/**
+	 * The queue of nodes to visit
+	 * @since 1.2.0
+	 */
+	final int[] queue;
+	/**
+	 * The search each node has last been reached by
+	 * @since 1.2.0
+	 */
+	private final int[] stamps;
+	/**
+	 * The search each node has last been settled by
+	 * @since 1.2.0
+	 */
+	private final int[] settled;
+	/**
+	 * The search each node has last been marked as a target by
+	 * @since 1.2.0
+	 */
+	private final int[] targets;
+	/**
+	 * The distance of each reached node
+	 * @since 1.2.0
+	 */
+	final double[] distances;
+	/**
+	 * The predecessor of each reached node
+	 * @since 1.2.0
+	 */
+	final int[] predecessors;
+	/**
+	 * The current search
+	 * @since 1.2.0
+	 */
+	private int stamp;
+
+	/**
+	 * The {@code SearchWorkspace(int)} constructor allocates the workspace
+	 * for graphs up to given number of nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param capacity The maximum number of nodes
+	 */
+	SearchWorkspace(int capacity)
+	{
+		this.heap = new IndexedDoubleHeap(capacity);
+		this.queue = new int[capacity];
+		this.stamps = new int[capacity];
+		this.settled = new int[capacity];
+		this.targets = new int[capacity];
+		this.distances = new double[capacity];
+		this.predecessors = new int[capacity];
+	}
+
+	/**
+	 * The {@code of(ThreadLocal, int)} method returns the workspace of
+	 * current thread, allocating a new one if there's none fit for given
+	 * number of nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param workspaces The workspaces of each thread
+	 * @param n The number of graph nodes
+	 * @return The workspace of current thread
+	 */
+	static SearchWorkspace of(ThreadLocal<SearchWorkspace> workspaces, int n)
+	{
+		SearchWorkspace workspace = workspaces.get();
+		if (workspace == null || workspace.capacity() < n)
+		{
+			workspace = new SearchWorkspace(n);
+			workspaces.set(workspace);
+		}
+
+		return workspace;
+	}
+
+	/**
+	 * The {@code capacity()} method returns the maximum number of nodes of
+	 * graphs workspace is fit for.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The maximum number of nodes
+	 */
+	int capacity()
+	{
+		return this.stamps.length;
+	}
+
+	/**
+	 * The {@code reset()} method starts a new search, forgetting the nodes
+	 * reached by the previous one.
+	 *
+	 * @since 1.2.0
+	 */
+	void reset()
+	{
+		this.heap.clear();
+		if (++this.stamp == 0)
+		{
+			Arrays.fill(this.stamps, 0);
+			Arrays.fill(this.settled, 0);
+			Arrays.fill(this.targets, 0);
+			this.stamp = 1;
+		}
+	}
+
+	/**
+	 * The {@code reach(int, double, int)} method records given node as
+	 * reached at given distance from given predecessor.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 * @param distance The distance of node
+	 * @param predecessor The predecessor id
+	 */
+	void reach(int v, double distance, int predecessor)
+	{
+		this.stamps[v] = this.stamp;
+		this.distances[v] = distance;
+		this.predecessors[v] = predecessor;
+	}
+
+	/**
+	 * The {@code isReached(int)} method tells whether given node has been
+	 * reached by current search.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 * @return {@code true} if node is reached, {@code false} otherwise
+	 */
+	boolean isReached(int v)
+	{
+		return this.stamps[v] == this.stamp;
+	}
+
+	/**
+	 * The {@code settle(int)} method records given node as settled by
+	 * current search.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 */
+	void settle(int v)
+	{
+		this.settled[v] = this.stamp;
+	}
+
+	/**
+	 * The {@code isSettled(int)} method tells whether given node has been
+	 * settled by current search.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 * @return {@code true} if node is settled, {@code false} otherwise
+	 */
+	boolean isSettled(int v)
+	{
+		return this.settled[v] == this.stamp;
+	}
+
+	/**
+	 * The {@code target(int)} method marks given node as a target of
+	 * current search.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 */
+	void target(int v)
+	{
+		this.targets[v] = this.stamp;
+	}
+
+	/**
+	 * The {@code isTarget(int)} method tells whether given node is a target
+	 * of current search.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 * @return {@code true} if node is a target, {@code false} otherwise
+	 */
+	boolean isTarget(int v)
+	{
+		return this.targets[v] == this.stamp;
+	}
+
+	/**
+	 * The {@code distance(int)} method returns the distance of given node
+	 * found by current search.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param v The node id
+	 * @return The distance, {@code Double.POSITIVE_INFINITY} for nodes not
+	 * reached
+	 */
+	double distance(int v)
+	{
+		return this.isReached(v) ?
+				this.distances[v] :
+				Double.POSITIVE_INFINITY;
+	}
+}
@@ -0,0 +1,157 @@
+package io.github.bissim.fly.alg;
+
+/**
+ * {@code ShortestPathTree} holds the shortest paths from a source node to
+ * every other node of a graph, as the distance and the predecessor of each
+ * node along its path; any path is read backwards from its target, taking
+ * time linear in its length.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class ShortestPathTree
+{
+	/**
+	 * The source node id
+	 * @since 1.2.0
+	 */
+	private final int source;
+	/**
+	 * The distance of each node from source
+	 * @since 1.2.0
+	 */
+	private final double[] distances;
+	/**
+	 * The predecessor of each node along its path, {@code -1} for source
+	 * and unreachable nodes
+	 * @since 1.2.0
+	 */
+	private final int[] predecessors;
+
+	/**
+	 * The {@code ShortestPathTree(int, double[], int[])} constructor
+	 * creates the tree of given paths.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The source node id
+	 * @param distances The distance of each node from source,
+	 * {@code Double.POSITIVE_INFINITY} for unreachable nodes
+	 * @param predecessors The predecessor of each node along its path,
+	 * {@code -1} for source and unreachable nodes
+	 */
+	ShortestPathTree(int source, double[] distances, int[] predecessors)
+	{
+		this.source = source;
+		this.distances = distances;
+		this.predecessors = predecessors;
+	}
+
+	/**
+	 * The {@code source()} method returns the source of paths.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The source node id
+	 */
+	public int source()
+	{
+		return this.source;
+	}
+
+	/**
+	 * The {@code hasPath(int)} method tells whether given node is reachable
+	 * from source.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param target The target node id
+	 * @return {@code true} if there's a path to target, {@code false}
+	 * otherwise
+	 */
+	public boolean hasPath(int target)
+	{
+		return this.distances[target] != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * The {@code distance(int)} method returns the distance of given node
+	 * from source.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param target The target node id
+	 * @return The distance, {@code Double.POSITIVE_INFINITY} for
+	 * unreachable nodes
+	 */
+	public double distance(int target)
+	{
+		return this.distances[target];
+	}
+
+	/**
+	 * The {@code predecessor(int)} method returns the node preceding given
+	 * one along its path.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param target The target node id
+	 * @return The predecessor id, {@code -1} for source and unreachable
+	 * nodes
+	 */
+	public int predecessor(int target)
+	{
+		return this.predecessors[target];
+	}
+
+	/**
+	 * The {@code length(int)} method returns the number of edges of the
+	 * path to given node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param target The target node id
+	 * @return The number of path edges, {@code -1} if there's no path
+	 */
+	public int length(int target)
+	{
+		if (!this.hasPath(target))
+		{
+			return -1;
+		}
+
+		int length = 0;
+		for (int v = target; v != this.source; v = this.predecessors[v])
+		{
+			length++;
+		}
+
+		return length;
+	}
+
+	/**
+	 * The {@code path(int)} method returns the path to given node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param target The target node id
+	 * @return The ids of path nodes, from source to target ({@code null} if
+	 * there's no path)
+	 */
+	public int[] path(int target)
+	{
+		final int length = this.length(target);
+		if (length < 0)
+		{
+			return null;
+		}
+
+		int[] path = new int[length + 1];
+		for (int v = target, i = length; i >= 0; v = this.predecessors[v], i--)
+		{
+			path[i] = v;
+		}
+
+		return path;
+	}
+}
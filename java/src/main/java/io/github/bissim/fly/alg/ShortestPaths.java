@@ -0,0 +1,481 @@
+package io.github.bissim.fly.alg;
+
+import java.util.function.IntToDoubleFunction;
+
+import io.github.bissim.fly.util.CSRGraph;
+
+/**
+ * {@code ShortestPaths} computes single-source shortest paths over a
+ * {@link CSRGraph}: a breadth-first search is run for unweighted graphs,
+ * Dijkstra's algorithm for weighted ones.
+ * <br>
+ * Paths between two nodes are searched from both ends at once, expanding
+ * the side with the smaller frontier (a whole level, for unweighted graphs)
+ * or the closer heap top, until the sides meet along a path no longer than
+ * any other one could be: both searches settle nodes up to about half the
+ * path distance only, so that far fewer nodes are visited than searching
+ * from source alone. When an estimate of the distance to target is known,
+ * like the straight-line one between coordinates, an A* search guided by
+ * it can be run instead.
+ * <br>
+ * Searches run on workspaces of each thread, holding the heap, the queue
+ * and the distances and predecessors of nodes, which are reused by every
+ * search of the thread on graphs up to their size: nodes are marked as
+ * reached by the search stamp, so that no array is cleared between
+ * searches, and a search allocates just its result. Edge weights must not
+ * be negative.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class ShortestPaths
+{
+	/**
+	 * The workspace of searches of each thread
+	 * @since 1.2.0
+	 */
+	private static final ThreadLocal<SearchWorkspace> WORKSPACES =
+			new ThreadLocal<>();
+	/**
+	 * The workspace of backward searches of each thread
+	 * @since 1.2.0
+	 */
+	private static final ThreadLocal<SearchWorkspace> BACKWARD_WORKSPACES =
+			new ThreadLocal<>();
+
+	/**
+	 * The graph to search paths in
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+
+	/**
+	 * The {@code ShortestPaths(CSRGraph)} constructor creates a shortest
+	 * path finder for given graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to search paths in
+	 * @throws IllegalArgumentException Any edge weight is negative
+	 */
+	public ShortestPaths(CSRGraph<?> graph)
+	{
+		if (graph.hasNegativeWeights())
+		{
+			throw new IllegalArgumentException(
+					"Negative edge weight not allowed"
+			);
+		}
+		this.graph = graph;
+	}
+
+	/**
+	 * The {@code distances(int)} method computes the distance of every node
+	 * from given source.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @return The distances indexed by node id,
+	 * {@code Double.POSITIVE_INFINITY} for unreachable nodes
+	 */
+	public double[] distances(int source)
+	{
+		return this.distances(source, new double[this.graph.numNodes()]);
+	}
+
+	/**
+	 * The {@code distances(int, double[])} method computes the distance of
+	 * every node from given source into given array.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param distances The array to fill, as long as graph number of nodes
+	 * @return The distances indexed by node id,
+	 * {@code Double.POSITIVE_INFINITY} for unreachable nodes
+	 */
+	public double[] distances(int source, double[] distances)
+	{
+		SearchWorkspace workspace = this.search(source, -1, null);
+		for (int v = 0; v < distances.length; v++)
+		{
+			distances[v] = workspace.distance(v);
+		}
+
+		return distances;
+	}
+
+	/**
+	 * The {@code path(int, int)} method finds a shortest path from given
+	 * source to given target, searching from both of them until the two
+	 * searches meet.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param target The id of target node
+	 * @return The ids of path nodes, from source to target ({@code null} if
+	 * there's no path)
+	 */
+	public int[] path(int source, int target)
+	{
+		if (source == target)
+		{
+			return new int[] {source};
+		}
+
+		final int n = this.graph.numNodes();
+		SearchWorkspace forward = SearchWorkspace.of(WORKSPACES, n);
+		SearchWorkspace backward = SearchWorkspace.of(BACKWARD_WORKSPACES, n);
+		forward.reset();
+		backward.reset();
+		forward.reach(source, 0.0, -1);
+		backward.reach(target, 0.0, -1);
+		final int meeting = this.graph.isWeighted() ?
+				this.meetByDijkstra(forward, backward, source, target) :
+				this.meetByBreadth(forward, backward, source, target);
+		if (meeting < 0)
+		{
+			return null;
+		}
+
+		int head = 0;
+		for (int v = meeting; v != source; v = forward.predecessors[v])
+		{
+			head++;
+		}
+		int tail = 0;
+		for (int v = meeting; v != target; v = backward.predecessors[v])
+		{
+			tail++;
+		}
+		int[] path = new int[head + tail + 1];
+		for (int v = meeting, i = head; i >= 0; v = forward.predecessors[v], i--)
+		{
+			path[i] = v;
+		}
+		for (int v = meeting, i = head; i < path.length; v = backward.predecessors[v], i++)
+		{
+			path[i] = v;
+		}
+
+		return path;
+	}
+
+	/**
+	 * The {@code path(int, int, IntToDoubleFunction)} method finds a
+	 * shortest path from given source to given target by an A* search,
+	 * guided by given estimate of the distance from each node to target.
+	 * <br>
+	 * The estimate must never exceed the actual distance, nor the weight of
+	 * an edge plus the estimate from its target, otherwise paths found may
+	 * not be the shortest ones; a zero estimate makes the search the same as
+	 * Dijkstra's one.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param target The id of target node
+	 * @param heuristic The estimate of distance from each node id to target
+	 * @return The ids of path nodes, from source to target ({@code null} if
+	 * there's no path)
+	 */
+	public int[] path(int source, int target, IntToDoubleFunction heuristic)
+	{
+		SearchWorkspace workspace = this.search(source, target, heuristic);
+		if (!workspace.isReached(target))
+		{
+			return null;
+		}
+
+		int length = 0;
+		for (int v = target; v != source; v = workspace.predecessors[v])
+		{
+			length++;
+		}
+		int[] path = new int[length + 1];
+		for (int v = target, i = length; i >= 0; v = workspace.predecessors[v], i--)
+		{
+			path[i] = v;
+		}
+
+		return path;
+	}
+
+	/**
+	 * The {@code tree(int)} method computes the shortest paths from given
+	 * source to every node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @return The tree of shortest paths from source
+	 */
+	public ShortestPathTree tree(int source)
+	{
+		final int n = this.graph.numNodes();
+		SearchWorkspace workspace = this.search(source, -1, null);
+		double[] distances = new double[n];
+		int[] predecessors = new int[n];
+		for (int v = 0; v < n; v++)
+		{
+			distances[v] = workspace.distance(v);
+			predecessors[v] = workspace.isReached(v) ?
+					workspace.predecessors[v] :
+					-1;
+		}
+
+		return new ShortestPathTree(source, distances, predecessors);
+	}
+
+	/**
+	 * The {@code search(int, int, IntToDoubleFunction)} helper method runs a
+	 * search from given source on the workspace of current thread, stopping
+	 * as soon as given target is settled; nodes are settled by their
+	 * distance plus given estimate, if any.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of source node
+	 * @param target The id of target node, {@code -1} to reach every node
+	 * @param heuristic The estimate of distance from each node id to target,
+	 * {@code null} for none
+	 * @return The workspace holding distances and predecessors of reached
+	 * nodes
+	 */
+	private SearchWorkspace search(
+			int source,
+			int target,
+			IntToDoubleFunction heuristic
+	)
+	{
+		SearchWorkspace workspace =
+				SearchWorkspace.of(WORKSPACES, this.graph.numNodes());
+		workspace.reset();
+		workspace.reach(source, 0.0, -1);
+		if (source == target)
+		{
+			return workspace;
+		}
+
+		final int[] offsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		final double[] weights = this.graph.outWeights();
+		final double[] distances = workspace.distances;
+		if (weights == null && heuristic == null)
+		{
+			final int[] queue = workspace.queue;
+			int head = 0, tail = 0;
+			queue[tail++] = source;
+			while (head < tail)
+			{
+				final int u = queue[head++];
+				final double next = distances[u] + 1.0;
+				for (int i = offsets[u]; i < offsets[u + 1]; i++)
+				{
+					final int v = targets[i];
+					if (!workspace.isReached(v))
+					{
+						workspace.reach(v, next, u);
+						if (v == target)
+						{
+							return workspace;
+						}
+						queue[tail++] = v;
+					}
+				}
+			}
+		}
+		else
+		{
+			final IndexedDoubleHeap heap = workspace.heap;
+			heap.insertOrDecrease(source, 0.0);
+			while (!heap.isEmpty())
+			{
+				final int u = heap.poll();
+				workspace.settle(u);
+				if (u == target)
+				{
+					return workspace;
+				}
+				for (int i = offsets[u]; i < offsets[u + 1]; i++)
+				{
+					final int v = targets[i];
+					final double candidate = distances[u] +
+							(weights == null ? 1.0 : weights[i]);
+					if (!workspace.isReached(v) ||
+							!workspace.isSettled(v) &&
+							candidate < distances[v])
+					{
+						workspace.reach(v, candidate, u);
+						heap.insertOrDecrease(
+								v,
+								heuristic == null ?
+										candidate :
+										candidate + heuristic.applyAsDouble(v)
+						);
+					}
+				}
+			}
+		}
+
+		return workspace;
+	}
+
+	/**
+	 * The {@code meetByBreadth(SearchWorkspace, SearchWorkspace, int, int)}
+	 * helper method runs breadth-first searches from given source and
+	 * backwards from given target, a level of the smaller frontier at a
+	 * time, until they meet.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param forward The workspace of search from source
+	 * @param backward The workspace of search from target
+	 * @param source The id of source node
+	 * @param target The id of target node
+	 * @return The id of the node searches met at along a shortest path,
+	 * {@code -1} if there's no path
+	 */
+	private int meetByBreadth(
+			SearchWorkspace forward,
+			SearchWorkspace backward,
+			int source,
+			int target
+	)
+	{
+		int forwardHead = 0, forwardTail = 0;
+		int backwardHead = 0, backwardTail = 0;
+		forward.queue[forwardTail++] = source;
+		backward.queue[backwardTail++] = target;
+		while (forwardHead < forwardTail && backwardHead < backwardTail)
+		{
+			final boolean isForward =
+					forwardTail - forwardHead <= backwardTail - backwardHead;
+			final SearchWorkspace side = isForward ? forward : backward;
+			final SearchWorkspace other = isForward ? backward : forward;
+			final int[] offsets = isForward ?
+					this.graph.outOffsets() :
+					this.graph.inOffsets();
+			final int[] adjacencies = isForward ?
+					this.graph.outTargets() :
+					this.graph.inSources();
+			final int[] queue = side.queue;
+			final int end = isForward ? forwardTail : backwardTail;
+			int tail = end;
+
+			// the whole level is expanded, as the first meeting found may
+			// not be along a shortest path
+			int meeting = -1;
+			double best = Double.POSITIVE_INFINITY;
+			for (int head = isForward ? forwardHead : backwardHead; head < end; head++)
+			{
+				final int u = queue[head];
+				final double next = side.distances[u] + 1.0;
+				for (int i = offsets[u]; i < offsets[u + 1]; i++)
+				{
+					final int v = adjacencies[i];
+					if (!side.isReached(v))
+					{
+						side.reach(v, next, u);
+						queue[tail++] = v;
+					}
+					if (other.isReached(v) &&
+							side.distances[v] + other.distances[v] < best)
+					{
+						best = side.distances[v] + other.distances[v];
+						meeting = v;
+					}
+				}
+			}
+			if (meeting >= 0)
+			{
+				return meeting;
+			}
+			if (isForward)
+			{
+				forwardHead = end;
+				forwardTail = tail;
+			}
+			else
+			{
+				backwardHead = end;
+				backwardTail = tail;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * The {@code meetByDijkstra(SearchWorkspace, SearchWorkspace, int,
+	 * int)} helper method runs Dijkstra's searches from given source and
+	 * backwards from given target, settling a node of the side with the
+	 * closer heap top at a time, until no path through nodes still to
+	 * settle can be shorter than the shortest one found through nodes
+	 * reached by both sides.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param forward The workspace of search from source
+	 * @param backward The workspace of search from target
+	 * @param source The id of source node
+	 * @param target The id of target node
+	 * @return The id of the node searches met at along a shortest path,
+	 * {@code -1} if there's no path
+	 */
+	private int meetByDijkstra(
+			SearchWorkspace forward,
+			SearchWorkspace backward,
+			int source,
+			int target
+	)
+	{
+		forward.heap.insertOrDecrease(source, 0.0);
+		backward.heap.insertOrDecrease(target, 0.0);
+		int meeting = -1;
+		double best = Double.POSITIVE_INFINITY;
+		while (!forward.heap.isEmpty() && !backward.heap.isEmpty() &&
+				forward.heap.minKey() + backward.heap.minKey() < best)
+		{
+			final boolean isForward =
+					forward.heap.minKey() <= backward.heap.minKey();
+			final SearchWorkspace side = isForward ? forward : backward;
+			final SearchWorkspace other = isForward ? backward : forward;
+			final int[] offsets = isForward ?
+					this.graph.outOffsets() :
+					this.graph.inOffsets();
+			final int[] adjacencies = isForward ?
+					this.graph.outTargets() :
+					this.graph.inSources();
+			final double[] weights = isForward ?
+					this.graph.outWeights() :
+					this.graph.inWeights();
+			final double[] distances = side.distances;
+
+			final int u = side.heap.poll();
+			side.settle(u);
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				final int v = adjacencies[i];
+				final double candidate = distances[u] + weights[i];
+				if (!side.isReached(v) ||
+						!side.isSettled(v) &&
+						candidate < distances[v])
+				{
+					side.reach(v, candidate, u);
+					side.heap.insertOrDecrease(v, candidate);
+				}
+				if (other.isReached(v) &&
+						distances[v] + other.distances[v] < best)
+				{
+					best = distances[v] + other.distances[v];
+					meeting = v;
+				}
+			}
+		}
+
+		return meeting;
+	}
+}
@@ -0,0 +1,762 @@
+package io.github.bissim.fly.alg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code StronglyConnectedComponents} labels the strongly connected
+ * components of a directed {@link CSRGraph} and builds their condensation,
+ * i.e. the DAG which has a node per component and an edge between two
+ * components whenever an edge joins their nodes.
+ * <br>
+ * Graphs are labelled by an iterative version of Tarjan's algorithm, as
+ * long as they are smaller than {@value #PARALLEL_THRESHOLD} nodes or a
+ * single thread is allowed; larger graphs are labelled in parallel by the
+ * forward-backward algorithm: nodes having no incoming or no outgoing edge
+ * are trimmed away as single components, then each partition of nodes is
+ * split by the nodes reached forwards and backwards from a pivot, which
+ * both reach is a component, and partitions are split in parallel until
+ * they are small enough to be labelled by Tarjan's algorithm.
+ * <br>
+ * Either way, components are numbered in the same topological order of
+ * condensation, and their nodes are listed in ascending id order.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class StronglyConnectedComponents
+{
+	/**
+	 * The minimum number of nodes graphs are labelled in parallel from
+	 * @since 1.2.0
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 15;
+	/**
+	 * The maximum number of nodes a partition is labelled by Tarjan's
+	 * algorithm at
+	 * @since 1.2.0
+	 */
+	private static final int SMALL_PARTITION = 1 << 10;
+
+	/**
+	 * The labelled graph
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<?> graph;
+	/**
+	 * The component of each node
+	 * @since 1.2.0
+	 */
+	private final int[] components;
+	/**
+	 * The position of the first node of each component within nodes,
+	 * followed by the number of nodes
+	 * @since 1.2.0
+	 */
+	private final int[] offsets;
+	/**
+	 * The nodes grouped by component
+	 * @since 1.2.0
+	 */
+	private final int[] nodes;
+	/**
+	 * The condensation of graph
+	 * @since 1.2.0
+	 */
+	private final CSRGraph<Integer> condensation;
+
+	/**
+	 * The {@code StronglyConnectedComponents(CSRGraph)} constructor labels
+	 * the components of given graph, using as many threads as available
+	 * processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to label
+	 * @throws IllegalArgumentException The graph is undirected
+	 */
+	public StronglyConnectedComponents(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code StronglyConnectedComponents(CSRGraph, int)} constructor
+	 * labels the components of given graph, using up to given number of
+	 * threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to label
+	 * @param parallelism The maximum number of threads labelling graph
+	 * @throws IllegalArgumentException The graph is undirected or the
+	 * parallelism is not positive
+	 */
+	public StronglyConnectedComponents(CSRGraph<?> graph, int parallelism)
+	{
+		if (!graph.isDirected())
+		{
+			throw new IllegalArgumentException("graph must be directed");
+		}
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.graph = graph;
+		final int n = graph.numNodes();
+		int[] labels = new int[n];
+		AtomicInteger count = new AtomicInteger();
+		if (parallelism == 1 || n < PARALLEL_THRESHOLD)
+		{
+			int[] all = new int[n];
+			for (int u = 0; u < n; u++)
+			{
+				all[u] = u;
+			}
+			new Partition(all, 0).tarjan(new int[n], new int[n], labels, count);
+		}
+		else
+		{
+			this.forwardBackward(parallelism, labels, count);
+		}
+
+		this.components = new int[n];
+		this.condensation = this.condense(labels, count.get());
+		final int k = this.condensation.numNodes();
+		this.offsets = new int[k + 1];
+		for (int u = 0; u < n; u++)
+		{
+			this.offsets[this.components[u] + 1]++;
+		}
+		for (int c = 0; c < k; c++)
+		{
+			this.offsets[c + 1] += this.offsets[c];
+		}
+		this.nodes = new int[n];
+		int[] next = Arrays.copyOf(this.offsets, k);
+		for (int u = 0; u < n; u++)
+		{
+			this.nodes[next[this.components[u]]++] = u;
+		}
+	}
+
+	/**
+	 * The {@code count()} method returns the number of components.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of components
+	 */
+	public int count()
+	{
+		return this.offsets.length - 1;
+	}
+
+	/**
+	 * The {@code componentOf(int)} method returns the component given node
+	 * belongs to.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The node id
+	 * @return The component index
+	 */
+	public int componentOf(int u)
+	{
+		return this.components[u];
+	}
+
+	/**
+	 * The {@code components()} method returns the component of every node;
+	 * the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The component indexes by node id
+	 */
+	public int[] components()
+	{
+		return this.components;
+	}
+
+	/**
+	 * The {@code size(int)} method returns the number of nodes of given
+	 * component.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param c The component index
+	 * @return The number of component nodes
+	 */
+	public int size(int c)
+	{
+		return this.offsets[c + 1] - this.offsets[c];
+	}
+
+	/**
+	 * The {@code nodes(int)} method returns the nodes of given component.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param c The component index
+	 * @return The ids of component nodes, in ascending order
+	 */
+	public int[] nodes(int c)
+	{
+		return Arrays.copyOfRange(this.nodes, this.offsets[c], this.offsets[c + 1]);
+	}
+
+	/**
+	 * The {@code condensation()} method returns the condensation of graph,
+	 * which node {@code c} is labelled by and stands for component
+	 * {@code c}; component indexes are in topological order, and the edges
+	 * leaving each component are sorted by target.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The condensation DAG
+	 */
+	public CSRGraph<Integer> condensation()
+	{
+		return this.condensation;
+	}
+
+	/**
+	 * The {@code forwardBackward(int, int[], AtomicInteger)} helper method
+	 * labels graph by trimming it and splitting partitions in parallel.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parallelism The maximum number of threads labelling graph
+	 * @param labels The raw component of each node, to fill
+	 * @param count The number of raw components, to increase
+	 */
+	private void forwardBackward(
+			int parallelism,
+			int[] labels,
+			AtomicInteger count
+	)
+	{
+		final int n = this.graph.numNodes();
+		final int[] outOffsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		final int[] inOffsets = this.graph.inOffsets();
+		final int[] sources = this.graph.inSources();
+		AtomicIntegerArray inDegrees = new AtomicIntegerArray(n);
+		AtomicIntegerArray outDegrees = new AtomicIntegerArray(n);
+		AtomicIntegerArray trimmed = new AtomicIntegerArray(n);
+		// a node is a candidate once per degree reaching zero, at most
+		int[] candidates = new int[2 * n];
+		AtomicInteger numCandidates = new AtomicInteger();
+		ParallelTasks.forEach(parallelism, n, u -> {
+			inDegrees.set(u, inOffsets[u + 1] - inOffsets[u]);
+			outDegrees.set(u, outOffsets[u + 1] - outOffsets[u]);
+			if (inDegrees.get(u) == 0 || outDegrees.get(u) == 0)
+			{
+				candidates[numCandidates.getAndIncrement()] = u;
+			}
+		});
+
+		// trim nodes with no incoming or outgoing edge, round by round
+		int[] round = new int[2 * n];
+		while (numCandidates.get() > 0)
+		{
+			final int size = numCandidates.getAndSet(0);
+			System.arraycopy(candidates, 0, round, 0, size);
+			final int[] current = round;
+			ParallelTasks.forEach(parallelism, size, k -> {
+				final int u = current[k];
+				if (!trimmed.compareAndSet(u, 0, 1))
+				{
+					return;
+				}
+				labels[u] = count.getAndIncrement();
+				for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++)
+				{
+					final int v = targets[i];
+					if (inDegrees.decrementAndGet(v) == 0 && trimmed.get(v) == 0)
+					{
+						candidates[numCandidates.getAndIncrement()] = v;
+					}
+				}
+				for (int i = inOffsets[u]; i < inOffsets[u + 1]; i++)
+				{
+					final int v = sources[i];
+					if (outDegrees.decrementAndGet(v) == 0 && trimmed.get(v) == 0)
+					{
+						candidates[numCandidates.getAndIncrement()] = v;
+					}
+				}
+			});
+		}
+
+		// nodes of a partition share its color, which no other one has,
+		// while trimmed nodes are left uncolored
+		int numActive = 0;
+		int[] active = new int[n];
+		int[] colors = new int[n];
+		for (int u = 0; u < n; u++)
+		{
+			if (trimmed.get(u) == 0)
+			{
+				active[numActive++] = u;
+				colors[u] = 1;
+			}
+		}
+		int[] positions = new int[n];
+		AtomicInteger numColors = new AtomicInteger(2);
+		List<Partition> partitions = new ArrayList<>();
+		if (numActive > 0)
+		{
+			partitions.add(new Partition(Arrays.copyOf(active, numActive), 1));
+		}
+		while (!partitions.isEmpty())
+		{
+			final List<Partition> current = partitions;
+			Partition[][] splits = new Partition[current.size()][];
+			ParallelTasks.forEach(parallelism, current.size(), p -> {
+				Partition partition = current.get(p);
+				if (partition.nodes.length <= SMALL_PARTITION)
+				{
+					partition.tarjan(colors, positions, labels, count);
+					splits[p] = new Partition[0];
+				}
+				else
+				{
+					splits[p] = partition.split(colors, numColors, labels, count);
+				}
+			});
+
+			partitions = new ArrayList<>();
+			for (Partition[] split : splits)
+			{
+				for (Partition partition : split)
+				{
+					if (partition.nodes.length > 0)
+					{
+						partitions.add(partition);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@code condense(int[], int)} helper method numbers components in
+	 * topological order and builds the condensation of graph: raw
+	 * components are first sorted by their lowest node, then their DAG is
+	 * sorted by Kahn's algorithm, so that numbering doesn't depend on how
+	 * components have been found.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param labels The raw component of each node
+	 * @param k The number of components
+	 * @return The condensation DAG
+	 */
+	private CSRGraph<Integer> condense(int[] labels, int k)
+	{
+		final int n = this.graph.numNodes();
+		final int[] outOffsets = this.graph.outOffsets();
+		final int[] targets = this.graph.outTargets();
+		// number raw components by their lowest node
+		int[] byLowest = new int[k];
+		Arrays.fill(byLowest, -1);
+		int numbered = 0;
+		for (int u = 0; u < n; u++)
+		{
+			if (byLowest[labels[u]] < 0)
+			{
+				byLowest[labels[u]] = numbered++;
+			}
+		}
+		int[] lowest = new int[n];
+		for (int u = 0; u < n; u++)
+		{
+			lowest[u] = byLowest[labels[u]];
+		}
+
+		// edges between components, grouped by source and deduplicated
+		int[] memberOffsets = new int[k + 1];
+		for (int u = 0; u < n; u++)
+		{
+			memberOffsets[lowest[u] + 1]++;
+		}
+		for (int c = 0; c < k; c++)
+		{
+			memberOffsets[c + 1] += memberOffsets[c];
+		}
+		int[] members = new int[n];
+		int[] next = Arrays.copyOf(memberOffsets, k);
+		for (int u = 0; u < n; u++)
+		{
+			members[next[lowest[u]]++] = u;
+		}
+		int[] edgeOffsets = new int[k + 1];
+		int[] edgeTargets = new int[this.graph.numEdges()];
+		int[] seen = new int[k];
+		Arrays.fill(seen, -1);
+		int numEdges = 0;
+		for (int c = 0; c < k; c++)
+		{
+			for (int j = memberOffsets[c]; j < memberOffsets[c + 1]; j++)
+			{
+				final int u = members[j];
+				for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++)
+				{
+					final int d = lowest[targets[i]];
+					if (d != c && seen[d] != c)
+					{
+						seen[d] = c;
+						edgeTargets[numEdges++] = d;
+					}
+				}
+			}
+			edgeOffsets[c + 1] = numEdges;
+		}
+
+		// Kahn's algorithm, starting from sources by lowest node
+		int[] inDegrees = new int[k];
+		for (int e = 0; e < numEdges; e++)
+		{
+			inDegrees[edgeTargets[e]]++;
+		}
+		int[] order = new int[k];
+		int head = 0, tail = 0;
+		for (int c = 0; c < k; c++)
+		{
+			if (inDegrees[c] == 0)
+			{
+				order[tail++] = c;
+			}
+		}
+		while (head < tail)
+		{
+			final int c = order[head++];
+			for (int e = edgeOffsets[c]; e < edgeOffsets[c + 1]; e++)
+			{
+				if (--inDegrees[edgeTargets[e]] == 0)
+				{
+					order[tail++] = edgeTargets[e];
+				}
+			}
+		}
+		int[] ranks = new int[k];
+		for (int r = 0; r < k; r++)
+		{
+			ranks[order[r]] = r;
+		}
+		for (int u = 0; u < n; u++)
+		{
+			this.components[u] = ranks[lowest[u]];
+		}
+
+		CSRGraph.Builder<Integer> builder =
+				new CSRGraph.Builder<>(true, false, k, numEdges);
+		for (int c = 0; c < k; c++)
+		{
+			builder.addNode(c);
+		}
+		int[] successors = new int[k];
+		for (int r = 0; r < k; r++)
+		{
+			final int c = order[r];
+			int size = 0;
+			for (int e = edgeOffsets[c]; e < edgeOffsets[c + 1]; e++)
+			{
+				successors[size++] = ranks[edgeTargets[e]];
+			}
+			Arrays.sort(successors, 0, size);
+			for (int j = 0; j < size; j++)
+			{
+				builder.addEdge(r, successors[j], CSRGraph.DEFAULT_EDGE_WEIGHT);
+			}
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * {@code Partition} is a set of nodes holding whole components, whose
+	 * nodes share a color no other partition has.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private final class Partition
+	{
+		/**
+		 * The nodes of partition
+		 * @since 1.2.0
+		 */
+		private final int[] nodes;
+		/**
+		 * The color of partition nodes
+		 * @since 1.2.0
+		 */
+		private final int color;
+
+		/**
+		 * The {@code Partition(int[], int)} constructor creates the
+		 * partition of given nodes, which are given color.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param nodes The nodes of partition
+		 * @param color The color of partition nodes
+		 */
+		private Partition(int[] nodes, int color)
+		{
+			this.nodes = nodes;
+			this.color = color;
+		}
+
+		/**
+		 * The {@code split(int[], AtomicInteger, int[], AtomicInteger)}
+		 * method labels the component of the first node, then splits the
+		 * rest of partition into the nodes reached only forwards, only
+		 * backwards or neither.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param colors The color of each node
+		 * @param numColors The number of colors in use
+		 * @param labels The raw component of each node, to fill
+		 * @param count The number of raw components, to increase
+		 * @return The partitions the rest is split into
+		 */
+		private Partition[] split(
+				int[] colors,
+				AtomicInteger numColors,
+				int[] labels,
+				AtomicInteger count
+		)
+		{
+			final int forward = numColors.getAndAdd(3);
+			final int backward = forward + 1;
+			final int component = forward + 2;
+			final int pivot = this.nodes[0];
+			int[] queue = new int[this.nodes.length];
+
+			this.reach(
+					pivot,
+					StronglyConnectedComponents.this.graph.outOffsets(),
+					StronglyConnectedComponents.this.graph.outTargets(),
+					colors,
+					this.color,
+					forward,
+					queue
+			);
+			// the component is the set of forward nodes reached backwards
+			final int label = count.getAndIncrement();
+			colors[pivot] = component;
+			labels[pivot] = label;
+			int head = 0, tail = 0;
+			queue[tail++] = pivot;
+			final int[] inOffsets = StronglyConnectedComponents.this.graph.inOffsets();
+			final int[] sources = StronglyConnectedComponents.this.graph.inSources();
+			while (head < tail)
+			{
+				final int u = queue[head++];
+				for (int i = inOffsets[u]; i < inOffsets[u + 1]; i++)
+				{
+					final int v = sources[i];
+					if (colors[v] == forward)
+					{
+						colors[v] = component;
+						labels[v] = label;
+						queue[tail++] = v;
+					}
+					else if (colors[v] == this.color)
+					{
+						colors[v] = backward;
+						queue[tail++] = v;
+					}
+				}
+			}
+
+			int[] sizes = new int[3];
+			for (int u : this.nodes)
+			{
+				if (colors[u] == forward)
+				{
+					sizes[0]++;
+				}
+				else if (colors[u] == backward)
+				{
+					sizes[1]++;
+				}
+				else if (colors[u] == this.color)
+				{
+					sizes[2]++;
+				}
+			}
+			int[][] parts = {new int[sizes[0]], new int[sizes[1]], new int[sizes[2]]};
+			Arrays.fill(sizes, 0);
+			for (int u : this.nodes)
+			{
+				int part = colors[u] == forward ? 0 :
+						colors[u] == backward ? 1 :
+						colors[u] == this.color ? 2 : -1;
+				if (part >= 0)
+				{
+					parts[part][sizes[part]++] = u;
+				}
+			}
+
+			return new Partition[] {
+				new Partition(parts[0], forward),
+				new Partition(parts[1], backward),
+				new Partition(parts[2], this.color)
+			};
+		}
+
+		/**
+		 * The {@code reach(int, int[], int[], int[], int, int, int[])}
+		 * helper method recolors the nodes of given color reached from given
+		 * node along given adjacencies.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param root The node visit starts from
+		 * @param offsets The adjacency offsets of nodes
+		 * @param adjacencies The adjacent nodes
+		 * @param colors The color of each node
+		 * @param from The color of nodes to visit
+		 * @param to The color of visited nodes
+		 * @param queue The queue of visit
+		 */
+		private void reach(
+				int root,
+				int[] offsets,
+				int[] adjacencies,
+				int[] colors,
+				int from,
+				int to,
+				int[] queue
+		)
+		{
+			int head = 0, tail = 0;
+			colors[root] = to;
+			queue[tail++] = root;
+			while (head < tail)
+			{
+				final int u = queue[head++];
+				for (int i = offsets[u]; i < offsets[u + 1]; i++)
+				{
+					final int v = adjacencies[i];
+					if (colors[v] == from)
+					{
+						colors[v] = to;
+						queue[tail++] = v;
+					}
+				}
+			}
+		}
+
+		/**
+		 * The {@code tarjan(int[], int[], int[], AtomicInteger)} method
+		 * labels the components of partition by an iterative version of
+		 * Tarjan's algorithm, following edges between partition nodes only.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param colors The color of each node
+		 * @param positions The position of each node within its partition
+		 * @param labels The raw component of each node, to fill
+		 * @param count The number of raw components, to increase
+		 */
+		private void tarjan(
+				int[] colors,
+				int[] positions,
+				int[] labels,
+				AtomicInteger count
+		)
+		{
+			final int[] offsets = StronglyConnectedComponents.this.graph.outOffsets();
+			final int[] targets = StronglyConnectedComponents.this.graph.outTargets();
+			final int size = this.nodes.length;
+			for (int k = 0; k < size; k++)
+			{
+				positions[this.nodes[k]] = k;
+			}
+			// visit state is indexed by position within partition
+			int[] indexes = new int[size];
+			int[] lows = new int[size];
+			int[] cursors = new int[size];
+			boolean[] onStack = new boolean[size];
+			int[] stack = new int[size];
+			int[] calls = new int[size];
+			Arrays.fill(indexes, -1);
+			int visited = 0, top = 0;
+
+			for (int root = 0; root < size; root++)
+			{
+				if (indexes[root] >= 0)
+				{
+					continue;
+				}
+				int depth = 0;
+				calls[depth++] = root;
+				indexes[root] = lows[root] = visited++;
+				cursors[root] = offsets[this.nodes[root]];
+				stack[top++] = root;
+				onStack[root] = true;
+				while (depth > 0)
+				{
+					final int x = calls[depth - 1];
+					final int u = this.nodes[x];
+					if (cursors[x] < offsets[u + 1])
+					{
+						final int v = targets[cursors[x]++];
+						if (colors[v] != this.color)
+						{
+							continue;
+						}
+						final int y = positions[v];
+						if (indexes[y] < 0)
+						{
+							indexes[y] = lows[y] = visited++;
+							cursors[y] = offsets[v];
+							stack[top++] = y;
+							onStack[y] = true;
+							calls[depth++] = y;
+						}
+						else if (onStack[y])
+						{
+							lows[x] = Math.min(lows[x], indexes[y]);
+						}
+						continue;
+					}
+
+					depth--;
+					if (depth > 0)
+					{
+						final int parent = calls[depth - 1];
+						lows[parent] = Math.min(lows[parent], lows[x]);
+					}
+					if (lows[x] == indexes[x])
+					{
+						final int label = count.getAndIncrement();
+						int y;
+						do
+						{
+							y = stack[--top];
+							onStack[y] = false;
+							labels[this.nodes[y]] = label;
+						}
+						while (y != x);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,313 @@
+package io.github.bissim.fly.alg;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.ParallelTasks;
+
+/**
+ * {@code TopologicalOrder} sorts a directed {@link CSRGraph} topologically
+ * by a level-synchronous version of Kahn's algorithm, which tells at once
+ * whether graph is acyclic and finds a cycle otherwise.
+ * <br>
+ * Sources make up level {@code 0}, then the nodes which every predecessor
+ * of is in lower levels make up the next level, i.e. the level of a node is
+ * the length of the longest path ending at it; levels larger than
+ * {@value #PARALLEL_LEVEL} nodes are expanded in parallel, decrementing
+ * in-degrees atomically. Nodes are ordered level by level, in ascending id
+ * order within each level, so that order doesn't depend on parallelism.
+ * <br>
+ * Nodes left unordered are on or after a cycle: each of them has an
+ * unordered predecessor, so that following predecessors from any of them
+ * leads to a cycle.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class TopologicalOrder
+{
+	/**
+	 * The minimum number of nodes a level is expanded in parallel from
+	 * @since 1.2.0
+	 */
+	public static final int PARALLEL_LEVEL = 1 << 12;
+
+	/**
+	 * The level of each node, {@code -1} for unordered ones
+	 * @since 1.2.0
+	 */
+	private final int[] levels;
+	/**
+	 * The position of the first node of each level within order, followed
+	 * by the number of ordered nodes
+	 * @since 1.2.0
+	 */
+	private final int[] offsets;
+	/**
+	 * The ordered nodes, level by level
+	 * @since 1.2.0
+	 */
+	private final int[] order;
+	/**
+	 * The nodes of a cycle, {@code null} if graph is acyclic
+	 * @since 1.2.0
+	 */
+	private final int[] cycle;
+
+	/**
+	 * The {@code TopologicalOrder(CSRGraph)} constructor sorts given graph,
+	 * using as many threads as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to sort
+	 * @throws IllegalArgumentException The graph is undirected
+	 */
+	public TopologicalOrder(CSRGraph<?> graph)
+	{
+		this(graph, ParallelTasks.defaultParallelism());
+	}
+
+	/**
+	 * The {@code TopologicalOrder(CSRGraph, int)} constructor sorts given
+	 * graph, using up to given number of threads.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to sort
+	 * @param parallelism The maximum number of threads expanding levels
+	 * @throws IllegalArgumentException The graph is undirected or the
+	 * parallelism is not positive
+	 */
+	public TopologicalOrder(CSRGraph<?> graph, int parallelism)
+	{
+		if (!graph.isDirected())
+		{
+			throw new IllegalArgumentException("graph must be directed");
+		}
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		final int n = graph.numNodes();
+		final int[] outOffsets = graph.outOffsets();
+		final int[] targets = graph.outTargets();
+		this.levels = new int[n];
+		Arrays.fill(this.levels, -1);
+		AtomicIntegerArray inDegrees = new AtomicIntegerArray(n);
+		int[] frontier = new int[n];
+		int size = 0;
+		for (int u = 0; u < n; u++)
+		{
+			inDegrees.set(u, graph.inDegree(u));
+			if (inDegrees.get(u) == 0)
+			{
+				this.levels[u] = 0;
+				frontier[size++] = u;
+			}
+		}
+
+		// each level is expanded into the next one, which starts after it
+		int[] sizes = new int[n + 1];
+		int numLevels = 0;
+		int numOrdered = 0;
+		AtomicInteger tail = new AtomicInteger();
+		while (size > 0)
+		{
+			sizes[numLevels++] = size;
+			final int from = numOrdered;
+			final int level = numLevels;
+			numOrdered += size;
+			tail.set(numOrdered);
+			final int[] nodes = frontier;
+			ParallelTasks.forEach(
+					size < PARALLEL_LEVEL ? 1 : parallelism,
+					size,
+					k -> {
+						final int u = nodes[from + k];
+						for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++)
+						{
+							final int v = targets[i];
+							if (inDegrees.decrementAndGet(v) == 0)
+							{
+								this.levels[v] = level;
+								nodes[tail.getAndIncrement()] = v;
+							}
+						}
+					}
+			);
+			size = tail.get() - numOrdered;
+		}
+
+		// nodes are ordered again, by level and then by id
+		this.offsets = new int[numLevels + 1];
+		for (int l = 0; l < numLevels; l++)
+		{
+			this.offsets[l + 1] = this.offsets[l] + sizes[l];
+		}
+		this.order = new int[numOrdered];
+		int[] next = Arrays.copyOf(this.offsets, numLevels);
+		for (int u = 0; u < n; u++)
+		{
+			if (this.levels[u] >= 0)
+			{
+				this.order[next[this.levels[u]]++] = u;
+			}
+		}
+		this.cycle = numOrdered < n ? findCycle(graph, this.levels) : null;
+	}
+
+	/**
+	 * The {@code isAcyclic()} method tells whether graph is acyclic.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if graph has no cycle, {@code false} otherwise
+	 */
+	public boolean isAcyclic()
+	{
+		return this.cycle == null;
+	}
+
+	/**
+	 * The {@code order()} method returns the nodes in topological order;
+	 * the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of nodes, level by level
+	 * @throws IllegalStateException The graph is cyclic
+	 */
+	public int[] order()
+	{
+		this.requireAcyclic();
+
+		return this.order;
+	}
+
+	/**
+	 * The {@code numLevels()} method returns the number of levels, i.e. the
+	 * number of nodes of the longest path.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of levels
+	 * @throws IllegalStateException The graph is cyclic
+	 */
+	public int numLevels()
+	{
+		this.requireAcyclic();
+
+		return this.offsets.length - 1;
+	}
+
+	/**
+	 * The {@code levelOf(int)} method returns the level of given node, i.e.
+	 * the length of the longest path ending at it.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param u The node id
+	 * @return The level of node
+	 * @throws IllegalStateException The graph is cyclic
+	 */
+	public int levelOf(int u)
+	{
+		this.requireAcyclic();
+
+		return this.levels[u];
+	}
+
+	/**
+	 * The {@code level(int)} method returns the nodes of given level.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param l The level
+	 * @return The ids of level nodes, in ascending order
+	 * @throws IllegalStateException The graph is cyclic
+	 */
+	public int[] level(int l)
+	{
+		this.requireAcyclic();
+
+		return Arrays.copyOfRange(this.order, this.offsets[l], this.offsets[l + 1]);
+	}
+
+	/**
+	 * The {@code cycle()} method returns the nodes of a cycle, each one
+	 * having an edge to the next one and the last one to the first one.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The ids of cycle nodes, {@code null} if graph is acyclic
+	 */
+	public int[] cycle()
+	{
+		return this.cycle == null ? null : this.cycle.clone();
+	}
+
+	/**
+	 * The {@code requireAcyclic()} helper method checks graph is acyclic.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @throws IllegalStateException The graph is cyclic
+	 */
+	private void requireAcyclic()
+	{
+		if (this.cycle != null)
+		{
+			throw new IllegalStateException("graph is cyclic");
+		}
+	}
+
+	/**
+	 * The {@code findCycle(CSRGraph, int[])} helper method finds a cycle
+	 * following unordered predecessors from the lowest unordered node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The sorted graph
+	 * @param levels The level of each node, {@code -1} for unordered ones
+	 * @return The ids of cycle nodes
+	 */
+	private static int[] findCycle(CSRGraph<?> graph, int[] levels)
+	{
+		final int[] inOffsets = graph.inOffsets();
+		final int[] sources = graph.inSources();
+		int[] positions = new int[levels.length];
+		Arrays.fill(positions, -1);
+		int[] path = new int[levels.length];
+		int length = 0;
+		int u = 0;
+		while (levels[u] >= 0)
+		{
+			u++;
+		}
+		while (positions[u] < 0)
+		{
+			positions[u] = length;
+			path[length++] = u;
+			int i = inOffsets[u];
+			while (levels[sources[i]] >= 0)
+			{
+				i++;
+			}
+			u = sources[i];
+		}
+
+		// path goes backwards along edges, from u to u again
+		int[] cycle = new int[length - positions[u]];
+		for (int k = 0; k < cycle.length; k++)
+		{
+			cycle[k] = path[length - 1 - k];
+		}
+
+		return cycle;
+	}
+}
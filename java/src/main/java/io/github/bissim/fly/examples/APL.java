@@ -55,40 +55,12 @@ public class APL
                 iterations = 1;
             }
 
-            // in order to find graph APL, we have
-            // to build a matrix of distances
-            double[][] distancesLengths = new double[nodes.length][nodes.length];
-            String source, target;
-            for (int row = 0; row < nodes.length; row++)
-            {
-                // we only calculate upper triangle except diagonal
-                for (int col = row + 1; col < nodes.length; col++)
-                {
-                    source = nodes[row];
-                    target = nodes[col];
-                    distancesLengths[row][col] =
-                        graph
-                            .shortestPath(source, target)
-                            .length;
-                }
-            }
-
             // Average Path Length (APL for its friends) is
-            // the average length of distances among nodes
-            double lengthsSum = 0.0;
-            for (int row = 0; row < nodes.length; row++)
-            {
-                for (int col = row + 1; col < nodes.length; col++)
-                {
-                    lengthsSum += distancesLengths[row][col];
-                }
-            }
-
-            // sum of all distances lengths is 16, so APL
-            // should be 16/(5*4) = (4*4)/(5*4) = 4/5 = 0.8
+            // the average length of distances among nodes;
+            // sum of all distances lengths is 32, so APL
+            // should be 32/(5*4) = (8*4)/(5*4) = 8/5 = 1.6
             @SuppressWarnings("unused")
-            final double APL =
-                lengthsSum / ((1.0 * nodes.length) * (1.0 * nodes.length - 1.0));
+            final double APL = graph.getAveragePathLength();
         }
         out.println((System.currentTimeMillis() - START_TIME) / 1000.0);
     }
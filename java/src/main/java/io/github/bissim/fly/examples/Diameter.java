@@ -35,6 +35,10 @@ public class Diameter
                         e.getLocalizedMessage()
                     );
                 }
+                if (args.length > 5)
+                {
+                    graph.setParallelism(Integer.parseInt(args[5]));
+                }
                 nodes = graph.nodeSet();
             }
             else
@@ -42,7 +46,8 @@ public class Diameter
                 out.println("You may want to specify the following parameters:");
                 out.println(
                     "java Diameter <path_to_edgelist> \"<separator>\" " +
-                    "<boolean_is_directed> <boolean_is_weighted>"
+                    "<boolean_is_directed> <boolean_is_weighted> " +
+                    "<iterations> [<parallelism>]"
                 );
                 graph =
                         new Graph<>(String.class, false, false)
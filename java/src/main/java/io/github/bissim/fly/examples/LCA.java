@@ -55,13 +55,7 @@ public class LCA
                 iterations = 1;
             }
 
-            for (String first: dag.nodeSet())
-            {
-                for (String second: dag.nodeSet())
-                {
-                    dag.getLCA(first, second);
-                }
-            }
+            dag.getAllLCAs();
         }
         out.println((System.currentTimeMillis() - START_TIME) / 1000.00);
     }
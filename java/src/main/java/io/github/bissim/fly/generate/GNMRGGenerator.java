@@ -2,19 +2,18 @@ package io.github.bissim.fly.generate;
 
 import static java.lang.System.err;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.DefaultWeightedEdge;
-import org.jgrapht.nio.ExportException;
-import org.jgrapht.nio.GraphExporter;
-import org.jgrapht.nio.csv.CSVExporter;
-import org.jgrapht.nio.csv.CSVFormat;
 
 import org.jgrapht.generate.GnmRandomGraphGenerator;
 
+import io.github.bissim.fly.util.CSRGraph;
 import io.github.bissim.fly.util.CustomGraphBuilder;
+import io.github.bissim.fly.util.EdgeListExporter;
 
 /**
  * The {@code GNMRGGenerator} class ...
@@ -139,8 +138,10 @@ public class GNMRGGenerator<V, E> {
 	}
 
 	/**
-	 * The {@code export(Graph<V, E>, String, String, boolean)} method...
+	 * The {@code export(Graph<V, E>, String, String, boolean)} method
+	 * writes the edge list of given graph through {@link EdgeListExporter}.
 	 *
+	 * @since 1.1.1
 	 *
 	 * @param graph The graph to export
 	 * @param path The path in which graph has to be exported
@@ -156,30 +157,15 @@ public class GNMRGGenerator<V, E> {
 	)
 		throws Exception
 	{
-		GraphExporter<V, E> exporter =
-				new CSVExporter<>(
-					(V v) -> v.toString(),
-					CSVFormat.EDGE_LIST,
-					separator.charAt(0)
-				);
-
-		if (isWeighted)
-		{
-			((CSVExporter<V, E>) exporter)
-				.setParameter(CSVFormat.Parameter.EDGE_WEIGHTS, true);
-		}
-
 		try
 		{
-			exporter.exportGraph(
-					graph,
-					new File(path)
-			);
+			new EdgeListExporter(separator.charAt(0), isWeighted)
+				.write(CSRGraph.of(graph), Paths.get(path));
 		}
-		catch (ExportException e)
+		catch (IOException e)
 		{
-			// like in importGraph method, we have to
-			// hide usage of JGraphT exception classes
+			// like in importGraph method, we hide
+			// the exception classes of underlying I/O
 			throw new Exception(
 					e.getClass().getSimpleName() +
 					": " +
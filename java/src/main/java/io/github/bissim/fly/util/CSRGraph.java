@@ -0,0 +1,908 @@
+package io.github.bissim.fly.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code CSRGraph&lt;V&gt;} is an immutable, int-indexed representation of a
+ * graph in <em>compressed sparse row</em> (CSR) layout, used by
+ * {@code Graph<V, E>} class as a compact storage backend and as input of its
+ * primitive graph algorithms.
+ * <br>
+ * Nodes are given a dense id in {@code [0, numNodes())} following insertion
+ * order; adjacencies of node {@code u} are stored in
+ * {@code outTargets()[outOffsets()[u] .. outOffsets()[u + 1]]}, in the same
+ * order edges were added to the graph, so that traversals visit neighbours
+ * in the same order JGraphT does. Undirected edges are stored once for each
+ * endpoint; directed graphs also keep the reverse (incoming) adjacency.
+ * <br>
+ * Like the graphs built by {@link CustomGraphBuilder}, this representation
+ * does not allow self-loops and silently drops multiple edges.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ *&lt;<a href="mailto:s.bisogno10@studenti.unisa.it?cc=s.bisogno90@gmail.com&amp;subject=Java%20FLY%20graph%20library&amp;body=Hello,%0D%0A%0D%0Ayour%20message%20here">s.bisogno10@studenti.unisa.it</a>&gt;
+ *
+ * @param <V> Type for nodes
+ */
+public class CSRGraph<V>
+{
+	/**
+	 * The default weight of edges of unweighted graphs
+	 * @since 1.2.0
+	 */
+	public static final double DEFAULT_EDGE_WEIGHT = 1.0;
+
+	/**
+	 * The nodes of graph, indexed by their id
+	 * @since 1.2.0
+	 */
+	private final Object[] nodes;
+	/**
+	 * The mapping from nodes to their id
+	 * @since 1.2.0
+	 */
+	private final Map<V, Integer> ids;
+	/**
+	 * Denotes whether graph is directed
+	 * @since 1.2.0
+	 */
+	private final boolean isDirected;
+	/**
+	 * Denotes whether graph is weighted
+	 * @since 1.2.0
+	 */
+	private final boolean isWeighted;
+	/**
+	 * The number of edges of graph
+	 * @since 1.2.0
+	 */
+	private final int numEdges;
+	/**
+	 * The offsets of outgoing adjacencies, one per node plus one
+	 * @since 1.2.0
+	 */
+	private final int[] outOffsets;
+	/**
+	 * The targets of outgoing adjacencies
+	 * @since 1.2.0
+	 */
+	private final int[] outTargets;
+	/**
+	 * The weights of outgoing adjacencies ({@code null} if unweighted)
+	 * @since 1.2.0
+	 */
+	private final double[] outWeights;
+	/**
+	 * The offsets of incoming adjacencies, one per node plus one
+	 * @since 1.2.0
+	 */
+	private final int[] inOffsets;
+	/**
+	 * The sources of incoming adjacencies
+	 * @since 1.2.0
+	 */
+	private final int[] inSources;
+	/**
+	 * The weights of incoming adjacencies ({@code null} if unweighted)
+	 * @since 1.2.0
+	 */
+	private final double[] inWeights;
+	/**
+	 * Denotes whether any edge weight is negative ({@code null} until it is
+	 * first checked)
+	 * @since 1.2.0
+	 */
+	private volatile Boolean hasNegativeWeights;
+
+	/**
+	 * The {@code CSRGraph} constructor assembles a graph from its already
+	 * built CSR arrays; for undirected graphs, incoming arrays are the
+	 * outgoing ones.
+	 *
+	 * @since 1.2.0
+	 */
+	CSRGraph(
+			Object[] nodes,
+			Map<V, Integer> ids,
+			boolean isDirected,
+			boolean isWeighted,
+			int numEdges,
+			int[] outOffsets,
+			int[] outTargets,
+			double[] outWeights,
+			int[] inOffsets,
+			int[] inSources,
+			double[] inWeights
+	)
+	{
+		this.nodes = nodes;
+		this.ids = ids;
+		this.isDirected = isDirected;
+		this.isWeighted = isWeighted;
+		this.numEdges = numEdges;
+		this.outOffsets = outOffsets;
+		this.outTargets = outTargets;
+		this.outWeights = outWeights;
+		this.inOffsets = inOffsets;
+		this.inSources = inSources;
+		this.inWeights = inWeights;
+	}
+
+	/**
+	 * The {@code of(org.jgrapht.Graph&lt;V, E&gt;)} method builds the CSR
+	 * representation of given JGraphT graph, preserving both node order and
+	 * the order of each node adjacencies.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param <V> Type for nodes
+	 * @param <E> Type for edges
+	 * @param graph The JGraphT graph to convert
+	 * @return The CSR representation of graph
+	 */
+	public static <V, E> CSRGraph<V> of(org.jgrapht.Graph<V, E> graph)
+	{
+		boolean isWeighted = graph.getType().isWeighted();
+		Builder<V> builder = new Builder<>(
+				graph.getType().isDirected(),
+				isWeighted,
+				graph.vertexSet().size(),
+				graph.edgeSet().size()
+		);
+
+		graph.vertexSet().forEach(builder::addNode);
+		graph.edgeSet().forEach(e -> builder.addEdge(
+				graph.getEdgeSource(e),
+				graph.getEdgeTarget(e),
+				isWeighted? graph.getEdgeWeight(e): DEFAULT_EDGE_WEIGHT
+		));
+
+		return builder.build();
+	}
+
+	/*
+	 * graph properties
+	 */
+
+	/**
+	 * The {@code numNodes()} method returns the number of nodes in the graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of graph nodes
+	 */
+	public int numNodes()
+	{
+		return this.nodes.length;
+	}
+
+	/**
+	 * The {@code numEdges()} method returns the number of edges in the graph.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The number of graph edges
+	 */
+	public int numEdges()
+	{
+		return this.numEdges;
+	}
+
+	/**
+	 * The {@code isDirected()} method indicates whether graph is directed.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if graph is directed, {@code false} otherwise
+	 */
+	public boolean isDirected()
+	{
+		return this.isDirected;
+	}
+
+	/**
+	 * The {@code isWeighted()} method indicates whether graph is weighted.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if graph is weighted, {@code false} otherwise
+	 */
+	public boolean isWeighted()
+	{
+		return this.isWeighted;
+	}
+
+	/**
+	 * The {@code hasNegativeWeights()} method indicates whether any edge of
+	 * graph has a negative weight; weights are checked the first time only.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return {@code true} if any edge weight is negative, {@code false}
+	 * otherwise
+	 */
+	public boolean hasNegativeWeights()
+	{
+		Boolean hasNegativeWeights = this.hasNegativeWeights;
+		if (hasNegativeWeights == null)
+		{
+			hasNegativeWeights = false;
+			if (this.outWeights != null)
+			{
+				for (double weight : this.outWeights)
+				{
+					if (weight < 0.0)
+					{
+						hasNegativeWeights = true;
+						break;
+					}
+				}
+			}
+			this.hasNegativeWeights = hasNegativeWeights;
+		}
+
+		return hasNegativeWeights;
+	}
+
+	/**
+	 * The {@code fingerprint()} method computes a hash of graph, covering
+	 * the order of its nodes, by their hash codes, and its outgoing CSR
+	 * arrays, so that data derived from graph, like an index saved to a
+	 * file, can be checked to belong to it.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The fingerprint of graph
+	 */
+	public long fingerprint()
+	{
+		final int n = this.numNodes();
+		final int m = this.outOffsets[n];
+		long hash = mix(this.isDirected ? 1L : 0L, this.isWeighted ? 1L : 0L);
+		for (int u = 0; u < n; u++)
+		{
+			hash = mix(hash, this.nodes[u].hashCode());
+		}
+		for (int u = 0; u <= n; u++)
+		{
+			hash = mix(hash, this.outOffsets[u]);
+		}
+		for (int i = 0; i < m; i++)
+		{
+			hash = mix(hash, this.outTargets[i]);
+			if (this.outWeights != null)
+			{
+				hash = mix(hash, Double.doubleToLongBits(this.outWeights[i]));
+			}
+		}
+
+		return hash;
+	}
+
+	/**
+	 * The {@code mix(long, long)} helper method mixes given value into
+	 * given hash.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param hash The hash so far
+	 * @param value The value to mix in
+	 * @return The updated hash
+	 */
+	private static long mix(long hash, long value)
+	{
+		hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+
+		return hash ^ hash >>> 32;
+	}
+
+	/*
+	 * node methods
+	 */
+
+	/**
+	 * The {@code indexOf(V)} method returns the id of given node.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param node The node which id has to be found of
+	 * @return The node id, {@code -1} if node doesn't belong to graph
+	 */
+	public int indexOf(V node)
+	{
+		Integer id = this.ids.get(node);
+
+		return id == null? -1: id;
+	}
+
+	/**
+	 * The {@code nodeAt(int)} method returns the node with given id.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param id The id of node
+	 * @return The node with given id
+	 */
+	@SuppressWarnings("unchecked")
+	public V nodeAt(int id)
+	{
+		return (V) this.nodes[id];
+	}
+
+	/**
+	 * The {@code outDegree(int)} method returns the number of edges
+	 * leaving node with given id.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param id The id of node
+	 * @return The 'out' degree of node
+	 */
+	public int outDegree(int id)
+	{
+		return this.outOffsets[id + 1] - this.outOffsets[id];
+	}
+
+	/**
+	 * The {@code inDegree(int)} method returns the number of edges
+	 * entering node with given id.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param id The id of node
+	 * @return The 'in' degree of node
+	 */
+	public int inDegree(int id)
+	{
+		return this.inOffsets[id + 1] - this.inOffsets[id];
+	}
+
+	/**
+	 * The {@code degree(int)} method returns the number of edges
+	 * touching node with given id.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param id The id of node
+	 * @return The degree of node
+	 */
+	public int degree(int id)
+	{
+		return this.isDirected?
+			this.outDegree(id) + this.inDegree(id):
+			this.outDegree(id);
+	}
+
+	/*
+	 * edge methods
+	 */
+
+	/**
+	 * The {@code edgeIndex(int, int)} method returns the position of edge
+	 * among given nodes within outgoing adjacencies arrays.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of edge source
+	 * @param target The id of edge target
+	 * @return The position of edge, {@code -1} if there's no such edge
+	 */
+	public int edgeIndex(int source, int target)
+	{
+		for (int i = this.outOffsets[source]; i < this.outOffsets[source + 1]; i++)
+		{
+			if (this.outTargets[i] == target)
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * The {@code hasEdge(int, int)} method checks whether graph has an edge
+	 * between nodes with given ids.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param source The id of edge source
+	 * @param target The id of edge target
+	 * @return {@code true} if the edge belongs to graph,
+	 * {@code false} otherwise
+	 */
+	public boolean hasEdge(int source, int target)
+	{
+		return this.edgeIndex(source, target) >= 0;
+	}
+
+	/**
+	 * The {@code weightAt(int)} method returns the weight of edge at given
+	 * position within outgoing adjacencies arrays.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param index The position of edge
+	 * @return The weight of edge
+	 */
+	public double weightAt(int index)
+	{
+		return this.outWeights == null?
+			DEFAULT_EDGE_WEIGHT:
+			this.outWeights[index];
+	}
+
+	/*
+	 * raw CSR arrays, shared with graph algorithms: they must not be modified
+	 */
+
+	/**
+	 * The {@code outOffsets()} method returns the offsets of outgoing
+	 * adjacencies; the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The array of {@code numNodes() + 1} outgoing offsets
+	 */
+	public int[] outOffsets()
+	{
+		return this.outOffsets;
+	}
+
+	/**
+	 * The {@code outTargets()} method returns the targets of outgoing
+	 * adjacencies; the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The array of outgoing targets
+	 */
+	public int[] outTargets()
+	{
+		return this.outTargets;
+	}
+
+	/**
+	 * The {@code outWeights()} method returns the weights of outgoing
+	 * adjacencies; the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The array of outgoing weights, {@code null} if graph is
+	 * unweighted
+	 */
+	public double[] outWeights()
+	{
+		return this.outWeights;
+	}
+
+	/**
+	 * The {@code inOffsets()} method returns the offsets of incoming
+	 * adjacencies; the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The array of {@code numNodes() + 1} incoming offsets
+	 */
+	public int[] inOffsets()
+	{
+		return this.inOffsets;
+	}
+
+	/**
+	 * The {@code inSources()} method returns the sources of incoming
+	 * adjacencies; the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The array of incoming sources
+	 */
+	public int[] inSources()
+	{
+		return this.inSources;
+	}
+
+	/**
+	 * The {@code inWeights()} method returns the weights of incoming
+	 * adjacencies; the array must not be modified.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The array of incoming weights, {@code null} if graph is
+	 * unweighted
+	 */
+	public double[] inWeights()
+	{
+		return this.inWeights;
+	}
+
+	/**
+	 * The {@code Builder&lt;V&gt;} class collects nodes and edges of a
+	 * {@link CSRGraph} and lays them out in CSR arrays.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param <V> Type for nodes
+	 */
+	public static final class Builder<V>
+	{
+		/**
+		 * Denotes whether graph is directed
+		 * @since 1.2.0
+		 */
+		private final boolean isDirected;
+		/**
+		 * Denotes whether graph is weighted
+		 * @since 1.2.0
+		 */
+		private final boolean isWeighted;
+		/**
+		 * The nodes added so far
+		 * @since 1.2.0
+		 */
+		private Object[] nodes;
+		/**
+		 * The mapping from nodes to their id
+		 * @since 1.2.0
+		 */
+		private Map<V, Integer> ids;
+		/**
+		 * The number of nodes added so far
+		 * @since 1.2.0
+		 */
+		private int numNodes;
+		/**
+		 * The sources of edges added so far
+		 * @since 1.2.0
+		 */
+		private int[] sources;
+		/**
+		 * The targets of edges added so far
+		 * @since 1.2.0
+		 */
+		private int[] targets;
+		/**
+		 * The weights of edges added so far
+		 * @since 1.2.0
+		 */
+		private double[] weights;
+		/**
+		 * The number of edges added so far
+		 * @since 1.2.0
+		 */
+		private int numEdges;
+
+		/**
+		 * The {@code Builder(boolean, boolean)} constructor creates a
+		 * builder for a graph which can be directed, weighted or both.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param isDirected Denotes whether graph edges will be directed
+		 * @param isWeighted Denotes whether graph edges will be weighted
+		 */
+		public Builder(boolean isDirected, boolean isWeighted)
+		{
+			this(isDirected, isWeighted, 16, 16);
+		}
+
+		/**
+		 * The {@code Builder(boolean, boolean, int, int)} constructor
+		 * creates a builder sized for the expected number of nodes and
+		 * edges.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param isDirected Denotes whether graph edges will be directed
+		 * @param isWeighted Denotes whether graph edges will be weighted
+		 * @param expectedNodes The expected number of nodes
+		 * @param expectedEdges The expected number of edges
+		 */
+		public Builder(
+				boolean isDirected,
+				boolean isWeighted,
+				int expectedNodes,
+				int expectedEdges
+		)
+		{
+			this.isDirected = isDirected;
+			this.isWeighted = isWeighted;
+			this.nodes = new Object[Math.max(expectedNodes, 1)];
+			this.ids = new HashMap<>(
+					Math.max((int) (expectedNodes / 0.75f) + 1, 16)
+			);
+			this.sources = new int[Math.max(expectedEdges, 1)];
+			this.targets = new int[this.sources.length];
+			this.weights = isWeighted? new double[this.sources.length]: null;
+		}
+
+		/**
+		 * The {@code addNode(V)} method adds given node to graph, unless it
+		 * has already been added.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param node The node to add
+		 * @return The id of node
+		 */
+		public int addNode(V node)
+		{
+			Integer id = this.ids.get(node);
+			if (id != null)
+			{
+				return id;
+			}
+
+			if (this.numNodes == this.nodes.length)
+			{
+				this.nodes = Arrays.copyOf(this.nodes, this.nodes.length * 2);
+			}
+			this.nodes[this.numNodes] = node;
+			this.ids.put(node, this.numNodes);
+
+			return this.numNodes++;
+		}
+
+		/**
+		 * The {@code addEdge(V, V)} method adds an edge with default weight
+		 * between given nodes, adding them to graph if needed.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param source The edge source
+		 * @param target The edge target
+		 * @return The builder itself
+		 */
+		public Builder<V> addEdge(V source, V target)
+		{
+			return this.addEdge(source, target, DEFAULT_EDGE_WEIGHT);
+		}
+
+		/**
+		 * The {@code addEdge(V, V, double)} method adds a weighted edge
+		 * between given nodes, adding them to graph if needed; weight is
+		 * ignored if graph is unweighted.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param source The edge source
+		 * @param target The edge target
+		 * @param weight The edge weight
+		 * @return The builder itself
+		 * @throws IllegalArgumentException The edge is a self-loop
+		 */
+		public Builder<V> addEdge(V source, V target, double weight)
+		{
+			return this.addEdge(
+					this.addNode(source),
+					this.addNode(target),
+					weight
+			);
+		}
+
+		/**
+		 * The {@code addEdge(int, int, double)} method adds a weighted edge
+		 * between nodes with given ids, as returned by {@link #addNode}.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param source The id of edge source
+		 * @param target The id of edge target
+		 * @param weight The edge weight
+		 * @return The builder itself
+		 * @throws IllegalArgumentException The edge is a self-loop or its
+		 * nodes have not been added
+		 */
+		public Builder<V> addEdge(int source, int target, double weight)
+		{
+			if (
+				source < 0 || source >= this.numNodes ||
+				target < 0 || target >= this.numNodes
+			)
+			{
+				throw new IllegalArgumentException("no such vertex in graph");
+			}
+			if (source == target)
+			{
+				throw new IllegalArgumentException("loops not allowed");
+			}
+
+			if (this.numEdges == this.sources.length)
+			{
+				int capacity = this.sources.length * 2;
+				this.sources = Arrays.copyOf(this.sources, capacity);
+				this.targets = Arrays.copyOf(this.targets, capacity);
+				if (this.isWeighted)
+				{
+					this.weights = Arrays.copyOf(this.weights, capacity);
+				}
+			}
+			this.sources[this.numEdges] = source;
+			this.targets[this.numEdges] = target;
+			if (this.isWeighted)
+			{
+				this.weights[this.numEdges] = weight;
+			}
+			this.numEdges++;
+
+			return this;
+		}
+
+		/**
+		 * The {@code build()} method lays out collected nodes and edges
+		 * into a {@link CSRGraph}; edges repeated after their first
+		 * occurrence are dropped.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @return The CSR graph
+		 */
+		public CSRGraph<V> build()
+		{
+			return this.build(e -> {});
+		}
+
+		/**
+		 * The {@code build(IntConsumer)} method lays out collected nodes
+		 * and edges into a {@link CSRGraph}, notifying given consumer of
+		 * every edge repeated after its first occurrence, which is dropped.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param droppedEdges The consumer of dropped edges, identified by
+		 * the order they have been added in
+		 * @return The CSR graph
+		 */
+		public CSRGraph<V> build(IntConsumer droppedEdges)
+		{
+			final int n = this.numNodes;
+			final int m = this.numEdges;
+
+			// stable bucketing of edge ids by source (and by target, if
+			// undirected) keeps adjacencies in insertion order
+			int[] bucketOffsets = new int[n + 1];
+			for (int e = 0; e < m; e++)
+			{
+				bucketOffsets[this.sources[e] + 1]++;
+				if (!this.isDirected)
+				{
+					bucketOffsets[this.targets[e] + 1]++;
+				}
+			}
+			for (int u = 0; u < n; u++)
+			{
+				bucketOffsets[u + 1] += bucketOffsets[u];
+			}
+			int[] bucketEdges = new int[bucketOffsets[n]];
+			int[] cursor = Arrays.copyOf(bucketOffsets, n);
+			for (int e = 0; e < m; e++)
+			{
+				bucketEdges[cursor[this.sources[e]]++] = e;
+				if (!this.isDirected)
+				{
+					bucketEdges[cursor[this.targets[e]]++] = e;
+				}
+			}
+
+			// drop multiple edges, keeping the first one
+			boolean[] dropped = new boolean[m];
+			int[] lastSeen = cursor; // reused as marker array
+			Arrays.fill(lastSeen, -1);
+			int kept = m;
+			for (int u = 0; u < n; u++)
+			{
+				for (int i = bucketOffsets[u]; i < bucketOffsets[u + 1]; i++)
+				{
+					int e = bucketEdges[i];
+					int v = this.opposite(e, u);
+					if (lastSeen[v] == u)
+					{
+						if (!dropped[e])
+						{
+							dropped[e] = true;
+							droppedEdges.accept(e);
+							kept--;
+						}
+					}
+					else
+					{
+						lastSeen[v] = u;
+					}
+				}
+			}
+
+			// outgoing arrays
+			int[] outOffsets = new int[n + 1];
+			int[] outTargets = new int[this.isDirected? kept: 2 * kept];
+			double[] outWeights = this.isWeighted?
+				new double[outTargets.length]:
+				null;
+			int position = 0;
+			for (int u = 0; u < n; u++)
+			{
+				outOffsets[u] = position;
+				for (int i = bucketOffsets[u]; i < bucketOffsets[u + 1]; i++)
+				{
+					int e = bucketEdges[i];
+					if (!dropped[e])
+					{
+						outTargets[position] = this.opposite(e, u);
+						if (this.isWeighted)
+						{
+							outWeights[position] = this.weights[e];
+						}
+						position++;
+					}
+				}
+			}
+			outOffsets[n] = position;
+
+			// incoming arrays, for directed graphs only
+			int[] inOffsets = outOffsets;
+			int[] inSources = outTargets;
+			double[] inWeights = outWeights;
+			if (this.isDirected)
+			{
+				inOffsets = new int[n + 1];
+				for (int e = 0; e < m; e++)
+				{
+					if (!dropped[e])
+					{
+						inOffsets[this.targets[e] + 1]++;
+					}
+				}
+				for (int u = 0; u < n; u++)
+				{
+					inOffsets[u + 1] += inOffsets[u];
+				}
+				inSources = new int[kept];
+				inWeights = this.isWeighted? new double[kept]: null;
+				int[] inCursor = Arrays.copyOf(inOffsets, n);
+				for (int e = 0; e < m; e++)
+				{
+					if (!dropped[e])
+					{
+						int i = inCursor[this.targets[e]]++;
+						inSources[i] = this.sources[e];
+						if (this.isWeighted)
+						{
+							inWeights[i] = this.weights[e];
+						}
+					}
+				}
+			}
+
+			return new CSRGraph<>(
+					Arrays.copyOf(this.nodes, n),
+					this.ids,
+					this.isDirected,
+					this.isWeighted,
+					kept,
+					outOffsets,
+					outTargets,
+					outWeights,
+					inOffsets,
+					inSources,
+					inWeights
+			);
+		}
+
+		/**
+		 * The {@code opposite(int, int)} helper method returns the endpoint
+		 * of given edge which is not given node.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param e The edge id
+		 * @param u The id of one of edge nodes
+		 * @return The id of the other edge node
+		 */
+		private int opposite(int e, int u)
+		{
+			return this.sources[e] == u? this.targets[e]: this.sources[e];
+		}
+	}
+}
@@ -0,0 +1,665 @@
+package io.github.bissim.fly.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code CSRSnapshot} saves a {@link CSRGraph} into a binary file and loads
+ * it back.
+ * <br>
+ * The snapshot is a little-endian dump of CSR arrays: a header (magic
+ * number, format version, directed and weighted flags, node type and
+ * sizes), the node dictionary, then outgoing offsets, targets and weights
+ * and, for directed graphs, incoming ones; arrays of doubles are aligned to
+ * eight bytes. Sections are loaded by memory-mapping file, so that the page
+ * cache of a snapshot is shared by every process loading it, and copying
+ * them in bulk into arrays.
+ * <br>
+ * Nodes have to be strings, integers or longs.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public final class CSRSnapshot
+{
+	/**
+	 * The magic number snapshots start with, i.e. {@code FLYG} in ASCII
+	 * @since 1.2.0
+	 */
+	private static final int MAGIC = 0x47594C46;
+	/**
+	 * The version of snapshot format
+	 * @since 1.2.0
+	 */
+	private static final int FORMAT_VERSION = 1;
+	/**
+	 * The size of snapshot header, in bytes
+	 * @since 1.2.0
+	 */
+	private static final int HEADER_SIZE = 32;
+	/**
+	 * The flag of directed graphs
+	 * @since 1.2.0
+	 */
+	private static final int DIRECTED = 1;
+	/**
+	 * The flag of weighted graphs
+	 * @since 1.2.0
+	 */
+	private static final int WEIGHTED = 2;
+	/**
+	 * The node classes snapshots can hold, indexed by their type tag
+	 * @since 1.2.0
+	 */
+	private static final Class<?>[] NODE_CLASSES = {
+		String.class, Integer.class, Long.class
+	};
+	/**
+	 * The maximum number of bytes mapped or buffered at once
+	 * @since 1.2.0
+	 */
+	private static final int WINDOW_SIZE = 1 << 26;
+
+	/**
+	 * The {@code CSRSnapshot()} constructor is not meant to be invoked.
+	 *
+	 * @since 1.2.0
+	 */
+	private CSRSnapshot() {}
+
+	/**
+	 * The {@code save(CSRGraph, Path)} method saves given graph into given
+	 * file, replacing it if it exists.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to save
+	 * @param file The snapshot file
+	 * @throws IOException The file cannot be written
+	 * @throws IllegalArgumentException The nodes are neither strings, nor
+	 * integers nor longs
+	 */
+	public static void save(CSRGraph<?> graph, Path file) throws IOException
+	{
+		final int n = graph.numNodes();
+		int type = CSRSnapshot.nodeType(graph);
+
+		try (
+			FileChannel channel = FileChannel.open(
+					file,
+					StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.WRITE
+			)
+		)
+		{
+			ByteBuffer header = CSRSnapshot.allocate(HEADER_SIZE);
+			header
+					.putInt(MAGIC)
+					.putInt(FORMAT_VERSION)
+					.putInt(
+						(graph.isDirected() ? DIRECTED : 0) |
+						(graph.isWeighted() ? WEIGHTED : 0)
+					)
+					.putInt(type)
+					.putInt(n)
+					.putInt(graph.numEdges())
+					.putInt(graph.outTargets().length)
+					.putInt(graph.isDirected() ? graph.inSources().length : 0);
+			CSRSnapshot.write(channel, header);
+
+			if (NODE_CLASSES[type] == String.class)
+			{
+				byte[][] labels = new byte[n][];
+				int[] labelOffsets = new int[n + 1];
+				for (int u = 0; u < n; u++)
+				{
+					labels[u] = ((String) graph.nodeAt(u))
+							.getBytes(StandardCharsets.UTF_8);
+					labelOffsets[u + 1] = labelOffsets[u] + labels[u].length;
+				}
+				CSRSnapshot.writeInts(channel, labelOffsets);
+				ByteBuffer buffer = CSRSnapshot.allocate(WINDOW_SIZE);
+				for (byte[] label : labels)
+				{
+					for (int i = 0; i < label.length; )
+					{
+						int count =
+								Math.min(label.length - i, buffer.remaining());
+						buffer.put(label, i, count);
+						i += count;
+						if (!buffer.hasRemaining())
+						{
+							CSRSnapshot.write(channel, buffer);
+						}
+					}
+				}
+				CSRSnapshot.write(channel, buffer);
+			}
+			else if (NODE_CLASSES[type] == Integer.class)
+			{
+				int[] ids = new int[n];
+				for (int u = 0; u < n; u++)
+				{
+					ids[u] = (Integer) graph.nodeAt(u);
+				}
+				CSRSnapshot.writeInts(channel, ids);
+			}
+			else
+			{
+				long[] ids = new long[n];
+				for (int u = 0; u < n; u++)
+				{
+					ids[u] = (Long) graph.nodeAt(u);
+				}
+				CSRSnapshot.pad(channel);
+				CSRSnapshot.writeLongs(channel, ids);
+			}
+
+			CSRSnapshot.writeArrays(
+					channel,
+					graph.outOffsets(),
+					graph.outTargets(),
+					graph.outWeights()
+			);
+			if (graph.isDirected())
+			{
+				CSRSnapshot.writeArrays(
+						channel,
+						graph.inOffsets(),
+						graph.inSources(),
+						graph.inWeights()
+				);
+			}
+		}
+	}
+
+	/**
+	 * The {@code load(Path, Class)} method loads the graph saved into given
+	 * file.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param <V> Type for nodes
+	 * @param file The snapshot file
+	 * @param nodeClass The class of graph nodes
+	 * @return The loaded graph
+	 * @throws IOException The file cannot be read, or it is not a snapshot
+	 * @throws IllegalArgumentException The snapshot nodes are not of given
+	 * class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> CSRGraph<V> load(Path file, Class<V> nodeClass)
+			throws IOException
+	{
+		try (
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+		)
+		{
+			if (channel.size() < HEADER_SIZE)
+			{
+				throw new IOException("not a graph snapshot: " + file);
+			}
+			ByteBuffer header = channel
+					.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt() != MAGIC)
+			{
+				throw new IOException("not a graph snapshot: " + file);
+			}
+			int version = header.getInt();
+			if (version != FORMAT_VERSION)
+			{
+				throw new IOException(
+						"unsupported snapshot version: " + version
+				);
+			}
+			int flags = header.getInt();
+			int type = header.getInt();
+			if (type < 0 || type >= NODE_CLASSES.length)
+			{
+				throw new IOException("unsupported node type: " + type);
+			}
+			if (!nodeClass.isAssignableFrom(NODE_CLASSES[type]))
+			{
+				throw new IllegalArgumentException(
+						"snapshot nodes are " +
+						NODE_CLASSES[type].getSimpleName() +
+						", not " +
+						nodeClass.getSimpleName()
+				);
+			}
+			final int n = header.getInt();
+			final int numEdges = header.getInt();
+			final int outLength = header.getInt();
+			final int inLength = header.getInt();
+			final boolean isDirected = (flags & DIRECTED) != 0;
+			final boolean isWeighted = (flags & WEIGHTED) != 0;
+
+			long position = HEADER_SIZE;
+			Object[] nodes = new Object[n];
+			if (NODE_CLASSES[type] == String.class)
+			{
+				int[] labelOffsets = new int[n + 1];
+				position =
+						CSRSnapshot.readInts(channel, position, labelOffsets);
+				ByteBuffer labels =
+						CSRSnapshot.map(channel, position, labelOffsets[n]);
+				for (int u = 0; u < n; u++)
+				{
+					byte[] label =
+							new byte[labelOffsets[u + 1] - labelOffsets[u]];
+					labels.get(label);
+					nodes[u] = new String(label, StandardCharsets.UTF_8);
+				}
+				position += labelOffsets[n];
+			}
+			else if (NODE_CLASSES[type] == Integer.class)
+			{
+				int[] ids = new int[n];
+				position = CSRSnapshot.readInts(channel, position, ids);
+				for (int u = 0; u < n; u++)
+				{
+					nodes[u] = ids[u];
+				}
+			}
+			else
+			{
+				long[] ids = new long[n];
+				position = CSRSnapshot.readLongs(
+						channel,
+						CSRSnapshot.align(position),
+						ids
+				);
+				for (int u = 0; u < n; u++)
+				{
+					nodes[u] = ids[u];
+				}
+			}
+			Map<V, Integer> ids = new HashMap<>((int) (n / 0.75f) + 1);
+			for (int u = 0; u < n; u++)
+			{
+				ids.put((V) nodes[u], u);
+			}
+
+			int[] outOffsets = new int[n + 1];
+			int[] outTargets = new int[outLength];
+			double[] outWeights = isWeighted ? new double[outLength] : null;
+			position = CSRSnapshot.readArrays(
+					channel,
+					position,
+					outOffsets,
+					outTargets,
+					outWeights
+			);
+			int[] inOffsets = outOffsets;
+			int[] inSources = outTargets;
+			double[] inWeights = outWeights;
+			if (isDirected)
+			{
+				inOffsets = new int[n + 1];
+				inSources = new int[inLength];
+				inWeights = isWeighted ? new double[inLength] : null;
+				CSRSnapshot.readArrays(
+						channel,
+						position,
+						inOffsets,
+						inSources,
+						inWeights
+				);
+			}
+
+			return new CSRGraph<>(
+					nodes,
+					ids,
+					isDirected,
+					isWeighted,
+					numEdges,
+					outOffsets,
+					outTargets,
+					outWeights,
+					inOffsets,
+					inSources,
+					inWeights
+			);
+		}
+	}
+
+	/**
+	 * The {@code nodeType(CSRGraph)} helper method returns the type tag of
+	 * graph nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph whose nodes have to be saved
+	 * @return The type tag of nodes
+	 * @throws IllegalArgumentException The nodes are not all of the same
+	 * supported class
+	 */
+	private static int nodeType(CSRGraph<?> graph)
+	{
+		Class<?> nodeClass = graph.numNodes() > 0 ?
+			graph.nodeAt(0).getClass() :
+			String.class;
+		for (int type = 0; type < NODE_CLASSES.length; type++)
+		{
+			if (NODE_CLASSES[type] == nodeClass)
+			{
+				for (int u = 0; u < graph.numNodes(); u++)
+				{
+					if (graph.nodeAt(u).getClass() != nodeClass)
+					{
+						throw new IllegalArgumentException(
+								"nodes of different classes: " +
+								nodeClass.getSimpleName() +
+								", " +
+								graph.nodeAt(u).getClass().getSimpleName()
+						);
+					}
+				}
+
+				return type;
+			}
+		}
+
+		throw new IllegalArgumentException(
+				"unsupported node class: " + nodeClass.getName()
+		);
+	}
+
+	/**
+	 * The {@code writeArrays(FileChannel, int[], int[], double[])} helper
+	 * method writes offsets, adjacencies and, if any, weights of nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param offsets The adjacency offsets
+	 * @param adjacencies The adjacent node ids
+	 * @param weights The adjacency weights, {@code null} if unweighted
+	 * @throws IOException The file cannot be written
+	 */
+	private static void writeArrays(
+			FileChannel channel,
+			int[] offsets,
+			int[] adjacencies,
+			double[] weights
+	)
+			throws IOException
+	{
+		CSRSnapshot.writeInts(channel, offsets);
+		CSRSnapshot.writeInts(channel, adjacencies);
+		if (weights != null)
+		{
+			CSRSnapshot.pad(channel);
+			ByteBuffer buffer = CSRSnapshot.allocate(WINDOW_SIZE);
+			for (int i = 0; i < weights.length; )
+			{
+				int count = Math.min(weights.length - i, WINDOW_SIZE / 8);
+				buffer.asDoubleBuffer().put(weights, i, count);
+				buffer.position(8 * count);
+				CSRSnapshot.write(channel, buffer);
+				i += count;
+			}
+		}
+	}
+
+	/**
+	 * The {@code readArrays(FileChannel, long, int[], int[], double[])}
+	 * helper method reads offsets, adjacencies and, if any, weights of
+	 * nodes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param position The position of arrays within file
+	 * @param offsets The adjacency offsets to fill
+	 * @param adjacencies The adjacent node ids to fill
+	 * @param weights The adjacency weights to fill, {@code null} if
+	 * unweighted
+	 * @return The position past arrays
+	 * @throws IOException The file cannot be read
+	 */
+	private static long readArrays(
+			FileChannel channel,
+			long position,
+			int[] offsets,
+			int[] adjacencies,
+			double[] weights
+	)
+			throws IOException
+	{
+		position = CSRSnapshot.readInts(channel, position, offsets);
+		position = CSRSnapshot.readInts(channel, position, adjacencies);
+		if (weights != null)
+		{
+			position = CSRSnapshot.align(position);
+			for (int i = 0; i < weights.length; )
+			{
+				int count = Math.min(weights.length - i, WINDOW_SIZE / 8);
+				CSRSnapshot.map(channel, position, 8L * count)
+						.asDoubleBuffer()
+						.get(weights, i, count);
+				position += 8L * count;
+				i += count;
+			}
+		}
+
+		return position;
+	}
+
+	/**
+	 * The {@code writeInts(FileChannel, int[])} helper method writes given
+	 * ints.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param values The ints to write
+	 * @throws IOException The file cannot be written
+	 */
+	private static void writeInts(FileChannel channel, int[] values)
+			throws IOException
+	{
+		ByteBuffer buffer = CSRSnapshot.allocate(WINDOW_SIZE);
+		for (int i = 0; i < values.length; )
+		{
+			int count = Math.min(values.length - i, WINDOW_SIZE / 4);
+			buffer.asIntBuffer().put(values, i, count);
+			buffer.position(4 * count);
+			CSRSnapshot.write(channel, buffer);
+			i += count;
+		}
+	}
+
+	/**
+	 * The {@code writeLongs(FileChannel, long[])} helper method writes
+	 * given longs.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param values The longs to write
+	 * @throws IOException The file cannot be written
+	 */
+	private static void writeLongs(FileChannel channel, long[] values)
+			throws IOException
+	{
+		ByteBuffer buffer = CSRSnapshot.allocate(WINDOW_SIZE);
+		for (int i = 0; i < values.length; )
+		{
+			int count = Math.min(values.length - i, WINDOW_SIZE / 8);
+			buffer.asLongBuffer().put(values, i, count);
+			buffer.position(8 * count);
+			CSRSnapshot.write(channel, buffer);
+			i += count;
+		}
+	}
+
+	/**
+	 * The {@code readInts(FileChannel, long, int[])} helper method fills
+	 * given array with the ints stored at given position.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param position The position of ints within file
+	 * @param values The array to fill
+	 * @return The position past read ints
+	 * @throws IOException The file cannot be read
+	 */
+	private static long readInts(
+			FileChannel channel,
+			long position,
+			int[] values
+	)
+			throws IOException
+	{
+		for (int i = 0; i < values.length; )
+		{
+			int count = Math.min(values.length - i, WINDOW_SIZE / 4);
+			CSRSnapshot.map(channel, position, 4L * count)
+					.asIntBuffer()
+					.get(values, i, count);
+			position += 4L * count;
+			i += count;
+		}
+
+		return position;
+	}
+
+	/**
+	 * The {@code readLongs(FileChannel, long, long[])} helper method fills
+	 * given array with the longs stored at given position.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param position The position of longs within file
+	 * @param values The array to fill
+	 * @return The position past read longs
+	 * @throws IOException The file cannot be read
+	 */
+	private static long readLongs(
+			FileChannel channel,
+			long position,
+			long[] values
+	)
+			throws IOException
+	{
+		for (int i = 0; i < values.length; )
+		{
+			int count = Math.min(values.length - i, WINDOW_SIZE / 8);
+			CSRSnapshot.map(channel, position, 8L * count)
+					.asLongBuffer()
+					.get(values, i, count);
+			position += 8L * count;
+			i += count;
+		}
+
+		return position;
+	}
+
+	/**
+	 * The {@code map(FileChannel, long, long)} helper method maps given
+	 * region of snapshot file.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param position The position of region
+	 * @param size The size of region
+	 * @return The little-endian view of region
+	 * @throws IOException The file cannot be read, or it is truncated
+	 */
+	private static ByteBuffer map(
+			FileChannel channel,
+			long position,
+			long size
+	)
+			throws IOException
+	{
+		if (position + size > channel.size())
+		{
+			throw new IOException("truncated graph snapshot");
+		}
+
+		return channel
+				.map(FileChannel.MapMode.READ_ONLY, position, size)
+				.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * The {@code pad(FileChannel)} helper method pads snapshot file with
+	 * zeros up to a multiple of eight bytes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @throws IOException The file cannot be written
+	 */
+	private static void pad(FileChannel channel) throws IOException
+	{
+		long position = channel.position();
+		ByteBuffer padding = CSRSnapshot.allocate(8);
+		padding.position((int) (CSRSnapshot.align(position) - position));
+		CSRSnapshot.write(channel, padding);
+	}
+
+	/**
+	 * The {@code align(long)} helper method rounds given position up to a
+	 * multiple of eight bytes.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param position The position to align
+	 * @return The aligned position
+	 */
+	private static long align(long position)
+	{
+		return (position + 7) & ~7L;
+	}
+
+	/**
+	 * The {@code allocate(int)} helper method allocates a little-endian
+	 * buffer.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param size The size of buffer
+	 * @return The buffer
+	 */
+	private static ByteBuffer allocate(int size)
+	{
+		return ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * The {@code write(FileChannel, ByteBuffer)} helper method writes the
+	 * content of given buffer, from its beginning to its position, and
+	 * clears it.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of snapshot file
+	 * @param buffer The buffer to write
+	 * @throws IOException The file cannot be written
+	 */
+	private static void write(FileChannel channel, ByteBuffer buffer)
+			throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,443 @@
+package io.github.bissim.fly.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@code EdgeListExporter} writes graphs to edge list files, in the same
+ * format of JGraphT {@code CSVExporter} with {@code EDGE_LIST} format: each
+ * line holds the source node, the target node and, for weighted graphs, the
+ * edge weight, separated by a single character, and fields holding the
+ * separator, quotes or line breaks are quoted.
+ * <br>
+ * Nodes are turned into bytes once, then edges are split into chunks of
+ * consecutive sources which are formatted in parallel into reusable
+ * buffers, and written in order through a {@link FileChannel}, optionally
+ * gzip-compressed. Edges are listed by source node, and each edge of an
+ * undirected graph is listed once.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class EdgeListExporter
+{
+	/**
+	 * The number of adjacencies a chunk holds, at least
+	 * @since 1.2.0
+	 */
+	private static final int CHUNK_ADJACENCIES = 1 << 15;
+	/**
+	 * The number of chunks formatted by each thread before being written
+	 * @since 1.2.0
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+	/**
+	 * The size of buffers of compressed output
+	 * @since 1.2.0
+	 */
+	private static final int GZIP_BUFFER_SIZE = 1 << 16;
+	/**
+	 * The largest integral weight formatted without scientific notation
+	 * @since 1.2.0
+	 */
+	private static final double MAX_PLAIN_WEIGHT = 1e7;
+
+	/**
+	 * The separator as UTF-8 bytes
+	 * @since 1.2.0
+	 */
+	private final byte[] separator;
+	/**
+	 * The line terminator as UTF-8 bytes
+	 * @since 1.2.0
+	 */
+	private final byte[] lineSeparator;
+	/**
+	 * The character separating fields of a line
+	 * @since 1.2.0
+	 */
+	private final char separatorChar;
+	/**
+	 * Denotes whether lines hold edge weights
+	 * @since 1.2.0
+	 */
+	private final boolean isWeighted;
+	/**
+	 * The maximum number of threads formatting edges
+	 * @since 1.2.0
+	 */
+	private int parallelism;
+	/**
+	 * Denotes whether file is gzip-compressed
+	 * @since 1.2.0
+	 */
+	private boolean isCompressed;
+
+	/**
+	 * The {@code EdgeListExporter(char, boolean)} constructor creates an
+	 * exporter for edge lists with given separator, using as many threads
+	 * as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param separator The character separating fields of a line
+	 * @param isWeighted Denotes whether lines hold edge weights
+	 * @throws IllegalArgumentException The separator is a line terminator
+	 * or a quote
+	 */
+	public EdgeListExporter(char separator, boolean isWeighted)
+	{
+		if (separator == '\n' || separator == '\r' || separator == '"')
+		{
+			throw new IllegalArgumentException(
+					"unsupported separator: " + separator
+			);
+		}
+		this.separatorChar = separator;
+		this.separator = String
+				.valueOf(separator)
+				.getBytes(StandardCharsets.UTF_8);
+		this.lineSeparator = System
+				.lineSeparator()
+				.getBytes(StandardCharsets.UTF_8);
+		this.isWeighted = isWeighted;
+		this.parallelism = ParallelTasks.defaultParallelism();
+	}
+
+	/**
+	 * The {@code setParallelism(int)} method sets the maximum number of
+	 * threads formatting edges.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parallelism The maximum number of threads
+	 * @return The exporter
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public EdgeListExporter setParallelism(int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.parallelism = parallelism;
+
+		return this;
+	}
+
+	/**
+	 * The {@code setCompressed(boolean)} method sets whether file is
+	 * gzip-compressed.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param isCompressed Denotes whether file is gzip-compressed
+	 * @return The exporter
+	 */
+	public EdgeListExporter setCompressed(boolean isCompressed)
+	{
+		this.isCompressed = isCompressed;
+
+		return this;
+	}
+
+	/**
+	 * The {@code write(CSRGraph, Path)} method writes the edge list of given
+	 * graph into given file, replacing it if it exists.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to write
+	 * @param file The file to write
+	 * @throws IOException The file cannot be written
+	 */
+	public void write(CSRGraph<?> graph, Path file) throws IOException
+	{
+		final int n = graph.numNodes();
+		byte[][] labels = new byte[n][];
+		ParallelTasks.forEach(
+				this.parallelism,
+				n,
+				u -> labels[u] = this.escape(String.valueOf(graph.nodeAt(u)))
+		);
+		int[] bounds = this.chunkBounds(graph);
+		final int chunks = bounds.length - 1;
+		final int slots = this.parallelism * CHUNKS_PER_THREAD;
+		Buffer[] buffers = new Buffer[Math.min(slots, chunks)];
+		for (int slot = 0; slot < buffers.length; slot++)
+		{
+			buffers[slot] = new Buffer();
+		}
+
+		try (
+			FileChannel channel = FileChannel.open(
+					file,
+					StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.WRITE
+			);
+			OutputStream compressed = this.isCompressed ?
+				new GZIPOutputStream(
+						Channels.newOutputStream(channel),
+						GZIP_BUFFER_SIZE
+				) :
+				null
+		)
+		{
+			for (int first = 0; first < chunks; first += buffers.length)
+			{
+				final int start = first;
+				final int count = Math.min(buffers.length, chunks - start);
+				ParallelTasks.forEach(
+						this.parallelism,
+						count,
+						slot -> this.format(
+								graph,
+								labels,
+								bounds[start + slot],
+								bounds[start + slot + 1],
+								buffers[slot]
+						)
+				);
+
+				for (int slot = 0; slot < count; slot++)
+				{
+					Buffer buffer = buffers[slot];
+					if (compressed != null)
+					{
+						compressed.write(buffer.bytes, 0, buffer.size);
+						continue;
+					}
+					ByteBuffer view = ByteBuffer.wrap(buffer.bytes, 0, buffer.size);
+					while (view.hasRemaining())
+					{
+						channel.write(view);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@code chunkBounds(CSRGraph)} helper method splits source nodes
+	 * into chunks holding about the same number of adjacencies.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to split
+	 * @return The ids chunks start at, followed by the number of nodes
+	 */
+	private int[] chunkBounds(CSRGraph<?> graph)
+	{
+		final int n = graph.numNodes();
+		final int[] offsets = graph.outOffsets();
+		int[] bounds = new int[n + 1];
+		int chunks = 0;
+		for (int u = 0; u < n; )
+		{
+			bounds[chunks++] = u;
+			final int limit = offsets[u] + CHUNK_ADJACENCIES;
+			do
+			{
+				u++;
+			}
+			while (u < n && offsets[u + 1] <= limit);
+		}
+		bounds[chunks] = n;
+
+		int[] trimmed = new int[chunks + 1];
+		System.arraycopy(bounds, 0, trimmed, 0, chunks + 1);
+
+		return trimmed;
+	}
+
+	/**
+	 * The {@code format(CSRGraph, byte[][], int, int, Buffer)} helper method
+	 * formats the lines of edges leaving given range of nodes into given
+	 * buffer.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param graph The graph to write
+	 * @param labels The nodes as bytes
+	 * @param from The first source node (inclusive)
+	 * @param to The last source node (exclusive)
+	 * @param buffer The buffer to fill
+	 */
+	private void format(
+			CSRGraph<?> graph,
+			byte[][] labels,
+			int from,
+			int to,
+			Buffer buffer
+	)
+	{
+		final int[] offsets = graph.outOffsets();
+		final int[] targets = graph.outTargets();
+		final boolean isDirected = graph.isDirected();
+		buffer.size = 0;
+		for (int u = from; u < to; u++)
+		{
+			for (int i = offsets[u]; i < offsets[u + 1]; i++)
+			{
+				final int v = targets[i];
+				if (!isDirected && v < u)
+				{
+					// undirected edges are listed from smaller endpoint
+					continue;
+				}
+				buffer.put(labels[u]);
+				buffer.put(this.separator);
+				buffer.put(labels[v]);
+				if (this.isWeighted)
+				{
+					buffer.put(this.separator);
+					this.formatWeight(graph.weightAt(i), buffer);
+				}
+				buffer.put(this.lineSeparator);
+			}
+		}
+	}
+
+	/**
+	 * The {@code formatWeight(double, Buffer)} helper method formats given
+	 * weight into given buffer, just as {@link Double#toString(double)}
+	 * does.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param weight The weight to format
+	 * @param buffer The buffer to fill
+	 */
+	private void formatWeight(double weight, Buffer buffer)
+	{
+		long integral = (long) weight;
+		if (integral != weight ||
+				Math.abs(weight) >= MAX_PLAIN_WEIGHT ||
+				Double.doubleToRawLongBits(weight) == Long.MIN_VALUE)
+		{
+			// fractional, large or negative zero weights
+			buffer.put(
+					Double.toString(weight).getBytes(StandardCharsets.US_ASCII)
+			);
+			return;
+		}
+
+		if (integral < 0)
+		{
+			buffer.put((byte) '-');
+			integral = -integral;
+		}
+		long power = 1;
+		while (power * 10 <= integral)
+		{
+			power *= 10;
+		}
+		for (; power > 0; power /= 10)
+		{
+			buffer.put((byte) ('0' + integral / power % 10));
+		}
+		buffer.put((byte) '.');
+		buffer.put((byte) '0');
+	}
+
+	/**
+	 * The {@code escape(String)} helper method returns the bytes of given
+	 * field, quoted if it holds the separator, quotes or line breaks.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param field The field to escape
+	 * @return The UTF-8 bytes of escaped field
+	 */
+	private byte[] escape(String field)
+	{
+		if (field.indexOf(this.separatorChar) < 0 &&
+				field.indexOf('"') < 0 &&
+				field.indexOf('\n') < 0 &&
+				field.indexOf('\r') < 0)
+		{
+			return field.getBytes(StandardCharsets.UTF_8);
+		}
+
+		return ('"' + field.replace("\"", "\"\"") + '"')
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@code Buffer} is a growable array of bytes, reused by every chunk
+	 * formatted in the same slot.
+	 *
+	 * @version 1.2.0
+	 * @author Simone Bisogno
+	 */
+	private static final class Buffer
+	{
+		/**
+		 * The buffered bytes
+		 * @since 1.2.0
+		 */
+		private byte[] bytes = new byte[1 << 16];
+		/**
+		 * The number of buffered bytes
+		 * @since 1.2.0
+		 */
+		private int size;
+
+		/**
+		 * The {@code put(byte)} method appends given byte.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param value The byte to append
+		 */
+		private void put(byte value)
+		{
+			this.ensureCapacity(1);
+			this.bytes[this.size++] = value;
+		}
+
+		/**
+		 * The {@code put(byte[])} method appends given bytes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param values The bytes to append
+		 */
+		private void put(byte[] values)
+		{
+			this.ensureCapacity(values.length);
+			System.arraycopy(values, 0, this.bytes, this.size, values.length);
+			this.size += values.length;
+		}
+
+		/**
+		 * The {@code ensureCapacity(int)} helper method grows buffer so that
+		 * given number of bytes can be appended.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param count The number of bytes to append
+		 */
+		private void ensureCapacity(int count)
+		{
+			if (this.size + count > this.bytes.length)
+			{
+				byte[] grown = new byte[
+					Math.max(this.bytes.length * 2, this.size + count)
+				];
+				System.arraycopy(this.bytes, 0, grown, 0, this.size);
+				this.bytes = grown;
+			}
+		}
+	}
+}
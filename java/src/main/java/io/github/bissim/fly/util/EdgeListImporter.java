@@ -0,0 +1,945 @@
+package io.github.bissim.fly.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code EdgeListImporter} reads graphs from edge list files, where each
+ * line holds the source node, the target node and, for weighted graphs, the
+ * edge weight, separated by a single character; a line holding just a node
+ * adds it without edges, blank lines are skipped.
+ * <br>
+ * Fields may be quoted as in RFC 4180, i.e. enclosed in double quotes,
+ * which are doubled within the field, so that they can hold separators,
+ * quotes and line breaks; every separator ends a field, thus empty fields
+ * are kept in place.
+ * <br>
+ * The file is memory-mapped and split into chunks of whole lines, which
+ * are scanned byte by byte in parallel; a node label becomes a string just
+ * once per chunk, and nodes are numbered in the order they first appear in
+ * file, whatever the number of chunks.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public class EdgeListImporter
+{
+	/**
+	 * The minimum size of a chunk, below which a file is not split further
+	 * @since 1.2.0
+	 */
+	private static final long MIN_CHUNK_SIZE = 1L << 20;
+	/**
+	 * The maximum size of a chunk, i.e. of a single memory mapping
+	 * @since 1.2.0
+	 */
+	private static final long MAX_CHUNK_SIZE = 1L << 30;
+	/**
+	 * The powers of ten exactly representable as doubles
+	 * @since 1.2.0
+	 */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * The character separating fields of a line
+	 * @since 1.2.0
+	 */
+	private final byte separator;
+	/**
+	 * Denotes whether lines hold edge weights
+	 * @since 1.2.0
+	 */
+	private final boolean isWeighted;
+	/**
+	 * The maximum number of threads scanning file
+	 * @since 1.2.0
+	 */
+	private int parallelism;
+
+	/**
+	 * The {@code EdgeListImporter(char, boolean)} constructor creates an
+	 * importer for edge lists with given separator, using as many threads
+	 * as available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param separator The character separating fields of a line
+	 * @param isWeighted Denotes whether lines hold edge weights
+	 * @throws IllegalArgumentException The separator is not a single-byte
+	 * character, or it is a line terminator
+	 */
+	public EdgeListImporter(char separator, boolean isWeighted)
+	{
+		if (separator > 0x7F || separator == '\n' || separator == '\r')
+		{
+			throw new IllegalArgumentException(
+					"unsupported separator: " + separator
+			);
+		}
+		this.separator = (byte) separator;
+		this.isWeighted = isWeighted;
+		this.parallelism = ParallelTasks.defaultParallelism();
+	}
+
+	/**
+	 * The {@code setParallelism(int)} method sets the maximum number of
+	 * threads scanning file.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parallelism The maximum number of threads
+	 * @return The importer
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	public EdgeListImporter setParallelism(int parallelism)
+	{
+		if (parallelism < 1)
+		{
+			throw new IllegalArgumentException(
+					"parallelism must be positive: " + parallelism
+			);
+		}
+		this.parallelism = parallelism;
+
+		return this;
+	}
+
+	/**
+	 * The {@code read(Path)} method reads the edge list stored in given
+	 * file.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param file The file to read
+	 * @return The read edge list
+	 * @throws IOException The file cannot be read
+	 */
+	public EdgeList read(Path file) throws IOException
+	{
+		try (
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+		)
+		{
+			Chunk[] chunks = this.scan(channel, this.chunkBounds(channel));
+			for (int k = 0; k < chunks.length; k++)
+			{
+				// chunks following a wrong split may have failed as well,
+				// hence the first failed one is the one to tell
+				if (chunks[k].error != null)
+				{
+					throw chunks[k].error;
+				}
+				if (chunks[k].isQuoted && k < chunks.length - 1)
+				{
+					// a quoted line break has been taken as a line end
+					if (channel.size() > MAX_CHUNK_SIZE)
+					{
+						throw new IllegalArgumentException(
+								"quoted line breaks are not supported in " +
+								"files larger than " + MAX_CHUNK_SIZE +
+								" bytes"
+						);
+					}
+					chunks = this.scan(channel, new long[] {0, channel.size()});
+					k = -1;
+				}
+				else if (chunks[k].isQuoted)
+				{
+					throw new IllegalArgumentException(
+							"unterminated quoted field"
+					);
+				}
+			}
+
+			return this.merge(chunks);
+		}
+	}
+
+	/**
+	 * The {@code scan(FileChannel, long[])} helper method scans the chunks
+	 * of file with given bounds, in parallel.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of file to scan
+	 * @param bounds The positions chunks start at, followed by file size
+	 * @return The scanned chunks, in file order
+	 * @throws IOException The file cannot be read
+	 */
+	private Chunk[] scan(FileChannel channel, long[] bounds) throws IOException
+	{
+		Chunk[] chunks = new Chunk[bounds.length - 1];
+		for (int k = 0; k < chunks.length; k++)
+		{
+			chunks[k] = new Chunk(channel.map(
+					FileChannel.MapMode.READ_ONLY,
+					bounds[k],
+					bounds[k + 1] - bounds[k]
+			));
+		}
+		ParallelTasks.forEach(
+				this.parallelism,
+				chunks.length,
+				k -> chunks[k].scan()
+		);
+
+		return chunks;
+	}
+
+	/**
+	 * The {@code chunkBounds(FileChannel)} helper method splits file into
+	 * chunks of whole lines.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param channel The channel of file to split
+	 * @return The positions chunks start at, followed by file size
+	 * @throws IOException The file cannot be read
+	 */
+	private long[] chunkBounds(FileChannel channel) throws IOException
+	{
+		final long size = channel.size();
+		long chunks = Math.max(
+				Math.min(this.parallelism, size / MIN_CHUNK_SIZE),
+				(size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE
+		);
+		chunks = Math.max(1, chunks);
+
+		long[] bounds = new long[(int) chunks + 1];
+		bounds[bounds.length - 1] = size;
+		ByteBuffer window = ByteBuffer.allocate(4096);
+		for (int k = 1; k < chunks; k++)
+		{
+			// a chunk starts right after the line break preceding its share
+			long position = Math.max(bounds[k - 1], size / chunks * k - 1);
+			boolean isFound = false;
+			while (!isFound && position < size)
+			{
+				window.clear();
+				int read = channel.read(window, position);
+				for (int i = 0; i < read && !isFound; i++)
+				{
+					isFound = window.get(i) == '\n';
+					position++;
+				}
+			}
+			bounds[k] = position;
+		}
+
+		return bounds;
+	}
+
+	/**
+	 * The {@code merge(Chunk[])} helper method numbers the nodes of every
+	 * chunk, in the order they first appear in file, and collects edges.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param chunks The scanned chunks, in file order
+	 * @return The edge list
+	 */
+	private EdgeList merge(Chunk[] chunks)
+	{
+		Map<String, Integer> ids = new HashMap<>();
+		List<String> nodes = new ArrayList<>();
+		int numEdges = 0;
+		for (Chunk chunk : chunks)
+		{
+			numEdges += chunk.numEdges;
+		}
+		int[] sources = new int[numEdges];
+		int[] targets = new int[numEdges];
+		double[] weights = this.isWeighted ? new double[numEdges] : null;
+
+		int position = 0;
+		for (Chunk chunk : chunks)
+		{
+			int[] globalIds = new int[chunk.labels.size()];
+			for (int i = 0; i < globalIds.length; i++)
+			{
+				String label = chunk.labels.get(i);
+				Integer id = ids.putIfAbsent(label, nodes.size());
+				if (id == null)
+				{
+					id = nodes.size();
+					nodes.add(label);
+				}
+				globalIds[i] = id;
+			}
+			for (int e = 0; e < chunk.numEdges; e++, position++)
+			{
+				sources[position] = globalIds[chunk.sources[e]];
+				targets[position] = chunk.targets[e] < 0 ?
+					-1 :
+					globalIds[chunk.targets[e]];
+				if (this.isWeighted)
+				{
+					weights[position] = chunk.weights[e];
+				}
+			}
+		}
+
+		return new EdgeList(
+				nodes.toArray(new String[0]),
+				sources,
+				targets,
+				weights
+		);
+	}
+
+	/**
+	 * The {@code EdgeList} class holds the content of an edge list file:
+	 * node labels and edges between them, in file order.
+	 *
+	 * @since 1.2.0
+	 */
+	public static final class EdgeList
+	{
+		/**
+		 * The node labels, in the order they first appear in file
+		 * @since 1.2.0
+		 */
+		private final String[] nodes;
+		/**
+		 * The id of source node of every line
+		 * @since 1.2.0
+		 */
+		private final int[] sources;
+		/**
+		 * The id of target node of every line, {@code -1} for lines holding
+		 * just a node
+		 * @since 1.2.0
+		 */
+		private final int[] targets;
+		/**
+		 * The weight of every line, {@code null} for unweighted files
+		 * @since 1.2.0
+		 */
+		private final double[] weights;
+
+		/**
+		 * The {@code EdgeList(String[], int[], int[], double[])} constructor
+		 * creates the edge list from its parts.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param nodes The node labels
+		 * @param sources The source node ids
+		 * @param targets The target node ids
+		 * @param weights The weights, if any
+		 */
+		private EdgeList(
+				String[] nodes,
+				int[] sources,
+				int[] targets,
+				double[] weights
+		)
+		{
+			this.nodes = nodes;
+			this.sources = sources;
+			this.targets = targets;
+			this.weights = weights;
+		}
+
+		/**
+		 * The {@code numNodes()} method returns the number of nodes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @return The number of nodes
+		 */
+		public int numNodes()
+		{
+			return this.nodes.length;
+		}
+
+		/**
+		 * The {@code numLines()} method returns the number of non-blank
+		 * lines, i.e. of edges and single nodes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @return The number of lines
+		 */
+		public int numLines()
+		{
+			return this.sources.length;
+		}
+
+		/**
+		 * The {@code node(int)} method returns the label of given node.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param id The node id
+		 * @return The node label
+		 */
+		public String node(int id)
+		{
+			return this.nodes[id];
+		}
+
+		/**
+		 * The {@code source(int)} method returns the source node of given
+		 * line.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param line The line index
+		 * @return The source node id
+		 */
+		public int source(int line)
+		{
+			return this.sources[line];
+		}
+
+		/**
+		 * The {@code target(int)} method returns the target node of given
+		 * line.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param line The line index
+		 * @return The target node id, {@code -1} if line holds just a node
+		 */
+		public int target(int line)
+		{
+			return this.targets[line];
+		}
+
+		/**
+		 * The {@code weight(int)} method returns the weight of given line.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param line The line index
+		 * @return The edge weight, {@link CSRGraph#DEFAULT_EDGE_WEIGHT} for
+		 * unweighted files
+		 */
+		public double weight(int line)
+		{
+			return this.weights == null ?
+				CSRGraph.DEFAULT_EDGE_WEIGHT :
+				this.weights[line];
+		}
+	}
+
+	/**
+	 * The {@code Chunk} class scans a memory-mapped chunk of file, numbering
+	 * nodes in the order they first appear in it.
+	 *
+	 * @since 1.2.0
+	 */
+	private final class Chunk
+	{
+		/**
+		 * The mapped bytes of chunk
+		 * @since 1.2.0
+		 */
+		private final MappedByteBuffer buffer;
+		/**
+		 * The number of mapped bytes
+		 * @since 1.2.0
+		 */
+		private final int limit;
+		/**
+		 * The bytes of quoted fields holding doubled quotes, with single
+		 * quotes; they are addressed by positions following mapped bytes
+		 * @since 1.2.0
+		 */
+		private byte[] unquoted;
+		/**
+		 * The number of bytes of quoted fields
+		 * @since 1.2.0
+		 */
+		private int numUnquoted;
+		/**
+		 * The node labels, in the order they first appear in chunk
+		 * @since 1.2.0
+		 */
+		private final List<String> labels;
+		/**
+		 * The hash table of node ids, by label bytes; {@code 0} denotes an
+		 * empty slot, node ids are stored increased by one
+		 * @since 1.2.0
+		 */
+		private int[] table;
+		/**
+		 * The position of the label of each node within chunk
+		 * @since 1.2.0
+		 */
+		private int[] labelStarts;
+		/**
+		 * The length of the label of each node
+		 * @since 1.2.0
+		 */
+		private int[] labelLengths;
+		/**
+		 * The source node of every line
+		 * @since 1.2.0
+		 */
+		private int[] sources;
+		/**
+		 * The target node of every line
+		 * @since 1.2.0
+		 */
+		private int[] targets;
+		/**
+		 * The weight of every line
+		 * @since 1.2.0
+		 */
+		private double[] weights;
+		/**
+		 * The number of scanned lines
+		 * @since 1.2.0
+		 */
+		private int numEdges;
+		/**
+		 * Denotes whether chunk ends within a quoted field
+		 * @since 1.2.0
+		 */
+		private boolean isQuoted;
+		/**
+		 * The error found while scanning chunk, if any
+		 * @since 1.2.0
+		 */
+		private IllegalArgumentException error;
+
+		/**
+		 * The {@code Chunk(MappedByteBuffer)} constructor creates the scanner
+		 * of given chunk.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param buffer The mapped bytes of chunk
+		 */
+		private Chunk(MappedByteBuffer buffer)
+		{
+			this.buffer = buffer;
+			this.limit = buffer.limit();
+			this.unquoted = new byte[256];
+			this.labels = new ArrayList<>();
+			this.table = new int[1024];
+			this.labelStarts = new int[256];
+			this.labelLengths = new int[256];
+			this.sources = new int[1024];
+			this.targets = new int[1024];
+			this.weights = EdgeListImporter.this.isWeighted ?
+				new double[1024] :
+				null;
+		}
+
+		/**
+		 * The {@code scan()} method scans every line of chunk, keeping the
+		 * error found, if any, rather than throwing it.
+		 *
+		 * @since 1.2.0
+		 */
+		private void scan()
+		{
+			try
+			{
+				this.scanLines();
+			}
+			catch (IllegalArgumentException e)
+			{
+				this.error = e;
+			}
+		}
+
+		/**
+		 * The {@code scanLines()} helper method scans every line of chunk.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @throws IllegalArgumentException A weight is not a number
+		 */
+		private void scanLines()
+		{
+			final byte separator = EdgeListImporter.this.separator;
+			final int limit = this.limit;
+			int position = 0;
+			while (position < limit)
+			{
+				int field = 0;
+				int source = -1, target = -1;
+				double weight = CSRGraph.DEFAULT_EDGE_WEIGHT;
+				while (position < limit)
+				{
+					byte b = this.buffer.get(position);
+					if (b == '\n')
+					{
+						position++;
+						break;
+					}
+					if (b == '\r')
+					{
+						position++;
+						continue;
+					}
+
+					int start = position, end;
+					int numLabels = this.labels.size();
+					int numUnquoted = this.numUnquoted;
+					if (b == '"')
+					{
+						// doubled quotes within quoted fields stand for
+						// single ones
+						start = ++position;
+						int doubled = 0;
+						this.isQuoted = true;
+						while (position < limit)
+						{
+							if (this.buffer.get(position++) == '"')
+							{
+								if (position < limit &&
+										this.buffer.get(position) == '"')
+								{
+									position++;
+									doubled++;
+								}
+								else
+								{
+									this.isQuoted = false;
+									break;
+								}
+							}
+						}
+						end = this.isQuoted ? position : position - 1;
+						if (doubled > 0)
+						{
+							int length = end - start - doubled;
+							start = this.unquote(start, end);
+							end = start + length;
+						}
+					}
+					else
+					{
+						while (position < limit &&
+								(b = this.buffer.get(position)) != separator &&
+								b != '\n' && b != '\r')
+						{
+							position++;
+						}
+						end = position;
+					}
+					// bytes following the closing quote are skipped
+					while (position < limit &&
+							(b = this.buffer.get(position)) != separator &&
+							b != '\n' && b != '\r')
+					{
+						position++;
+					}
+
+					if (field == 0)
+					{
+						source = this.nodeId(start, end - start);
+					}
+					else if (field == 1)
+					{
+						target = this.nodeId(start, end - start);
+					}
+					else if (field == 2 && this.weights != null && end > start)
+					{
+						weight = this.parseWeight(start, end);
+					}
+					if (this.labels.size() == numLabels)
+					{
+						// unquoted bytes are kept for new labels only
+						this.numUnquoted = numUnquoted;
+					}
+					field++;
+
+					// every separator ends a field, even an empty one
+					if (position < limit && b == separator)
+					{
+						position++;
+					}
+				}
+
+				if (field > 0)
+				{
+					this.addLine(source, target, weight);
+				}
+			}
+		}
+
+		/**
+		 * The {@code unquote(int, int)} helper method copies the bytes of a
+		 * quoted field holding doubled quotes, with single quotes.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param start The position of first byte of field
+		 * @param end The position past last byte of field
+		 * @return The position of copied bytes
+		 */
+		private int unquote(int start, int end)
+		{
+			int capacity = this.numUnquoted + end - start;
+			if (capacity > this.unquoted.length)
+			{
+				this.unquoted = Arrays.copyOf(
+						this.unquoted,
+						Math.max(2 * this.unquoted.length, capacity)
+				);
+			}
+			int position = this.limit + this.numUnquoted;
+			for (int i = start; i < end; i++)
+			{
+				byte b = this.buffer.get(i);
+				this.unquoted[this.numUnquoted++] = b;
+				if (b == '"')
+				{
+					// skip the doubling quote
+					i++;
+				}
+			}
+
+			return position;
+		}
+
+		/**
+		 * The {@code byteAt(int)} helper method returns the byte at given
+		 * position, either a mapped byte or a byte of quoted fields.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param position The position of byte
+		 * @return The byte at given position
+		 */
+		private byte byteAt(int position)
+		{
+			return position < this.limit ?
+				this.buffer.get(position) :
+				this.unquoted[position - this.limit];
+		}
+
+		/**
+		 * The {@code addLine(int, int, double)} helper method stores a
+		 * scanned line.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param source The source node id
+		 * @param target The target node id, {@code -1} if none
+		 * @param weight The edge weight
+		 */
+		private void addLine(int source, int target, double weight)
+		{
+			if (this.numEdges == this.sources.length)
+			{
+				int capacity = this.sources.length * 2;
+				this.sources = Arrays.copyOf(this.sources, capacity);
+				this.targets = Arrays.copyOf(this.targets, capacity);
+				if (this.weights != null)
+				{
+					this.weights = Arrays.copyOf(this.weights, capacity);
+				}
+			}
+			this.sources[this.numEdges] = source;
+			this.targets[this.numEdges] = target;
+			if (this.weights != null)
+			{
+				this.weights[this.numEdges] = weight;
+			}
+			this.numEdges++;
+		}
+
+		/**
+		 * The {@code nodeId(int, int)} helper method returns the id of the
+		 * node whose label spans given bytes, numbering it if new.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param start The position of label within chunk
+		 * @param length The length of label
+		 * @return The node id
+		 */
+		private int nodeId(int start, int length)
+		{
+			int hash = 0;
+			for (int i = start; i < start + length; i++)
+			{
+				hash = 31 * hash + this.byteAt(i);
+			}
+			int mask = this.table.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (this.table[slot] != 0)
+			{
+				int id = this.table[slot] - 1;
+				if (this.isLabel(id, start, length))
+				{
+					return id;
+				}
+				slot = (slot + 1) & mask;
+			}
+
+			int id = this.labels.size();
+			byte[] label = new byte[length];
+			for (int i = 0; i < length; i++)
+			{
+				label[i] = this.byteAt(start + i);
+			}
+			this.labels.add(new String(label, StandardCharsets.UTF_8));
+			if (id == this.labelStarts.length)
+			{
+				this.labelStarts = Arrays.copyOf(this.labelStarts, 2 * id);
+				this.labelLengths = Arrays.copyOf(this.labelLengths, 2 * id);
+			}
+			this.labelStarts[id] = start;
+			this.labelLengths[id] = length;
+			this.table[slot] = id + 1;
+			// keep table at most half full
+			if (2 * this.labels.size() > this.table.length)
+			{
+				this.rehash();
+			}
+
+			return id;
+		}
+
+		/**
+		 * The {@code isLabel(int, int, int)} helper method denotes whether
+		 * the label of given node spans the same bytes as the given ones.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param id The node id
+		 * @param start The position of bytes within chunk
+		 * @param length The number of bytes
+		 * @return {@code true} if bytes match node label, {@code false}
+		 * otherwise
+		 */
+		private boolean isLabel(int id, int start, int length)
+		{
+			if (this.labelLengths[id] != length)
+			{
+				return false;
+			}
+			int labelStart = this.labelStarts[id];
+			for (int i = 0; i < length; i++)
+			{
+				if (this.byteAt(labelStart + i) != this.byteAt(start + i))
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		/**
+		 * The {@code rehash()} helper method doubles the hash table size.
+		 *
+		 * @since 1.2.0
+		 */
+		private void rehash()
+		{
+			this.table = new int[2 * this.table.length];
+			int mask = this.table.length - 1;
+			for (int id = 0; id < this.labels.size(); id++)
+			{
+				int hash = 0;
+				int start = this.labelStarts[id];
+				for (int i = start; i < start + this.labelLengths[id]; i++)
+				{
+					hash = 31 * hash + this.byteAt(i);
+				}
+				int slot = (hash ^ (hash >>> 16)) & mask;
+				while (this.table[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				this.table[slot] = id + 1;
+			}
+		}
+
+		/**
+		 * The {@code parseWeight(int, int)} helper method parses the weight
+		 * spanning given bytes; plain decimal numbers are parsed in place,
+		 * any other notation by {@link Double#parseDouble(String)}.
+		 *
+		 * @since 1.2.0
+		 *
+		 * @param start The position of first byte of weight
+		 * @param end The position past last byte of weight
+		 * @return The parsed weight
+		 * @throws IllegalArgumentException The bytes are not a number
+		 */
+		private double parseWeight(int start, int end)
+		{
+			int i = start;
+			boolean isNegative = false;
+			byte b = this.byteAt(i);
+			if (b == '-' || b == '+')
+			{
+				isNegative = b == '-';
+				i++;
+			}
+
+			long mantissa = 0;
+			int digits = 0, decimals = 0;
+			boolean isDecimal = false;
+			for (; i < end; i++)
+			{
+				b = this.byteAt(i);
+				if (b >= '0' && b <= '9')
+				{
+					mantissa = 10 * mantissa + (b - '0');
+					digits++;
+					if (isDecimal)
+					{
+						decimals++;
+					}
+				}
+				else if (b == '.' && !isDecimal)
+				{
+					isDecimal = true;
+				}
+				else
+				{
+					break;
+				}
+			}
+
+			// both mantissa and power of ten are exact doubles, so that
+			// their quotient is correctly rounded
+			if (i == end && digits > 0 && digits <= 15 && decimals <= 22)
+			{
+				double weight = mantissa / POWERS_OF_TEN[decimals];
+				return isNegative ? -weight : weight;
+			}
+
+			byte[] bytes = new byte[end - start];
+			for (int j = 0; j < bytes.length; j++)
+			{
+				bytes[j] = this.byteAt(start + j);
+			}
+			String weight = new String(bytes, StandardCharsets.UTF_8);
+			try
+			{
+				return Double.parseDouble(weight);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException(
+						"invalid edge weight: " + weight
+				);
+			}
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package io.github.bissim.fly.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * {@code ParallelTasks} runs independent tasks, indexed by an int, on a
+ * {@link ForkJoinPool} with given parallelism.
+ * <br>
+ * A pool is created the first time a parallelism is requested and then
+ * shared by every later call, so that worker threads, along with their
+ * thread local workspaces, are reused; its workers are daemon threads,
+ * and idle ones are retired by the pool itself.
+ *
+ * @version 1.2.0
+ * @author Simone Bisogno
+ */
+public final class ParallelTasks
+{
+	/*
+	 * the pools already created, by parallelism
+	 */
+	private static final ConcurrentMap<Integer, ForkJoinPool> POOLS =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * The {@code ParallelTasks()} constructor is not meant to be invoked.
+	 *
+	 * @since 1.2.0
+	 */
+	private ParallelTasks() {}
+
+	/**
+	 * The {@code defaultParallelism()} method returns the parallelism used
+	 * when none is specified, i.e. the number of available processors.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @return The default parallelism
+	 */
+	public static int defaultParallelism()
+	{
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * The {@code forEach(int, int, IntConsumer)} method runs given action for
+	 * every index from {@code 0} (inclusive) to given count (exclusive).
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parallelism The maximum number of threads running the action
+	 * @param count The number of indexes
+	 * @param action The action to run for every index
+	 */
+	public static void forEach(int parallelism, int count, IntConsumer action)
+	{
+		if (parallelism == 1 || count < 2)
+		{
+			IntStream.range(0, count).forEach(action);
+			return;
+		}
+
+		// parallel streams run within the pool they are started from
+		pool(parallelism).submit(() -> IntStream
+				.range(0, count)
+				.parallel()
+				.forEach(action)
+		).join();
+	}
+
+	/**
+	 * The {@code sum(int, int, IntToDoubleFunction)} method sums the values
+	 * given function takes on every index from {@code 0} (inclusive) to given
+	 * count (exclusive).
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parallelism The maximum number of threads running the function
+	 * @param count The number of indexes
+	 * @param function The function to sum values of
+	 * @return The sum of function values
+	 */
+	public static double sum(
+			int parallelism,
+			int count,
+			IntToDoubleFunction function
+	)
+	{
+		if (parallelism == 1 || count < 2)
+		{
+			return IntStream.range(0, count).mapToDouble(function).sum();
+		}
+
+		return pool(parallelism).submit(() -> IntStream
+				.range(0, count)
+				.parallel()
+				.mapToDouble(function)
+				.sum()
+		).join();
+	}
+
+	/**
+	 * The {@code pool(int)} method returns the pool with given parallelism,
+	 * creating it if it is the first time it is requested.
+	 *
+	 * @since 1.2.0
+	 *
+	 * @param parallelism The parallelism of the pool
+	 * @return The shared pool with given parallelism
+	 * @throws IllegalArgumentException The parallelism is not positive
+	 */
+	private static ForkJoinPool pool(int parallelism)
+	{
+		// worker threads of a fork-join pool are daemon ones
+		return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+	}
+}
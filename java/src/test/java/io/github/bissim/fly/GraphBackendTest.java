@@ -0,0 +1,268 @@
+package io.github.bissim.fly;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+@DisplayName("Test graph storage backends")
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphBackendTest {
+
+    private Graph<String, Object> graph;
+    private Graph<String, Object> compactGraph;
+    private static final String[] INITIAL_NODES = {"a", "b", "c", "d", "e", "f"};
+
+    @BeforeAll
+    public static void initAll() {}
+
+    @BeforeEach
+    public void init() {
+        graph = new Graph<>(String.class, false, false);
+        compactGraph = new Graph<>(
+            String.class,
+            false,
+            false,
+            Graph.Backend.CSR
+        );
+
+        graph
+            .addNodes(INITIAL_NODES)
+            .addEdge("a", "b")
+            .addEdge("a", "c")
+            .addEdge("b", "c")
+            .addEdge("b", "e")
+            .addEdge("c", "d");
+        compactGraph
+            .addNodes(INITIAL_NODES)
+            .addEdge("a", "b")
+            .addEdge("a", "c")
+            .addEdge("b", "c")
+            .addEdge("b", "e")
+            .addEdge("c", "d")
+            .compact();
+    }
+
+    @Test
+    @DisplayName("1. Check initial graphs")
+    @Order(1)
+    public void initialGraph()
+    {
+        assertEquals(Graph.Backend.JGRAPHT, graph.getBackend());
+        assertEquals(Graph.Backend.CSR, compactGraph.getBackend());
+        assertEquals(graph.numNodes(), compactGraph.numNodes());
+        assertEquals(graph.numEdges(), compactGraph.numEdges());
+        assertArrayEquals(graph.nodeSet(), compactGraph.nodeSet());
+    }
+
+    @Test
+    @DisplayName("2. Node and edge queries")
+    @Order(2)
+    public void nodeAndEdgeQueries()
+    {
+        for (String node : INITIAL_NODES)
+        {
+            assertTrue(compactGraph.hasNode(node));
+            assertEquals(graph.nodeDegree(node), compactGraph.nodeDegree(node));
+            assertEquals(
+                graph.nodeInDegree(node),
+                compactGraph.nodeInDegree(node)
+            );
+            assertEquals(
+                graph.nodeOutDegree(node),
+                compactGraph.nodeOutDegree(node)
+            );
+            for (String other : INITIAL_NODES)
+            {
+                assertEquals(
+                    graph.hasEdge(node, other),
+                    compactGraph.hasEdge(node, other)
+                );
+            }
+        }
+        assertFalse(compactGraph.hasNode("g"));
+        assertEquals(1.0, compactGraph.getEdgeWeight("a", "b"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> compactGraph.nodeDegree("g")
+        );
+    }
+
+    @Test
+    @DisplayName("3. Traversal and measurement")
+    @Order(3)
+    public void traversalAndMeasurement()
+    {
+        assertArrayEquals(graph.bfsNodes("a"), compactGraph.bfsNodes("a"));
+        assertEquals(
+            graph.shortestPathLength("a", "d"),
+            compactGraph.shortestPathLength("a", "d")
+        );
+        assertEquals(
+            Integer.MAX_VALUE,
+            compactGraph.shortestPathLength("a", "f")
+        );
+        assertEquals(graph.getDiameter(), compactGraph.getDiameter());
+        assertEquals(graph.getRadius(), compactGraph.getRadius());
+        assertArrayEquals(graph.getCenter(), compactGraph.getCenter());
+        assertArrayEquals(graph.getPeriphery(), compactGraph.getPeriphery());
+        assertEquals(
+            graph.getNodeEccentricity("c"),
+            compactGraph.getNodeEccentricity("c")
+        );
+        assertEquals(graph.isConnected(), compactGraph.isConnected());
+    }
+
+    @Test
+    @DisplayName("4. Modify compact graph")
+    @Order(4)
+    public void modifyCompactGraph()
+    {
+        compactGraph.addEdge("e", "f");
+        graph.addEdge("e", "f");
+
+        compactGraph.compact();
+        assertEquals(graph.numEdges(), compactGraph.numEdges());
+        assertTrue(compactGraph.hasEdge("f", "e"));
+        assertNotNull(compactGraph.shortestPath("a", "f"));
+        assertEquals(3, compactGraph.shortestPathLength("a", "f"));
+        assertTrue(compactGraph.isConnected());
+    }
+
+    @Test
+    @DisplayName("5. Weighted directed compact graph")
+    @Order(5)
+    public void weightedDirectedCompactGraph()
+    {
+        Graph<String, Object> wdGraph = new Graph<>(String.class, true, true);
+        wdGraph
+            .addNodes(INITIAL_NODES)
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("a", "c");
+        wdGraph.setEdgeWeight("a", "b", 2.0);
+        wdGraph.setEdgeWeight("b", "c", 1.0);
+        wdGraph.setEdgeWeight("a", "c", 5.0);
+        Graph<String, Object> compactWdGraph = new Graph<>(
+            String.class,
+            true,
+            true,
+            Graph.Backend.CSR
+        );
+        compactWdGraph
+            .addNodes(INITIAL_NODES)
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("a", "c");
+        compactWdGraph.setEdgeWeight("a", "b", 2.0);
+        compactWdGraph.setEdgeWeight("b", "c", 1.0);
+        compactWdGraph.setEdgeWeight("a", "c", 5.0);
+        compactWdGraph.compact();
+
+        assertEquals(5.0, compactWdGraph.getEdgeWeight("a", "c"));
+        assertEquals(1, compactWdGraph.nodeInDegree("b"));
+        assertEquals(2, compactWdGraph.nodeOutDegree("a"));
+        assertFalse(compactWdGraph.hasEdge("c", "a"));
+        assertEquals(2, compactWdGraph.shortestPathLength("a", "c"));
+        assertEquals(
+            wdGraph.getNodeEccentricity("a"),
+            compactWdGraph.getNodeEccentricity("a")
+        );
+        assertEquals(wdGraph.numEdges(), compactWdGraph.numEdges());
+        assertEquals(wdGraph.getDiameter(), compactWdGraph.getDiameter());
+    }
+
+    @Test
+    @DisplayName("6. Edges of compact graph")
+    @Order(6)
+    public void compactGraphEdges()
+    {
+        Graph<String, Object> compactWdGraph = new Graph<>(
+            String.class,
+            true,
+            true,
+            Graph.Backend.CSR
+        );
+        compactWdGraph
+            .addNodes(INITIAL_NODES)
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("a", "c")
+            .addEdge("c", "d");
+        compactWdGraph.setEdgeWeight("a", "b", 2.0);
+        compactWdGraph.setEdgeWeight("b", "c", 1.0);
+        compactWdGraph.setEdgeWeight("a", "c", 5.0);
+        compactWdGraph.compact();
+
+        Object[] path = compactWdGraph.shortestPath("a", "d");
+        assertEquals(3, path.length);
+        assertEquals("a", compactWdGraph.getEdgeSource(path[0]));
+        assertEquals("b", compactWdGraph.getEdgeTarget(path[0]));
+        assertEquals("d", compactWdGraph.getEdgeTarget(path[2]));
+        assertEquals(3, compactWdGraph.bfsEdges("a").length);
+        assertEquals(4, compactWdGraph.edgeSet().length);
+        assertEquals(3, compactWdGraph.nodeEdges("c").length);
+        assertEquals(1, compactWdGraph.nodeOutEdges("c").length);
+        assertEquals("b", compactWdGraph.getLCA("b", "c"));
+        assertEquals(null, compactWdGraph.getEdge("c", "a"));
+
+        // undirected edges
+        Object edge = compactGraph.getEdge("e", "b");
+        assertEquals("b", compactGraph.getEdgeSource(edge));
+        assertEquals("e", compactGraph.getEdgeTarget(edge));
+        assertEquals(3, compactGraph.nodeEdges("b").length);
+        assertEquals(
+            graph.shortestPathLength("a", "e"),
+            compactGraph.shortestPath("a", "e").length
+        );
+
+        // edges returned by compact graph can still modify it
+        compactWdGraph.setEdgeTarget(path[2], "e");
+        assertFalse(compactWdGraph.hasEdge("c", "d"));
+        assertTrue(compactWdGraph.hasEdge("c", "e"));
+        assertEquals(4, compactWdGraph.numEdges());
+    }
+
+    @Test
+    @DisplayName("7. Search while modifying graph")
+    @Order(7)
+    public void searchWhileModifying()
+    {
+        assertEquals(2, graph.shortestPathLength("a", "d"));
+        graph.addEdge("d", "e");
+        compactGraph.addEdge("d", "e");
+        assertEquals(
+            compactGraph.shortestPathLength("a", "e"),
+            graph.shortestPathLength("a", "e")
+        );
+        graph.addEdge("a", "e");
+        assertEquals(1, graph.shortestPath("a", "e").length);
+        assertEquals(2, graph.shortestPathLength("d", "a"));
+        assertEquals(2, graph.shortestPathsFrom("d").pathLength("a"));
+        assertEquals(Integer.MAX_VALUE, graph.shortestPathLength("a", "f"));
+        assertEquals(null, graph.shortestPath("f", "a"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> graph.shortestPath("a", "z")
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @AfterAll
+    public static void tearDownAll() {}
+
+}
@@ -0,0 +1,441 @@
+package io.github.bissim.fly;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.jgrapht.alg.connectivity.ConnectivityInspector;
+import org.jgrapht.alg.connectivity.KosarajuStrongConnectivityInspector;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.jgrapht.graph.SimpleGraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import io.github.bissim.fly.alg.StronglyConnectedComponents;
+import io.github.bissim.fly.util.CSRGraph;
+
+@DisplayName("Test graph connectivity methods")
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphConnectivityTest {
+
+    private Graph<String, Object> graph;
+    private Graph<String, Object> dGraph;
+    private static final String[] INITIAL_NODES = {"a", "b", "c", "d", "e", "f"};
+
+    @BeforeAll
+    public static void initAll() {}
+
+    @BeforeEach
+    public void init() {
+        graph = new Graph<>(String.class, false, false);
+        graph
+            .addNodes(INITIAL_NODES)
+            .addEdge("a", "b")
+            .addEdge("c", "e")
+            .addEdge("e", "b")
+            .addEdge("d", "f");
+
+        dGraph = new Graph<>(String.class, true, false);
+        dGraph
+            .addNodes(INITIAL_NODES)
+            .addEdge("b", "a")
+            .addEdge("c", "a")
+            .addEdge("f", "d")
+            .addEdge("d", "f");
+    }
+
+    @Test
+    @DisplayName("1. Connected components")
+    @Order(1)
+    public void connectedComponents()
+    {
+        assertFalse(graph.isConnected());
+        assertEquals(2, graph.numberConnectedComponents());
+        Object[] components = graph.connectedComponents();
+        assertEquals(2, components.length);
+        assertArrayEquals(new String[] {"a", "b", "c", "e"}, (String[]) components[0]);
+        assertArrayEquals(new String[] {"d", "f"}, (String[]) components[1]);
+        assertArrayEquals(new String[] {"d", "f"}, graph.nodeConnectedComponent("f"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> graph.nodeConnectedComponent("x")
+        );
+
+        // labelling is computed again once graph is modified
+        graph.addEdge("f", "a");
+        assertTrue(graph.isConnected());
+        assertEquals(1, graph.connectedComponents().length);
+        graph.addNode("g");
+        assertFalse(graph.isConnected());
+        assertArrayEquals(new String[] {"g"}, graph.nodeConnectedComponent("g"));
+
+        // directed graphs are weakly connected
+        assertEquals(3, dGraph.numberConnectedComponents());
+        assertArrayEquals(new String[] {"a", "b", "c"}, dGraph.nodeConnectedComponent("c"));
+        assertArrayEquals(new String[] {"e"}, (String[]) dGraph.connectedComponents()[2]);
+
+        assertFalse(new Graph<>(String.class, false, false).isConnected());
+    }
+
+    @Test
+    @DisplayName("2. Same components as JGraphT inspector")
+    @Order(2)
+    public void sameAsJGraphT()
+    {
+        final Random RANDOM = new Random(2);
+        for (boolean isDirected : new boolean[] {false, true})
+        {
+            for (Graph.Backend backend : Graph.Backend.values())
+            {
+                org.jgrapht.Graph<Integer, DefaultEdge> jgraph = isDirected ?
+                    new SimpleDirectedGraph<>(DefaultEdge.class) :
+                    new SimpleGraph<>(DefaultEdge.class);
+                Graph.Builder<Integer, Object> builder =
+                    new Graph.Builder<Integer, Object>(Integer.class, isDirected, false)
+                    .backend(backend);
+                for (int node = 0; node < 5000; node++)
+                {
+                    // nodes are not added in label order
+                    Integer label = (node * 7919) % 5000;
+                    jgraph.addVertex(label);
+                    builder.addNode(label);
+                }
+                for (int edge = 0; edge < 4000; edge++)
+                {
+                    Integer source = RANDOM.nextInt(5000);
+                    Integer target = RANDOM.nextInt(5000);
+                    if (!source.equals(target) &&
+                        !jgraph.containsEdge(source, target))
+                    {
+                        jgraph.addEdge(source, target);
+                        builder.addEdge(source, target);
+                    }
+                }
+                Graph<Integer, Object> flyGraph = builder.build();
+                flyGraph.setParallelism(4);
+
+                List<Set<Integer>> expected =
+                    new ConnectivityInspector<>(jgraph).connectedSets();
+                Object[] actual = flyGraph.connectedComponents();
+                assertEquals(expected.size(), flyGraph.numberConnectedComponents());
+                assertEquals(expected.size(), actual.length);
+                for (int i = 0; i < actual.length; i++)
+                {
+                    Integer[] component = (Integer[]) actual[i];
+                    assertEquals(
+                        expected.get(i),
+                        new HashSet<>(Arrays.asList(component))
+                    );
+                    assertArrayEquals(
+                        component,
+                        flyGraph.nodeConnectedComponent(component[component.length - 1])
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("3. Connected subgraphs")
+    @Order(3)
+    public void connectedSubgraphs()
+    {
+        Graph<String, Object>[] subgraphs = graph.connectedSubgraphs();
+        assertEquals(2, subgraphs.length);
+        assertArrayEquals(new String[] {"a", "b", "c", "e"}, subgraphs[0].nodeSet());
+        assertEquals(3, subgraphs[0].numEdges());
+        assertTrue(subgraphs[0].hasEdge("b", "e"));
+        assertArrayEquals(new String[] {"d", "f"}, subgraphs[1].nodeSet());
+        assertEquals(1, subgraphs[1].numEdges());
+
+        Graph<String, Object>[] dSubgraphs = dGraph.connectedSubgraphs();
+        assertEquals(3, dSubgraphs.length);
+        assertTrue(dSubgraphs[0].hasEdge("c", "a"));
+        assertFalse(dSubgraphs[0].hasEdge("a", "c"));
+        assertEquals(2, dSubgraphs[1].numEdges());
+        assertEquals(0, dSubgraphs[2].numEdges());
+
+        // thousands of components, keeping weights and backend
+        Graph.Builder<Integer, Object> builder =
+            new Graph.Builder<Integer, Object>(Integer.class, false, true)
+            .backend(Graph.Backend.CSR);
+        for (int node = 0; node < 6000; node += 3)
+        {
+            builder.addNode(node).addNode(node + 1).addNode(node + 2);
+            builder.addEdge(node, node + 1, node / 3.0);
+            builder.addEdge(node + 2, node + 1, 0.5);
+        }
+        Graph<Integer, Object> wGraph = builder.build();
+        Graph<Integer, Object>[] wSubgraphs = wGraph.connectedSubgraphs();
+        assertEquals(2000, wSubgraphs.length);
+        for (int c = 0; c < wSubgraphs.length; c++)
+        {
+            assertEquals(Graph.Backend.CSR, wSubgraphs[c].getBackend());
+            assertArrayEquals(
+                new Integer[] {3 * c, 3 * c + 1, 3 * c + 2},
+                wSubgraphs[c].nodeSet()
+            );
+            assertEquals(2, wSubgraphs[c].numEdges());
+            assertEquals(c, wSubgraphs[c].getEdgeWeight(3 * c + 1, 3 * c));
+            assertEquals(0.5, wSubgraphs[c].getEdgeWeight(3 * c + 1, 3 * c + 2));
+        }
+    }
+
+    @Test
+    @DisplayName("4. Strongly connected components")
+    @Order(4)
+    public void stronglyConnectedComponents()
+    {
+        assertFalse(dGraph.isStronglyConnected());
+        Object[] components = dGraph.stronglyConnectedComponents();
+        assertEquals(5, components.length);
+        // components are in topological order of condensation
+        assertArrayEquals(new String[] {"b"}, (String[]) components[0]);
+        assertArrayEquals(new String[] {"c"}, (String[]) components[1]);
+        assertArrayEquals(new String[] {"d", "f"}, (String[]) components[2]);
+        assertArrayEquals(new String[] {"e"}, (String[]) components[3]);
+        assertArrayEquals(new String[] {"a"}, (String[]) components[4]);
+
+        Graph<String, Object>[] subgraphs = dGraph.stronglyConnectedSubgraphs();
+        assertEquals(5, subgraphs.length);
+        assertArrayEquals(new String[] {"d", "f"}, subgraphs[2].nodeSet());
+        assertEquals(2, subgraphs[2].numEdges());
+        assertEquals(0, subgraphs[4].numEdges());
+
+        // labelling is computed again once graph is modified
+        dGraph
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("a", "d")
+            .addEdge("f", "e")
+            .addEdge("e", "a");
+        assertTrue(dGraph.isStronglyConnected());
+        assertEquals(1, dGraph.stronglyConnectedSubgraphs().length);
+        assertEquals(9, dGraph.stronglyConnectedSubgraphs()[0].numEdges());
+
+        // undirected graphs have the same connected and strong components
+        assertFalse(graph.isStronglyConnected());
+        assertEquals(
+            graph.connectedComponents().length,
+            graph.stronglyConnectedComponents().length
+        );
+        assertFalse(new Graph<>(String.class, true, false).isStronglyConnected());
+    }
+
+    @Test
+    @DisplayName("5. Same strong components as JGraphT inspector")
+    @Order(5)
+    public void sameStrongAsJGraphT()
+    {
+        final Random RANDOM = new Random(5);
+        // large graphs are labelled in parallel by forward-backward
+        for (int n : new int[] {3000, StronglyConnectedComponents.PARALLEL_THRESHOLD + 5000})
+        {
+            for (int edges : new int[] {n, 2 * n})
+            {
+                org.jgrapht.Graph<Integer, DefaultEdge> jgraph =
+                    new SimpleDirectedGraph<>(DefaultEdge.class);
+                for (int node = 0; node < n; node++)
+                {
+                    jgraph.addVertex(node);
+                }
+                for (int edge = 0; edge < edges; edge++)
+                {
+                    Integer source = RANDOM.nextInt(n);
+                    Integer target = RANDOM.nextInt(n);
+                    if (!source.equals(target) &&
+                        !jgraph.containsEdge(source, target))
+                    {
+                        jgraph.addEdge(source, target);
+                    }
+                }
+                CSRGraph<Integer> csr = CSRGraph.of(jgraph);
+                List<Set<Integer>> expected =
+                    new KosarajuStrongConnectivityInspector<>(jgraph)
+                    .stronglyConnectedSets();
+                Set<Set<Integer>> expectedSets = new HashSet<>(expected);
+
+                for (int parallelism : new int[] {1, 4})
+                {
+                    StronglyConnectedComponents labelling =
+                        new StronglyConnectedComponents(csr, parallelism);
+                    assertEquals(expected.size(), labelling.count());
+                    Set<Set<Integer>> actualSets = new HashSet<>();
+                    for (int c = 0; c < labelling.count(); c++)
+                    {
+                        Set<Integer> component = new HashSet<>();
+                        // node ids match labels as nodes have been added in order
+                        for (int u : labelling.nodes(c))
+                        {
+                            component.add(u);
+                            assertEquals(c, labelling.componentOf(u));
+                        }
+                        actualSets.add(component);
+                    }
+                    assertEquals(expectedSets, actualSets);
+
+                    // condensation is a DAG in topological order
+                    CSRGraph<Integer> condensation = labelling.condensation();
+                    assertEquals(labelling.count(), condensation.numNodes());
+                    for (int u = 0; u < n; u++)
+                    {
+                        for (int i = csr.outOffsets()[u]; i < csr.outOffsets()[u + 1]; i++)
+                        {
+                            int cu = labelling.componentOf(u);
+                            int cv = labelling.componentOf(csr.outTargets()[i]);
+                            assertTrue(cu <= cv);
+                            assertTrue(cu == cv || condensation.hasEdge(cu, cv));
+                        }
+                    }
+                    for (int c = 0; c < condensation.numNodes(); c++)
+                    {
+                        for (int i = condensation.outOffsets()[c]; i < condensation.outOffsets()[c + 1]; i++)
+                        {
+                            assertTrue(c < condensation.outTargets()[i]);
+                        }
+                    }
+                }
+                // numbering doesn't depend on how components are found
+                assertArrayEquals(
+                    new StronglyConnectedComponents(csr, 1).components(),
+                    new StronglyConnectedComponents(csr, 4).components()
+                );
+            }
+        }
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new StronglyConnectedComponents(
+                CSRGraph.of(new SimpleGraph<>(DefaultEdge.class))
+            )
+        );
+    }
+
+    @Test
+    @DisplayName("6. Condensation")
+    @Order(6)
+    public void condensation()
+    {
+        Graph<Integer, Object> condensation = dGraph.condensation();
+        assertArrayEquals(new Integer[] {0, 1, 2, 3, 4}, condensation.nodeSet());
+        assertEquals(2, condensation.numEdges());
+        assertTrue(condensation.hasEdge(0, 4));
+        assertTrue(condensation.hasEdge(1, 4));
+        assertTrue(condensation.isDAG());
+        assertEquals(Graph.Backend.JGRAPHT, condensation.getBackend());
+        assertEquals(2, dGraph.strongComponentOf("f"));
+        assertArrayEquals(new int[] {4, 0, 1, 2, 3, 2}, dGraph.strongComponentIndexes());
+        Object[] components = dGraph.stronglyConnectedComponents();
+        for (String node : INITIAL_NODES)
+        {
+            assertTrue(
+                Arrays.asList((String[]) components[dGraph.strongComponentOf(node)])
+                .contains(node)
+            );
+        }
+
+        // condensation is built again once graph is modified
+        dGraph.addEdge("a", "c").addEdge("e", "b");
+        condensation = dGraph.condensation();
+        assertArrayEquals(new Integer[] {0, 1, 2, 3}, condensation.nodeSet());
+        assertEquals(2, condensation.numEdges());
+        assertEquals(dGraph.strongComponentOf("a"), dGraph.strongComponentOf("c"));
+        assertTrue(
+            condensation.hasEdge(
+                dGraph.strongComponentOf("e"),
+                dGraph.strongComponentOf("b")
+            )
+        );
+
+        Graph<String, Object> csrGraph =
+            new Graph<>(String.class, true, false, Graph.Backend.CSR);
+        csrGraph.addNodes(INITIAL_NODES).addEdge("a", "b").addEdge("b", "a");
+        csrGraph.compact();
+        assertEquals(Graph.Backend.CSR, csrGraph.condensation().getBackend());
+        assertEquals(5, csrGraph.condensation().numNodes());
+        assertEquals(graph.strongComponentOf("a"), graph.strongComponentOf("e"));
+        assertThrows(IllegalArgumentException.class, () -> graph.condensation());
+        assertThrows(IllegalArgumentException.class, () -> dGraph.strongComponentOf("x"));
+    }
+
+    @Test
+    @DisplayName("7. Reachability")
+    @Order(7)
+    public void reachability()
+    {
+        assertTrue(dGraph.reachabilityIndex().canReach("b", "a"));
+        assertTrue(dGraph.canReach("d", "f"));
+        assertTrue(dGraph.canReach("f", "d"));
+        assertTrue(dGraph.canReach("e", "e"));
+        assertFalse(dGraph.canReach("a", "b"));
+        assertFalse(dGraph.canReach("b", "c"));
+
+        // index is built again once graph is modified
+        dGraph.addEdge("a", "d").addEdge("f", "c");
+        assertTrue(dGraph.canReach("b", "c"));
+        assertFalse(dGraph.canReach("c", "b"));
+
+        assertTrue(graph.canReach("a", "c"));
+        assertFalse(graph.canReach("a", "f"));
+        assertThrows(IllegalArgumentException.class, () -> dGraph.canReach("a", "x"));
+
+        // random digraphs and DAGs, against nodes reached by BFS
+        final Random RANDOM = new Random(7);
+        for (boolean isAcyclic : new boolean[] {false, true})
+        {
+            final int n = 400;
+            Graph<Integer, Object> flyGraph = new Graph<>(Integer.class, true, false);
+            flyGraph.setParallelism(2);
+            for (int node = 0; node < n; node++)
+            {
+                flyGraph.addNode(node);
+            }
+            for (int edge = 0; edge < 2 * n; edge++)
+            {
+                int source = RANDOM.nextInt(n);
+                int target = RANDOM.nextInt(n);
+                if (isAcyclic && source > target)
+                {
+                    int swap = source;
+                    source = target;
+                    target = swap;
+                }
+                if (source != target && !flyGraph.hasEdge(source, target))
+                {
+                    flyGraph.addEdge(source, target);
+                }
+            }
+            for (int source = 0; source < n; source++)
+            {
+                Set<Integer> reached =
+                    new HashSet<>(Arrays.asList(flyGraph.bfsNodes(source)));
+                for (int target = 0; target < n; target++)
+                {
+                    assertEquals(reached.contains(target), flyGraph.canReach(source, target));
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @AfterAll
+    public static void tearDownAll() {}
+
+}
@@ -0,0 +1,185 @@
+package io.github.bissim.fly;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.jgrapht.alg.cycle.CycleDetector;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import io.github.bissim.fly.alg.TopologicalOrder;
+
+@DisplayName("Test graph DAG and topological sorting methods")
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphDAGTest {
+
+    private Graph<String, Object> dag;
+
+    @BeforeAll
+    public static void initAll() {}
+
+    @BeforeEach
+    public void init() {
+        // a -> c -> e <- d <- b, f isolated
+        dag = new Graph<>(String.class, true, false);
+        dag
+            .addNodes(new String[] {"e", "d", "c", "b", "a", "f"})
+            .addEdge("a", "c")
+            .addEdge("c", "e")
+            .addEdge("b", "d")
+            .addEdge("d", "e")
+            .addEdge("a", "e");
+    }
+
+    @Test
+    @DisplayName("1. Topological sort and levels")
+    @Order(1)
+    public void topologicalSort()
+    {
+        assertTrue(dag.isDAG());
+        assertNull(dag.findCycle());
+        assertArrayEquals(
+            new String[] {"b", "a", "f", "d", "c", "e"},
+            dag.topologicalSort()
+        );
+        Object[] levels = dag.topologicalLevels();
+        assertEquals(3, levels.length);
+        assertArrayEquals(new String[] {"b", "a", "f"}, (String[]) levels[0]);
+        assertArrayEquals(new String[] {"d", "c"}, (String[]) levels[1]);
+        assertArrayEquals(new String[] {"e"}, (String[]) levels[2]);
+
+        // order is computed again once graph is modified
+        dag.addEdge("e", "f");
+        assertArrayEquals(new String[] {"f"}, (String[]) dag.topologicalLevels()[3]);
+
+        Graph<String, Object> undirected = new Graph<>(String.class, false, false);
+        assertThrows(IllegalArgumentException.class, () -> undirected.isDAG());
+        assertThrows(IllegalArgumentException.class, () -> undirected.topologicalSort());
+        assertEquals(0, new Graph<>(String.class, true, false).topologicalSort().length);
+    }
+
+    @Test
+    @DisplayName("2. Cycle witness")
+    @Order(2)
+    public void findCycle()
+    {
+        dag.addEdge("e", "b").addEdge("f", "a");
+        assertFalse(dag.isDAG());
+        String[] cycle = dag.findCycle();
+        for (int k = 0; k < cycle.length; k++)
+        {
+            assertTrue(dag.hasEdge(cycle[k], cycle[(k + 1) % cycle.length]));
+        }
+        assertThrows(IllegalArgumentException.class, () -> dag.topologicalSort());
+        assertThrows(IllegalArgumentException.class, () -> dag.topologicalLevels());
+
+        dag.removeEdge("d", "e");
+        assertTrue(dag.isDAG());
+        assertArrayEquals(new String[] {"f", "a", "c", "e", "b", "d"}, dag.topologicalSort());
+    }
+
+    @Test
+    @DisplayName("3. Same acyclicity as JGraphT detector")
+    @Order(3)
+    public void sameAsJGraphT()
+    {
+        final Random RANDOM = new Random(3);
+        // large levels are expanded in parallel
+        for (int n : new int[] {500, 4 * TopologicalOrder.PARALLEL_LEVEL})
+        {
+            for (int backEdges : new int[] {0, 1, 3})
+            {
+                org.jgrapht.Graph<Integer, DefaultEdge> jgraph =
+                    new SimpleDirectedGraph<>(DefaultEdge.class);
+                Graph.Builder<Integer, Object> builder =
+                    new Graph.Builder<>(Integer.class, true, false);
+                for (int node = 0; node < n; node++)
+                {
+                    jgraph.addVertex(node);
+                    builder.addNode(node);
+                }
+                for (int edge = 0; edge < 3 * n + backEdges; edge++)
+                {
+                    int source = RANDOM.nextInt(n);
+                    int target = RANDOM.nextInt(n);
+                    // edges go forwards, but the last ones
+                    if ((source > target) == (edge < 3 * n))
+                    {
+                        int swap = source;
+                        source = target;
+                        target = swap;
+                    }
+                    if (source != target && !jgraph.containsEdge(source, target))
+                    {
+                        jgraph.addEdge(source, target);
+                        builder.addEdge(source, target);
+                    }
+                }
+                Graph<Integer, Object> flyGraph = builder.build();
+                flyGraph.setParallelism(4);
+
+                boolean isDAG = !new CycleDetector<>(jgraph).detectCycles();
+                assertEquals(isDAG, flyGraph.isDAG());
+                if (isDAG)
+                {
+                    Integer[] order = flyGraph.topologicalSort();
+                    int[] positions = new int[n];
+                    for (int k = 0; k < order.length; k++)
+                    {
+                        positions[order[k]] = k;
+                    }
+                    assertEquals(n, order.length);
+                    Object[] levels = flyGraph.topologicalLevels();
+                    int[] nodeLevels = new int[n];
+                    for (int l = 0; l < levels.length; l++)
+                    {
+                        for (Integer node : (Integer[]) levels[l])
+                        {
+                            nodeLevels[node] = l;
+                        }
+                    }
+                    for (DefaultEdge edge : jgraph.edgeSet())
+                    {
+                        int source = jgraph.getEdgeSource(edge);
+                        int target = jgraph.getEdgeTarget(edge);
+                        assertTrue(positions[source] < positions[target]);
+                        assertTrue(nodeLevels[source] < nodeLevels[target]);
+                    }
+                }
+                else
+                {
+                    Integer[] cycle = flyGraph.findCycle();
+                    assertTrue(cycle.length > 1);
+                    for (int k = 0; k < cycle.length; k++)
+                    {
+                        assertTrue(
+                            jgraph.containsEdge(cycle[k], cycle[(k + 1) % cycle.length])
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @AfterAll
+    public static void tearDownAll() {}
+
+}
@@ -0,0 +1,607 @@
+package io.github.bissim.fly;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.jgrapht.Graphs;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.SimpleDirectedWeightedGraph;
+import org.jgrapht.nio.csv.CSVExporter;
+import org.jgrapht.nio.csv.CSVFormat;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.bissim.fly.alg.ContractionHierarchy;
+import io.github.bissim.fly.util.CSRGraph;
+import io.github.bissim.fly.util.EdgeListExporter;
+import io.github.bissim.fly.util.EdgeListImporter;
+
+@DisplayName("Test graph import and export methods")
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphIOTest {
+
+    @TempDir
+    public Path directory;
+
+    @BeforeAll
+    public static void initAll() {}
+
+    @BeforeEach
+    public void init() {}
+
+    @Test
+    @DisplayName("1. Import edge list")
+    @Order(1)
+    public void importEdgeList() throws Exception
+    {
+        Path file = this.write(
+            "graph.edgelist",
+            "a b\nc\r\n\nb c\r\na b\nb a\nd c"
+        );
+
+        for (Graph.Backend backend : Graph.Backend.values())
+        {
+            Graph<String, Object> graph = Graph.importGraph(
+                file.toString(),
+                " ",
+                String.class,
+                false,
+                false,
+                backend
+            );
+            assertEquals(backend, graph.getBackend());
+            assertArrayEquals(new String[] {"a", "b", "c", "d"}, graph.nodeSet());
+            assertEquals(3, graph.numEdges());
+            assertTrue(graph.hasEdge("c", "b"));
+            assertFalse(graph.hasEdge("a", "c"));
+            assertArrayEquals(
+                new String[] {"a", "b", "c", "d"},
+                graph.bfsNodes("a")
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("2. Import weighted edge list")
+    @Order(2)
+    public void importWeightedEdgeList() throws Exception
+    {
+        Path file = this.write(
+            "wdgraph.edgelist",
+            "a,b,2.5\nb,c,1e-1\nc,a,-3\na,c,0.3"
+        );
+
+        for (Graph.Backend backend : Graph.Backend.values())
+        {
+            Graph<String, Object> graph = Graph.importGraph(
+                file.toString(),
+                ",",
+                String.class,
+                true,
+                true,
+                backend
+            );
+            assertEquals(4, graph.numEdges());
+            assertEquals(2.5, graph.getEdgeWeight("a", "b"));
+            assertEquals(0.1, graph.getEdgeWeight("b", "c"));
+            assertEquals(-3.0, graph.getEdgeWeight("c", "a"));
+            assertEquals(0.3, graph.getEdgeWeight("a", "c"));
+        }
+
+        Path wrong = this.write("wrong.edgelist", "a b 1\nb c x1");
+        assertThrows(
+            Exception.class,
+            () -> Graph.importGraph(wrong.toString(), " ", String.class, true, false)
+        );
+        // loops are malformed input as well, not a graph exception
+        Path loop = this.write("loop.edgelist", "a b 1\nb b 2");
+        for (Graph.Backend backend : Graph.Backend.values())
+        {
+            Exception e = assertThrows(
+                Exception.class,
+                () -> Graph.importGraph(loop.toString(), " ", String.class, true, false, backend)
+            );
+            assertEquals(Exception.class, e.getClass());
+            assertTrue(e.getMessage().contains("loops not allowed"));
+        }
+        assertThrows(
+            FileNotFoundException.class,
+            () -> Graph.importGraph(
+                this.directory.resolve("missing.edgelist").toString(),
+                " ",
+                String.class,
+                false,
+                false
+            )
+        );
+    }
+
+    @Test
+    @DisplayName("3. Import edge list in parallel")
+    @Order(3)
+    public void importEdgeListInParallel() throws IOException
+    {
+        final Random RANDOM = new Random(3);
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < 300000; line++)
+        {
+            content
+                .append(RANDOM.nextInt(50000))
+                .append('\t')
+                .append(RANDOM.nextInt(50000))
+                .append('\t')
+                .append(RANDOM.nextInt(100) / 10.0)
+                .append('\n');
+        }
+        Path file = this.write("random.edgelist", content.toString());
+
+        EdgeListImporter.EdgeList sequential = new EdgeListImporter('\t', true)
+            .setParallelism(1)
+            .read(file);
+        EdgeListImporter.EdgeList parallel = new EdgeListImporter('\t', true)
+            .setParallelism(4)
+            .read(file);
+        assertEquals(300000, parallel.numLines());
+        assertEquals(sequential.numNodes(), parallel.numNodes());
+        for (int u = 0; u < sequential.numNodes(); u++)
+        {
+            assertEquals(sequential.node(u), parallel.node(u));
+        }
+        for (int line = 0; line < sequential.numLines(); line++)
+        {
+            assertEquals(sequential.source(line), parallel.source(line));
+            assertEquals(sequential.target(line), parallel.target(line));
+            assertEquals(sequential.weight(line), parallel.weight(line));
+        }
+    }
+
+    @Test
+    @DisplayName("4. Save and load binary snapshot")
+    @Order(4)
+    public void binarySnapshot() throws Exception
+    {
+        Path file = this.directory.resolve("graph.bin");
+        Graph<String, Object> graph = new Graph<>(String.class, false, false);
+        graph
+            .addNodes(new String[] {"a", "b", "c", "d", "e", "f"})
+            .addEdge("a", "b")
+            .addEdge("a", "c")
+            .addEdge("b", "c")
+            .addEdge("b", "e")
+            .addEdge("c", "d");
+        graph.saveBinary(file);
+
+        Graph<String, Object> loaded = Graph.loadBinary(file, String.class);
+        assertEquals(Graph.Backend.CSR, loaded.getBackend());
+        assertArrayEquals(graph.nodeSet(), loaded.nodeSet());
+        assertEquals(graph.numEdges(), loaded.numEdges());
+        assertArrayEquals(graph.bfsNodes("a"), loaded.bfsNodes("a"));
+        assertEquals(graph.getDiameter(), loaded.getDiameter());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> Graph.loadBinary(file, Integer.class)
+        );
+
+        Graph<Long, Object> wdGraph = new Graph<>(Long.class, true, true);
+        wdGraph.addNode(7L).addNode(3L).addNode(5L);
+        wdGraph.addEdge(7L, 3L).addEdge(3L, 5L).addEdge(5L, 7L);
+        wdGraph.setEdgeWeight(7L, 3L, 0.5);
+        wdGraph.setEdgeWeight(5L, 7L, 2.25);
+        wdGraph.saveBinary(file);
+
+        Graph<Long, Object> wdLoaded = Graph.loadBinary(file, Long.class);
+        assertArrayEquals(new Long[] {7L, 3L, 5L}, wdLoaded.nodeSet());
+        assertEquals(0.5, wdLoaded.getEdgeWeight(7L, 3L));
+        assertEquals(2.25, wdLoaded.getEdgeWeight(5L, 7L));
+        assertEquals(1, wdLoaded.nodeInDegree(7L));
+        assertFalse(wdLoaded.hasEdge(3L, 7L));
+        assertEquals(3, wdLoaded.numEdges());
+
+        Path text = this.write("graph.txt", "a b\n");
+        assertThrows(
+            IOException.class,
+            () -> Graph.loadBinary(text, String.class)
+        );
+    }
+
+    @Test
+    @DisplayName("5. Export edge list")
+    @Order(5)
+    public void exportEdgeList() throws Exception
+    {
+        org.jgrapht.Graph<String, DefaultWeightedEdge> jgraph =
+            new SimpleDirectedWeightedGraph<>(DefaultWeightedEdge.class);
+        String[] nodes = {"a", "b c", "d\"e", "f", "g"};
+        double[] weights = {1.0, 0.1, -3.0, 2.5e7, -0.0, 123456.0, 1e-5};
+        for (String node : nodes)
+        {
+            jgraph.addVertex(node);
+        }
+        int k = 0;
+        for (int i = 0; i < nodes.length; i++)
+        {
+            for (int j = i + 1; j < nodes.length && k < weights.length; j++)
+            {
+                Graphs.addEdge(jgraph, nodes[i], nodes[j], weights[k++]);
+            }
+        }
+        Path expected = this.directory.resolve("expected.edgelist");
+        CSVExporter<String, DefaultWeightedEdge> csvExporter =
+            new CSVExporter<>(node -> node, CSVFormat.EDGE_LIST, ' ');
+        csvExporter.setParameter(CSVFormat.Parameter.EDGE_WEIGHTS, true);
+        csvExporter.exportGraph(jgraph, expected.toFile());
+
+        Path actual = this.directory.resolve("actual.edgelist");
+        new EdgeListExporter(' ', true).write(CSRGraph.of(jgraph), actual);
+        assertEquals(
+            new HashSet<>(Files.readAllLines(expected)),
+            new HashSet<>(Files.readAllLines(actual))
+        );
+
+        Graph<String, Object> graph = new Graph<>(String.class, false, false);
+        graph
+            .addNodes(new String[] {"a", "b", "c", "d"})
+            .addEdge("a", "b")
+            .addEdge("c", "b")
+            .addEdge("c", "d");
+        Path file = this.directory.resolve("graph.edgelist");
+        Graph.exportGraph(graph, file.toString(), ",");
+        assertEquals(
+            Arrays.asList("a,b", "b,c", "c,d"),
+            Files.readAllLines(file)
+        );
+
+        Path compressed = this.directory.resolve("graph.edgelist.gz");
+        Graph.exportGraph(graph, compressed.toString(), ",", true);
+        try (
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(compressed)),
+                StandardCharsets.UTF_8
+            ))
+        )
+        {
+            assertEquals(
+                Files.readAllLines(file),
+                reader.lines().collect(Collectors.toList())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("6. Export edge list in parallel")
+    @Order(6)
+    public void exportEdgeListInParallel() throws IOException
+    {
+        final Random RANDOM = new Random(6);
+        CSRGraph.Builder<Integer> builder = new CSRGraph.Builder<>(false, true);
+        for (int edge = 0; edge < 200000; edge++)
+        {
+            Integer source = RANDOM.nextInt(20000);
+            Integer target = RANDOM.nextInt(20000);
+            if (!source.equals(target))
+            {
+                builder.addNode(source);
+                builder.addNode(target);
+                builder.addEdge(source, target, RANDOM.nextInt(1000) / 8.0);
+            }
+        }
+        CSRGraph<Integer> graph = builder.build();
+
+        Path sequential = this.directory.resolve("sequential.edgelist");
+        Path parallel = this.directory.resolve("parallel.edgelist");
+        new EdgeListExporter('\t', true).setParallelism(1).write(graph, sequential);
+        new EdgeListExporter('\t', true).setParallelism(4).write(graph, parallel);
+        assertArrayEquals(
+            Files.readAllBytes(sequential),
+            Files.readAllBytes(parallel)
+        );
+
+        EdgeListImporter.EdgeList edgeList = new EdgeListImporter('\t', true)
+            .read(parallel);
+        assertEquals(graph.numEdges(), edgeList.numLines());
+        for (int line = 0; line < edgeList.numLines(); line++)
+        {
+            int source = graph.indexOf(
+                Integer.valueOf(edgeList.node(edgeList.source(line)))
+            );
+            int target = graph.indexOf(
+                Integer.valueOf(edgeList.node(edgeList.target(line)))
+            );
+            assertEquals(
+                graph.weightAt(graph.edgeIndex(source, target)),
+                edgeList.weight(line)
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("7. Save and load shortest path index")
+    @Order(7)
+    public void shortestPathIndex() throws Exception
+    {
+        final int SIDE = 40;
+        final Random RANDOM = new Random(23);
+        // a grid of one-way and two-way streets, large enough to be
+        // contracted in parallel
+        SimpleDirectedWeightedGraph<Integer, DefaultWeightedEdge> jgraph =
+            new SimpleDirectedWeightedGraph<>(DefaultWeightedEdge.class);
+        Graph.Builder<Integer, Object> builder =
+            new Graph.Builder<Integer, Object>(Integer.class, true, true)
+            .backend(Graph.Backend.CSR);
+        for (int node = 0; node < SIDE * SIDE; node++)
+        {
+            jgraph.addVertex(node);
+            builder.addNode(node);
+        }
+        for (int node = 0; node < SIDE * SIDE; node++)
+        {
+            for (int next : new int[] {node + 1, node + SIDE})
+            {
+                if (next >= SIDE * SIDE || next == node + 1 && next % SIDE == 0)
+                {
+                    continue;
+                }
+                double weight = 1.0 + RANDOM.nextInt(8);
+                int way = RANDOM.nextInt(3);
+                if (way != 1)
+                {
+                    jgraph.setEdgeWeight(jgraph.addEdge(node, next), weight);
+                    builder.addEdge(node, next, weight);
+                }
+                if (way != 0)
+                {
+                    jgraph.setEdgeWeight(jgraph.addEdge(next, node), weight);
+                    builder.addEdge(next, node, weight);
+                }
+            }
+        }
+        assertTrue(SIDE * SIDE >= ContractionHierarchy.PARALLEL_THRESHOLD);
+        Graph<Integer, Object> graph = builder.build();
+        graph.setParallelism(4);
+        Path index = this.directory.resolve("graph.ch");
+        assertFalse(graph.hasShortestPathIndex());
+        assertThrows(
+            IllegalStateException.class,
+            () -> graph.saveShortestPathIndex(index)
+        );
+        assertTrue(graph.buildShortestPathIndex().hasShortestPathIndex());
+
+        Path file = this.directory.resolve("graph.bin");
+        graph.saveBinary(file);
+        graph.saveShortestPathIndex(index);
+        Graph<Integer, Object> loaded = Graph
+            .<Integer, Object>loadBinary(file, Integer.class)
+            .loadShortestPathIndex(index);
+        assertTrue(loaded.hasShortestPathIndex());
+
+        DijkstraShortestPath<Integer, DefaultWeightedEdge> dijkstra =
+            new DijkstraShortestPath<>(jgraph);
+        for (int query = 0; query < 300; query++)
+        {
+            int source = RANDOM.nextInt(SIDE * SIDE);
+            int target = RANDOM.nextInt(SIDE * SIDE);
+            double distance = dijkstra.getPathWeight(source, target);
+            for (Graph<Integer, Object> indexed : Arrays.asList(graph, loaded))
+            {
+                Object[] path = indexed.shortestPath(source, target);
+                if (distance == Double.POSITIVE_INFINITY)
+                {
+                    assertNull(path);
+                    continue;
+                }
+                int node = source;
+                double weight = 0.0;
+                for (Object edge : path)
+                {
+                    assertEquals(node, (int) indexed.getEdgeSource(edge));
+                    node = indexed.getEdgeTarget(edge);
+                    weight += indexed.getEdgeWeight(indexed.getEdgeSource(edge), node);
+                }
+                assertEquals(target, node);
+                assertEquals(distance, weight, 1e-9);
+                assertEquals(path.length, indexed.shortestPathLength(source, target));
+            }
+        }
+
+        // index is dropped once graph is modified, and it doesn't fit others
+        loaded.removeNode(0);
+        assertFalse(loaded.hasShortestPathIndex());
+        assertThrows(IOException.class, () -> loaded.loadShortestPathIndex(index));
+        assertThrows(
+            IOException.class,
+            () -> graph.loadShortestPathIndex(file)
+        );
+
+        // nor graphs of the same size with different weights or node order
+        Graph<String, Object> triangle = new Graph<>(String.class, true, true);
+        triangle
+            .addNodes(new String[] {"a", "b", "c"})
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("a", "c");
+        triangle.setEdgeWeight("a", "c", 5.0);
+        Path triangleIndex = this.directory.resolve("triangle.ch");
+        triangle.buildShortestPathIndex().saveShortestPathIndex(triangleIndex);
+        triangle.setEdgeWeight("a", "c", 1.0);
+        assertThrows(IOException.class, () -> triangle.loadShortestPathIndex(triangleIndex));
+        assertFalse(triangle.hasShortestPathIndex());
+        assertEquals(1, triangle.shortestPath("a", "c").length);
+        Graph<String, Object> reordered = new Graph<>(String.class, true, true);
+        reordered
+            .addNodes(new String[] {"b", "a", "c"})
+            .addEdge("b", "c")
+            .addEdge("a", "b")
+            .addEdge("a", "c");
+        reordered.setEdgeWeight("a", "c", 5.0);
+        assertThrows(IOException.class, () -> reordered.loadShortestPathIndex(triangleIndex));
+        triangle.setEdgeWeight("a", "c", 5.0);
+        assertTrue(triangle.loadShortestPathIndex(triangleIndex).hasShortestPathIndex());
+        assertEquals(2, triangle.shortestPath("a", "c").length);
+    }
+
+    @Test
+    @DisplayName("8. Quoted and empty fields")
+    @Order(8)
+    public void quotedFields() throws Exception
+    {
+        String[] nodes = {"x y", "q\"r", "a", "\"\"", "l\nm"};
+        Graph<String, Object> graph = new Graph<>(String.class, true, true);
+        graph
+            .addNodes(nodes)
+            .addEdge("x y", "q\"r")
+            .addEdge("q\"r", "a")
+            .addEdge("a", "\"\"")
+            .addEdge("\"\"", "l\nm");
+        graph.setEdgeWeight("x y", "q\"r", 2.5);
+        graph.setEdgeWeight("a", "\"\"", 0.5);
+        Path file = this.directory.resolve("quoted.edgelist");
+        Graph.exportGraph(graph, file.toString(), " ");
+
+        Graph<String, Object> imported = Graph.importGraph(
+            file.toString(),
+            " ",
+            String.class,
+            true,
+            true
+        );
+        assertEquals(new HashSet<>(Arrays.asList(nodes)),
+            new HashSet<>(Arrays.asList(imported.nodeSet())));
+        assertEquals(graph.numEdges(), imported.numEdges());
+        assertEquals(2.5, imported.getEdgeWeight("x y", "q\"r"));
+        assertEquals(0.5, imported.getEdgeWeight("a", "\"\""));
+        assertTrue(imported.hasEdge("\"\"", "l\nm"));
+
+        // empty fields are kept in place
+        Path empty = this.write("empty.edgelist", ",a\nb,,2\nc,\"\",0.5\n");
+        EdgeListImporter.EdgeList edgeList = new EdgeListImporter(',', true)
+            .read(empty);
+        assertEquals(3, edgeList.numLines());
+        assertEquals("", edgeList.node(edgeList.source(0)));
+        assertEquals("a", edgeList.node(edgeList.target(0)));
+        assertEquals("b", edgeList.node(edgeList.source(1)));
+        assertEquals("", edgeList.node(edgeList.target(1)));
+        assertEquals(2.0, edgeList.weight(1));
+        assertEquals("", edgeList.node(edgeList.target(2)));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new EdgeListImporter(',', false)
+                .read(this.write("open.edgelist", "a,\"b\nc,d\n"))
+        );
+
+        // quoted line breaks may fall where file is split into chunks
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; content.length() < 3 << 20; line++)
+        {
+            content.append("\"n\n").append(line).append("\" m\n");
+        }
+        edgeList = new EdgeListImporter(' ', false)
+            .setParallelism(4)
+            .read(this.write("split.edgelist", content.toString()));
+        assertEquals("n\n0", edgeList.node(edgeList.source(0)));
+        assertEquals(edgeList.numNodes() - 1, edgeList.numLines());
+    }
+
+    @Test
+    @DisplayName("9. Shortest path index of a random graph")
+    @Order(9)
+    public void randomShortestPathIndex()
+    {
+        final int NODES = 10000;
+        final Random RANDOM = new Random(29);
+        // a random graph has no hierarchy to speak of, so most of its
+        // nodes end up in the core, which must not slow the build down
+        SimpleDirectedWeightedGraph<Integer, DefaultWeightedEdge> jgraph =
+            new SimpleDirectedWeightedGraph<>(DefaultWeightedEdge.class);
+        Graph.Builder<Integer, Object> builder =
+            new Graph.Builder<Integer, Object>(Integer.class, true, true)
+            .backend(Graph.Backend.CSR);
+        for (int node = 0; node < NODES; node++)
+        {
+            jgraph.addVertex(node);
+            builder.addNode(node);
+        }
+        for (int edge = 0; edge < 4 * NODES; edge++)
+        {
+            int source = RANDOM.nextInt(NODES);
+            int target = RANDOM.nextInt(NODES);
+            if (source == target || jgraph.containsEdge(source, target))
+            {
+                continue;
+            }
+            double weight = 1.0 + RANDOM.nextInt(100);
+            jgraph.setEdgeWeight(jgraph.addEdge(source, target), weight);
+            builder.addEdge(source, target, weight);
+        }
+        Graph<Integer, Object> graph = builder.build();
+        assertTimeout(Duration.ofSeconds(60), () -> graph.buildShortestPathIndex());
+        assertTrue(graph.hasShortestPathIndex());
+
+        DijkstraShortestPath<Integer, DefaultWeightedEdge> dijkstra =
+            new DijkstraShortestPath<>(jgraph);
+        for (int query = 0; query < 100; query++)
+        {
+            int source = RANDOM.nextInt(NODES);
+            int target = RANDOM.nextInt(NODES);
+            double distance = dijkstra.getPathWeight(source, target);
+            Object[] path = graph.shortestPath(source, target);
+            if (distance == Double.POSITIVE_INFINITY)
+            {
+                assertNull(path);
+                continue;
+            }
+            int node = source;
+            double weight = 0.0;
+            for (Object edge : path)
+            {
+                assertEquals(node, (int) graph.getEdgeSource(edge));
+                node = graph.getEdgeTarget(edge);
+                weight += graph.getEdgeWeight(graph.getEdgeSource(edge), node);
+            }
+            assertEquals(target, node);
+            assertEquals(distance, weight, 1e-9);
+        }
+    }
+
+    private Path write(String name, String content) throws IOException
+    {
+        return Files.write(
+            this.directory.resolve(name),
+            content.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @AfterAll
+    public static void tearDownAll() {}
+
+}
@@ -0,0 +1,323 @@
+package io.github.bissim.fly;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+
+import org.jgrapht.alg.lca.NaiveLCAFinder;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import io.github.bissim.fly.alg.LowestCommonAncestors;
+import io.github.bissim.fly.util.CSRGraph;
+
+@DisplayName("Test graph lowest common ancestor methods")
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphLCATest {
+
+    private Graph<String, Object> tree;
+    private Graph<String, Object> dag;
+
+    @BeforeAll
+    public static void initAll() {}
+
+    @BeforeEach
+    public void init() {
+        //      a       g
+        //    / | \     |
+        //   b  c  d    h
+        //  / \     \
+        // e   f     i
+        tree = new Graph<>(String.class, true, false);
+        tree
+            .addNodes(new String[] {"e", "a", "b", "c", "d", "f", "g", "h", "i"})
+            .addEdge("a", "b")
+            .addEdge("a", "c")
+            .addEdge("a", "d")
+            .addEdge("b", "e")
+            .addEdge("b", "f")
+            .addEdge("d", "i")
+            .addEdge("g", "h");
+
+        // both a and b are LCAs of c and d, and e is a descendant of both
+        dag = new Graph<>(String.class, true, false);
+        dag
+            .addNodes(new String[] {"a", "b", "c", "d", "e", "f"})
+            .addEdge("a", "c")
+            .addEdge("a", "d")
+            .addEdge("b", "c")
+            .addEdge("b", "d")
+            .addEdge("c", "e")
+            .addEdge("d", "e");
+    }
+
+    @Test
+    @DisplayName("1. LCA of tree nodes")
+    @Order(1)
+    public void treeLCA()
+    {
+        assertEquals("b", tree.getLCA("e", "f"));
+        assertEquals("a", tree.getLCA("e", "i"));
+        assertEquals("a", tree.getLCA("c", "a"));
+        assertEquals("b", tree.getLCA("b", "f"));
+        assertEquals("d", tree.getLCA("d", "d"));
+        assertNull(tree.getLCA("e", "h"));
+        assertArrayEquals(
+            new String[] {"b", "a", null, "g"},
+            tree.getLCAs(
+                new String[] {"e", "f", "i", "h"},
+                new String[] {"f", "c", "g", "g"}
+            )
+        );
+
+        // index is built again once graph is modified
+        tree.addEdge("h", "a");
+        assertEquals("h", tree.getLCA("h", "e"));
+        assertEquals("g", tree.getLCA("e", "g"));
+        tree.removeEdge("a", "b");
+        assertNull(tree.getLCA("e", "i"));
+
+        assertThrows(IllegalArgumentException.class, () -> tree.getLCA("e", "x"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> tree.getLCAs(new String[] {"e"}, new String[0])
+        );
+        Graph<String, Object> undirected = new Graph<>(String.class, false, false);
+        undirected.addNode("a");
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> undirected.getLCA("a", "a")
+        );
+    }
+
+    @Test
+    @DisplayName("2. LCA of DAG nodes")
+    @Order(2)
+    public void dagLCA()
+    {
+        assertEquals("c", dag.getLCA("c", "e"));
+        assertNull(dag.getLCA("a", "b"));
+        assertNull(dag.getLCA("f", "e"));
+        assertTrue(
+            Arrays.asList("a", "b").contains(dag.getLCA("c", "d"))
+        );
+        assertArrayEquals(
+            new String[] {dag.getLCA("c", "d"), "a", "e"},
+            dag.getLCAs(
+                new String[] {"c", "a", "e"},
+                new String[] {"d", "e", "e"}
+            )
+        );
+
+        dag.addEdge("f", "a").addEdge("f", "b");
+        assertEquals("f", dag.getLCA("a", "b"));
+
+        // cyclic graphs are not indexed
+        dag.addEdge("e", "f");
+        org.jgrapht.Graph<String, DefaultEdge> jgraph =
+            new SimpleDirectedGraph<>(DefaultEdge.class);
+        for (String node : dag.nodeSet())
+        {
+            jgraph.addVertex(node);
+        }
+        for (Object edge : dag.edgeSet())
+        {
+            jgraph.addEdge(dag.getEdgeSource(edge), dag.getEdgeTarget(edge));
+        }
+        NaiveLCAFinder<String, DefaultEdge> finder = new NaiveLCAFinder<>(jgraph);
+        assertEquals(finder.getLCA("c", "b"), dag.getLCA("c", "b"));
+        assertArrayEquals(
+            new String[] {finder.getLCA("a", "e")},
+            dag.getLCAs(new String[] {"a"}, new String[] {"e"})
+        );
+    }
+
+    @Test
+    @DisplayName("3. Same LCAs as JGraphT finder")
+    @Order(3)
+    public void sameAsJGraphT()
+    {
+        final Random RANDOM = new Random(12);
+        for (int graph = 0; graph < 3; graph++)
+        {
+            // random forest, then random DAG on the same nodes
+            for (boolean isTree : new boolean[] {true, false})
+            {
+                final int n = 400;
+                org.jgrapht.Graph<Integer, DefaultEdge> jgraph =
+                    new SimpleDirectedGraph<>(DefaultEdge.class);
+                Graph<Integer, Object> flyGraph =
+                    new Graph<>(Integer.class, true, false);
+                for (int node = 0; node < n; node++)
+                {
+                    jgraph.addVertex(node);
+                    flyGraph.addNode(node);
+                }
+                for (int node = 1; node < n; node++)
+                {
+                    int parents = isTree ? 1 : RANDOM.nextInt(3);
+                    for (int k = 0; k < parents; k++)
+                    {
+                        int parent = RANDOM.nextInt(node);
+                        if (RANDOM.nextInt(10) > 0 &&
+                            !jgraph.containsEdge(parent, node))
+                        {
+                            jgraph.addEdge(parent, node);
+                            flyGraph.addEdge(parent, node);
+                        }
+                    }
+                }
+
+                NaiveLCAFinder<Integer, DefaultEdge> finder =
+                    new NaiveLCAFinder<>(jgraph);
+                Integer[] nodes1 = new Integer[500];
+                Integer[] nodes2 = new Integer[500];
+                for (int k = 0; k < nodes1.length; k++)
+                {
+                    nodes1[k] = RANDOM.nextInt(n);
+                    nodes2[k] = RANDOM.nextInt(n);
+                }
+                Integer[] lcas = flyGraph.getLCAs(nodes1, nodes2);
+                for (int k = 0; k < nodes1.length; k++)
+                {
+                    Set<Integer> expected = finder.getLCASet(nodes1[k], nodes2[k]);
+                    if (expected.isEmpty())
+                    {
+                        assertNull(lcas[k]);
+                    }
+                    else
+                    {
+                        assertTrue(expected.contains(lcas[k]));
+                    }
+                    assertEquals(lcas[k], flyGraph.getLCA(nodes1[k], nodes2[k]));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("4. LCA of large DAG nodes")
+    @Order(4)
+    public void largeDagLCA()
+    {
+        // large enough not to be indexed by ancestor bitsets
+        final int n = 30000;
+        final Random RANDOM = new Random(4);
+        org.jgrapht.Graph<Integer, DefaultEdge> jgraph =
+            new SimpleDirectedGraph<>(DefaultEdge.class);
+        for (int node = 0; node < n; node++)
+        {
+            jgraph.addVertex(node);
+        }
+        for (int node = 1; node < n; node++)
+        {
+            jgraph.addEdge(RANDOM.nextInt(node), node);
+            int parent = node - 1 - RANDOM.nextInt(Math.min(node, 50));
+            if (!jgraph.containsEdge(parent, node))
+            {
+                jgraph.addEdge(parent, node);
+            }
+        }
+
+        LowestCommonAncestors index =
+            new LowestCommonAncestors(CSRGraph.of(jgraph), 2);
+        NaiveLCAFinder<Integer, DefaultEdge> finder = new NaiveLCAFinder<>(jgraph);
+        int[] us = new int[30];
+        int[] vs = new int[30];
+        for (int k = 0; k < us.length; k++)
+        {
+            us[k] = RANDOM.nextInt(n);
+            vs[k] = RANDOM.nextInt(n);
+        }
+        int[] lcas = index.lcas(us, vs);
+        for (int k = 0; k < us.length; k++)
+        {
+            // node ids match labels as nodes have been added in order
+            assertTrue(finder.getLCASet(us[k], vs[k]).contains(lcas[k]));
+        }
+    }
+
+    @Test
+    @DisplayName("5. LCAs of all pairs of nodes")
+    @Order(5)
+    public void allPairsLCA()
+    {
+        for (Graph<String, Object> graph : Arrays.asList(tree, dag))
+        {
+            String[] nodes = graph.nodeSet();
+            String[][] lcas = graph.getAllLCAs();
+            assertEquals(nodes.length, lcas.length);
+            for (int i = 0; i < nodes.length; i++)
+            {
+                for (int j = 0; j < nodes.length; j++)
+                {
+                    assertEquals(graph.getLCA(nodes[i], nodes[j]), lcas[i][j]);
+                }
+            }
+        }
+        assertEquals("b", tree.getAllLCAs()[0][5]);
+
+        final Random RANDOM = new Random(5);
+        for (int parents : new int[] {1, 3})
+        {
+            final int n = 600;
+            Graph<Integer, Object> graph = new Graph<>(Integer.class, true, false);
+            graph.setParallelism(3);
+            for (int node = 0; node < n; node++)
+            {
+                graph.addNode(node);
+            }
+            for (int node = 1; node < n; node++)
+            {
+                for (int k = 0; k < parents; k++)
+                {
+                    int parent = RANDOM.nextInt(node);
+                    if (RANDOM.nextInt(20) > 0 && !graph.hasEdge(parent, node))
+                    {
+                        graph.addEdge(parent, node);
+                    }
+                }
+            }
+
+            // batches larger than graph are split among threads
+            Integer[] nodes1 = new Integer[5 * n];
+            Integer[] nodes2 = new Integer[5 * n];
+            for (int k = 0; k < nodes1.length; k++)
+            {
+                nodes1[k] = RANDOM.nextInt(n);
+                nodes2[k] = RANDOM.nextInt(n);
+            }
+            Integer[] batch = graph.getLCAs(nodes1, nodes2);
+            Integer[][] lcas = graph.getAllLCAs();
+            for (int k = 0; k < nodes1.length; k++)
+            {
+                Integer lca = graph.getLCA(nodes1[k], nodes2[k]);
+                assertEquals(lca, batch[k]);
+                assertEquals(lca, lcas[nodes1[k]][nodes2[k]]);
+                assertEquals(lca, lcas[nodes2[k]][nodes1[k]]);
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @AfterAll
+    public static void tearDownAll() {}
+
+}
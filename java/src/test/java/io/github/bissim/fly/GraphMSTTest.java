@@ -0,0 +1,148 @@
+package io.github.bissim.fly;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.jgrapht.alg.spanning.KruskalMinimumSpanningTree;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import io.github.bissim.fly.alg.MinimumSpanningForest;
+
+@DisplayName("Test graph minimum spanning tree methods")
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphMSTTest {
+
+    private Graph<String, Object> wGraph;
+
+    @BeforeAll
+    public static void initAll() {}
+
+    @BeforeEach
+    public void init() {
+        // square a-b-c-d with diagonal a-c, plus the pair e-f
+        wGraph = new Graph<>(String.class, false, true);
+        wGraph
+            .addNodes(new String[] {"a", "b", "c", "d", "e", "f"})
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("c", "d")
+            .addEdge("d", "a")
+            .addEdge("a", "c")
+            .addEdge("e", "f");
+        wGraph.setEdgeWeight("a", "b", 1.0);
+        wGraph.setEdgeWeight("b", "c", 4.0);
+        wGraph.setEdgeWeight("c", "d", 2.0);
+        wGraph.setEdgeWeight("d", "a", 3.0);
+        wGraph.setEdgeWeight("a", "c", 2.5);
+        wGraph.setEdgeWeight("e", "f", 0.5);
+    }
+
+    @Test
+    @DisplayName("1. Minimum spanning forest")
+    @Order(1)
+    public void minimumSpanningForest()
+    {
+        Graph<String, Object> mst = wGraph.getMST();
+        assertArrayEquals(wGraph.nodeSet(), mst.nodeSet());
+        assertEquals(4, mst.numEdges());
+        assertEquals(1.0, mst.getEdgeWeight("a", "b"));
+        assertEquals(2.5, mst.getEdgeWeight("c", "a"));
+        assertEquals(2.0, mst.getEdgeWeight("c", "d"));
+        assertEquals(0.5, mst.getEdgeWeight("e", "f"));
+        assertFalse(mst.hasEdge("b", "c"));
+        assertEquals(6.0, wGraph.getMSTWeight());
+
+        // tree is found again once graph is modified
+        wGraph.addEdge("d", "e").setEdgeWeight("d", "e", 1.5);
+        assertEquals(7.5, wGraph.getMSTWeight());
+        assertTrue(wGraph.getMST().hasEdge("d", "e"));
+
+        // directed edges are taken as undirected ones
+        Graph<String, Object> dGraph = new Graph<>(String.class, true, false);
+        dGraph
+            .addNodes(new String[] {"a", "b", "c"})
+            .addEdge("a", "b")
+            .addEdge("c", "b")
+            .addEdge("b", "a");
+        assertEquals(2, dGraph.getMST().numEdges());
+        assertTrue(dGraph.getMST().hasEdge("c", "b"));
+        assertEquals(2.0, dGraph.getMSTWeight());
+    }
+
+    @Test
+    @DisplayName("2. Same weight as JGraphT Kruskal")
+    @Order(2)
+    public void sameAsJGraphT()
+    {
+        final Random RANDOM = new Random(20);
+        // large graphs are scanned in parallel
+        for (int n : new int[] {300, MinimumSpanningForest.PARALLEL_THRESHOLD})
+        {
+            SimpleWeightedGraph<Integer, DefaultWeightedEdge> jgraph =
+                new SimpleWeightedGraph<>(DefaultWeightedEdge.class);
+            Graph.Builder<Integer, Object> builder =
+                new Graph.Builder<Integer, Object>(Integer.class, false, true)
+                .backend(Graph.Backend.CSR);
+            for (int node = 0; node < n; node++)
+            {
+                jgraph.addVertex(node);
+                builder.addNode(node);
+            }
+            for (int edge = 0; edge < 3 * n; edge++)
+            {
+                int source = RANDOM.nextInt(n);
+                int target = RANDOM.nextInt(n);
+                if (source != target && !jgraph.containsEdge(source, target))
+                {
+                    // few distinct weights, to break many ties
+                    double weight = RANDOM.nextInt(20);
+                    jgraph.setEdgeWeight(jgraph.addEdge(source, target), weight);
+                    builder.addEdge(source, target, weight);
+                }
+            }
+            Graph<Integer, Object> flyGraph = builder.build();
+            flyGraph.setParallelism(4);
+
+            KruskalMinimumSpanningTree<Integer, DefaultWeightedEdge> kruskal =
+                new KruskalMinimumSpanningTree<>(jgraph);
+            Graph<Integer, Object> mst = flyGraph.getMST();
+            assertEquals(Graph.Backend.CSR, mst.getBackend());
+            assertEquals(kruskal.getSpanningTree().getEdges().size(), mst.numEdges());
+            assertEquals(kruskal.getSpanningTree().getWeight(), flyGraph.getMSTWeight(), 1e-9);
+            double weight = 0.0;
+            for (Object edge : mst.edgeSet())
+            {
+                weight += mst.getEdgeWeight(
+                    mst.getEdgeSource(edge),
+                    mst.getEdgeTarget(edge)
+                );
+            }
+            assertEquals(flyGraph.getMSTWeight(), weight, 1e-9);
+            assertEquals(
+                flyGraph.numberConnectedComponents(),
+                mst.numberConnectedComponents()
+            );
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @AfterAll
+    public static void tearDownAll() {}
+
+}
@@ -1,5 +1,6 @@
 package io.github.bissim.fly;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -413,6 +414,89 @@ public class GraphManagementTest {
         assertFalse(graph.hasEdge(TARGET, THIRD));
     }
 
+    @Test
+    @DisplayName("28. Add batch of edges")
+    @Order(28)
+    public void addEdges()
+    {
+        Graph.BatchReport report = graph.addEdges(
+            new String[] {"d", "a", "e", "x", "f", "e"},
+            new String[] {"e", "b", "e", "a", "a", "d"},
+            null
+        );
+        assertEquals(2, report.numAdded());
+        assertEquals(4, report.numRejected());
+        assertFalse(report.isComplete());
+        assertArrayEquals(new int[] {1, 2, 3, 5}, report.rejected());
+        assertEquals(2, (int) report.reasons().get("edge already in graph"));
+        assertEquals(1, (int) report.reasons().get("loops not allowed"));
+        assertEquals(1, (int) report.reasons().get("no such vertex in graph"));
+        assertEquals(7, graph.numEdges());
+        assertTrue(graph.hasEdge("e", "d"));
+        assertTrue(graph.hasEdge("a", "f"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> graph.addEdges(new String[] {"a"}, new String[0], null)
+        );
+
+        Graph<String, Object> wdGraph = new Graph<>(String.class, true, true);
+        wdGraph.addNodes(INITIAL_NODES);
+        report = wdGraph.addEdges(
+            new String[] {"a", "b"},
+            new String[] {"b", "a"},
+            new double[] {2.5, 0.5}
+        );
+        assertTrue(report.isComplete());
+        assertEquals(2.5, wdGraph.getEdgeWeight("a", "b"));
+        assertEquals(0.5, wdGraph.getEdgeWeight("b", "a"));
+    }
+
+    @Test
+    @DisplayName("29. Build graph in batches")
+    @Order(29)
+    public void builder()
+    {
+        for (Graph.Backend backend : Graph.Backend.values())
+        {
+            Graph.Builder<String, Object> builder =
+                new Graph.Builder<String, Object>(String.class, false, true)
+                    .backend(backend)
+                    .expectedNodes(INITIAL_NODES.length)
+                    .expectedEdges(6);
+            Graph<String, Object> built = builder
+                .addNodes(INITIAL_NODES)
+                .addEdges(
+                    new String[] {"a", "a", "b", "b", "c"},
+                    new String[] {"b", "c", "c", "e", "d"},
+                    new double[] {1.0, 2.0, 3.0, 4.0, 5.0}
+                )
+                .addEdge("c", "c")
+                .addEdge("b", "a", 6.0)
+                .addEdge("g", "a")
+                .build();
+            assertEquals(backend, built.getBackend());
+            assertArrayEquals(
+                new String[] {"a", "b", "c", "d", "e", "f", "g"},
+                built.nodeSet()
+            );
+            assertEquals(6, built.numEdges());
+            assertEquals(1.0, built.getEdgeWeight("b", "a"));
+            assertEquals(3.0, built.getEdgeWeight("c", "b"));
+
+            Graph.BatchReport report = builder.report();
+            assertEquals(6, report.numAdded());
+            assertArrayEquals(new int[] {5, 6}, report.rejected());
+            assertEquals(1, (int) report.reasons().get("loops not allowed"));
+            assertEquals(1, (int) report.reasons().get("edge already in graph"));
+        }
+        assertThrows(
+            IllegalStateException.class,
+            () -> new Graph.Builder<String, Object>(String.class, false, false)
+                .addNode("a")
+                .expectedEdges(10)
+        );
+    }
+
     @AfterEach
     public void tearDown() {}
 
@@ -1,8 +1,14 @@
 package io.github.bissim.fly;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -14,6 +20,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.alg.shortestpath.GraphMeasurer;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.jgrapht.graph.SimpleDirectedWeightedGraph;
+
+import io.github.bissim.fly.alg.BoundingDiameter;
+import io.github.bissim.fly.alg.DeltaStepping;
+
 @DisplayName("Test graph measurement methods")
 @TestMethodOrder(OrderAnnotation.class)
 public class GraphMeasurementTest {
@@ -86,6 +102,430 @@ public class GraphMeasurementTest {
         assertEquals(0, SHORTEST_PATH_FOUR.length);
     }
 
+    @Test
+    @DisplayName("3. Average path length")
+    @Order(3)
+    public void averagePathLength()
+    {
+        assertEquals(Double.POSITIVE_INFINITY, graph.getAveragePathLength());
+
+        graph.removeNode("f");
+        assertEquals(1.6, graph.getAveragePathLength(), 1e-9);
+
+        final double[][] DISTANCES = graph.getDistanceMatrix();
+        assertEquals(graph.numNodes(), DISTANCES.length);
+        assertEquals(0.0, DISTANCES[0][0]);
+        assertEquals(2.0, DISTANCES[0][3]);
+        assertEquals(3.0, DISTANCES[3][4]);
+        assertEquals(DISTANCES[3][4], DISTANCES[4][3]);
+    }
+
+    @Test
+    @DisplayName("4. Eccentricities")
+    @Order(4)
+    public void eccentricities()
+    {
+        assertEquals(Double.POSITIVE_INFINITY, graph.getDiameter());
+        assertEquals(Double.POSITIVE_INFINITY, graph.getNodeEccentricity("a"));
+        assertArrayEquals(INITIAL_NODES, graph.getPeriphery());
+
+        graph.removeNode("f");
+        assertEquals(3.0, graph.getDiameter());
+        assertEquals(2.0, graph.getRadius());
+        assertArrayEquals(new String[] {"a", "b", "c"}, graph.getCenter());
+        assertArrayEquals(new String[] {"d", "e"}, graph.getPeriphery());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> graph.getNodeEccentricity("f")
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> graph.setParallelism(0)
+        );
+
+        // a path longer than a batch of multi-source BFS sources
+        final int LENGTH = 150;
+        Graph<Integer, Object> path = new Graph<>(Integer.class, false, false);
+        path.addNode(0);
+        for (int node = 1; node < LENGTH; node++)
+        {
+            path.addNode(node).addEdge(node - 1, node);
+        }
+        path.setParallelism(4);
+        assertEquals(4, path.getParallelism());
+        assertEquals(LENGTH - 1, path.getDiameter());
+        assertEquals(LENGTH / 2, path.getRadius());
+        assertArrayEquals(new Integer[] {74, 75}, path.getCenter());
+        assertArrayEquals(new Integer[] {0, LENGTH - 1}, path.getPeriphery());
+        assertEquals(100.0, path.getNodeEccentricity(100));
+    }
+
+    @Test
+    @DisplayName("5. Eccentricities match JGraphT measurer")
+    @Order(5)
+    public void eccentricitiesMatchMeasurer()
+    {
+        final int NODES = 200;
+        final Random RANDOM = new Random(42);
+        Graph<Integer, Object> directed = new Graph<>(Integer.class, true, false);
+        org.jgrapht.Graph<Integer, DefaultEdge> expected =
+            new SimpleDirectedGraph<>(DefaultEdge.class);
+        for (int node = 0; node < NODES; node++)
+        {
+            directed.addNode(node);
+            expected.addVertex(node);
+        }
+        for (int node = 0; node < NODES; node++)
+        {
+            // a cycle keeps eccentricities finite
+            directed.addEdge(node, (node + 1) % NODES);
+            expected.addEdge(node, (node + 1) % NODES);
+            int target = RANDOM.nextInt(NODES);
+            if (target != node && !directed.hasEdge(node, target))
+            {
+                directed.addEdge(node, target);
+                expected.addEdge(node, target);
+            }
+        }
+        GraphMeasurer<Integer, DefaultEdge> measurer =
+            new GraphMeasurer<>(expected);
+
+        for (int parallelism = 1; parallelism <= 3; parallelism++)
+        {
+            directed.setParallelism(parallelism);
+            directed.addNode(NODES).removeNode(NODES);
+            assertEquals(measurer.getDiameter(), directed.getDiameter());
+            assertEquals(measurer.getRadius(), directed.getRadius());
+            for (int node = 0; node < NODES; node++)
+            {
+                assertEquals(
+                    measurer.getVertexEccentricityMap().get(node),
+                    directed.getNodeEccentricity(node)
+                );
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("6. Bounding diameter")
+    @Order(6)
+    public void boundingDiameter()
+    {
+        assertEquals(
+            Double.POSITIVE_INFINITY,
+            graph.getBoundingDiameter().diameter()
+        );
+        assertEquals(1, graph.getBoundingDiameter().searches());
+
+        graph.removeNode("f");
+        assertEquals(graph.getDiameter(), graph.getBoundingDiameter().diameter());
+
+        final int NODES = 500;
+        final Random RANDOM = new Random(7);
+        Graph<Integer, Object> sparse = new Graph<>(Integer.class, false, false);
+        sparse.addNode(0);
+        for (int node = 1; node < NODES; node++)
+        {
+            // a random tree plus a few more edges
+            sparse.addNode(node).addEdge(node, RANDOM.nextInt(node));
+            int other = RANDOM.nextInt(node);
+            if (node % 10 == 0 && !sparse.hasEdge(node, other))
+            {
+                sparse.addEdge(node, other);
+            }
+        }
+        sparse.setParallelism(1);
+        BoundingDiameter bounded = sparse.getBoundingDiameter();
+        assertEquals(sparse.getDiameter(), bounded.diameter());
+        assertFalse(bounded.isExhaustive());
+        assertTrue(bounded.searches() < NODES / 10);
+
+        Graph<Integer, Object> directed = new Graph<>(Integer.class, true, false);
+        directed.addNode(0).addNode(1).addNode(2).addEdge(0, 1).addEdge(1, 2);
+        assertEquals(
+            Double.POSITIVE_INFINITY,
+            directed.getBoundingDiameter().diameter()
+        );
+        assertTrue(directed.getBoundingDiameter().isExhaustive());
+        assertEquals(3, directed.getBoundingDiameter().searches());
+    }
+
+    @Test
+    @DisplayName("7. Shortest paths from a source")
+    @Order(7)
+    public void shortestPathsFrom()
+    {
+        Graph.PathTree<String> tree = graph.shortestPathsFrom("a");
+        assertEquals("a", tree.source());
+        assertArrayEquals(new String[] {"a"}, tree.path("a"));
+        assertArrayEquals(new String[] {"a", "c", "d"}, tree.path("d"));
+        assertEquals(2, tree.pathLength("e"));
+        assertEquals(2.0, tree.distance("e"));
+        assertFalse(tree.hasPath("f"));
+        assertNull(tree.path("f"));
+        assertEquals(Integer.MAX_VALUE, tree.pathLength("f"));
+        assertEquals(Double.POSITIVE_INFINITY, tree.distance("f"));
+        assertThrows(IllegalArgumentException.class, () -> tree.path("z"));
+        assertThrows(IllegalArgumentException.class, () -> graph.shortestPathsFrom("z"));
+
+        // tree keeps the paths of graph it has been found in
+        graph.addEdge("a", "d");
+        assertEquals(2, tree.pathLength("d"));
+        assertEquals(1, graph.shortestPathsFrom("a").pathLength("d"));
+
+        final int NODES = 400;
+        final Random RANDOM = new Random(21);
+        SimpleDirectedWeightedGraph<Integer, DefaultWeightedEdge> jgraph =
+            new SimpleDirectedWeightedGraph<>(DefaultWeightedEdge.class);
+        Graph<Integer, Object> weighted = new Graph<>(Integer.class, true, true);
+        for (int node = 0; node < NODES; node++)
+        {
+            jgraph.addVertex(node);
+            weighted.addNode(node);
+        }
+        for (int edge = 0; edge < 3 * NODES; edge++)
+        {
+            int source = RANDOM.nextInt(NODES);
+            int target = RANDOM.nextInt(NODES);
+            if (source != target && !jgraph.containsEdge(source, target))
+            {
+                double weight = 1 + RANDOM.nextInt(10);
+                jgraph.setEdgeWeight(jgraph.addEdge(source, target), weight);
+                weighted.addEdge(source, target).setEdgeWeight(source, target, weight);
+            }
+        }
+        DijkstraShortestPath<Integer, DefaultWeightedEdge> dijkstra =
+            new DijkstraShortestPath<>(jgraph);
+        for (int source = 0; source < NODES; source += 40)
+        {
+            Graph.PathTree<Integer> paths = weighted.shortestPathsFrom(source);
+            for (int target = 0; target < NODES; target++)
+            {
+                double distance = dijkstra.getPathWeight(source, target);
+                assertEquals(distance, paths.distance(target), 1e-9);
+                Integer[] path = paths.path(target);
+                if (path == null)
+                {
+                    assertNull(weighted.shortestPath(source, target));
+                    continue;
+                }
+                double weight = 0.0;
+                for (int k = 1; k < path.length; k++)
+                {
+                    weight += weighted.getEdgeWeight(path[k - 1], path[k]);
+                }
+                assertEquals(distance, weight, 1e-9);
+                assertEquals(path.length - 1, paths.pathLength(target));
+                Object[] edges = weighted.shortestPath(source, target);
+                weight = 0.0;
+                for (Object edge : edges)
+                {
+                    weight += weighted.getEdgeWeight(
+                        weighted.getEdgeSource(edge),
+                        weighted.getEdgeTarget(edge)
+                    );
+                }
+                assertEquals(distance, weight, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("8. Bidirectional and A* shortest paths")
+    @Order(8)
+    public void pointToPoint()
+    {
+        final int SIDE = 30;
+        final Random RANDOM = new Random(22);
+        // a grid of one-way and two-way streets, weighing at least their length
+        SimpleDirectedWeightedGraph<Integer, DefaultWeightedEdge> jgraph =
+            new SimpleDirectedWeightedGraph<>(DefaultWeightedEdge.class);
+        Graph<Integer, Object> grid = new Graph<>(Integer.class, true, true);
+        Graph<Integer, Object> unweighted = new Graph<>(Integer.class, true, false);
+        for (int node = 0; node < SIDE * SIDE; node++)
+        {
+            jgraph.addVertex(node);
+            grid.addNode(node);
+            unweighted.addNode(node);
+        }
+        for (int node = 0; node < SIDE * SIDE; node++)
+        {
+            for (int next : new int[] {node + 1, node + SIDE})
+            {
+                if (next >= SIDE * SIDE || next == node + 1 && next % SIDE == 0)
+                {
+                    continue;
+                }
+                double weight = 1.0 + RANDOM.nextInt(4);
+                int way = RANDOM.nextInt(3);
+                if (way != 1)
+                {
+                    jgraph.setEdgeWeight(jgraph.addEdge(node, next), weight);
+                    grid.addEdge(node, next).setEdgeWeight(node, next, weight);
+                    unweighted.addEdge(node, next);
+                }
+                if (way != 0)
+                {
+                    jgraph.setEdgeWeight(jgraph.addEdge(next, node), weight);
+                    grid.addEdge(next, node).setEdgeWeight(next, node, weight);
+                    unweighted.addEdge(next, node);
+                }
+            }
+        }
+        DijkstraShortestPath<Integer, DefaultWeightedEdge> dijkstra =
+            new DijkstraShortestPath<>(jgraph);
+        org.jgrapht.Graph<Integer, DefaultWeightedEdge> hops =
+            new SimpleDirectedGraph<>(DefaultWeightedEdge.class);
+        org.jgrapht.Graphs.addGraph(hops, jgraph);
+        DijkstraShortestPath<Integer, DefaultWeightedEdge> bfs =
+            new DijkstraShortestPath<>(hops);
+        for (int query = 0; query < 200; query++)
+        {
+            int source = RANDOM.nextInt(SIDE * SIDE);
+            int target = RANDOM.nextInt(SIDE * SIDE);
+            double distance = dijkstra.getPathWeight(source, target);
+            Object[] bidirectional = grid.shortestPath(source, target);
+            Object[] guided = grid.shortestPath(
+                source,
+                target,
+                (node, goal) -> Math.abs(node % SIDE - goal % SIDE) +
+                    Math.abs(node / SIDE - goal / SIDE)
+            );
+            if (distance == Double.POSITIVE_INFINITY)
+            {
+                assertNull(bidirectional);
+                assertNull(guided);
+                assertEquals(Integer.MAX_VALUE, unweighted.shortestPathLength(source, target));
+                continue;
+            }
+            for (Object[] path : new Object[][] {bidirectional, guided})
+            {
+                int node = source;
+                double weight = 0.0;
+                for (Object edge : path)
+                {
+                    assertEquals(node, (int) grid.getEdgeSource(edge));
+                    node = grid.getEdgeTarget(edge);
+                    weight += grid.getEdgeWeight(grid.getEdgeSource(edge), node);
+                }
+                assertEquals(target, node);
+                assertEquals(distance, weight, 1e-9);
+            }
+            assertEquals(
+                bfs.getPath(source, target).getLength(),
+                unweighted.shortestPathLength(source, target)
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("9. Delta-stepping shortest paths")
+    @Order(9)
+    public void deltaStepping()
+    {
+        final int NODES = DeltaStepping.PARALLEL_THRESHOLD + 256;
+        final Random RANDOM = new Random(24);
+        for (boolean isDirected : new boolean[] {true, false})
+        {
+            Graph.Builder<Integer, Object> builder =
+                new Graph.Builder<Integer, Object>(Integer.class, isDirected, true)
+                .backend(Graph.Backend.CSR);
+            for (int node = 0; node < NODES; node++)
+            {
+                builder.addNode(node);
+            }
+            for (int edge = 0; edge < 3 * NODES; edge++)
+            {
+                // zero weights make ties among paths
+                builder.addEdge(
+                    RANDOM.nextInt(NODES),
+                    RANDOM.nextInt(NODES),
+                    RANDOM.nextInt(10)
+                );
+            }
+            Graph<Integer, Object> weighted = builder.build();
+            weighted.setParallelism(4);
+            double[][] expected = weighted.getDistanceMatrix();
+            double averagePathLength = weighted.getAveragePathLength();
+            double diameter = weighted.getDiameter();
+
+            weighted.setShortestPathAlgorithm(Graph.ShortestPathAlgorithm.DELTA_STEPPING);
+            // default, large and small buckets, large ones relaxing in parallel
+            for (double delta : new double[] {0.0, 100.0, 0.5})
+            {
+                if (delta > 0.0)
+                {
+                    weighted.setDelta(delta);
+                }
+                for (int source = 0; source < NODES; source += 256)
+                {
+                    Graph.PathTree<Integer> paths = weighted.shortestPathsFrom(source);
+                    for (int target = 0; target < NODES; target++)
+                    {
+                        assertEquals(expected[source][target], paths.distance(target));
+                        Integer[] path = paths.path(target);
+                        if (path == null)
+                        {
+                            assertEquals(Double.POSITIVE_INFINITY, expected[source][target]);
+                            continue;
+                        }
+                        double weight = 0.0;
+                        for (int k = 1; k < path.length; k++)
+                        {
+                            weight += weighted.getEdgeWeight(path[k - 1], path[k]);
+                        }
+                        assertEquals(expected[source][target], weight, 1e-9);
+                    }
+                }
+            }
+            assertEquals(averagePathLength, weighted.getAveragePathLength(), 1e-9);
+            assertEquals(diameter, weighted.getBoundingDiameter().diameter());
+        }
+
+        // unweighted graphs are still searched breadth-first
+        graph.setShortestPathAlgorithm(Graph.ShortestPathAlgorithm.DELTA_STEPPING);
+        assertEquals(Graph.ShortestPathAlgorithm.DELTA_STEPPING, graph.getShortestPathAlgorithm());
+        assertEquals(2.0, graph.shortestPathsFrom("a").distance("e"));
+        assertEquals(0.0, graph.getDelta());
+        assertThrows(IllegalArgumentException.class, () -> graph.setDelta(0.0));
+        assertThrows(IllegalArgumentException.class, () -> graph.setDelta(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("10. Negative edge weights")
+    @Order(10)
+    public void negativeWeights()
+    {
+        Graph<String, Object> weighted = new Graph<>(String.class, true, true);
+        weighted
+            .addNodes(new String[] {"a", "b", "c"})
+            .addEdge("a", "b")
+            .addEdge("b", "c")
+            .addEdge("a", "c");
+        weighted.setEdgeWeight("a", "b", -5.0);
+
+        // searched on JGraphT graph, then on its compact representation
+        assertThrows(IllegalArgumentException.class, () -> weighted.shortestPath("a", "c"));
+        assertThrows(IllegalArgumentException.class, () -> weighted.shortestPathsFrom("a"));
+        assertThrows(IllegalArgumentException.class, () -> weighted.shortestPath("a", "c"));
+        assertThrows(IllegalArgumentException.class, () -> weighted.shortestPathLength("a", "c"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> weighted.shortestPath("a", "c", (node, target) -> 0.0)
+        );
+        assertThrows(IllegalArgumentException.class, () -> weighted.getDiameter());
+        assertThrows(IllegalArgumentException.class, () -> weighted.getAveragePathLength());
+
+        // whichever algorithm searches paths
+        weighted.setShortestPathAlgorithm(Graph.ShortestPathAlgorithm.DELTA_STEPPING);
+        assertThrows(IllegalArgumentException.class, () -> weighted.shortestPathsFrom("a"));
+        assertThrows(IllegalArgumentException.class, () -> weighted.getDiameter());
+        assertThrows(IllegalArgumentException.class, () -> weighted.getAveragePathLength());
+        weighted.setDelta(10.0);
+        assertThrows(IllegalArgumentException.class, () -> weighted.shortestPathsFrom("a"));
+        assertThrows(IllegalArgumentException.class, () -> weighted.buildShortestPathIndex());
+    }
+
     @AfterEach
     public void tearDown() {}
 
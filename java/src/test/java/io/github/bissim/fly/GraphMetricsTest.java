@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -14,6 +16,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 
+import org.jgrapht.alg.scoring.ClusteringCoefficient;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleGraph;
+
 @DisplayName("Test graph metrics methods")
 @TestMethodOrder(OrderAnnotation.class)
 public class GraphMetricsTest {
@@ -65,7 +71,89 @@ public class GraphMetricsTest {
         assertEquals(0, graph.nodeDegree("f"));
     }
 
-    //
+    @Test
+    @DisplayName("2. Clustering coefficients")
+    @Order(2)
+    public void clusteringCoefficients()
+    {
+        assertEquals(1.0, graph.getNodeClusteringCoefficient("a"));
+        assertEquals(1.0 / 3.0, graph.getNodeClusteringCoefficient("b"), 1e-9);
+        assertEquals(0.0, graph.getNodeClusteringCoefficient("f"));
+        assertEquals(
+            (1.0 + 2.0 / 3.0) / INITIAL_NODES.length,
+            graph.getAverageClusteringCoefficient(),
+            1e-9
+        );
+        assertEquals(3.0 / 7.0, graph.getGlobalClusteringCoefficient(), 1e-9);
+
+        // modifications must not leave stale results behind
+        graph.addEdge("c", "e");
+        assertEquals(2.0 / 3.0, graph.getNodeClusteringCoefficient("b"), 1e-9);
+        assertEquals(1.0 / 3.0, graph.getNodeClusteringCoefficient("c"), 1e-9);
+        graph.removeNode("a");
+        assertEquals(1.0, graph.getNodeClusteringCoefficient("b"), 1e-9);
+        assertEquals(1.0 / 3.0, graph.getNodeClusteringCoefficient("c"), 1e-9);
+        graph.removeEdge("b", "c");
+        assertEquals(0.0, graph.getNodeClusteringCoefficient("e"));
+        assertEquals(0.0, graph.getGlobalClusteringCoefficient());
+    }
+
+    @Test
+    @DisplayName("3. Clustering coefficients while modifying graph")
+    @Order(3)
+    public void interleavedClusteringCoefficients()
+    {
+        final int NODES = 30;
+        final Random RANDOM = new Random(11);
+        Graph<Integer, Object> mutated = new Graph<>(Integer.class, false, false);
+        org.jgrapht.Graph<Integer, DefaultEdge> expected =
+            new SimpleGraph<>(DefaultEdge.class);
+        for (int node = 0; node < NODES; node++)
+        {
+            mutated.addNode(node);
+            expected.addVertex(node);
+        }
+
+        for (int step = 0; step < 500; step++)
+        {
+            int first = RANDOM.nextInt(NODES);
+            int second = RANDOM.nextInt(NODES);
+            if (step % 50 == 49)
+            {
+                mutated.removeNode(first).addNode(first);
+                expected.removeVertex(first);
+                expected.addVertex(first);
+            }
+            else if (first != second && mutated.hasEdge(first, second))
+            {
+                mutated.removeEdge(first, second);
+                expected.removeEdge(first, second);
+            }
+            else if (first != second)
+            {
+                mutated.addEdge(first, second);
+                expected.addEdge(first, second);
+            }
+
+            ClusteringCoefficient<Integer, DefaultEdge> coefficient =
+                new ClusteringCoefficient<>(expected);
+            assertEquals(
+                coefficient.getVertexScore(first),
+                mutated.getNodeClusteringCoefficient(first),
+                1e-9
+            );
+            assertEquals(
+                coefficient.getAverageClusteringCoefficient(),
+                mutated.getAverageClusteringCoefficient(),
+                1e-9
+            );
+            assertEquals(
+                coefficient.getGlobalClusteringCoefficient(),
+                mutated.getGlobalClusteringCoefficient(),
+                1e-9
+            );
+        }
+    }
 
     @AfterEach
     public void tearDown() {}
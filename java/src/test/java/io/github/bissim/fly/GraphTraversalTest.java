@@ -0,0 +1,265 @@
+package io.github.bissim.fly;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleDirectedGraph;
+import org.jgrapht.graph.SimpleGraph;
+import org.jgrapht.traverse.BreadthFirstIterator;
+import org.jgrapht.traverse.DepthFirstIterator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+import io.github.bissim.fly.alg.BreadthFirstSearch;
+
+@DisplayName("Test graph traversal methods")
+@TestMethodOrder(OrderAnnotation.class)
+public class GraphTraversalTest {
+
+    private Graph<String, Object> graph;
+    private static final String[] INITIAL_NODES = {"a", "b", "c", "d", "e", "f"};
+
+    @BeforeAll
+    public static void initAll() {}
+
+    @BeforeEach
+    public void init() {
+        graph = new Graph<>(String.class, false, true);
+        graph
+            .addNodes(INITIAL_NODES)
+            .addEdge("a", "b")
+            .addEdge("a", "c")
+            .addEdge("b", "c")
+            .addEdge("b", "e")
+            .addEdge("c", "d");
+        graph.setEdgeWeight("b", "e", 2.5);
+    }
+
+    @Test
+    @DisplayName("1. BFS nodes, edges and tree")
+    @Order(1)
+    public void bfs()
+    {
+        assertArrayEquals(
+            new String[] {"a", "b", "c", "e", "d"},
+            graph.bfsNodes("a")
+        );
+        Object[] edges = graph.bfsEdges("a");
+        assertEquals(4, edges.length);
+        assertSame(graph.getEdge("a", "b"), edges[0]);
+        assertSame(graph.getEdge("a", "c"), edges[1]);
+        assertSame(graph.getEdge("b", "e"), edges[2]);
+        assertSame(graph.getEdge("c", "d"), edges[3]);
+
+        Graph<String, Object> tree = graph.bfsTree("a");
+        assertEquals(5, tree.numNodes());
+        assertEquals(4, tree.numEdges());
+        assertTrue(tree.hasEdge("e", "b"));
+        assertEquals(2.5, tree.getEdgeWeight("b", "e"));
+        assertArrayEquals(new String[] {"f"}, graph.bfsNodes("f"));
+        assertEquals(0, graph.bfsEdges("f").length);
+        assertThrows(IllegalArgumentException.class, () -> graph.bfsNodes("x"));
+    }
+
+    @Test
+    @DisplayName("2. DFS nodes, edges and tree")
+    @Order(2)
+    public void dfs()
+    {
+        assertArrayEquals(
+            new String[] {"a", "c", "d", "b", "e"},
+            graph.dfsNodes("a")
+        );
+        Object[] edges = graph.dfsEdges("a");
+        assertEquals(4, edges.length);
+        assertSame(graph.getEdge("a", "c"), edges[0]);
+        assertSame(graph.getEdge("c", "d"), edges[1]);
+        assertSame(graph.getEdge("c", "b"), edges[2]);
+        assertSame(graph.getEdge("b", "e"), edges[3]);
+
+        Graph<String, Object> tree = graph.dfsTree("a");
+        assertEquals(5, tree.numNodes());
+        assertEquals(4, tree.numEdges());
+        assertTrue(tree.hasEdge("b", "c"));
+        assertEquals(2.5, tree.getEdgeWeight("b", "e"));
+
+        // cached traversal is discarded once graph is modified
+        graph.removeEdge("c", "b");
+        assertArrayEquals(
+            new String[] {"a", "c", "d", "b", "e"},
+            graph.dfsNodes("a")
+        );
+        assertSame(graph.getEdge("a", "b"), graph.dfsEdges("a")[2]);
+    }
+
+    @Test
+    @DisplayName("3. Same visits as JGraphT iterators")
+    @Order(3)
+    public void sameAsJGraphT()
+    {
+        final Random RANDOM = new Random(3);
+        for (boolean isDirected : new boolean[] {false, true})
+        {
+            org.jgrapht.Graph<Integer, DefaultEdge> jgraph = isDirected ?
+                new SimpleDirectedGraph<>(DefaultEdge.class) :
+                new SimpleGraph<>(DefaultEdge.class);
+            Graph<Integer, Object> flyGraph =
+                new Graph<>(Integer.class, isDirected, false);
+            for (int node = 0; node < 300; node++)
+            {
+                jgraph.addVertex(node);
+                flyGraph.addNode(node);
+            }
+            for (int edge = 0; edge < 600; edge++)
+            {
+                int source = RANDOM.nextInt(300);
+                int target = RANDOM.nextInt(300);
+                if (source != target && !jgraph.containsEdge(source, target))
+                {
+                    jgraph.addEdge(source, target);
+                    flyGraph.addEdge(source, target);
+                }
+            }
+
+            for (int root = 0; root < 300; root += 37)
+            {
+                List<Integer> bfsNodes = new ArrayList<>();
+                new BreadthFirstIterator<>(jgraph, root)
+                    .forEachRemaining(bfsNodes::add);
+                assertArrayEquals(
+                    bfsNodes.toArray(new Integer[0]),
+                    flyGraph.bfsNodes(root)
+                );
+
+                List<Integer> dfsNodes = new ArrayList<>();
+                new DepthFirstIterator<>(jgraph, root)
+                    .forEachRemaining(dfsNodes::add);
+                assertArrayEquals(
+                    dfsNodes.toArray(new Integer[0]),
+                    flyGraph.dfsNodes(root)
+                );
+
+                // every DFS tree edge leaves an earlier visited node
+                Set<Integer> visited = new HashSet<>();
+                visited.add(root);
+                for (Object edge : flyGraph.dfsEdges(root))
+                {
+                    assertTrue(visited.contains(flyGraph.getEdgeSource(edge)) ||
+                        (!isDirected &&
+                            visited.contains(flyGraph.getEdgeTarget(edge))));
+                    visited.add(flyGraph.getEdgeSource(edge));
+                    visited.add(flyGraph.getEdgeTarget(edge));
+                }
+                assertEquals(dfsNodes.size(), visited.size());
+                assertEquals(
+                    dfsNodes.size() - 1,
+                    flyGraph.dfsTree(root).numEdges()
+                );
+
+                // BFS tree edges join nodes to their JGraphT parent
+                BreadthFirstIterator<Integer, DefaultEdge> iterator =
+                    new BreadthFirstIterator<>(jgraph, root);
+                iterator.forEachRemaining(node -> {});
+                Object[] bfsEdges = flyGraph.bfsEdges(root);
+                for (int k = 1; k < bfsNodes.size(); k++)
+                {
+                    Integer node = bfsNodes.get(k);
+                    Set<Integer> expected = new HashSet<>();
+                    expected.add(iterator.getParent(node));
+                    expected.add(node);
+                    Set<Integer> actual = new HashSet<>();
+                    actual.add(flyGraph.getEdgeSource(bfsEdges[k - 1]));
+                    actual.add(flyGraph.getEdgeTarget(bfsEdges[k - 1]));
+                    assertEquals(expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("4. Direction-optimizing BFS on large graphs")
+    @Order(4)
+    public void directionOptimizing()
+    {
+        final int NODES = BreadthFirstSearch.PARALLEL_THRESHOLD + 1000;
+        final Random RANDOM = new Random(25);
+        for (boolean isDirected : new boolean[] {false, true})
+        {
+            // a low-diameter graph, whose large levels expand bottom-up
+            org.jgrapht.Graph<Integer, DefaultEdge> jgraph = isDirected ?
+                new SimpleDirectedGraph<>(DefaultEdge.class) :
+                new SimpleGraph<>(DefaultEdge.class);
+            Graph<Integer, Object> flyGraph =
+                new Graph<>(Integer.class, isDirected, false);
+            flyGraph.setParallelism(4);
+            for (int node = 0; node < NODES; node++)
+            {
+                jgraph.addVertex(node);
+                flyGraph.addNode(node);
+            }
+            for (int edge = 0; edge < 4 * NODES; edge++)
+            {
+                int source = RANDOM.nextInt(NODES);
+                int target = RANDOM.nextInt(NODES);
+                if (source != target && !jgraph.containsEdge(source, target))
+                {
+                    jgraph.addEdge(source, target);
+                    flyGraph.addEdge(source, target);
+                }
+            }
+
+            for (int root = 0; root < NODES; root += NODES / 3)
+            {
+                BreadthFirstIterator<Integer, DefaultEdge> iterator =
+                    new BreadthFirstIterator<>(jgraph, root);
+                List<Integer> bfsNodes = new ArrayList<>();
+                iterator.forEachRemaining(bfsNodes::add);
+                assertArrayEquals(
+                    bfsNodes.toArray(new Integer[0]),
+                    flyGraph.bfsNodes(root)
+                );
+
+                Object[] bfsEdges = flyGraph.bfsEdges(root);
+                Graph.PathTree<Integer> paths = flyGraph.shortestPathsFrom(root);
+                for (int k = 1; k < bfsNodes.size(); k++)
+                {
+                    Integer node = bfsNodes.get(k);
+                    Integer parent = iterator.getParent(node);
+                    Set<Integer> expected = new HashSet<>();
+                    expected.add(parent);
+                    expected.add(node);
+                    Set<Integer> actual = new HashSet<>();
+                    actual.add(flyGraph.getEdgeSource(bfsEdges[k - 1]));
+                    actual.add(flyGraph.getEdgeTarget(bfsEdges[k - 1]));
+                    assertEquals(expected, actual);
+                    assertEquals(iterator.getDepth(node), paths.distance(node));
+                }
+                assertEquals(bfsNodes.size() - 1, flyGraph.bfsTree(root).numEdges());
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {}
+
+    @AfterAll
+    public static void tearDownAll() {}
+
+}